@@ -7,9 +7,13 @@ import com.CSSEProject.SmartWasteManagement.analytics.dto.KPIsDto;
 import com.CSSEProject.SmartWasteManagement.analytics.dto.MonthlyDataDto;
 import com.CSSEProject.SmartWasteManagement.analytics.dto.CollectionRecordDto;
 import com.CSSEProject.SmartWasteManagement.analytics.dto.BinStatusDto;
+import com.CSSEProject.SmartWasteManagement.analytics.dto.SketchKpisDto;
+import com.CSSEProject.SmartWasteManagement.config.DataVersionRegistry;
+import com.CSSEProject.SmartWasteManagement.waste.entity.BinType;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
@@ -31,6 +35,9 @@ public class AnalyticsController {
     @Autowired
     private AnalyticsService analyticsService;
 
+    @Autowired
+    private DataVersionRegistry dataVersionRegistry;
+
     /**
      * Get comprehensive analytics data for the specified time range
      * Strategy Pattern: Uses different strategies based on range parameter
@@ -39,7 +46,10 @@ public class AnalyticsController {
      * @return Complete analytics data including KPIs, charts, and records
      */
     @GetMapping
-    public ResponseEntity<?> getAnalyticsData(@RequestParam(defaultValue = "30") String range) {
+    public ResponseEntity<?> getAnalyticsData(@RequestParam(defaultValue = "30") String range, WebRequest request) {
+        if (notModified(request)) {
+            return null;
+        }
         try {
             AnalyticsDataDto analyticsData = analyticsService.getAnalyticsData(range);
             return ResponseEntity.ok(analyticsData);
@@ -55,7 +65,10 @@ public class AnalyticsController {
      * @return KPIs data including totals and metrics
      */
     @GetMapping("/kpis")
-    public ResponseEntity<?> getKPIs(@RequestParam(defaultValue = "30") String range) {
+    public ResponseEntity<?> getKPIs(@RequestParam(defaultValue = "30") String range, WebRequest request) {
+        if (notModified(request)) {
+            return null;
+        }
         try {
             KPIsDto kpis = analyticsService.getKPIs(range);
             return ResponseEntity.ok(kpis);
@@ -71,7 +84,10 @@ public class AnalyticsController {
      * @return Monthly data array for visualization
      */
     @GetMapping("/monthly")
-    public ResponseEntity<?> getMonthlyData(@RequestParam(defaultValue = "30") String range) {
+    public ResponseEntity<?> getMonthlyData(@RequestParam(defaultValue = "30") String range, WebRequest request) {
+        if (notModified(request)) {
+            return null;
+        }
         try {
             List<MonthlyDataDto> monthlyData = analyticsService.getMonthlyData(range);
             return ResponseEntity.ok(monthlyData);
@@ -87,7 +103,10 @@ public class AnalyticsController {
      * @return Collection records array
      */
     @GetMapping("/collections")
-    public ResponseEntity<?> getCollectionRecords(@RequestParam(defaultValue = "30") String range) {
+    public ResponseEntity<?> getCollectionRecords(@RequestParam(defaultValue = "30") String range, WebRequest request) {
+        if (notModified(request)) {
+            return null;
+        }
         try {
             List<CollectionRecordDto> collectionRecords = analyticsService.getCollectionRecords(range);
             return ResponseEntity.ok(collectionRecords);
@@ -102,7 +121,10 @@ public class AnalyticsController {
      * @return Bin status data array
      */
     @GetMapping("/bin-status")
-    public ResponseEntity<?> getBinStatusOverview() {
+    public ResponseEntity<?> getBinStatusOverview(WebRequest request) {
+        if (notModified(request)) {
+            return null;
+        }
         try {
             List<BinStatusDto> binStatusOverview = analyticsService.getBinStatusOverview();
             return ResponseEntity.ok(binStatusOverview);
@@ -111,6 +133,32 @@ public class AnalyticsController {
         }
     }
 
+    /**
+     * Get approximate KPIs answered from mergeable sketches (no collection table scan)
+     * Distinct bins/residents use HyperLogLog; weight percentiles use a KLL sketch.
+     * Each row carries errorBounds describing the expected approximation error.
+     *
+     * @param range Time range filter ('7', '30', 'all')
+     * @param city Optional city filter
+     * @param binType Optional bin type filter
+     * @param groupBy Grouping ('none', 'city', 'binType')
+     * @return Approximate KPI rows
+     */
+    @GetMapping("/sketches")
+    public ResponseEntity<?> getSketchKpis(
+            @RequestParam(defaultValue = "30") String range,
+            @RequestParam(required = false) String city,
+            @RequestParam(required = false) String binType,
+            @RequestParam(defaultValue = "none") String groupBy) {
+        try {
+            BinType type = binType != null ? BinType.valueOf(binType.toUpperCase()) : null;
+            List<SketchKpisDto> kpis = analyticsService.getSketchKpis(range, city, type, groupBy);
+            return ResponseEntity.ok(kpis);
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
     /**
      * Export analytics data in specified format
      * 
@@ -143,7 +191,10 @@ public class AnalyticsController {
      * @return Real-time summary data
      */
     @GetMapping("/summary")
-    public ResponseEntity<?> getAnalyticsSummary() {
+    public ResponseEntity<?> getAnalyticsSummary(WebRequest request) {
+        if (notModified(request)) {
+            return null;
+        }
         try {
             Map<String, Object> summary = analyticsService.getAnalyticsSummary();
             return ResponseEntity.ok(summary);
@@ -151,4 +202,12 @@ public class AnalyticsController {
             return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
         }
     }
+
+    /**
+     * Answer a conditional GET with 304 before any query runs. The tag covers every committed
+     * change to collections, bins and invoices, and the date since ranges are relative to today.
+     */
+    private boolean notModified(WebRequest request) {
+        return request.checkNotModified(dataVersionRegistry.dailyEtag(DataVersionRegistry.ANALYTICS));
+    }
 }
@@ -0,0 +1,14 @@
+// File: src/main/java/com/CSSEProject/SmartWasteManagement/analytics/dto/CollectionAmountView.java
+package com.CSSEProject.SmartWasteManagement.analytics.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * Collection Amount View - the columns of a collection event that KPI and monthly totals need
+ * Spring Data interface projection, so totals never hydrate bins, residents or collectors
+ */
+public interface CollectionAmountView {
+    LocalDateTime getCollectionTime();
+    Double getWeight();
+    Double getCalculatedCharge();
+}
@@ -1,14 +1,18 @@
 // File: src/main/java/com/CSSEProject/SmartWasteManagement/analytics/dto/CollectionRecordDto.java
 package com.CSSEProject.SmartWasteManagement.analytics.dto;
 
+import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.NoArgsConstructor;
 import java.time.LocalDateTime;
 
 /**
  * Collection Record DTO - Individual collection record data
- * Follows Data Transfer Object pattern
+ * Follows Data Transfer Object pattern; also loaded directly as a JPQL projection
  */
 @Data
+@NoArgsConstructor
+@AllArgsConstructor
 public class CollectionRecordDto {
     private Long id;
     private String binId;
@@ -0,0 +1,25 @@
+// File: src/main/java/com/CSSEProject/SmartWasteManagement/analytics/dto/CollectionSketchRow.java
+package com.CSSEProject.SmartWasteManagement.analytics.dto;
+
+import com.CSSEProject.SmartWasteManagement.waste.entity.BinType;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.time.LocalDateTime;
+
+/**
+ * Collection Sketch Row - the few columns of a collection event that feed the rollup sketches
+ * Loaded as a JPQL projection so rebuilding the sketches never hydrates full entities
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CollectionSketchRow {
+    private Long id;
+    private LocalDateTime collectionTime;
+    private Double weight;
+    private String binId;
+    private BinType binType;
+    private Long residentId;
+    private String residentAddress;
+}
@@ -0,0 +1,24 @@
+// File: src/main/java/com/CSSEProject/SmartWasteManagement/analytics/dto/SketchKpisDto.java
+package com.CSSEProject.SmartWasteManagement.analytics.dto;
+
+import lombok.Data;
+import java.util.Map;
+
+/**
+ * Sketch KPIs DTO - approximate KPIs answered from the rollup sketches
+ * Follows Data Transfer Object pattern
+ *
+ * Distinct counts come from HyperLogLog and weight percentiles from a KLL sketch;
+ * errorBounds documents how far each figure can be from the exact answer.
+ */
+@Data
+public class SketchKpisDto {
+    private String group;
+    private Long collections;
+    private Long distinctBins;
+    private Long distinctResidents;
+    private Double weightP50;
+    private Double weightP95;
+    private Double weightP99;
+    private Map<String, Object> errorBounds;
+}
@@ -5,22 +5,27 @@ import com.CSSEProject.SmartWasteManagement.analytics.dto.*;
 import com.CSSEProject.SmartWasteManagement.analytics.observer.AnalyticsObserver;
 import com.CSSEProject.SmartWasteManagement.analytics.strategy.FilterStrategy;
 import com.CSSEProject.SmartWasteManagement.analytics.strategy.FilterStrategyFactory;
-import com.CSSEProject.SmartWasteManagement.waste.entity.CollectionEvent;
-import com.CSSEProject.SmartWasteManagement.waste.entity.WasteBin;
+import com.CSSEProject.SmartWasteManagement.config.QueryFanOut;
+import com.CSSEProject.SmartWasteManagement.waste.entity.BinType;
+import com.CSSEProject.SmartWasteManagement.waste.entity.CollectionMonthlyRollup;
 import com.CSSEProject.SmartWasteManagement.waste.repository.CollectionEventRepository;
 import com.CSSEProject.SmartWasteManagement.waste.repository.WasteBinRepository;
+import com.CSSEProject.SmartWasteManagement.waste.service.ArchivedCollectionRollups;
+import com.CSSEProject.SmartWasteManagement.waste.service.BinStatusCounters;
 import com.CSSEProject.SmartWasteManagement.user.entity.User;
 import com.CSSEProject.SmartWasteManagement.user.repository.UserRepository;
 import com.CSSEProject.SmartWasteManagement.payment.entity.Invoice;
 import com.CSSEProject.SmartWasteManagement.payment.repository.InvoiceRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.*;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 /**
@@ -45,6 +50,9 @@ public class AnalyticsService {
     @Autowired
     private WasteBinRepository wasteBinRepository;
 
+    @Autowired
+    private BinStatusCounters binStatusCounters;
+
     @Autowired
     private UserRepository userRepository;
 
@@ -54,6 +62,15 @@ public class AnalyticsService {
     @Autowired
     private FilterStrategyFactory filterStrategyFactory;
 
+    @Autowired
+    private SketchRollupService sketchRollupService;
+
+    @Autowired
+    private QueryFanOut queryFanOut;
+
+    @Autowired
+    private ArchivedCollectionRollups archivedCollectionRollups;
+
     // Observer Pattern: List of observers for data updates
     private final List<AnalyticsObserver> observers = new ArrayList<>();
 
@@ -154,49 +171,76 @@ public class AnalyticsService {
         return csv.toString();
     }
 
+    /**
+     * Get approximate KPIs from the rollup sketches
+     * Strategy Pattern: Uses FilterStrategy to determine the days to merge
+     *
+     * @param range Time range filter ('7', '30', 'all')
+     * @param city Optional city filter
+     * @param binType Optional bin type filter
+     * @param groupBy Grouping ('none', 'city', 'binType')
+     * @return Distinct counts and weight percentiles with their error bounds
+     */
+    public List<SketchKpisDto> getSketchKpis(String range, String city, BinType binType, String groupBy) {
+        FilterStrategy strategy = filterStrategyFactory.getStrategy(range);
+        return sketchRollupService.getSketchKpis(strategy.getStartDate().toLocalDate(),
+                strategy.getEndDate().toLocalDate(), city, binType, groupBy);
+    }
+
     /**
      * Get real-time analytics summary
      * 
      * @return Summary data map
      */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public Map<String, Object> getAnalyticsSummary() {
         Map<String, Object> summary = new HashMap<>();
-        
+
         // Get current day data
         LocalDateTime startOfDay = LocalDate.now().atStartOfDay();
         LocalDateTime endOfDay = LocalDate.now().atTime(23, 59, 59);
-        
-        long todayCollections = collectionEventRepository.countByCollectionTimeBetween(startOfDay, endOfDay);
-        double todayWeight = collectionEventRepository.findByCollectionTimeBetween(startOfDay, endOfDay)
-                .stream()
-                .mapToDouble(CollectionEvent::getWeight)
-                .sum();
-        
-        summary.put("todayCollections", todayCollections);
-        summary.put("todayWeight", todayWeight);
-        summary.put("totalBins", wasteBinRepository.count());
-        summary.put("activeBins", wasteBinRepository.countByStatus(com.CSSEProject.SmartWasteManagement.waste.entity.BinStatus.ACTIVE));
+
+        // Independent read-only queries run in parallel
+        try (QueryFanOut.Scope scope = queryFanOut.open("analytics-summary")) {
+            Supplier<Long> todayCollections = scope.fork("todayCollections",
+                    () -> collectionEventRepository.countByCollectionTimeBetween(startOfDay, endOfDay));
+            Supplier<Double> todayWeight = scope.fork("todayWeight",
+                    () -> collectionEventRepository.getTotalWeightBetween(startOfDay, endOfDay));
+            scope.join();
+
+            summary.put("todayCollections", todayCollections.get());
+            summary.put("todayWeight", todayWeight.get() != null ? todayWeight.get() : 0.0);
+            // Bin counts are memory reads (BinStatusCounters), no query needed
+            summary.put("totalBins", binStatusCounters.total());
+            summary.put("activeBins", binStatusCounters.count(com.CSSEProject.SmartWasteManagement.waste.entity.BinStatus.ACTIVE));
+        }
         summary.put("lastUpdated", LocalDateTime.now());
-        
+
         return summary;
     }
 
     // Private helper methods
 
     private KPIsDto calculateKPIs(LocalDateTime startDate, LocalDateTime endDate) {
-        List<CollectionEvent> collections = collectionEventRepository.findByCollectionTimeBetween(startDate, endDate);
+        // Archived months come from their rollups; only the live part of the range is queried
+        List<CollectionAmountView> collections = collectionEventRepository.findAmountsByCollectionTimeBetween(
+                archivedCollectionRollups.liveStart(startDate), endDate);
+        List<CollectionMonthlyRollup> archivedMonths = archivedCollectionRollups.between(startDate, endDate);
         
         double totalWasteCollected = collections.stream()
-                .mapToDouble(CollectionEvent::getWeight)
-                .sum();
+                .mapToDouble(CollectionAmountView::getWeight)
+                .sum()
+                + archivedMonths.stream().mapToDouble(CollectionMonthlyRollup::getTotalWeight).sum();
         
-        long totalCollections = collections.size();
+        long totalCollections = collections.size()
+                + archivedMonths.stream().mapToLong(CollectionMonthlyRollup::getCollections).sum();
         
-        long registeredBins = wasteBinRepository.count();
+        long registeredBins = binStatusCounters.total();
         
         double totalRevenue = collections.stream()
-                .mapToDouble(CollectionEvent::getCalculatedCharge)
-                .sum();
+                .mapToDouble(CollectionAmountView::getCalculatedCharge)
+                .sum()
+                + archivedMonths.stream().mapToDouble(CollectionMonthlyRollup::getTotalRevenue).sum();
         
         KPIsDto kpis = new KPIsDto();
         kpis.setTotalWasteCollected(totalWasteCollected);
@@ -208,21 +252,22 @@ public class AnalyticsService {
     }
 
     private List<MonthlyDataDto> calculateMonthlyData(LocalDateTime startDate, LocalDateTime endDate) {
-        List<CollectionEvent> collections = collectionEventRepository.findByCollectionTimeBetween(startDate, endDate);
+        List<CollectionAmountView> collections = collectionEventRepository.findAmountsByCollectionTimeBetween(
+                archivedCollectionRollups.liveStart(startDate), endDate);
         
         // Group by month
-        Map<String, List<CollectionEvent>> monthlyGroups = collections.stream()
+        Map<String, List<CollectionAmountView>> monthlyGroups = collections.stream()
                 .collect(Collectors.groupingBy(collection -> 
                     collection.getCollectionTime().format(DateTimeFormatter.ofPattern("yyyy-MM"))));
         
         List<MonthlyDataDto> monthlyData = new ArrayList<>();
         
-        for (Map.Entry<String, List<CollectionEvent>> entry : monthlyGroups.entrySet()) {
+        for (Map.Entry<String, List<CollectionAmountView>> entry : monthlyGroups.entrySet()) {
             String month = entry.getKey();
-            List<CollectionEvent> monthCollections = entry.getValue();
+            List<CollectionAmountView> monthCollections = entry.getValue();
             
             double totalWeight = monthCollections.stream()
-                    .mapToDouble(CollectionEvent::getWeight)
+                    .mapToDouble(CollectionAmountView::getWeight)
                     .sum();
             
             long collectionCount = monthCollections.size();
@@ -234,6 +279,14 @@ public class AnalyticsService {
             
             monthlyData.add(monthlyDto);
         }
+
+        for (CollectionMonthlyRollup archived : archivedCollectionRollups.between(startDate, endDate)) {
+            MonthlyDataDto monthlyDto = new MonthlyDataDto();
+            monthlyDto.setMonth(archived.getMonth().format(DateTimeFormatter.ofPattern("yyyy-MM")));
+            monthlyDto.setTotalWeight(archived.getTotalWeight());
+            monthlyDto.setCollectionCount(archived.getCollections());
+            monthlyData.add(monthlyDto);
+        }
         
         // Sort by month
         monthlyData.sort(Comparator.comparing(MonthlyDataDto::getMonth));
@@ -242,47 +295,28 @@ public class AnalyticsService {
     }
 
     private List<CollectionRecordDto> getCollectionRecords(LocalDateTime startDate, LocalDateTime endDate) {
-        List<CollectionEvent> collections = collectionEventRepository.findByCollectionTimeBetween(startDate, endDate);
-        
-        return collections.stream()
-                .map(this::convertToCollectionRecordDto)
-                .collect(Collectors.toList());
-    }
-
-    private CollectionRecordDto convertToCollectionRecordDto(CollectionEvent collection) {
-        CollectionRecordDto dto = new CollectionRecordDto();
-        dto.setId(collection.getId());
-        dto.setBinId(collection.getWasteBin() != null ? collection.getWasteBin().getBinId() : null);
-        dto.setLocation(collection.getWasteBin() != null ? collection.getWasteBin().getLocation() : null);
-        dto.setWeight(collection.getWeight());
-        dto.setCollectionTime(collection.getCollectionTime());
-        dto.setStaffName(collection.getCollector() != null ? collection.getCollector().getName() : null);
-        dto.setCalculatedCharge(collection.getCalculatedCharge());
-        
-        return dto;
+        // One projection query instead of loading each event with its bin and collector
+        // Records of archived months are only in their archive files
+        return collectionEventRepository.findRecordsBetween(archivedCollectionRollups.liveStart(startDate), endDate);
     }
 
     public List<BinStatusDto> getBinStatusOverview() {
-        List<WasteBin> bins = wasteBinRepository.findAll();
-        
-        return bins.stream()
+        // Last collection per bin comes from the grouped query, not from each bin's collections list
+        return wasteBinRepository.findStatusOverview().stream()
                 .map(this::convertToBinStatusDto)
                 .collect(Collectors.toList());
     }
 
-    private BinStatusDto convertToBinStatusDto(WasteBin bin) {
+    private BinStatusDto convertToBinStatusDto(Object[] row) {
         BinStatusDto dto = new BinStatusDto();
-        dto.setBinId(bin.getBinId());
-        dto.setLocation(bin.getLocation());
-        dto.setStatus(bin.getStatus().toString());
-        dto.setCurrentLevel(bin.getCurrentLevel());
+        dto.setBinId((String) row[0]);
+        dto.setLocation((String) row[1]);
+        dto.setStatus(row[2] != null ? row[2].toString() : null);
+        dto.setCurrentLevel((Double) row[3]);
         
         // Get last collection date
-        Optional<CollectionEvent> lastCollection = bin.getCollections().stream()
-                .max(Comparator.comparing(CollectionEvent::getCollectionTime));
-        
-        dto.setLastCollectionDate(lastCollection.isPresent() ? 
-                lastCollection.get().getCollectionTime().toLocalDate() : null);
+        LocalDateTime lastCollection = (LocalDateTime) row[4];
+        dto.setLastCollectionDate(lastCollection != null ? lastCollection.toLocalDate() : null);
         
         return dto;
     }
@@ -0,0 +1,244 @@
+// File: src/main/java/com/CSSEProject/SmartWasteManagement/analytics/service/SketchRollupService.java
+package com.CSSEProject.SmartWasteManagement.analytics.service;
+
+import com.CSSEProject.SmartWasteManagement.analytics.dto.CollectionSketchRow;
+import com.CSSEProject.SmartWasteManagement.analytics.dto.SketchKpisDto;
+import com.CSSEProject.SmartWasteManagement.analytics.sketch.CollectionSketchBucket;
+import com.CSSEProject.SmartWasteManagement.config.AfterCommit;
+import com.CSSEProject.SmartWasteManagement.user.entity.User;
+import com.CSSEProject.SmartWasteManagement.waste.entity.BinType;
+import com.CSSEProject.SmartWasteManagement.waste.entity.CollectionEvent;
+import com.CSSEProject.SmartWasteManagement.waste.entity.WasteBin;
+import com.CSSEProject.SmartWasteManagement.waste.repository.CollectionEventRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Sketch Rollup Service - keeps mergeable sketches per rollup bucket (day, city, bin type)
+ * Answers distinct bins/residents and weight percentiles without scanning collection_events
+ *
+ * Buckets are fed after each committed collection and rebuilt once at startup
+ * with a keyset-paged projection scan. Daily buckets older than the retention window are pruned.
+ *
+ * Each collection is counted once: live collections are held until the rebuild has read the max
+ * id, and while it scans, live collections with an id up to that max are left to the scan.
+ */
+@Service
+public class SketchRollupService {
+
+    private static final int REBUILD_PAGE_SIZE = 5000;
+
+    @Autowired
+    private CollectionEventRepository collectionEventRepository;
+
+    @Value("${analytics.sketch.retention-days:400}")
+    private int retentionDays;
+
+    private final Map<RollupKey, CollectionSketchBucket> buckets = new ConcurrentHashMap<>();
+
+    private record RollupKey(LocalDate day, String city, BinType binType) {
+    }
+
+    private record LiveCollection(Long id, LocalDateTime collectionTime, String city, BinType binType,
+                                  String binId, Long residentId, Double weight) {
+    }
+
+    // Both guarded by rebuildLock: live collections held until the rebuild reads its max id, then the ids it scans
+    private final Object rebuildLock = new Object();
+    private List<LiveCollection> heldUntilRebuild = new ArrayList<>();
+    private long scannedThroughId;
+
+    /**
+     * Record a collection into its rollup bucket once the surrounding transaction commits
+     *
+     * @param collection Saved collection event
+     * @param city City the resident is billed in
+     */
+    public void recordCollection(CollectionEvent collection, String city) {
+        WasteBin bin = collection.getWasteBin();
+        if (bin == null || collection.getCollectionTime() == null) {
+            return;
+        }
+        LiveCollection live = new LiveCollection(collection.getId(), collection.getCollectionTime(), city,
+                bin.getBinType(), bin.getBinId(), bin.getResident() != null ? bin.getResident().getId() : null,
+                collection.getWeight());
+
+        AfterCommit.run(() -> recordLive(live));
+    }
+
+    private void recordLive(LiveCollection live) {
+        synchronized (rebuildLock) {
+            if (heldUntilRebuild != null) {
+                heldUntilRebuild.add(live);
+                return;
+            }
+            if (live.id() != null && live.id() <= scannedThroughId) {
+                return; // the running rebuild reads it from collection_events
+            }
+        }
+        record(live);
+    }
+
+    private void record(LiveCollection live) {
+        record(live.collectionTime(), live.city(), live.binType(), live.binId(), live.residentId(), live.weight());
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void startRebuild() {
+        Thread rebuild = new Thread(this::rebuild, "sketch-rollup-rebuild");
+        rebuild.setDaemon(true);
+        rebuild.start();
+    }
+
+    /**
+     * Rebuild the buckets from collection_events, page by page on the primary key
+     * Only events that existed when the rebuild started are scanned; newer ones arrive through recordCollection
+     */
+    public void rebuild() {
+        try {
+            Long maxId = collectionEventRepository.findMaxId();
+            List<LiveCollection> held;
+            synchronized (rebuildLock) {
+                scannedThroughId = maxId != null ? maxId : 0L;
+                held = heldUntilRebuild != null ? heldUntilRebuild : List.of();
+                heldUntilRebuild = null;
+            }
+            // Held collections the scan does not cover
+            for (LiveCollection live : held) {
+                if (live.id() == null || maxId == null || live.id() > maxId) {
+                    record(live);
+                }
+            }
+            if (maxId == null) {
+                return;
+            }
+            LocalDateTime since = LocalDate.now().minusDays(retentionDays).atStartOfDay();
+            long afterId = 0L;
+            long scanned = 0;
+            List<CollectionSketchRow> page;
+            do {
+                page = collectionEventRepository.findSketchRowsAfter(afterId, maxId, since,
+                        PageRequest.of(0, REBUILD_PAGE_SIZE));
+                for (CollectionSketchRow row : page) {
+                    record(row.getCollectionTime(), extractCity(row.getResidentAddress()), row.getBinType(),
+                            row.getBinId(), row.getResidentId(), row.getWeight());
+                    afterId = row.getId();
+                }
+                scanned += page.size();
+            } while (page.size() == REBUILD_PAGE_SIZE);
+
+            System.out.println("📐 Sketch rollups rebuilt from " + scanned + " collections into " + buckets.size() + " buckets");
+        } catch (Exception e) {
+            System.err.println("❌ Sketch rollup rebuild failed: " + e.getMessage());
+        } finally {
+            synchronized (rebuildLock) {
+                if (heldUntilRebuild != null) {
+                    heldUntilRebuild.forEach(this::record);
+                    heldUntilRebuild = null;
+                }
+                scannedThroughId = 0L;
+            }
+        }
+    }
+
+    @Scheduled(cron = "${analytics.sketch.prune-cron:0 30 3 * * *}")
+    public void pruneExpiredBuckets() {
+        LocalDate cutoff = LocalDate.now().minusDays(retentionDays);
+        buckets.keySet().removeIf(key -> key.day().isBefore(cutoff));
+    }
+
+    /**
+     * Merge the buckets in a date range into approximate KPIs
+     *
+     * @param start First day (inclusive)
+     * @param end Last day (inclusive)
+     * @param city Optional city filter
+     * @param binType Optional bin type filter
+     * @param groupBy 'none', 'city' or 'binType'
+     * @return One KPI row per group
+     */
+    public List<SketchKpisDto> getSketchKpis(LocalDate start, LocalDate end, String city, BinType binType, String groupBy) {
+        String mode = groupBy != null ? groupBy : "none";
+        Function<RollupKey, String> grouping = groupingFor(mode);
+
+        Map<String, CollectionSketchBucket> merged = new TreeMap<>();
+        for (Map.Entry<RollupKey, CollectionSketchBucket> entry : buckets.entrySet()) {
+            RollupKey key = entry.getKey();
+            if (key.day().isBefore(start) || key.day().isAfter(end)) {
+                continue;
+            }
+            if (city != null && !key.city().equalsIgnoreCase(city.trim())) {
+                continue;
+            }
+            if (binType != null && key.binType() != binType) {
+                continue;
+            }
+            entry.getValue().mergeInto(merged.computeIfAbsent(grouping.apply(key), group -> new CollectionSketchBucket()));
+        }
+
+        List<SketchKpisDto> result = new ArrayList<>();
+        for (Map.Entry<String, CollectionSketchBucket> entry : merged.entrySet()) {
+            result.add(toDto(entry.getKey(), entry.getValue()));
+        }
+        if (result.isEmpty() && "none".equalsIgnoreCase(mode)) {
+            result.add(toDto("all", new CollectionSketchBucket()));
+        }
+        return result;
+    }
+
+    private void record(LocalDateTime collectionTime, String city, BinType binType, String binId, Long residentId, Double weight) {
+        RollupKey key = new RollupKey(collectionTime.toLocalDate(), city != null ? city : User.DEFAULT_CITY, binType);
+        buckets.computeIfAbsent(key, k -> new CollectionSketchBucket()).record(binId, residentId, weight);
+    }
+
+    private Function<RollupKey, String> groupingFor(String groupBy) {
+        if ("none".equalsIgnoreCase(groupBy)) {
+            return key -> "all";
+        }
+        if ("city".equalsIgnoreCase(groupBy)) {
+            return RollupKey::city;
+        }
+        if ("binType".equalsIgnoreCase(groupBy)) {
+            return key -> String.valueOf(key.binType());
+        }
+        throw new IllegalArgumentException("Unsupported groupBy: " + groupBy);
+    }
+
+    private SketchKpisDto toDto(String group, CollectionSketchBucket bucket) {
+        SketchKpisDto dto = new SketchKpisDto();
+        dto.setGroup(group);
+        dto.setCollections(bucket.getWeights().getCount());
+        dto.setDistinctBins(bucket.getDistinctBins().estimate());
+        dto.setDistinctResidents(bucket.getDistinctResidents().estimate());
+        dto.setWeightP50(bucket.getWeights().quantile(0.50));
+        dto.setWeightP95(bucket.getWeights().quantile(0.95));
+        dto.setWeightP99(bucket.getWeights().quantile(0.99));
+
+        Map<String, Object> errorBounds = new LinkedHashMap<>();
+        errorBounds.put("distinctCountRelativeStdError", bucket.getDistinctBins().relativeStandardError());
+        errorBounds.put("distinctCountNote", "HyperLogLog p=" + bucket.getDistinctBins().getPrecision()
+                + ": ~68% of estimates within 1 std error, ~95% within 2");
+        errorBounds.put("percentileRankError", bucket.getWeights().normalizedRankError());
+        errorBounds.put("percentileNote", "KLL k=" + bucket.getWeights().getK()
+                + ": the returned weight's true rank is within this fraction of the requested rank (99% confidence)");
+        errorBounds.put("collectionsExact", true);
+        dto.setErrorBounds(errorBounds);
+        return dto;
+    }
+
+    // Same rule CollectionService uses to pick the billing city: last comma-separated part of the address
+    private String extractCity(String address) {
+        return User.cityOf(address);
+    }
+}
@@ -0,0 +1,39 @@
+// File: src/main/java/com/CSSEProject/SmartWasteManagement/analytics/sketch/CollectionSketchBucket.java
+package com.CSSEProject.SmartWasteManagement.analytics.sketch;
+
+/**
+ * Collection Sketch Bucket - the sketches kept for one rollup bucket (day, city, bin type)
+ * Buckets are merged at query time, so any combination of days, cities and bin types can be answered
+ */
+public class CollectionSketchBucket {
+
+    private final HyperLogLog distinctBins = new HyperLogLog();
+    private final HyperLogLog distinctResidents = new HyperLogLog();
+    private final KllSketch weights = new KllSketch();
+
+    public synchronized void record(String binId, Long residentId, Double weight) {
+        distinctBins.add(binId);
+        distinctResidents.add(residentId);
+        if (weight != null) {
+            weights.update(weight);
+        }
+    }
+
+    public synchronized void mergeInto(CollectionSketchBucket target) {
+        target.distinctBins.merge(distinctBins);
+        target.distinctResidents.merge(distinctResidents);
+        target.weights.merge(weights);
+    }
+
+    public HyperLogLog getDistinctBins() {
+        return distinctBins;
+    }
+
+    public HyperLogLog getDistinctResidents() {
+        return distinctResidents;
+    }
+
+    public KllSketch getWeights() {
+        return weights;
+    }
+}
@@ -0,0 +1,185 @@
+// File: src/main/java/com/CSSEProject/SmartWasteManagement/analytics/sketch/HyperLogLog.java
+package com.CSSEProject.SmartWasteManagement.analytics.sketch;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * HyperLogLog distinct-count sketch
+ * Mergeable: two sketches with the same precision can be combined without re-reading the raw data
+ *
+ * Registers start in a sparse, sorted int array (index << 8 | rank) and switch to a dense byte
+ * array once the sparse form would be larger, so small rollup buckets stay small.
+ * Relative standard error is 1.04 / sqrt(2^precision).
+ */
+public class HyperLogLog {
+
+    public static final int DEFAULT_PRECISION = 12;
+
+    private final int precision;
+    private final int registerCount;
+
+    private int[] sparse = new int[8];
+    private int sparseSize = 0;
+    private byte[] dense;
+
+    public HyperLogLog() {
+        this(DEFAULT_PRECISION);
+    }
+
+    public HyperLogLog(int precision) {
+        if (precision < 4 || precision > 18) {
+            throw new IllegalArgumentException("Precision must be between 4 and 18: " + precision);
+        }
+        this.precision = precision;
+        this.registerCount = 1 << precision;
+    }
+
+    public void add(String value) {
+        if (value != null) {
+            addHash(hash(value.getBytes(StandardCharsets.UTF_8)));
+        }
+    }
+
+    public void add(Long value) {
+        if (value != null) {
+            addHash(mix(value));
+        }
+    }
+
+    public void addHash(long hash) {
+        int index = (int) (hash >>> (64 - precision));
+        long remaining = hash << precision;
+        int rank = remaining == 0 ? 64 - precision + 1 : Long.numberOfLeadingZeros(remaining) + 1;
+        updateRegister(index, rank);
+    }
+
+    public void merge(HyperLogLog other) {
+        if (other.precision != precision) {
+            throw new IllegalArgumentException("Cannot merge sketches with different precision");
+        }
+        if (other.dense != null) {
+            for (int i = 0; i < registerCount; i++) {
+                if (other.dense[i] != 0) {
+                    updateRegister(i, other.dense[i]);
+                }
+            }
+        } else {
+            for (int i = 0; i < other.sparseSize; i++) {
+                updateRegister(other.sparse[i] >>> 8, other.sparse[i] & 0xFF);
+            }
+        }
+    }
+
+    public long estimate() {
+        double sum = 0.0;
+        int zeros = 0;
+        if (dense != null) {
+            for (byte register : dense) {
+                sum += 1.0 / (1L << register);
+                if (register == 0) {
+                    zeros++;
+                }
+            }
+        } else {
+            zeros = registerCount - sparseSize;
+            sum = zeros;
+            for (int i = 0; i < sparseSize; i++) {
+                sum += 1.0 / (1L << (sparse[i] & 0xFF));
+            }
+        }
+
+        double estimate = alpha() * registerCount * (double) registerCount / sum;
+
+        // Small-range correction: linear counting is far more accurate while many registers are empty
+        if (estimate <= 2.5 * registerCount && zeros > 0) {
+            estimate = registerCount * Math.log((double) registerCount / zeros);
+        }
+        return Math.round(estimate);
+    }
+
+    public double relativeStandardError() {
+        return 1.04 / Math.sqrt(registerCount);
+    }
+
+    public int getPrecision() {
+        return precision;
+    }
+
+    public HyperLogLog copy() {
+        HyperLogLog copy = new HyperLogLog(precision);
+        copy.merge(this);
+        return copy;
+    }
+
+    private void updateRegister(int index, int rank) {
+        if (dense != null) {
+            if (rank > dense[index]) {
+                dense[index] = (byte) rank;
+            }
+            return;
+        }
+
+        int position = Arrays.binarySearch(sparse, 0, sparseSize, index << 8);
+        if (position < 0) {
+            position = -position - 1;
+        }
+        if (position < sparseSize && (sparse[position] >>> 8) == index) {
+            if (rank > (sparse[position] & 0xFF)) {
+                sparse[position] = (index << 8) | rank;
+            }
+            return;
+        }
+
+        // A dense register array costs one byte per register, a sparse entry costs four
+        if (sparseSize + 1 > registerCount / 4) {
+            toDense();
+            updateRegister(index, rank);
+            return;
+        }
+        if (sparseSize == sparse.length) {
+            sparse = Arrays.copyOf(sparse, sparse.length * 2);
+        }
+        System.arraycopy(sparse, position, sparse, position + 1, sparseSize - position);
+        sparse[position] = (index << 8) | rank;
+        sparseSize++;
+    }
+
+    private void toDense() {
+        dense = new byte[registerCount];
+        for (int i = 0; i < sparseSize; i++) {
+            dense[sparse[i] >>> 8] = (byte) (sparse[i] & 0xFF);
+        }
+        sparse = null;
+        sparseSize = 0;
+    }
+
+    private double alpha() {
+        switch (registerCount) {
+            case 16: return 0.673;
+            case 32: return 0.697;
+            case 64: return 0.709;
+            default: return 0.7213 / (1.0 + 1.079 / registerCount);
+        }
+    }
+
+    // FNV-1a over the bytes, finished with the murmur3 mixer for good avalanche on short ids
+    static long hash(byte[] bytes) {
+        long h = 0xcbf29ce484222325L;
+        for (byte b : bytes) {
+            h ^= b;
+            h *= 0x100000001b3L;
+        }
+        return mix(h);
+    }
+
+    static long mix(long value) {
+        long h = value;
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
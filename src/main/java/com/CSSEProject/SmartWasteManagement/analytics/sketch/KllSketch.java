@@ -0,0 +1,209 @@
+// File: src/main/java/com/CSSEProject/SmartWasteManagement/analytics/sketch/KllSketch.java
+package com.CSSEProject.SmartWasteManagement.analytics.sketch;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * KLL quantile sketch (Karnin, Lang, Liberty)
+ * Mergeable: sketches built on different rollup buckets can be combined and still answer quantiles
+ *
+ * Items live in a stack of compactors; level h items carry weight 2^h. When the sketch is over
+ * capacity the lowest full compactor is sorted and every other item is promoted one level up.
+ * With the default k = 200 the normalized rank error is about 1.65% at 99% confidence.
+ */
+public class KllSketch {
+
+    public static final int DEFAULT_K = 200;
+    private static final double CAPACITY_DECAY = 2.0 / 3.0;
+    private static final int MIN_LEVEL_CAPACITY = 8;
+
+    private final int k;
+    private final List<double[]> levels = new ArrayList<>();
+    private final List<Integer> levelSizes = new ArrayList<>();
+    private long count = 0;
+    private double min = Double.NaN;
+    private double max = Double.NaN;
+
+    public KllSketch() {
+        this(DEFAULT_K);
+    }
+
+    public KllSketch(int k) {
+        if (k < MIN_LEVEL_CAPACITY) {
+            throw new IllegalArgumentException("k must be at least " + MIN_LEVEL_CAPACITY + ": " + k);
+        }
+        this.k = k;
+        addLevel();
+    }
+
+    public void update(double value) {
+        if (Double.isNaN(value)) {
+            return;
+        }
+        append(0, value);
+        count++;
+        min = Double.isNaN(min) ? value : Math.min(min, value);
+        max = Double.isNaN(max) ? value : Math.max(max, value);
+        compress();
+    }
+
+    public void merge(KllSketch other) {
+        if (other.count == 0) {
+            return;
+        }
+        for (int level = 0; level < other.levels.size(); level++) {
+            double[] items = other.levels.get(level);
+            int size = other.levelSizes.get(level);
+            for (int i = 0; i < size; i++) {
+                append(level, items[i]);
+            }
+        }
+        count += other.count;
+        min = Double.isNaN(min) ? other.min : Math.min(min, other.min);
+        max = Double.isNaN(max) ? other.max : Math.max(max, other.max);
+        compress();
+    }
+
+    /**
+     * Get the approximate value at the given normalized rank
+     *
+     * @param rank Rank between 0.0 and 1.0 (0.5 = median)
+     * @return Approximate quantile, or null if the sketch is empty
+     */
+    public Double quantile(double rank) {
+        if (count == 0) {
+            return null;
+        }
+        if (rank <= 0.0) {
+            return min;
+        }
+        if (rank >= 1.0) {
+            return max;
+        }
+
+        int retained = 0;
+        for (int size : levelSizes) {
+            retained += size;
+        }
+        double[] values = new double[retained];
+        long[] weights = new long[retained];
+        int position = 0;
+        for (int level = 0; level < levels.size(); level++) {
+            double[] items = levels.get(level);
+            for (int i = 0; i < levelSizes.get(level); i++) {
+                values[position] = items[i];
+                weights[position] = 1L << level;
+                position++;
+            }
+        }
+
+        Integer[] order = new Integer[retained];
+        for (int i = 0; i < retained; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, (a, b) -> Double.compare(values[a], values[b]));
+
+        long totalWeight = 0;
+        for (long weight : weights) {
+            totalWeight += weight;
+        }
+        double target = rank * totalWeight;
+        long cumulative = 0;
+        for (Integer index : order) {
+            cumulative += weights[index];
+            if (cumulative >= target) {
+                return values[index];
+            }
+        }
+        return max;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public Double getMin() {
+        return count == 0 ? null : min;
+    }
+
+    public Double getMax() {
+        return count == 0 ? null : max;
+    }
+
+    public int getK() {
+        return k;
+    }
+
+    public double normalizedRankError() {
+        // Empirical constant from the KLL paper / DataSketches for 99% confidence
+        return 2.296 / Math.pow(k, 0.9723);
+    }
+
+    private void append(int level, double value) {
+        while (levels.size() <= level) {
+            addLevel();
+        }
+        double[] items = levels.get(level);
+        int size = levelSizes.get(level);
+        if (size == items.length) {
+            items = Arrays.copyOf(items, items.length * 2);
+            levels.set(level, items);
+        }
+        items[size] = value;
+        levelSizes.set(level, size + 1);
+    }
+
+    private void compress() {
+        while (retainedItems() > totalCapacity()) {
+            for (int level = 0; level < levels.size(); level++) {
+                if (levelSizes.get(level) >= levelCapacity(level)) {
+                    compact(level);
+                    break;
+                }
+            }
+        }
+    }
+
+    private void compact(int level) {
+        double[] items = levels.get(level);
+        int size = levelSizes.get(level);
+        Arrays.sort(items, 0, size);
+
+        // With an odd count the smallest item stays behind at index 0
+        int leftover = size % 2;
+        int offset = ThreadLocalRandom.current().nextBoolean() ? 1 : 0;
+        for (int i = leftover + offset; i < size; i += 2) {
+            append(level + 1, items[i]);
+        }
+        levelSizes.set(level, leftover);
+    }
+
+    private int retainedItems() {
+        int total = 0;
+        for (int size : levelSizes) {
+            total += size;
+        }
+        return total;
+    }
+
+    private int totalCapacity() {
+        int total = 0;
+        for (int level = 0; level < levels.size(); level++) {
+            total += levelCapacity(level);
+        }
+        return total;
+    }
+
+    private int levelCapacity(int level) {
+        int depth = levels.size() - level - 1;
+        return Math.max(MIN_LEVEL_CAPACITY, (int) Math.ceil(k * Math.pow(CAPACITY_DECAY, depth)));
+    }
+
+    private void addLevel() {
+        levels.add(new double[MIN_LEVEL_CAPACITY]);
+        levelSizes.add(0);
+    }
+}
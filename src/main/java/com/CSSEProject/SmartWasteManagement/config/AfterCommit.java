@@ -0,0 +1,29 @@
+// File: src/main/java/com/CSSEProject/SmartWasteManagement/config/AfterCommit.java
+package com.CSSEProject.SmartWasteManagement.config;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Runs in-memory side effects (counters, sketches, caches) only once the surrounding
+ * transaction has committed, so a rolled-back or retried write is never counted.
+ * Outside a transaction the action runs immediately.
+ */
+public final class AfterCommit {
+
+    private AfterCommit() {
+    }
+
+    public static void run(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
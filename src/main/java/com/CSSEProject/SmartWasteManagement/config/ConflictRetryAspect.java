@@ -0,0 +1,114 @@
+package com.CSSEProject.SmartWasteManagement.config;
+
+import jakarta.persistence.OptimisticLockException;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.hibernate.StaleObjectStateException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Retries @RetryOnConflict methods that lose an optimistic lock race, with jittered exponential backoff.
+ *
+ * Ordered just ahead of the transaction interceptor, so every attempt gets its own transaction:
+ * the losing one is rolled back completely and the next one re-reads the current versions.
+ * Services often wrap failures in RuntimeException, so the whole cause chain is checked.
+ */
+@Aspect
+@Component
+@Order(Ordered.LOWEST_PRECEDENCE - 1)
+public class ConflictRetryAspect {
+
+    @Autowired
+    private ContentionMetrics contentionMetrics;
+
+    @Value("${concurrency.retry.max-attempts:4}")
+    private int maxAttempts = 4;
+
+    @Value("${concurrency.retry.base-backoff-ms:20}")
+    private long baseBackoffMs = 20;
+
+    @Value("${concurrency.retry.max-backoff-ms:400}")
+    private long maxBackoffMs = 400;
+
+    @Around("@annotation(com.CSSEProject.SmartWasteManagement.config.RetryOnConflict)")
+    public Object retryOnConflict(ProceedingJoinPoint joinPoint) throws Throwable {
+        // Inside someone else's transaction the persistence context is already stale; let the outer method retry
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            return joinPoint.proceed();
+        }
+
+        String operation = joinPoint.getSignature().getDeclaringType().getSimpleName() + "." + joinPoint.getSignature().getName();
+        String conflictedEntity = null;
+        for (int attempt = 1; ; attempt++) {
+            try {
+                Object result = joinPoint.proceed();
+                if (conflictedEntity != null) {
+                    contentionMetrics.recordRecovered(conflictedEntity);
+                }
+                return result;
+            } catch (Throwable e) {
+                String entityType = conflictEntity(e);
+                if (entityType == null) {
+                    throw e;
+                }
+                conflictedEntity = entityType;
+                contentionMetrics.recordConflict(entityType, operation);
+                if (attempt >= maxAttempts) {
+                    contentionMetrics.recordExhausted(entityType);
+                    System.err.println("❌ " + operation + " gave up after " + attempt + " conflicting attempts on " + entityType);
+                    throw e;
+                }
+
+                long backoffMs = backoff(attempt);
+                contentionMetrics.recordRetry(entityType, backoffMs);
+                System.out.println("🔁 Version conflict on " + entityType + " in " + operation
+                        + ", retrying in " + backoffMs + "ms (attempt " + (attempt + 1) + "/" + maxAttempts + ")");
+                Thread.sleep(backoffMs);
+            }
+        }
+    }
+
+    // Full jitter: uniform in [0, min(max, base * 2^(attempt-1))], so colliding writers spread out
+    private long backoff(int attempt) {
+        long ceiling = Math.min(maxBackoffMs, baseBackoffMs << Math.min(attempt - 1, 20));
+        return ThreadLocalRandom.current().nextLong(ceiling + 1);
+    }
+
+    /**
+     * Entity type of the version conflict somewhere in the cause chain, or null when it is not one
+     */
+    static String conflictEntity(Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause() == cause ? null : cause.getCause()) {
+            if (cause instanceof ObjectOptimisticLockingFailureException objectConflict) {
+                return simpleName(objectConflict.getPersistentClassName());
+            }
+            if (cause instanceof StaleObjectStateException staleState) {
+                return simpleName(staleState.getEntityName());
+            }
+            if (cause instanceof OptimisticLockException optimisticLock) {
+                return optimisticLock.getEntity() != null ? optimisticLock.getEntity().getClass().getSimpleName() : "unknown";
+            }
+            if (cause instanceof OptimisticLockingFailureException) {
+                return "unknown";
+            }
+        }
+        return null;
+    }
+
+    private static String simpleName(String className) {
+        if (className == null) {
+            return "unknown";
+        }
+        return className.substring(className.lastIndexOf('.') + 1);
+    }
+}
@@ -0,0 +1,83 @@
+package com.CSSEProject.SmartWasteManagement.config;
+
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Optimistic lock conflicts per entity type, fed by ConflictRetryAspect.
+ * Served at GET /api/reports/contention.
+ */
+@Component
+public class ContentionMetrics {
+
+    private final Map<String, EntityContention> byEntity = new ConcurrentHashMap<>();
+
+    public void recordConflict(String entityType, String operation) {
+        contention(entityType).recordConflict(operation);
+    }
+
+    public void recordRetry(String entityType, long backoffMs) {
+        EntityContention contention = contention(entityType);
+        contention.retries.increment();
+        contention.backoffMs.add(backoffMs);
+    }
+
+    public void recordRecovered(String entityType) {
+        contention(entityType).recovered.increment();
+    }
+
+    public void recordExhausted(String entityType) {
+        contention(entityType).exhausted.increment();
+    }
+
+    public Map<String, Map<String, Object>> getContention() {
+        Map<String, Map<String, Object>> result = new TreeMap<>();
+        byEntity.forEach((entityType, contention) -> result.put(entityType, contention.toMap()));
+        return result;
+    }
+
+    public void reset() {
+        byEntity.clear();
+    }
+
+    private EntityContention contention(String entityType) {
+        return byEntity.computeIfAbsent(entityType != null ? entityType : "unknown", type -> new EntityContention());
+    }
+
+    private static class EntityContention {
+        private final LongAdder conflicts = new LongAdder();
+        private final LongAdder retries = new LongAdder();
+        private final LongAdder recovered = new LongAdder();
+        private final LongAdder exhausted = new LongAdder();
+        private final LongAdder backoffMs = new LongAdder();
+        private final AtomicLong lastConflictAt = new AtomicLong();
+        private final Map<String, LongAdder> conflictsByOperation = new ConcurrentHashMap<>();
+
+        void recordConflict(String operation) {
+            conflicts.increment();
+            lastConflictAt.set(System.currentTimeMillis());
+            conflictsByOperation.computeIfAbsent(operation, op -> new LongAdder()).increment();
+        }
+
+        Map<String, Object> toMap() {
+            Map<String, Object> map = new LinkedHashMap<>();
+            map.put("conflicts", conflicts.sum());
+            map.put("retries", retries.sum());
+            map.put("recovered", recovered.sum());
+            map.put("exhausted", exhausted.sum());
+            map.put("totalBackoffMs", backoffMs.sum());
+            map.put("lastConflictAt", lastConflictAt.get() > 0 ? Instant.ofEpochMilli(lastConflictAt.get()).toString() : null);
+            Map<String, Long> operations = new TreeMap<>();
+            conflictsByOperation.forEach((operation, count) -> operations.put(operation, count.sum()));
+            map.put("byOperation", operations);
+            return map;
+        }
+    }
+}
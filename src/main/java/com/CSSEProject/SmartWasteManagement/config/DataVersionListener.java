@@ -0,0 +1,121 @@
+package com.CSSEProject.SmartWasteManagement.config;
+
+import com.CSSEProject.SmartWasteManagement.payment.entity.Invoice;
+import com.CSSEProject.SmartWasteManagement.user.entity.User;
+import com.CSSEProject.SmartWasteManagement.waste.entity.CollectionEvent;
+import com.CSSEProject.SmartWasteManagement.waste.entity.CollectionSchedule;
+import com.CSSEProject.SmartWasteManagement.waste.entity.WasteBin;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Hibernate;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.*;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Bumps DataVersionRegistry for every JPA write of a bin, schedule, collection, invoice or user.
+ * Registered as a Hibernate post-commit listener, so it fires once per committed row change
+ * whichever service made it, and never for rolled-back work.
+ */
+@Component
+public class DataVersionListener implements PostCommitInsertEventListener, PostCommitUpdateEventListener,
+        PostCommitDeleteEventListener {
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private DataVersionRegistry dataVersionRegistry;
+
+    @PostConstruct
+    public void register() {
+        EventListenerRegistry registry = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getServiceRegistry().getService(EventListenerRegistry.class);
+        registry.appendListeners(EventType.POST_COMMIT_INSERT, this);
+        registry.appendListeners(EventType.POST_COMMIT_UPDATE, this);
+        registry.appendListeners(EventType.POST_COMMIT_DELETE, this);
+    }
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        changed(event.getEntity(), null, event.getPersister());
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        changed(event.getEntity(), event.getOldState(), event.getPersister());
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        changed(event.getEntity(), null, event.getPersister());
+        if (event.getEntity() instanceof WasteBin bin) {
+            dataVersionRegistry.forgetBin(bin.getBinId());
+        }
+    }
+
+    @Override
+    public void onPostInsertCommitFailed(PostInsertEvent event) {
+    }
+
+    @Override
+    public void onPostUpdateCommitFailed(PostUpdateEvent event) {
+    }
+
+    @Override
+    public void onPostDeleteCommitFailed(PostDeleteEvent event) {
+    }
+
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+        Class<?> type = persister.getMappedClass();
+        return type == WasteBin.class || type == CollectionSchedule.class
+                || type == CollectionEvent.class || type == Invoice.class || type == User.class;
+    }
+
+    void changed(Object entity, Object[] oldState, EntityPersister persister) {
+        List<String> keys = new ArrayList<>();
+        if (entity instanceof WasteBin bin) {
+            keys.add(DataVersionRegistry.bin(bin.getBinId()));
+            keys.add(DataVersionRegistry.ANALYTICS);
+            addResident(keys, bin.getResident());
+            dataVersionRegistry.trackBinResident(bin.getBinId(), bin.getResident() != null ? bin.getResident().getId() : null);
+            // A bin moved to another resident also changes the previous resident's schedules
+            if (oldState != null && oldState[persister.getPropertyIndex("resident")] instanceof User previous) {
+                addResident(keys, previous);
+            }
+        } else if (entity instanceof CollectionSchedule schedule) {
+            WasteBin bin = schedule.getWasteBin();
+            if (bin != null && Hibernate.isInitialized(bin)) {
+                addResident(keys, bin.getResident());
+            } else {
+                // Resident unknown without loading the bin
+                keys.add(DataVersionRegistry.SCHEDULES);
+            }
+        } else if (entity instanceof Invoice invoice) {
+            keys.add(DataVersionRegistry.ANALYTICS);
+            addResident(keys, invoice.getResident());
+        } else if (entity instanceof CollectionEvent) {
+            keys.add(DataVersionRegistry.ANALYTICS);
+        } else if (entity instanceof User user) {
+            // Embedded in bin, schedule and invoice responses
+            addResident(keys, user);
+        }
+        if (!keys.isEmpty()) {
+            dataVersionRegistry.bump(keys);
+        }
+    }
+
+    private static void addResident(List<String> keys, User resident) {
+        // getId() on a lazy proxy does not load the user
+        if (resident != null && resident.getId() != null) {
+            keys.add(DataVersionRegistry.resident(resident.getId()));
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package com.CSSEProject.SmartWasteManagement.config;
+
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-memory data version counters for HTTP conditional GETs.
+ *
+ * A key is one aggregate that an endpoint returns (a bin, a resident's schedules or invoices,
+ * analytics). Writers bump its version once their transaction commits; readers build the ETag
+ * from the versions before running any query, so a 304 costs no database work and data read
+ * after a concurrent write is never cached under the newer version. Bulk writers that do not
+ * know the keys they touch bump a family epoch (SCHEDULES, INVOICES) instead, which is
+ * part of every ETag in that family. Responses that embed a resident include the resident's
+ * key, which profile edits and ledger entries bump.
+ *
+ * Versions come from one clock in microseconds since the epoch, never below wall time, so they
+ * keep increasing across restarts and double as Last-Modified. Like BinStatusCounters, the
+ * counters assume a single application instance.
+ */
+@Component
+public class DataVersionRegistry {
+
+    public static final String SCHEDULES = "schedules";
+    public static final String INVOICES = "invoices";
+    public static final String ANALYTICS = "analytics";
+
+    private static final long NO_RESIDENT = 0L;
+
+    private final AtomicLong clock = new AtomicLong(System.currentTimeMillis() * 1000);
+    private final long startVersion = clock.get();
+    private final Map<String, Long> versions = new ConcurrentHashMap<>();
+    // Resident of every bin written or served since startup, so a bin's ETag covers the resident embedded in it
+    private final Map<String, Long> binResidents = new ConcurrentHashMap<>();
+
+    public static String bin(String binId) {
+        return "bin:" + binId;
+    }
+
+    public static String resident(Long residentId) {
+        return "resident:" + residentId;
+    }
+
+    public void trackBinResident(String binId, Long residentId) {
+        binResidents.put(binId, residentId != null ? residentId : NO_RESIDENT);
+    }
+
+    public void forgetBin(String binId) {
+        binResidents.remove(binId);
+    }
+
+    /**
+     * Keys of a bin response: the bin and its resident, or null while the bin's resident is not known yet
+     */
+    public String[] binKeys(String binId) {
+        Long residentId = binResidents.get(binId);
+        if (residentId == null) {
+            return null;
+        }
+        return residentId == NO_RESIDENT ? new String[]{bin(binId)} : new String[]{bin(binId), resident(residentId)};
+    }
+
+    public long version(String key) {
+        return versions.getOrDefault(key, startVersion);
+    }
+
+    /**
+     * Strong ETag over the current versions of the given keys
+     */
+    public String etag(String... keys) {
+        StringBuilder etag = new StringBuilder("\"");
+        for (int i = 0; i < keys.length; i++) {
+            etag.append(i == 0 ? "" : "-").append(Long.toString(version(keys[i]), 36));
+        }
+        return etag.append('"').toString();
+    }
+
+    /**
+     * ETag for responses computed over windows relative to today ("last 7 days"), which change at
+     * midnight even when no data does
+     */
+    public String dailyEtag(String... keys) {
+        return "\"" + LocalDate.now() + "-" + etag(keys).substring(1);
+    }
+
+    /**
+     * Last change to any of the given keys, in epoch milliseconds
+     */
+    public long lastModified(String... keys) {
+        long latest = 0;
+        for (String key : keys) {
+            latest = Math.max(latest, version(key));
+        }
+        return latest / 1000;
+    }
+
+    public void bump(String... keys) {
+        long version = next();
+        for (String key : keys) {
+            versions.put(key, version);
+        }
+    }
+
+    public void bump(Collection<String> keys) {
+        bump(keys.toArray(String[]::new));
+    }
+
+    /**
+     * Bump once the surrounding transaction commits (immediately outside a transaction)
+     */
+    public void bumpAfterCommit(String... keys) {
+        AfterCommit.run(() -> bump(keys));
+    }
+
+    public void bumpAfterCommit(Collection<String> keys) {
+        String[] copy = keys.toArray(String[]::new);
+        AfterCommit.run(() -> bump(copy));
+    }
+
+    private long next() {
+        long now = System.currentTimeMillis() * 1000;
+        return clock.updateAndGet(previous -> Math.max(previous + 1, now));
+    }
+}
@@ -0,0 +1,58 @@
+// File: src/main/java/com/CSSEProject/SmartWasteManagement/config/JsonArrayStreamer.java
+package com.CSSEProject.SmartWasteManagement.config;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.function.Consumer;
+
+/**
+ * Writes large result sets as a JSON array straight to the response, element by element.
+ * The source pushes rows (typically one keyset page at a time), so neither the full List
+ * nor the full JSON document is ever held in memory. Uses the application's ObjectMapper,
+ * so dates and enums look the same as in the regular endpoints.
+ */
+@Component
+public class JsonArrayStreamer {
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    /**
+     * Source of rows: called once with a sink that writes each row it is given
+     */
+    @FunctionalInterface
+    public interface RowSource<T> {
+        void writeTo(Consumer<T> sink);
+    }
+
+    public <T> StreamingResponseBody stream(RowSource<T> source) {
+        return out -> write(source, out);
+    }
+
+    public <T> void write(RowSource<T> source, OutputStream out) throws IOException {
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+            // The servlet container owns the response stream
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generator.writeStartArray();
+            try {
+                source.writeTo(row -> {
+                    try {
+                        generator.writeObject(row);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+            generator.writeEndArray();
+        }
+    }
+}
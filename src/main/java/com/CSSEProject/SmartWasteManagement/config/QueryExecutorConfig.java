@@ -0,0 +1,47 @@
+// File: src/main/java/com/CSSEProject/SmartWasteManagement/config/QueryExecutorConfig.java
+package com.CSSEProject.SmartWasteManagement.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+@Configuration
+public class QueryExecutorConfig {
+
+    /**
+     * Dedicated pool for read-only dashboard sub-queries (see QueryFanOut).
+     * Kept small and bounded so fan-out can never take more than a slice of the JDBC pool;
+     * when the queue is full the request thread runs the query itself.
+     */
+    @Bean(name = "queryExecutor", destroyMethod = "shutdown")
+    public ThreadPoolExecutor queryExecutor(@Value("${reporting.query-pool.size:4}") int poolSize,
+                                            @Value("${reporting.query-pool.queue-capacity:64}") int queueCapacity) {
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(poolSize, poolSize, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                new CustomizableThreadFactory("query-fanout-"),
+                new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    /**
+     * Separate pool for CPU and file work of background jobs (forecasting, route planning), so
+     * they never queue behind or in front of dashboard queries. A full queue rejects the job
+     * instead of running chunks on the caller, which would escape the job's timeout.
+     */
+    @Bean(name = "computeExecutor", destroyMethod = "shutdownNow")
+    public ThreadPoolExecutor computeExecutor(@Value("${jobs.compute-pool.size:2}") int poolSize,
+                                              @Value("${jobs.compute-pool.queue-capacity:256}") int queueCapacity) {
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(poolSize, poolSize, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                new CustomizableThreadFactory("compute-"),
+                new ThreadPoolExecutor.AbortPolicy());
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+}
@@ -0,0 +1,174 @@
+// File: src/main/java/com/CSSEProject/SmartWasteManagement/config/QueryFanOut.java
+package com.CSSEProject.SmartWasteManagement.config;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Runs independent read-only queries of one request in parallel on the query executor.
+ *
+ * Usage:
+ * <pre>
+ * try (QueryFanOut.Scope scope = queryFanOut.open("dashboard-stats")) {
+ *     Supplier&lt;Double&gt; weight = scope.fork("totalWeight", () -&gt; ...);
+ *     Supplier&lt;Long&gt; count = scope.fork("collectionCount", () -&gt; ...);
+ *     scope.join();
+ *     ... weight.get(), count.get() ...
+ * }
+ * </pre>
+ * join() waits until every sub-query finished or the deadline passed. The first failure
+ * or a missed deadline cancels the remaining sub-queries and is rethrown as a RuntimeException.
+ * Sub-queries run outside the caller's transaction, so only use it for reads.
+ */
+@Component
+public class QueryFanOut {
+
+    @Autowired
+    @Qualifier("queryExecutor")
+    private ExecutorService queryExecutor;
+
+    @Value("${reporting.fanout.deadline-ms:5000}")
+    private long defaultDeadlineMs = 5000;
+
+    private final Map<String, SubQueryTiming> timings = new ConcurrentHashMap<>();
+
+    public Scope open(String name) {
+        return new Scope(name, defaultDeadlineMs);
+    }
+
+    public Scope open(String name, long deadlineMs) {
+        return new Scope(name, deadlineMs);
+    }
+
+    /**
+     * Per sub-query timings since startup, keyed by "scope.subQuery"
+     */
+    public Map<String, Map<String, Object>> getTimings() {
+        Map<String, Map<String, Object>> result = new TreeMap<>();
+        timings.forEach((key, timing) -> result.put(key, timing.toMap()));
+        return result;
+    }
+
+    public class Scope implements AutoCloseable {
+
+        private final String name;
+        private final long deadlineNanos;
+        private final Map<String, Future<?>> forks = new LinkedHashMap<>();
+        private final Map<String, Long> elapsedMs = new ConcurrentHashMap<>();
+
+        private Scope(String name, long deadlineMs) {
+            this.name = name;
+            this.deadlineNanos = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(deadlineMs);
+        }
+
+        public <T> Supplier<T> fork(String subQuery, Callable<T> query) {
+            long queuedAt = System.nanoTime();
+            Future<T> future = queryExecutor.submit(() -> {
+                long startedAt = System.nanoTime();
+                boolean failed = true;
+                try {
+                    T value = query.call();
+                    failed = false;
+                    return value;
+                } finally {
+                    long finishedAt = System.nanoTime();
+                    elapsedMs.put(subQuery, TimeUnit.NANOSECONDS.toMillis(finishedAt - startedAt));
+                    timings.computeIfAbsent(name + "." + subQuery, key -> new SubQueryTiming())
+                            .record(startedAt - queuedAt, finishedAt - startedAt, failed);
+                }
+            });
+            forks.put(subQuery, future);
+            return () -> result(subQuery, future);
+        }
+
+        public void join() {
+            for (Map.Entry<String, Future<?>> fork : forks.entrySet()) {
+                long remaining = deadlineNanos - System.nanoTime();
+                try {
+                    fork.getValue().get(Math.max(0, remaining), TimeUnit.NANOSECONDS);
+                } catch (TimeoutException e) {
+                    cancelAll();
+                    throw new RuntimeException("Query fan-out '" + name + "' missed its deadline waiting for " + fork.getKey());
+                } catch (ExecutionException e) {
+                    cancelAll();
+                    Throwable cause = e.getCause();
+                    throw cause instanceof RuntimeException ? (RuntimeException) cause
+                            : new RuntimeException("Sub-query " + fork.getKey() + " failed: " + cause.getMessage(), cause);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    cancelAll();
+                    throw new RuntimeException("Query fan-out '" + name + "' interrupted");
+                }
+            }
+        }
+
+        /**
+         * Wall-clock time of each finished sub-query in this scope
+         */
+        public Map<String, Long> getElapsedMs() {
+            return new TreeMap<>(elapsedMs);
+        }
+
+        @Override
+        public void close() {
+            cancelAll();
+        }
+
+        private <T> T result(String subQuery, Future<T> future) {
+            if (!future.isDone()) {
+                throw new IllegalStateException("Sub-query " + subQuery + " read before join()");
+            }
+            try {
+                return future.get();
+            } catch (ExecutionException e) {
+                throw new RuntimeException("Sub-query " + subQuery + " failed: " + e.getCause().getMessage(), e.getCause());
+            } catch (InterruptedException | CancellationException e) {
+                throw new RuntimeException("Sub-query " + subQuery + " was cancelled");
+            }
+        }
+
+        private void cancelAll() {
+            forks.values().forEach(future -> future.cancel(true));
+        }
+    }
+
+    private static class SubQueryTiming {
+        private final LongAdder calls = new LongAdder();
+        private final LongAdder failures = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final LongAdder totalQueueNanos = new LongAdder();
+        private final AtomicLong maxNanos = new AtomicLong();
+        private volatile long lastNanos;
+
+        void record(long queueNanos, long runNanos, boolean failed) {
+            calls.increment();
+            if (failed) {
+                failures.increment();
+            }
+            totalNanos.add(runNanos);
+            totalQueueNanos.add(queueNanos);
+            maxNanos.accumulateAndGet(runNanos, Math::max);
+            lastNanos = runNanos;
+        }
+
+        Map<String, Object> toMap() {
+            long count = calls.sum();
+            Map<String, Object> map = new LinkedHashMap<>();
+            map.put("calls", count);
+            map.put("failures", failures.sum());
+            map.put("avgMs", count > 0 ? totalNanos.sum() / count / 1_000_000.0 : 0.0);
+            map.put("avgQueueMs", count > 0 ? totalQueueNanos.sum() / count / 1_000_000.0 : 0.0);
+            map.put("maxMs", maxNanos.get() / 1_000_000.0);
+            map.put("lastMs", lastNanos / 1_000_000.0);
+            return map;
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package com.CSSEProject.SmartWasteManagement.config;
+
+import java.lang.annotation.*;
+
+/**
+ * Re-runs a service method when it loses an optimistic lock (@Version) race.
+ *
+ * Each attempt starts a fresh transaction and re-reads the entities, so only put it on
+ * methods that load what they change. Nested calls inside an already running
+ * transaction are not retried; the outermost annotated method retries the whole unit.
+ * Attempts and backoff come from concurrency.retry.* (see ConflictRetryAspect).
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface RetryOnConflict {
+}
@@ -0,0 +1,10 @@
+// File: src/main/java/com/CSSEProject/SmartWasteManagement/config/SchedulingConfig.java
+package com.CSSEProject.SmartWasteManagement.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+@Configuration
+@EnableScheduling // Enables the @Scheduled maintenance jobs (rollup pruning, sweepers, flushes)
+public class SchedulingConfig {
+}
@@ -0,0 +1,142 @@
+package com.CSSEProject.SmartWasteManagement.config;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.EncodedResource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.init.ScriptUtils;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.CRC32;
+
+/**
+ * Versioned schema migrations, applied once each at startup
+ *
+ * Scripts live in {location}/{vendor} (postgresql, h2) and are named V{version}__{description}.sql,
+ * as Flyway names them. Each pending script runs in its own transaction together with its row in
+ * schema_migrations, in version order. A script that changed after it was applied stops startup,
+ * since the database no longer matches what the file says. Runs after Hibernate's ddl-auto pass
+ * (it depends on the EntityManagerFactory), so scripts can index the tables Hibernate manages, and
+ * before the web server starts, so a long migration never competes with requests.
+ *
+ * Statements are separated by ';'. A script whose first line is "-- separator: X" uses X instead,
+ * and "-- separator: EOF" runs the whole script as one statement (a PL/pgSQL DO block).
+ */
+@Component
+public class SchemaMigrator {
+
+    private static final Pattern SCRIPT_NAME = Pattern.compile("V(\\d+)__(.+)\\.sql");
+    private static final Pattern SEPARATOR = Pattern.compile("--\\s*separator:\\s*(\\S+)\\s*");
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Value("${schema.migrations.location:db/migration}")
+    private String location = "db/migration";
+
+    record Migration(int version, String description, Resource script, long checksum, String separator) {
+    }
+
+    /**
+     * @return Versions applied by this call
+     */
+    @PostConstruct
+    public List<Integer> migrate() {
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS schema_migrations (" +
+                "version INTEGER PRIMARY KEY, description VARCHAR(200) NOT NULL, " +
+                "checksum BIGINT NOT NULL, installed_at TIMESTAMP NOT NULL)");
+        Map<Integer, Long> applied = new HashMap<>();
+        jdbcTemplate.query("SELECT version, checksum FROM schema_migrations",
+                rs -> { applied.put(rs.getInt("version"), rs.getLong("checksum")); });
+
+        List<Integer> done = new ArrayList<>();
+        for (Migration migration : findMigrations()) {
+            Long checksum = applied.get(migration.version());
+            if (checksum != null) {
+                if (checksum != migration.checksum()) {
+                    throw new IllegalStateException("Migration V" + migration.version() + " ("
+                            + migration.script().getFilename() + ") changed after it was applied");
+                }
+                continue;
+            }
+            transactionTemplate.executeWithoutResult(status -> {
+                jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+                    ScriptUtils.executeSqlScript(connection, new EncodedResource(migration.script()), false, false,
+                            ScriptUtils.DEFAULT_COMMENT_PREFIX, migration.separator(),
+                            ScriptUtils.DEFAULT_BLOCK_COMMENT_START_DELIMITER, ScriptUtils.DEFAULT_BLOCK_COMMENT_END_DELIMITER);
+                    return null;
+                });
+                jdbcTemplate.update("INSERT INTO schema_migrations (version, description, checksum, installed_at) VALUES (?, ?, ?, ?)",
+                        migration.version(), migration.description(), migration.checksum(), Timestamp.valueOf(LocalDateTime.now()));
+            });
+            System.out.println("🗄️ Applied schema migration V" + migration.version() + " " + migration.description());
+            done.add(migration.version());
+        }
+        return done;
+    }
+
+    List<Migration> findMigrations() {
+        String vendor = jdbcTemplate.execute((ConnectionCallback<String>) connection ->
+                connection.getMetaData().getDatabaseProductName()).toLowerCase(Locale.ROOT);
+        try {
+            Resource[] scripts = new PathMatchingResourcePatternResolver()
+                    .getResources("classpath*:" + location + "/" + vendor + "/V*__*.sql");
+            List<Migration> migrations = new ArrayList<>();
+            for (Resource script : scripts) {
+                Matcher name = SCRIPT_NAME.matcher(Objects.requireNonNull(script.getFilename()));
+                if (!name.matches()) {
+                    throw new IllegalStateException("Badly named migration script: " + script.getFilename());
+                }
+                migrations.add(new Migration(Integer.parseInt(name.group(1)), name.group(2).replace('_', ' '),
+                        script, checksum(script), separator(script)));
+            }
+            migrations.sort(Comparator.comparingInt(Migration::version));
+            return migrations;
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not read migration scripts from " + location, e);
+        }
+    }
+
+    static String separator(Resource script) throws IOException {
+        String firstLine;
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(script.getInputStream(), StandardCharsets.UTF_8))) {
+            firstLine = reader.readLine();
+        }
+        Matcher directive = SEPARATOR.matcher(firstLine != null ? firstLine : "");
+        if (!directive.matches()) {
+            return ScriptUtils.DEFAULT_STATEMENT_SEPARATOR;
+        }
+        String separator = directive.group(1);
+        return "EOF".equals(separator) ? ScriptUtils.EOF_STATEMENT_SEPARATOR : separator;
+    }
+
+    private static long checksum(Resource script) throws IOException {
+        CRC32 crc = new CRC32();
+        try (InputStream in = script.getInputStream()) {
+            crc.update(in.readAllBytes());
+        }
+        return crc.getValue();
+    }
+}
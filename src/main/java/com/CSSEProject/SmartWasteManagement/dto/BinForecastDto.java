@@ -0,0 +1,20 @@
+package com.CSSEProject.SmartWasteManagement.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BinForecastDto {
+    private String binId;
+    private Double currentLevel;
+    private LocalDateTime levelUpdatedAt;
+    private Double fillRatePerDay;          // Percentage points per day; null without enough history
+    private Double hoursToFull;             // From now until the 80% auto-schedule threshold; 0 when already there
+    private LocalDateTime predictedFullAt;
+    private Integer samples;                // Readings the rate was fitted on
+    private Integer cycles;                 // Fill cycles (between emptyings) the rate was fitted on
+}
@@ -0,0 +1,15 @@
+package com.CSSEProject.SmartWasteManagement.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BinLevelReadingDto {
+    private String binId;
+    private Double level;           // Fill level in percent (0-100)
+    private LocalDateTime readAt;   // Sensor timestamp; server receive time when missing
+}
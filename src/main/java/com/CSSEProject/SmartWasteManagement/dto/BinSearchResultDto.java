@@ -0,0 +1,17 @@
+package com.CSSEProject.SmartWasteManagement.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BinSearchResultDto {
+    private String binId;
+    private String location;
+    private String status;
+    private String residentName;
+    private String residentAddress;
+    private Double score;           // Trigram similarity of the best-matching field (0..1)
+}
@@ -0,0 +1,23 @@
+package com.CSSEProject.SmartWasteManagement.dto;
+
+import com.CSSEProject.SmartWasteManagement.waste.entity.BinStatus;
+import com.CSSEProject.SmartWasteManagement.waste.entity.BinType;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BinSummaryDto {
+    private String binId;
+    private String location;
+    private Double latitude;
+    private Double longitude;
+    private BinType binType;
+    private Double capacity;
+    private Double currentLevel;
+    private BinStatus status;
+    private Long residentId;        // Flat reference instead of the embedded resident
+    private String residentName;
+}
@@ -0,0 +1,24 @@
+package com.CSSEProject.SmartWasteManagement.dto;
+
+import com.CSSEProject.SmartWasteManagement.waste.entity.BinStatus;
+import lombok.Data;
+import java.time.LocalDate;
+import java.util.List;
+
+@Data
+public class BulkScheduleRequestDto {
+    // Bins: an explicit list and/or a filter; at least one must be given
+    private List<String> binIds;
+    private Double minLatitude;
+    private Double minLongitude;
+    private Double maxLatitude;
+    private Double maxLongitude;
+    private String locationContains;
+    private BinStatus status;
+
+    private LocalDate scheduledDate; // create: day of the pickup; cancel: single day when no range is given
+    private LocalDate fromDate; // cancel: range start (inclusive)
+    private LocalDate toDate; // cancel: range end (inclusive)
+    private String notes;
+    private Boolean skipAlreadyScheduled = true; // create: leave bins with a pending pickup that day alone
+}
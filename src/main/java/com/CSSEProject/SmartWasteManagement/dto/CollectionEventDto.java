@@ -1,10 +1,14 @@
 // File: src/main/java/com/CSSEProject/SmartWasteManagement/dto/CollectionEventDto.java
 package com.CSSEProject.SmartWasteManagement.dto;
 
+import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.NoArgsConstructor;
 import java.time.LocalDateTime;
 
 @Data
+@NoArgsConstructor
+@AllArgsConstructor
 public class CollectionEventDto {
     private Long id;
     private String binId;
@@ -0,0 +1,15 @@
+// File: src/main/java/com/CSSEProject/SmartWasteManagement/dto/CollectionTotalsDto.java
+package com.CSSEProject.SmartWasteManagement.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CollectionTotalsDto {
+    private Long collections;
+    private Double totalWeight;
+    private Double totalRevenue;
+}
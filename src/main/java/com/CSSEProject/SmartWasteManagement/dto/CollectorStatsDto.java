@@ -0,0 +1,25 @@
+// File: src/main/java/com/CSSEProject/SmartWasteManagement/dto/CollectorStatsDto.java
+package com.CSSEProject.SmartWasteManagement.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CollectorStatsDto {
+    private Long totalCollections;
+    private Double totalWeight;
+    private Double totalRevenue;
+    private Long todayCollections;
+    private Double todayWeight;
+    private Double todayRevenue;
+    // Highest collection id included in the figures above
+    private Long lastCollectionId;
+
+    public int getEfficiency() {
+        // Assuming a target of 50 collections per day
+        return todayCollections != null && todayCollections > 0 ? Math.round((todayCollections / 50.0f) * 100) : 0;
+    }
+}
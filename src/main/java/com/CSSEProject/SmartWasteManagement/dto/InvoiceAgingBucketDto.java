@@ -0,0 +1,15 @@
+// File: src/main/java/com/CSSEProject/SmartWasteManagement/dto/InvoiceAgingBucketDto.java
+package com.CSSEProject.SmartWasteManagement.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class InvoiceAgingBucketDto {
+    private String bucket; // "0-30", "31-60", "61-90", "90+" days past due
+    private Long invoiceCount;
+    private Double outstandingAmount;
+}
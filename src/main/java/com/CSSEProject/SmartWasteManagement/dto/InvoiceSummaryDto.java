@@ -0,0 +1,24 @@
+package com.CSSEProject.SmartWasteManagement.dto;
+
+import com.CSSEProject.SmartWasteManagement.payment.entity.InvoiceStatus;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.time.LocalDate;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class InvoiceSummaryDto {
+    private Long id;
+    private String invoiceNumber;
+    private LocalDate invoiceDate;
+    private LocalDate dueDate;
+    private InvoiceStatus status;
+    private LocalDate periodStart;
+    private LocalDate periodEnd;
+    private Double finalAmount;
+    private LocalDate paymentDate;
+    private Long residentId;        // Flat reference instead of the resident entity
+    private String residentName;
+}
@@ -0,0 +1,17 @@
+// File: src/main/java/com/CSSEProject/SmartWasteManagement/dto/LedgerBalanceDto.java
+package com.CSSEProject.SmartWasteManagement.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class LedgerBalanceDto {
+    private Double pendingCharges;
+    private Double totalCharges;
+    private Double recyclingCredits;
+    // Highest ledger entry included (null when there are none)
+    private Long lastEntryId;
+}
@@ -0,0 +1,14 @@
+package com.CSSEProject.SmartWasteManagement.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class LevelHistoryPointDto {
+    private LocalDateTime timestamp;
+    private Double level;           // Fill level in percent, half-percent resolution
+}
@@ -0,0 +1,15 @@
+package com.CSSEProject.SmartWasteManagement.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class NearbyBinDto {
+    private String binId;
+    private Double latitude;
+    private Double longitude;
+    private Double distanceMeters;  // Great-circle distance from the query point; null for viewport queries
+}
@@ -0,0 +1,12 @@
+package com.CSSEProject.SmartWasteManagement.dto;
+
+import lombok.Data;
+import java.time.LocalDate;
+
+@Data
+public class RecurrenceExceptionRequestDto {
+    private LocalDate occurrenceDate;
+    private String binId; // null for every bin of the rule
+    private LocalDate rescheduledTo; // null to skip the occurrence
+    private String reason;
+}
@@ -0,0 +1,21 @@
+package com.CSSEProject.SmartWasteManagement.dto;
+
+import com.CSSEProject.SmartWasteManagement.waste.entity.RecurrenceFrequency;
+import lombok.Data;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+
+@Data
+public class RecurrenceRuleRequestDto {
+    private String binId; // either a bin ...
+    private String zoneName; // ... or a zone box
+    private Double minLatitude;
+    private Double minLongitude;
+    private Double maxLatitude;
+    private Double maxLongitude;
+    private RecurrenceFrequency frequency; // WEEKLY or BIWEEKLY
+    private DayOfWeek dayOfWeek;
+    private LocalDate startDate; // defaults to today
+    private LocalDate endDate;
+    private String notes;
+}
@@ -0,0 +1,17 @@
+package com.CSSEProject.SmartWasteManagement.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RouteStopDto {
+    private Integer sequence;       // 1-based position in the truck's route
+    private Long scheduleId;
+    private String binId;
+    private String location;
+    private Double latitude;
+    private Double longitude;
+}
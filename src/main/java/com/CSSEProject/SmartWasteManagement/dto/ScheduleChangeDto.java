@@ -0,0 +1,14 @@
+package com.CSSEProject.SmartWasteManagement.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ScheduleChangeDto {
+    private Long version;                  // Feed version at which this change happened
+    private String change;                 // ADDED, UPDATED (status or notes) or REMOVED (moved off the day)
+    private ScheduleResponseDto schedule;  // State after the change; the last known state for REMOVED
+}
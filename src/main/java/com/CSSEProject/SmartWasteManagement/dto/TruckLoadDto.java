@@ -0,0 +1,17 @@
+package com.CSSEProject.SmartWasteManagement.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TruckLoadDto {
+    private String truckId;
+    private Integer stopCount;
+    private Double loadKg;            // Sum of the stops' historical mean weights
+    private Double capacityKg;
+    private Double estimatedMinutes;  // Service time plus estimated driving time
+    private Integer shiftMinutes;
+}
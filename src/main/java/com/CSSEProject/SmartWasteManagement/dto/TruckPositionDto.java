@@ -0,0 +1,18 @@
+package com.CSSEProject.SmartWasteManagement.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TruckPositionDto {
+    private String truckId;
+    private Double latitude;
+    private Double longitude;
+    private Double speedKmh;        // Optional
+    private Double heading;         // Optional, degrees clockwise from north
+    private LocalDateTime recordedAt; // GPS timestamp; server receive time when missing
+}
@@ -0,0 +1,19 @@
+package com.CSSEProject.SmartWasteManagement.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TruckRouteDto {
+    private String truckId;
+    private String driverId;
+    private Boolean startsAtDepot;  // false: open route from the first stop, no depot known
+    private Integer stopCount;
+    private Double distanceMeters;  // Straight-line length, including the return leg to the depot
+    private List<RouteStopDto> stops;
+}
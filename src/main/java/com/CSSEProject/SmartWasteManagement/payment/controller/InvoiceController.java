@@ -1,8 +1,10 @@
 package com.CSSEProject.SmartWasteManagement.payment.controller;
 
+import com.CSSEProject.SmartWasteManagement.config.DataVersionRegistry;
 import com.CSSEProject.SmartWasteManagement.payment.entity.Invoice;
 import com.CSSEProject.SmartWasteManagement.payment.entity.InvoiceStatus;
 import com.CSSEProject.SmartWasteManagement.payment.service.InvoiceService;
+import com.CSSEProject.SmartWasteManagement.payment.service.OverdueInvoiceSweeper;
 import com.CSSEProject.SmartWasteManagement.user.entity.User;
 import com.CSSEProject.SmartWasteManagement.user.service.UserService;
 import com.CSSEProject.SmartWasteManagement.waste.entity.CollectionEvent;
@@ -13,6 +15,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.time.LocalDate;
 import java.util.List;
@@ -26,6 +29,9 @@ public class InvoiceController {
     @Autowired
     private InvoiceService invoiceService;
 
+    @Autowired
+    private OverdueInvoiceSweeper overdueInvoiceSweeper;
+
     @Autowired
     private UserService userService;
 
@@ -35,6 +41,9 @@ public class InvoiceController {
     @Autowired
     private RecyclingCollectionRepository recyclingCollectionRepository;
 
+    @Autowired
+    private DataVersionRegistry dataVersionRegistry;
+
     @GetMapping("/debug/resident/{residentId}")
     public ResponseEntity<?> debugResidentInvoiceData(@PathVariable Long residentId) {
         try {
@@ -106,7 +115,11 @@ public class InvoiceController {
     }
 
     @GetMapping("/resident/{residentId}")
-    public ResponseEntity<?> getInvoicesByResident(@PathVariable Long residentId) {
+    public ResponseEntity<?> getInvoicesByResident(@PathVariable Long residentId, WebRequest request) {
+        String[] keys = {DataVersionRegistry.INVOICES, DataVersionRegistry.resident(residentId)};
+        if (request.checkNotModified(dataVersionRegistry.etag(keys), dataVersionRegistry.lastModified(keys))) {
+            return null; // 304 without touching the database
+        }
         try {
             return ResponseEntity.ok(invoiceService.getInvoicesByResident(residentId));
         } catch (RuntimeException e) {
@@ -196,6 +209,25 @@ public class InvoiceController {
         }
     }
 
+    @GetMapping("/admin/aging")
+    public ResponseEntity<?> getInvoiceAging() {
+        try {
+            return ResponseEntity.ok(invoiceService.getInvoiceAging(LocalDate.now()));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    @PostMapping("/admin/overdue-sweep")
+    public ResponseEntity<?> runOverdueSweep() {
+        try {
+            int updated = overdueInvoiceSweeper.sweep(LocalDate.now());
+            return ResponseEntity.ok(Map.of("markedOverdue", updated));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
     @PutMapping("/admin/{invoiceId}/status")
     public ResponseEntity<?> updateInvoiceStatus(@PathVariable Long invoiceId,
                                                  @RequestBody Map<String, String> statusUpdate) {
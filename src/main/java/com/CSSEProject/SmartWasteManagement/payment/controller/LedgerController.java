@@ -0,0 +1,63 @@
+package com.CSSEProject.SmartWasteManagement.payment.controller;
+
+import com.CSSEProject.SmartWasteManagement.dto.LedgerBalanceDto;
+import com.CSSEProject.SmartWasteManagement.payment.entity.BalanceSnapshot;
+import com.CSSEProject.SmartWasteManagement.payment.entity.LedgerEntry;
+import com.CSSEProject.SmartWasteManagement.payment.service.ResidentLedgerService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/ledger")
+@CrossOrigin(origins = "http://localhost:5173")
+public class LedgerController {
+
+    @Autowired
+    private ResidentLedgerService residentLedgerService;
+
+    @GetMapping("/resident/{residentId}")
+    public ResponseEntity<?> getLedgerEntries(@PathVariable Long residentId,
+                                              @RequestParam(required = false) Long beforeId,
+                                              @RequestParam(defaultValue = "100") int limit) {
+        try {
+            List<LedgerEntry> entries = residentLedgerService.getEntries(residentId, beforeId, limit);
+            return ResponseEntity.ok(entries);
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    @GetMapping("/resident/{residentId}/balance")
+    public ResponseEntity<?> getLedgerBalance(@PathVariable Long residentId) {
+        try {
+            LedgerBalanceDto balance = residentLedgerService.computeBalance(residentId);
+            return ResponseEntity.ok(balance);
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    @PostMapping("/admin/resident/{residentId}/snapshot")
+    public ResponseEntity<?> takeSnapshot(@PathVariable Long residentId) {
+        try {
+            BalanceSnapshot snapshot = residentLedgerService.takeSnapshot(residentId);
+            return ResponseEntity.ok(snapshot);
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    @PostMapping("/admin/resident/{residentId}/replay")
+    public ResponseEntity<?> replay(@PathVariable Long residentId) {
+        try {
+            LedgerBalanceDto balance = residentLedgerService.replay(residentId);
+            return ResponseEntity.ok(balance);
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+}
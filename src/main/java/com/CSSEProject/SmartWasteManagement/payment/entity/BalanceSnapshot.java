@@ -0,0 +1,43 @@
+package com.CSSEProject.SmartWasteManagement.payment.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import java.time.LocalDateTime;
+
+/**
+ * A resident's balances as of a ledger entry id. Replay starts from the latest snapshot
+ * and only sums the entries after it.
+ */
+@Entity
+@Table(name = "resident_balance_snapshots", indexes = {
+        @Index(name = "idx_balance_snapshot_resident", columnList = "resident_id, last_entry_id")
+})
+@Data
+public class BalanceSnapshot {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "resident_id", nullable = false)
+    private Long residentId;
+
+    @Column(name = "last_entry_id", nullable = false)
+    private Long lastEntryId;
+
+    @Column(nullable = false)
+    private Double pendingCharges = 0.0;
+
+    @Column(nullable = false)
+    private Double totalCharges = 0.0;
+
+    @Column(nullable = false)
+    private Double recyclingCredits = 0.0;
+
+    @Column(nullable = false)
+    private LocalDateTime takenAt;
+
+    public BalanceSnapshot() {
+        this.takenAt = LocalDateTime.now();
+    }
+}
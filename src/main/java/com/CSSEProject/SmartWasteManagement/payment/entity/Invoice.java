@@ -6,6 +6,7 @@ import com.CSSEProject.SmartWasteManagement.waste.entity.RecyclingCollection;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import lombok.Data;
+import org.hibernate.annotations.ColumnDefault;
 import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.List;
@@ -32,6 +33,11 @@ public class Invoice {
     @Column(nullable = false)
     private InvoiceStatus status = InvoiceStatus.PENDING;
 
+    // Optimistic lock on status changes: payment vs. overdue sweep vs. admin edits
+    @Version
+    @ColumnDefault("0")
+    private Long version;
+
     // Billing period
     @Column(nullable = false)
     private LocalDate periodStart;
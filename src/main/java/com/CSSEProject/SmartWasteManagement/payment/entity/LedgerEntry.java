@@ -0,0 +1,59 @@
+package com.CSSEProject.SmartWasteManagement.payment.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import java.time.LocalDateTime;
+
+/**
+ * One immutable line of a resident's ledger. Balances on the users row are the running
+ * sum of these deltas; entries are only ever inserted, never updated or deleted.
+ */
+@Entity
+@Table(name = "resident_ledger", indexes = {
+        @Index(name = "idx_resident_ledger_resident", columnList = "resident_id, id")
+})
+@Data
+public class LedgerEntry {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "resident_id", nullable = false, updatable = false)
+    private Long residentId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, updatable = false)
+    private LedgerEntryType entryType;
+
+    // Amount of the business event (charge, credit, payment...)
+    @Column(nullable = false, updatable = false)
+    private Double amount = 0.0;
+
+    // Effect on the resident's balances
+    @Column(nullable = false, updatable = false)
+    private Double pendingDelta = 0.0;
+
+    @Column(nullable = false, updatable = false)
+    private Double totalDelta = 0.0;
+
+    @Column(nullable = false, updatable = false)
+    private Double creditsDelta = 0.0;
+
+    // What caused the entry, e.g. COLLECTION 42 or INVOICE 7
+    @Column(updatable = false)
+    private String referenceType;
+
+    @Column(updatable = false)
+    private Long referenceId;
+
+    @Column(updatable = false)
+    private String description;
+
+    @Column(nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    public LedgerEntry() {
+        this.createdAt = LocalDateTime.now();
+    }
+}
@@ -0,0 +1,10 @@
+package com.CSSEProject.SmartWasteManagement.payment.entity;
+
+public enum LedgerEntryType {
+    OPENING,    // Balances carried over from before the ledger existed
+    CHARGE,     // Collection charge added to pending charges
+    CREDIT,     // Recycling credit earned
+    INVOICE,    // Pending charges moved onto an invoice
+    PAYMENT,    // Invoice paid (audit only, no balance change)
+    ADJUSTMENT
+}
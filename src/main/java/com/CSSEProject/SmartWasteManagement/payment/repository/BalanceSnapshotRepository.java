@@ -0,0 +1,11 @@
+package com.CSSEProject.SmartWasteManagement.payment.repository;
+
+import com.CSSEProject.SmartWasteManagement.payment.entity.BalanceSnapshot;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+import java.util.Optional;
+
+@Repository
+public interface BalanceSnapshotRepository extends JpaRepository<BalanceSnapshot, Long> {
+    Optional<BalanceSnapshot> findTopByResidentIdOrderByLastEntryIdDesc(Long residentId);
+}
@@ -1,9 +1,13 @@
 package com.CSSEProject.SmartWasteManagement.payment.repository;
 
+import com.CSSEProject.SmartWasteManagement.dto.InvoiceSummaryDto;
 import com.CSSEProject.SmartWasteManagement.payment.entity.Invoice;
 import com.CSSEProject.SmartWasteManagement.payment.entity.InvoiceStatus;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import java.time.LocalDate;
 import java.util.List;
@@ -21,9 +25,51 @@ public interface InvoiceRepository extends JpaRepository<Invoice, Long> {
     @Query("SELECT SUM(i.totalAmount) FROM Invoice i WHERE i.status = 'PAID' AND i.periodStart >= ?1 AND i.periodEnd <= ?2")
     Double getTotalRevenueBetween(LocalDate start, LocalDate end);
     
-    @Query("SELECT COUNT(i) FROM Invoice i WHERE i.status = 'PENDING' AND i.dueDate < CURRENT_DATE")
+    // Swept OVERDUE invoices plus PENDING ones that fell due since the last sweep
+    @Query("SELECT COUNT(i) FROM Invoice i WHERE i.status = 'OVERDUE' OR (i.status = 'PENDING' AND i.dueDate < CURRENT_DATE)")
     Long getOverdueInvoiceCount();
 
+    @Query("SELECT i FROM Invoice i WHERE i.status = 'OVERDUE' OR (i.status = 'PENDING' AND i.dueDate < :today) ORDER BY i.dueDate")
+    List<Invoice> findOverdueInvoices(@Param("today") LocalDate today);
+
+    // Keyset-paged flat invoice rows for streaming exports
+    @Query("SELECT new com.CSSEProject.SmartWasteManagement.dto.InvoiceSummaryDto(" +
+            "i.id, i.invoiceNumber, i.invoiceDate, i.dueDate, i.status, i.periodStart, i.periodEnd, " +
+            "i.finalAmount, i.paymentDate, r.id, r.name) " +
+            "FROM Invoice i LEFT JOIN i.resident r " +
+            "WHERE i.id > :afterId AND (:status IS NULL OR i.status = :status) " +
+            "ORDER BY i.id")
+    List<InvoiceSummaryDto> findSummariesAfter(@Param("afterId") Long afterId,
+                                               @Param("status") InvoiceStatus status,
+                                               Pageable pageable);
+
+    // Keyset-paged ids for the overdue sweeper
+    @Query("SELECT i.id FROM Invoice i WHERE i.status = 'PENDING' AND i.dueDate < :today AND i.id > :afterId ORDER BY i.id")
+    List<Long> findPastDueIdsAfter(@Param("today") LocalDate today, @Param("afterId") Long afterId, Pageable pageable);
+
+    // Status guard: an invoice paid since its id was read stays PAID.
+    // Bumps the version so a payment holding the PENDING copy retries instead of overwriting blindly
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Invoice i SET i.status = 'OVERDUE', i.version = COALESCE(i.version, 0) + 1 " +
+            "WHERE i.id IN :ids AND i.status = 'PENDING'")
+    int markOverdue(@Param("ids") List<Long> ids);
+
+    // Aging buckets in one pass: [count, amount] for 0-30, 31-60, 61-90 and 90+ days past due
+    @Query("SELECT " +
+            "SUM(CASE WHEN i.dueDate >= :cutoff30 THEN 1L ELSE 0L END), " +
+            "SUM(CASE WHEN i.dueDate >= :cutoff30 THEN i.finalAmount ELSE 0.0 END), " +
+            "SUM(CASE WHEN i.dueDate < :cutoff30 AND i.dueDate >= :cutoff60 THEN 1L ELSE 0L END), " +
+            "SUM(CASE WHEN i.dueDate < :cutoff30 AND i.dueDate >= :cutoff60 THEN i.finalAmount ELSE 0.0 END), " +
+            "SUM(CASE WHEN i.dueDate < :cutoff60 AND i.dueDate >= :cutoff90 THEN 1L ELSE 0L END), " +
+            "SUM(CASE WHEN i.dueDate < :cutoff60 AND i.dueDate >= :cutoff90 THEN i.finalAmount ELSE 0.0 END), " +
+            "SUM(CASE WHEN i.dueDate < :cutoff90 THEN 1L ELSE 0L END), " +
+            "SUM(CASE WHEN i.dueDate < :cutoff90 THEN i.finalAmount ELSE 0.0 END) " +
+            "FROM Invoice i WHERE i.status = 'OVERDUE' OR (i.status = 'PENDING' AND i.dueDate < :today)")
+    List<Object[]> getAgingTotals(@Param("today") LocalDate today,
+                                  @Param("cutoff30") LocalDate cutoff30,
+                                  @Param("cutoff60") LocalDate cutoff60,
+                                  @Param("cutoff90") LocalDate cutoff90);
+
     // Add this method for admin view
     @Query("SELECT i FROM Invoice i LEFT JOIN FETCH i.resident ORDER BY i.invoiceDate DESC")
     List<Invoice> findAllWithResident();}
\ No newline at end of file
@@ -0,0 +1,42 @@
+package com.CSSEProject.SmartWasteManagement.payment.repository;
+
+import com.CSSEProject.SmartWasteManagement.dto.LedgerBalanceDto;
+import com.CSSEProject.SmartWasteManagement.payment.entity.LedgerEntry;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import java.util.List;
+
+@Repository
+public interface LedgerEntryRepository extends JpaRepository<LedgerEntry, Long> {
+
+    // Newest first, keyset paged on id
+    @Query("SELECT l FROM LedgerEntry l WHERE l.residentId = :residentId AND l.id < :beforeId ORDER BY l.id DESC")
+    List<LedgerEntry> findByResidentBefore(@Param("residentId") Long residentId,
+                                           @Param("beforeId") Long beforeId,
+                                           Pageable pageable);
+
+    // Sum of the deltas after a given entry (the replay step on top of a snapshot)
+    @Query("SELECT new com.CSSEProject.SmartWasteManagement.dto.LedgerBalanceDto(" +
+            "COALESCE(SUM(l.pendingDelta), 0.0), COALESCE(SUM(l.totalDelta), 0.0), " +
+            "COALESCE(SUM(l.creditsDelta), 0.0), MAX(l.id)) " +
+            "FROM LedgerEntry l WHERE l.residentId = :residentId AND l.id > :afterId")
+    LedgerBalanceDto sumDeltasAfter(@Param("residentId") Long residentId, @Param("afterId") Long afterId);
+
+    @Query("SELECT DISTINCT l.residentId FROM LedgerEntry l")
+    List<Long> findResidentIds();
+
+    // One OPENING entry per resident that has balances but no ledger history yet
+    @Modifying
+    @Query("INSERT INTO LedgerEntry (residentId, entryType, amount, pendingDelta, totalDelta, creditsDelta, description, createdAt) " +
+            "SELECT u.id, com.CSSEProject.SmartWasteManagement.payment.entity.LedgerEntryType.OPENING, 0.0, " +
+            "COALESCE(u.pendingCharges, 0.0), COALESCE(u.totalCharges, 0.0), COALESCE(u.recyclingCredits, 0.0), " +
+            "'Opening balance', CURRENT_TIMESTAMP " +
+            "FROM User u WHERE (COALESCE(u.pendingCharges, 0.0) <> 0 OR COALESCE(u.totalCharges, 0.0) <> 0 " +
+            "OR COALESCE(u.recyclingCredits, 0.0) <> 0) " +
+            "AND NOT EXISTS (SELECT 1 FROM LedgerEntry l WHERE l.residentId = u.id)")
+    int insertOpeningBalances();
+}
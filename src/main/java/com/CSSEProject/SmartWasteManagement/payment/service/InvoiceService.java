@@ -1,5 +1,7 @@
 package com.CSSEProject.SmartWasteManagement.payment.service;
 
+import com.CSSEProject.SmartWasteManagement.config.RetryOnConflict;
+import com.CSSEProject.SmartWasteManagement.dto.InvoiceAgingBucketDto;
 import com.CSSEProject.SmartWasteManagement.payment.entity.Invoice;
 import com.CSSEProject.SmartWasteManagement.payment.entity.InvoiceStatus;
 import com.CSSEProject.SmartWasteManagement.payment.entity.Payment;
@@ -17,6 +19,7 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 
@@ -38,9 +41,14 @@ public class InvoiceService {
     @Autowired
     private RecyclingCollectionRepository recyclingCollectionRepository;
 
+    @Autowired
+    private ResidentLedgerService residentLedgerService;
+
     @Transactional
     public Invoice generateMonthlyInvoice(Long residentId) {
         User resident = userService.getUserById(residentId);
+        // Concurrent runs for this resident wait here, so pending charges and collections are invoiced once
+        residentLedgerService.lockBalances(residentId);
 
         // Use current month period
         LocalDate periodStart = LocalDate.now().withDayOfMonth(1);
@@ -50,13 +58,14 @@ public class InvoiceService {
         List<CollectionEvent> collections = collectionEventRepository.findUninvoicedByResident(residentId);
         List<RecyclingCollection> recyclings = recyclingCollectionRepository.findUninvoicedByResident(residentId);
 
-        // Check both collections AND pending charges
+        // Check both collections AND pending charges (read fresh: the ledger updates the row in place)
         boolean hasCollections = !collections.isEmpty() || !recyclings.isEmpty();
-        boolean hasPendingCharges = resident.getPendingCharges() != null && resident.getPendingCharges() > 0;
+        Double pendingCharges = residentLedgerService.getPendingCharges(residentId);
+        boolean hasPendingCharges = pendingCharges > 0;
 
         System.out.println("🔍 Invoice Generation Debug:");
         System.out.println("   - Resident: " + resident.getName() + " (ID: " + resident.getId() + ")");
-        System.out.println("   - Pending Charges: " + resident.getPendingCharges());
+        System.out.println("   - Pending Charges: " + pendingCharges);
         System.out.println("   - Uninvoiced Collections: " + collections.size());
         System.out.println("   - Uninvoiced Recycling: " + recyclings.size());
         System.out.println("   - Has Collections: " + hasCollections);
@@ -88,7 +97,7 @@ public class InvoiceService {
 
         // ADD pending charges if they exist
         if (hasPendingCharges) {
-            totalCharges += resident.getPendingCharges();
+            totalCharges += pendingCharges;
         }
 
         Double finalAmount = Math.max(0, totalCharges - totalRefunds);
@@ -101,7 +110,7 @@ public class InvoiceService {
         invoice.setDueDate(LocalDate.now().plusDays(30));
         invoice.setPeriodStart(periodStart);
         invoice.setPeriodEnd(periodEnd);
-        invoice.setBaseCharge(hasPendingCharges ? resident.getPendingCharges() : 0.0);
+        invoice.setBaseCharge(hasPendingCharges ? pendingCharges : 0.0);
         invoice.setWeightBasedCharge(hasCollections ? totalCharges : 0.0);
         invoice.setRecyclingCredits(totalRefunds);
         invoice.setRefundAmount(totalRefunds);
@@ -123,11 +132,10 @@ public class InvoiceService {
             recyclingCollectionRepository.save(rc);
         });
 
-        // RESET pending charges after invoicing
+        // Move the invoiced pending charges off the resident's balance
         if (hasPendingCharges) {
-            resident.setPendingCharges(0.0);
-            userService.updateUser(resident);
-            System.out.println("✅ Reset pending charges for resident " + resident.getId());
+            residentLedgerService.recordInvoice(residentId, savedInvoice.getId(), pendingCharges);
+            System.out.println("✅ Invoiced pending charges for resident " + resident.getId());
         }
 
         System.out.println("✅ Invoice generated: " + savedInvoice.getInvoiceNumber());
@@ -143,6 +151,7 @@ public class InvoiceService {
         return invoiceRepository.findAllWithResident(); // You'll need this method in repository
     }
 
+    @RetryOnConflict
     public Invoice updateInvoiceStatus(Long invoiceId, String status) {
         Invoice invoice = getInvoiceById(invoiceId);
         invoice.setStatus(InvoiceStatus.valueOf(status));
@@ -161,6 +170,8 @@ public class InvoiceService {
     }
 
     // 🆕 NEW METHOD: Mark invoice as paid after PayHere payment
+    @RetryOnConflict
+    @Transactional
     public void markInvoiceAsPaid(String invoiceNumber, String paymentId) {
         try {
             Invoice invoice = getInvoiceByNumber(invoiceNumber);
@@ -171,6 +182,10 @@ public class InvoiceService {
             invoice.setPaymentReference(paymentId);
 
             invoiceRepository.save(invoice);
+            if (invoice.getResident() != null) {
+                residentLedgerService.recordPayment(invoice.getResident().getId(), invoice.getId(),
+                        invoice.getFinalAmount(), paymentId);
+            }
 
             System.out.println("✅ Invoice marked as PAID: " + invoiceNumber);
             System.out.println("   - Payment Reference: " + paymentId);
@@ -178,10 +193,11 @@ public class InvoiceService {
 
         } catch (Exception e) {
             System.err.println("❌ Error marking invoice as paid: " + e.getMessage());
-            throw new RuntimeException("Failed to update invoice status: " + e.getMessage());
+            throw new RuntimeException("Failed to update invoice status: " + e.getMessage(), e);
         }
     }
 
+    @RetryOnConflict
     @Transactional
     public Invoice processInvoicePayment(Long invoiceId, String paymentMethod, String transactionId) {
         Invoice invoice = invoiceRepository.findById(invoiceId)
@@ -209,6 +225,10 @@ public class InvoiceService {
 
         invoiceRepository.save(invoice);
         paymentRepository.save(payment);
+        if (invoice.getResident() != null) {
+            residentLedgerService.recordPayment(invoice.getResident().getId(), invoice.getId(),
+                    payment.getAmount(), transactionId);
+        }
 
         return invoice;
     }
@@ -221,8 +241,33 @@ public class InvoiceService {
         return invoiceRepository.findByStatus(InvoiceStatus.PENDING);
     }
 
+    // OVERDUE invoices plus PENDING ones that fell due since the last sweep
     public List<Invoice> getOverdueInvoices() {
-        return invoiceRepository.findByDueDateBeforeAndStatus(LocalDate.now(), InvoiceStatus.PENDING);
+        return invoiceRepository.findOverdueInvoices(LocalDate.now());
+    }
+
+    /**
+     * Outstanding overdue invoices bucketed by days past due (0-30, 31-60, 61-90, 90+)
+     */
+    public List<InvoiceAgingBucketDto> getInvoiceAging(LocalDate today) {
+        List<Object[]> rows = invoiceRepository.getAgingTotals(today,
+                today.minusDays(30), today.minusDays(60), today.minusDays(90));
+        Object[] totals = rows.isEmpty() ? new Object[8] : rows.get(0);
+
+        String[] buckets = {"0-30", "31-60", "61-90", "90+"};
+        List<InvoiceAgingBucketDto> aging = new ArrayList<>();
+        for (int i = 0; i < buckets.length; i++) {
+            Number count = (Number) totals[i * 2];
+            Number amount = (Number) totals[i * 2 + 1];
+            aging.add(new InvoiceAgingBucketDto(buckets[i],
+                    count != null ? count.longValue() : 0L,
+                    amount != null ? amount.doubleValue() : 0.0));
+        }
+        return aging;
+    }
+
+    public Long getOverdueInvoiceCount() {
+        return invoiceRepository.getOverdueInvoiceCount();
     }
 
     public Double getTotalRevenueBetween(LocalDate start, LocalDate end) {
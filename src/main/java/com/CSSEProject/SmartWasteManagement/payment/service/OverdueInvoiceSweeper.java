@@ -0,0 +1,75 @@
+package com.CSSEProject.SmartWasteManagement.payment.service;
+
+import com.CSSEProject.SmartWasteManagement.config.DataVersionRegistry;
+import com.CSSEProject.SmartWasteManagement.payment.repository.InvoiceRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Moves PENDING invoices past their due date to OVERDUE every night.
+ *
+ * Ids are read in keyset pages and each page is flipped with one bulk UPDATE in its own
+ * short transaction, so the sweep never holds locks on the whole invoices table.
+ */
+@Service
+public class OverdueInvoiceSweeper {
+
+    @Autowired
+    private InvoiceRepository invoiceRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private DataVersionRegistry dataVersionRegistry;
+
+    @Value("${invoices.overdue-sweep.chunk-size:500}")
+    private int chunkSize = 500;
+
+    @Scheduled(cron = "${invoices.overdue-sweep.cron:0 15 1 * * *}")
+    public void nightlySweep() {
+        try {
+            sweep(LocalDate.now());
+        } catch (Exception e) {
+            System.err.println("❌ Overdue invoice sweep failed: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Mark every PENDING invoice due before the given day as OVERDUE
+     *
+     * @param today Invoices due strictly before this day are overdue
+     * @return Number of invoices moved to OVERDUE
+     */
+    public int sweep(LocalDate today) {
+        int updated = 0;
+        int chunks = 0;
+        long afterId = 0L;
+        List<Long> ids;
+        do {
+            ids = invoiceRepository.findPastDueIdsAfter(today, afterId, PageRequest.of(0, chunkSize));
+            if (ids.isEmpty()) {
+                break;
+            }
+            List<Long> chunk = ids;
+            Integer changed = transactionTemplate.execute(status -> {
+                // Bulk UPDATE: the residents are not known here, so every invoice ETag moves on
+                dataVersionRegistry.bumpAfterCommit(DataVersionRegistry.INVOICES, DataVersionRegistry.ANALYTICS);
+                return invoiceRepository.markOverdue(chunk);
+            });
+            updated += changed != null ? changed : 0;
+            afterId = ids.get(ids.size() - 1);
+            chunks++;
+        } while (ids.size() == chunkSize);
+
+        System.out.println("📅 Overdue sweep: " + updated + " invoices marked OVERDUE in " + chunks + " chunks");
+        return updated;
+    }
+}
@@ -0,0 +1,197 @@
+package com.CSSEProject.SmartWasteManagement.payment.service;
+
+import com.CSSEProject.SmartWasteManagement.config.DataVersionRegistry;
+import com.CSSEProject.SmartWasteManagement.dto.LedgerBalanceDto;
+import com.CSSEProject.SmartWasteManagement.payment.entity.BalanceSnapshot;
+import com.CSSEProject.SmartWasteManagement.payment.entity.LedgerEntry;
+import com.CSSEProject.SmartWasteManagement.payment.entity.LedgerEntryType;
+import com.CSSEProject.SmartWasteManagement.payment.repository.BalanceSnapshotRepository;
+import com.CSSEProject.SmartWasteManagement.payment.repository.LedgerEntryRepository;
+import com.CSSEProject.SmartWasteManagement.user.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Resident ledger - the only writer of pendingCharges, totalCharges and recyclingCredits.
+ *
+ * Every change appends a LedgerEntry and then moves the users row with a relative
+ * UPDATE (x = x + delta), so concurrent collections and invoices for one resident
+ * never lose each other's updates. Balances can be rebuilt from the latest snapshot
+ * plus the entries after it.
+ */
+@Service
+public class ResidentLedgerService {
+
+    @Autowired
+    private LedgerEntryRepository ledgerEntryRepository;
+
+    @Autowired
+    private BalanceSnapshotRepository balanceSnapshotRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private DataVersionRegistry dataVersionRegistry;
+
+    @Transactional
+    public LedgerEntry recordCharge(Long residentId, Double amount, String referenceType, Long referenceId, String description) {
+        double value = amountOf(amount);
+        return append(residentId, LedgerEntryType.CHARGE, value, value, value, 0.0, referenceType, referenceId, description);
+    }
+
+    @Transactional
+    public LedgerEntry recordCredit(Long residentId, Double amount, String referenceType, Long referenceId, String description) {
+        double value = amountOf(amount);
+        return append(residentId, LedgerEntryType.CREDIT, value, 0.0, 0.0, value, referenceType, referenceId, description);
+    }
+
+    /**
+     * Move pending charges onto an invoice. Only the invoiced amount is subtracted,
+     * so charges recorded while the invoice was being built stay pending.
+     */
+    @Transactional
+    public LedgerEntry recordInvoice(Long residentId, Long invoiceId, Double pendingInvoiced) {
+        double value = amountOf(pendingInvoiced);
+        return append(residentId, LedgerEntryType.INVOICE, value, -value, 0.0, 0.0,
+                "INVOICE", invoiceId, "Pending charges invoiced");
+    }
+
+    @Transactional
+    public LedgerEntry recordPayment(Long residentId, Long invoiceId, Double amount, String reference) {
+        return append(residentId, LedgerEntryType.PAYMENT, amountOf(amount), 0.0, 0.0, 0.0,
+                "INVOICE", invoiceId, reference != null ? "Payment " + reference : "Payment");
+    }
+
+    /**
+     * Lock the resident's users row until the surrounding transaction ends, with a no-op balance
+     * delta, so a caller that reads and then moves balances cannot race another one doing the same
+     */
+    @Transactional
+    public void lockBalances(Long residentId) {
+        if (userRepository.applyBalanceDelta(residentId, 0.0, 0.0, 0.0) == 0) {
+            throw new RuntimeException("Resident not found: " + residentId);
+        }
+    }
+
+    public Double getPendingCharges(Long residentId) {
+        Double pending = userRepository.findPendingCharges(residentId);
+        return pending != null ? pending : 0.0;
+    }
+
+    /**
+     * Ledger entries of a resident, newest first
+     *
+     * @param beforeId Keyset cursor: only entries with a smaller id (null for the newest page)
+     */
+    public List<LedgerEntry> getEntries(Long residentId, Long beforeId, int limit) {
+        int pageSize = Math.max(1, Math.min(limit, 500));
+        return ledgerEntryRepository.findByResidentBefore(residentId, beforeId != null ? beforeId : Long.MAX_VALUE,
+                PageRequest.of(0, pageSize));
+    }
+
+    /**
+     * Balances implied by the ledger: latest snapshot plus every entry after it
+     */
+    public LedgerBalanceDto computeBalance(Long residentId) {
+        Optional<BalanceSnapshot> snapshot = balanceSnapshotRepository.findTopByResidentIdOrderByLastEntryIdDesc(residentId);
+        long afterId = snapshot.map(BalanceSnapshot::getLastEntryId).orElse(0L);
+        LedgerBalanceDto deltas = ledgerEntryRepository.sumDeltasAfter(residentId, afterId);
+
+        double pending = deltas.getPendingCharges() + snapshot.map(BalanceSnapshot::getPendingCharges).orElse(0.0);
+        double total = deltas.getTotalCharges() + snapshot.map(BalanceSnapshot::getTotalCharges).orElse(0.0);
+        double credits = deltas.getRecyclingCredits() + snapshot.map(BalanceSnapshot::getRecyclingCredits).orElse(0.0);
+        Long lastEntryId = deltas.getLastEntryId() != null ? deltas.getLastEntryId() : snapshot.map(BalanceSnapshot::getLastEntryId).orElse(null);
+        return new LedgerBalanceDto(pending, total, credits, lastEntryId);
+    }
+
+    /**
+     * Store the current ledger balances so later replays only sum newer entries
+     */
+    @Transactional
+    public BalanceSnapshot takeSnapshot(Long residentId) {
+        LedgerBalanceDto balance = computeBalance(residentId);
+        if (balance.getLastEntryId() == null) {
+            throw new RuntimeException("No ledger entries for resident: " + residentId);
+        }
+        BalanceSnapshot snapshot = new BalanceSnapshot();
+        snapshot.setResidentId(residentId);
+        snapshot.setLastEntryId(balance.getLastEntryId());
+        snapshot.setPendingCharges(balance.getPendingCharges());
+        snapshot.setTotalCharges(balance.getTotalCharges());
+        snapshot.setRecyclingCredits(balance.getRecyclingCredits());
+        return balanceSnapshotRepository.save(snapshot);
+    }
+
+    /**
+     * Rebuild the balances on the users row from the ledger
+     *
+     * The no-op delta takes the row lock first. Writers insert their entry before they
+     * update the row, so an entry that is not visible to the sum below has its delta
+     * applied after this transaction releases the lock; nothing is counted twice or lost.
+     */
+    @Transactional
+    public LedgerBalanceDto replay(Long residentId) {
+        lockBalances(residentId);
+        LedgerBalanceDto balance = computeBalance(residentId);
+        userRepository.setBalances(residentId, balance.getPendingCharges(), balance.getTotalCharges(), balance.getRecyclingCredits());
+        dataVersionRegistry.bumpAfterCommit(DataVersionRegistry.resident(residentId));
+        System.out.println("🔁 Replayed ledger for resident " + residentId + ": pending=" + balance.getPendingCharges()
+                + ", credits=" + balance.getRecyclingCredits());
+        return balance;
+    }
+
+    /**
+     * Carry balances that predate the ledger over as OPENING entries, once per resident
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void openLedgers() {
+        try {
+            int opened = ledgerEntryRepository.insertOpeningBalances();
+            if (opened > 0) {
+                System.out.println("📒 Opened ledgers for " + opened + " residents with existing balances");
+            }
+        } catch (Exception e) {
+            System.err.println("❌ Opening resident ledgers failed: " + e.getMessage());
+        }
+    }
+
+    private LedgerEntry append(Long residentId, LedgerEntryType type, double amount,
+                               double pendingDelta, double totalDelta, double creditsDelta,
+                               String referenceType, Long referenceId, String description) {
+        if (residentId == null) {
+            throw new RuntimeException("Ledger entry requires a resident");
+        }
+        LedgerEntry entry = new LedgerEntry();
+        entry.setResidentId(residentId);
+        entry.setEntryType(type);
+        entry.setAmount(amount);
+        entry.setPendingDelta(pendingDelta);
+        entry.setTotalDelta(totalDelta);
+        entry.setCreditsDelta(creditsDelta);
+        entry.setReferenceType(referenceType);
+        entry.setReferenceId(referenceId);
+        entry.setDescription(description);
+
+        // Entry first, then the row: replay() relies on this order
+        LedgerEntry saved = ledgerEntryRepository.save(entry);
+        if (pendingDelta != 0.0 || totalDelta != 0.0 || creditsDelta != 0.0) {
+            userRepository.applyBalanceDelta(residentId, pendingDelta, totalDelta, creditsDelta);
+            // The row update bypasses JPA, so DataVersionListener does not see it
+            dataVersionRegistry.bumpAfterCommit(DataVersionRegistry.resident(residentId));
+        }
+        return saved;
+    }
+
+    private double amountOf(Double amount) {
+        return amount != null ? amount : 0.0;
+    }
+}
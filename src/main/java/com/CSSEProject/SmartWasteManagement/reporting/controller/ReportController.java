@@ -1,16 +1,29 @@
 package com.CSSEProject.SmartWasteManagement.reporting.controller;
 
+import com.CSSEProject.SmartWasteManagement.config.ContentionMetrics;
+import com.CSSEProject.SmartWasteManagement.config.JsonArrayStreamer;
+import com.CSSEProject.SmartWasteManagement.config.QueryFanOut;
+import com.CSSEProject.SmartWasteManagement.dto.BinSummaryDto;
+import com.CSSEProject.SmartWasteManagement.dto.CollectionEventDto;
+import com.CSSEProject.SmartWasteManagement.dto.InvoiceAgingBucketDto;
+import com.CSSEProject.SmartWasteManagement.dto.InvoiceSummaryDto;
+import com.CSSEProject.SmartWasteManagement.dto.MonthlyWasteDto;
+import com.CSSEProject.SmartWasteManagement.payment.entity.InvoiceStatus;
 import com.CSSEProject.SmartWasteManagement.payment.service.InvoiceService;
+import com.CSSEProject.SmartWasteManagement.reporting.service.ReportingService;
+import com.CSSEProject.SmartWasteManagement.waste.entity.BinStatus;
 import com.CSSEProject.SmartWasteManagement.waste.service.CollectionService;
 import com.CSSEProject.SmartWasteManagement.waste.service.WasteBinService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
-import java.time.YearMonth;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.function.Supplier;
 
 @RestController
 @RequestMapping("/api/reports")
@@ -26,12 +39,24 @@ public class ReportController {
     @Autowired
     private InvoiceService invoiceService;
 
+    @Autowired
+    private QueryFanOut queryFanOut;
+
+    @Autowired
+    private ReportingService reportingService;
+
+    @Autowired
+    private ContentionMetrics contentionMetrics;
+
+    @Autowired
+    private JsonArrayStreamer jsonArrayStreamer;
+
     @GetMapping("/dashboard-stats")
     public ResponseEntity<?> getDashboardStats(@RequestParam(required = false) String period) {
         try {
-            LocalDateTime startDate;
             LocalDateTime endDate = LocalDateTime.now();
-            
+            LocalDateTime startDate;
+
             if ("7days".equals(period)) {
                 startDate = endDate.minusDays(7);
             } else if ("30days".equals(period)) {
@@ -40,18 +65,34 @@ public class ReportController {
                 startDate = endDate.minusYears(10); // All time
             }
 
-            // Collection statistics
-            Double totalWaste = collectionService.getTotalWasteCollectedBetween(startDate, endDate);
-            Long collectionCount = collectionService.getCollectionCountBetween(startDate, endDate);
-            
-            // Bin statistics
-            Long totalBins = wasteBinService.getBinCountByStatus(com.CSSEProject.SmartWasteManagement.waste.entity.BinStatus.ACTIVE);
-            Long binsNeedingEmptying = wasteBinService.getBinCountByStatus(com.CSSEProject.SmartWasteManagement.waste.entity.BinStatus.NEEDS_EMPTYING);
-
-            // Revenue statistics
             LocalDate revenueStart = startDate.toLocalDate();
             LocalDate revenueEnd = endDate.toLocalDate();
-            Double totalRevenue = invoiceService.getTotalRevenueBetween(revenueStart, revenueEnd);
+
+            // The five queries are independent, run them side by side
+            Double totalWaste;
+            Long collectionCount;
+            Long totalBins;
+            Long binsNeedingEmptying;
+            Double totalRevenue;
+            try (QueryFanOut.Scope scope = queryFanOut.open("dashboard-stats")) {
+                Supplier<Double> totalWasteQuery = scope.fork("totalWeight",
+                        () -> collectionService.getTotalWasteCollectedBetween(startDate, endDate));
+                Supplier<Long> collectionCountQuery = scope.fork("collectionCount",
+                        () -> collectionService.getCollectionCountBetween(startDate, endDate));
+                Supplier<Long> totalBinsQuery = scope.fork("activeBins",
+                        () -> wasteBinService.getBinCountByStatus(BinStatus.ACTIVE));
+                Supplier<Long> binsNeedingEmptyingQuery = scope.fork("binsNeedingEmptying",
+                        () -> wasteBinService.getBinCountByStatus(BinStatus.NEEDS_EMPTYING));
+                Supplier<Double> totalRevenueQuery = scope.fork("revenue",
+                        () -> invoiceService.getTotalRevenueBetween(revenueStart, revenueEnd));
+                scope.join();
+
+                totalWaste = totalWasteQuery.get();
+                collectionCount = collectionCountQuery.get();
+                totalBins = totalBinsQuery.get();
+                binsNeedingEmptying = binsNeedingEmptyingQuery.get();
+                totalRevenue = totalRevenueQuery.get();
+            }
 
             Map<String, Object> stats = new HashMap<>();
             stats.put("totalWeightKg", totalWaste != null ? totalWaste : 0.0);
@@ -72,18 +113,12 @@ public class ReportController {
         try {
             int targetYear = year != null ? year : LocalDate.now().getYear();
             
-            // Generate monthly data for the year
+            // One grouped query for the whole year instead of one query per month
             Map<String, Object> monthlyData = new HashMap<>();
-            
-            for (int month = 1; month <= 12; month++) {
-                YearMonth yearMonth = YearMonth.of(targetYear, month);
-                LocalDateTime start = yearMonth.atDay(1).atStartOfDay();
-                LocalDateTime end = yearMonth.atEndOfMonth().atTime(23, 59, 59);
-                
-                Double monthlyWaste = collectionService.getTotalWasteCollectedBetween(start, end);
-                monthlyData.put(yearMonth.getMonth().toString(), monthlyWaste != null ? monthlyWaste : 0.0);
+            for (MonthlyWasteDto month : reportingService.getMonthlyWaste(targetYear)) {
+                monthlyData.put(month.getMonth(), month.getTotalWeight());
             }
-            
+
             return ResponseEntity.ok(monthlyData);
         } catch (Exception e) {
             return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
@@ -110,18 +145,57 @@ public class ReportController {
         }
     }
 
+    @GetMapping("/collection-events/feed")
+    public ResponseEntity<?> getCollectionEventFeed(@RequestParam(required = false) Long afterId,
+                                                    @RequestParam(defaultValue = "100") int limit,
+                                                    @RequestParam(required = false) Long collectorId,
+                                                    @RequestParam(required = false) String binId) {
+        try {
+            List<CollectionEventDto> events;
+            if (collectorId != null) {
+                events = reportingService.getCollectionEventsByCollector(collectorId, afterId, limit);
+            } else if (binId != null) {
+                events = reportingService.getCollectionEventsByBin(binId, afterId, limit);
+            } else {
+                events = reportingService.getCollectionEvents(afterId, limit);
+            }
+
+            Map<String, Object> response = new HashMap<>();
+            response.put("events", events);
+            response.put("nextAfterId", events.isEmpty() ? afterId : events.get(events.size() - 1).getId());
+            return ResponseEntity.ok(response);
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
     @GetMapping("/financial")
     public ResponseEntity<?> getFinancialReport(@RequestParam String start, @RequestParam String end) {
         try {
             LocalDate startDate = LocalDate.parse(start);
             LocalDate endDate = LocalDate.parse(end);
             
-            Double revenue = invoiceService.getTotalRevenueBetween(startDate, endDate);
-            Long overdueInvoices = (long) invoiceService.getOverdueInvoices().size();
+            Double revenue;
+            Long overdueInvoices;
+            List<InvoiceAgingBucketDto> aging;
+            try (QueryFanOut.Scope scope = queryFanOut.open("financial")) {
+                Supplier<Double> revenueQuery = scope.fork("revenue",
+                        () -> invoiceService.getTotalRevenueBetween(startDate, endDate));
+                Supplier<Long> overdueQuery = scope.fork("overdueCount",
+                        () -> invoiceService.getOverdueInvoiceCount());
+                Supplier<List<InvoiceAgingBucketDto>> agingQuery = scope.fork("aging",
+                        () -> invoiceService.getInvoiceAging(LocalDate.now()));
+                scope.join();
+
+                revenue = revenueQuery.get();
+                overdueInvoices = overdueQuery.get();
+                aging = agingQuery.get();
+            }
             
             Map<String, Object> report = new HashMap<>();
             report.put("totalRevenue", revenue != null ? revenue : 0.0);
-            report.put("overdueInvoices", overdueInvoices);
+            report.put("overdueInvoices", overdueInvoices != null ? overdueInvoices : 0L);
+            report.put("overdueAging", aging);
             report.put("period", Map.of("start", start, "end", end));
             
             return ResponseEntity.ok(report);
@@ -129,4 +203,47 @@ public class ReportController {
             return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
         }
     }
-}
\ No newline at end of file
+
+    @GetMapping("/query-timings")
+    public ResponseEntity<?> getQueryTimings() {
+        return ResponseEntity.ok(queryFanOut.getTimings());
+    }
+
+    @GetMapping("/contention")
+    public ResponseEntity<?> getContention() {
+        return ResponseEntity.ok(contentionMetrics.getContention());
+    }
+
+    // Full exports as streamed JSON arrays of flat rows: memory stays at one page whatever the table size
+
+    @GetMapping("/export/collection-events")
+    public ResponseEntity<?> exportCollectionEvents() {
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(jsonArrayStreamer.<CollectionEventDto>stream(reportingService::streamCollectionEvents));
+    }
+
+    @GetMapping("/export/bins")
+    public ResponseEntity<?> exportBins(@RequestParam(required = false) String status) {
+        try {
+            BinStatus binStatus = status != null ? BinStatus.valueOf(status.toUpperCase()) : null;
+            return ResponseEntity.ok()
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .body(jsonArrayStreamer.<BinSummaryDto>stream(sink -> reportingService.streamBinSummaries(binStatus, sink)));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(Map.of("error", "Invalid status or " + e.getMessage()));
+        }
+    }
+
+    @GetMapping("/export/invoices")
+    public ResponseEntity<?> exportInvoices(@RequestParam(required = false) String status) {
+        try {
+            InvoiceStatus invoiceStatus = status != null ? InvoiceStatus.valueOf(status.toUpperCase()) : null;
+            return ResponseEntity.ok()
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .body(jsonArrayStreamer.<InvoiceSummaryDto>stream(sink -> reportingService.streamInvoiceSummaries(invoiceStatus, sink)));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(Map.of("error", "Invalid status or " + e.getMessage()));
+        }
+    }
+}
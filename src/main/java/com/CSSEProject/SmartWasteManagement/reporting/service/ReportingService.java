@@ -1,88 +1,215 @@
 // File: src/main/java/com/CSSEProject/SmartWasteManagement/reporting/service/ReportingService.java
 package com.CSSEProject.SmartWasteManagement.reporting.service;
 
+import com.CSSEProject.SmartWasteManagement.dto.BinSummaryDto;
+import com.CSSEProject.SmartWasteManagement.dto.CollectionEventDto;
+import com.CSSEProject.SmartWasteManagement.dto.CollectionTotalsDto;
 import com.CSSEProject.SmartWasteManagement.dto.DashboardStatsDto;
-import com.CSSEProject.SmartWasteManagement.waste.entity.CollectionEvent;
-import com.CSSEProject.SmartWasteManagement.waste.entity.WasteBin;
+import com.CSSEProject.SmartWasteManagement.dto.InvoiceSummaryDto;
+import com.CSSEProject.SmartWasteManagement.dto.MonthlyWasteDto;
+import com.CSSEProject.SmartWasteManagement.payment.entity.InvoiceStatus;
+import com.CSSEProject.SmartWasteManagement.payment.repository.InvoiceRepository;
 import com.CSSEProject.SmartWasteManagement.waste.entity.BinStatus;
+import com.CSSEProject.SmartWasteManagement.waste.entity.CollectionMonthlyRollup;
 import com.CSSEProject.SmartWasteManagement.waste.repository.CollectionEventRepository;
 import com.CSSEProject.SmartWasteManagement.waste.repository.WasteBinRepository;
+import com.CSSEProject.SmartWasteManagement.waste.service.ArchivedCollectionRollups;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 
+import java.time.LocalDateTime;
+import java.time.Month;
+import java.time.Year;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
 
 /**
  * Reporting Service - Handles analytics and dashboard reporting functionality
  * Provides methods for generating dashboard statistics and collection reports
+ *
+ * Every method is answered by aggregate (SUM/COUNT) queries or DTO projections;
+ * collection events are never loaded as entities, so cost does not grow with table size.
  */
 @Service
 public class ReportingService {
 
+    public static final int DEFAULT_PAGE_SIZE = 100;
+    public static final int MAX_PAGE_SIZE = 1000;
+
     @Autowired
     private CollectionEventRepository collectionEventRepository;
 
     @Autowired
     private WasteBinRepository wasteBinRepository;
 
+    @Autowired
+    private InvoiceRepository invoiceRepository;
+
+    @Autowired
+    private ArchivedCollectionRollups archivedCollectionRollups;
+
     /**
      * Get comprehensive dashboard statistics
-     * 
+     *
      * @return DashboardStatsDto containing all key metrics
      */
     public DashboardStatsDto getDashboardStats() {
         DashboardStatsDto stats = new DashboardStatsDto();
-        
-        // Get all collections
-        List<CollectionEvent> allCollections = collectionEventRepository.findAll();
-        
-        // Calculate metrics
-        long totalCollections = allCollections.size();
-        double totalWasteCollected = allCollections.stream()
-                .mapToDouble(CollectionEvent::getWeight)
-                .sum();
-        double totalRevenue = allCollections.stream()
-                .mapToDouble(CollectionEvent::getCalculatedCharge)
-                .sum();
+
+        CollectionTotalsDto totals = collectionEventRepository.getCollectionTotals();
+        // Archived months are no longer in collection_events; their rollups complete the totals
+        for (CollectionMonthlyRollup archived : archivedCollectionRollups.all()) {
+            totals.setCollections(totals.getCollections() + archived.getCollections());
+            totals.setTotalWeight(totals.getTotalWeight() + archived.getTotalWeight());
+            totals.setTotalRevenue(totals.getTotalRevenue() + archived.getTotalRevenue());
+        }
         long totalBins = wasteBinRepository.count();
         long activeBins = wasteBinRepository.countByStatus(BinStatus.ACTIVE);
-        
+
         // Set values
-        stats.setTotalCollections(totalCollections);
-        stats.setTotalWasteCollected(totalWasteCollected);
-        stats.setTotalRevenue(totalRevenue);
+        stats.setTotalCollections(totals.getCollections());
+        stats.setTotalWasteCollected(totals.getTotalWeight());
+        stats.setTotalRevenue(totals.getTotalRevenue());
         stats.setTotalBins(totalBins);
         stats.setActiveBins(activeBins);
-        
+
         return stats;
     }
 
     /**
-     * Get all collection events
-     * 
-     * @return List of all collection events
+     * Get total collected weight per month of a year (rollup query, one row per month)
+     *
+     * @param year Calendar year
+     * @return Twelve entries, January first; months without collections have 0.0
      */
-    public List<CollectionEvent> getCollectionEvents() {
-        return collectionEventRepository.findAll();
+    public List<MonthlyWasteDto> getMonthlyWaste(int year) {
+        Map<Integer, Double> weightByMonth = new LinkedHashMap<>();
+        LocalDateTime start = Year.of(year).atDay(1).atStartOfDay();
+        LocalDateTime end = Year.of(year + 1).atDay(1).atStartOfDay();
+        for (Object[] row : collectionEventRepository.getMonthlyWeightBetween(archivedCollectionRollups.liveStart(start), end)) {
+            weightByMonth.put(((Number) row[0]).intValue(), ((Number) row[1]).doubleValue());
+        }
+        // Archived months are answered from their rollups
+        for (CollectionMonthlyRollup archived : archivedCollectionRollups.between(start, end.minusNanos(1))) {
+            weightByMonth.put(archived.getMonth().getMonthValue(), archived.getTotalWeight());
+        }
+
+        List<MonthlyWasteDto> monthlyWaste = new ArrayList<>();
+        for (Month month : Month.values()) {
+            monthlyWaste.add(new MonthlyWasteDto(month.toString(), weightByMonth.getOrDefault(month.getValue(), 0.0)));
+        }
+        return monthlyWaste;
     }
 
     /**
-     * Get collection events by collector ID
-     * 
+     * Get one page of the collection event feed, oldest first
+     * Keyset paging: pass the id of the last event of the previous page as afterId (null for the first page)
+     *
+     * @param afterId Id of the last event already seen
+     * @param limit Page size (capped at MAX_PAGE_SIZE)
+     * @return Up to limit collection events
+     */
+    public List<CollectionEventDto> getCollectionEvents(Long afterId, int limit) {
+        return findPage(afterId, null, null, limit);
+    }
+
+    /**
+     * Get one page of collection events by collector ID
+     *
      * @param collectorId The ID of the collector
-     * @return List of collection events for the specified collector
+     * @param afterId Id of the last event already seen
+     * @param limit Page size (capped at MAX_PAGE_SIZE)
+     * @return Collection events for the specified collector
      */
-    public List<CollectionEvent> getCollectionEventsByCollector(Long collectorId) {
-        return collectionEventRepository.findByCollectorId(collectorId);
+    public List<CollectionEventDto> getCollectionEventsByCollector(Long collectorId, Long afterId, int limit) {
+        return findPage(afterId, collectorId, null, limit);
     }
 
     /**
-     * Get collection events by bin ID
-     * 
+     * Get one page of collection events by bin ID
+     *
      * @param binId The ID of the waste bin
-     * @return List of collection events for the specified bin
+     * @param afterId Id of the last event already seen
+     * @param limit Page size (capped at MAX_PAGE_SIZE)
+     * @return Collection events for the specified bin
      */
-    public List<CollectionEvent> getCollectionEventsByBin(String binId) {
-        return collectionEventRepository.findByWasteBinBinId(binId);
+    public List<CollectionEventDto> getCollectionEventsByBin(String binId, Long afterId, int limit) {
+        return findPage(afterId, null, binId, limit);
+    }
+
+    /**
+     * Stream every collection event to the consumer, one page at a time
+     * At most one page is held in memory, whatever the size of the table
+     *
+     * @param consumer Receives each event in id order
+     * @return Number of events streamed
+     */
+    public long streamCollectionEvents(Consumer<CollectionEventDto> consumer) {
+        long streamed = 0;
+        Long afterId = null;
+        List<CollectionEventDto> page;
+        do {
+            page = findPage(afterId, null, null, MAX_PAGE_SIZE);
+            for (CollectionEventDto event : page) {
+                consumer.accept(event);
+                afterId = event.getId();
+            }
+            streamed += page.size();
+        } while (page.size() == MAX_PAGE_SIZE);
+        return streamed;
+    }
+
+    /**
+     * Stream flat bin rows to the consumer in bin id order, one page at a time
+     *
+     * @param status Only bins in this status, or all bins when null
+     * @param consumer Receives each bin
+     * @return Number of bins streamed
+     */
+    public long streamBinSummaries(BinStatus status, Consumer<BinSummaryDto> consumer) {
+        long streamed = 0;
+        String afterBinId = "";
+        List<BinSummaryDto> page;
+        do {
+            page = wasteBinRepository.findSummariesAfter(afterBinId, status, PageRequest.of(0, MAX_PAGE_SIZE));
+            for (BinSummaryDto bin : page) {
+                consumer.accept(bin);
+                afterBinId = bin.getBinId();
+            }
+            streamed += page.size();
+        } while (page.size() == MAX_PAGE_SIZE);
+        return streamed;
+    }
+
+    /**
+     * Stream flat invoice rows to the consumer in id order, one page at a time
+     *
+     * @param status Only invoices in this status, or all invoices when null
+     * @param consumer Receives each invoice
+     * @return Number of invoices streamed
+     */
+    public long streamInvoiceSummaries(InvoiceStatus status, Consumer<InvoiceSummaryDto> consumer) {
+        long streamed = 0;
+        Long afterId = 0L;
+        List<InvoiceSummaryDto> page;
+        do {
+            page = invoiceRepository.findSummariesAfter(afterId, status, PageRequest.of(0, MAX_PAGE_SIZE));
+            for (InvoiceSummaryDto invoice : page) {
+                consumer.accept(invoice);
+                afterId = invoice.getId();
+            }
+            streamed += page.size();
+        } while (page.size() == MAX_PAGE_SIZE);
+        return streamed;
+    }
+
+    private List<CollectionEventDto> findPage(Long afterId, Long collectorId, String binId, int limit) {
+        int pageSize = limit <= 0 ? DEFAULT_PAGE_SIZE : Math.min(limit, MAX_PAGE_SIZE);
+        return collectionEventRepository.findEventFeedAfter(afterId != null ? afterId : 0L, collectorId, binId,
+                PageRequest.of(0, pageSize));
     }
 }
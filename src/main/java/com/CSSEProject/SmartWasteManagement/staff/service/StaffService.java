@@ -1,7 +1,7 @@
 package com.CSSEProject.SmartWasteManagement.staff.service;
 
-import com.CSSEProject.SmartWasteManagement.waste.entity.CollectionEvent;
-import com.CSSEProject.SmartWasteManagement.waste.service.CollectionService;
+import com.CSSEProject.SmartWasteManagement.dto.CollectorStatsDto;
+import com.CSSEProject.SmartWasteManagement.waste.service.CollectorStatsService;
 import com.CSSEProject.SmartWasteManagement.waste.service.ScheduleService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
@@ -14,7 +14,7 @@ import java.util.Map;
 public class StaffService {
 
     @Autowired
-    private CollectionService collectionService;
+    private CollectorStatsService collectorStatsService;
 
     @Autowired
     private ScheduleService scheduleService;
@@ -22,28 +22,13 @@ public class StaffService {
     public Map<String, Object> getStaffDashboardData(Long staffId) {
         Map<String, Object> dashboardData = new HashMap<>();
 
-        // Get collections data
-        List<CollectionEvent> allCollections = collectionService.getCollectionsByCollector(staffId);
-        List<CollectionEvent> todayCollections = collectionService.getTodayCollectionsByCollector(staffId);
-
-        // Calculate stats
-        dashboardData.put("totalCollections", allCollections.size());
-        dashboardData.put("todayCollections", todayCollections.size());
-        
-        Double todayWeight = todayCollections.stream()
-                .mapToDouble(c -> c.getWeight() != null ? c.getWeight() : 0.0)
-                .sum();
-        dashboardData.put("todayWeight", todayWeight);
-        
-        Double totalWeight = allCollections.stream()
-                .mapToDouble(c -> c.getWeight() != null ? c.getWeight() : 0.0)
-                .sum();
-        dashboardData.put("totalWeight", totalWeight);
-        
-        Double todayRevenue = todayCollections.stream()
-                .mapToDouble(c -> c.getCalculatedCharge() != null ? c.getCalculatedCharge() : 0.0)
-                .sum();
-        dashboardData.put("todayRevenue", todayRevenue);
+        // Collection totals come from the per-collector counters, not from the collection rows
+        CollectorStatsDto stats = collectorStatsService.getCollectorStats(staffId);
+        dashboardData.put("totalCollections", stats.getTotalCollections());
+        dashboardData.put("todayCollections", stats.getTodayCollections());
+        dashboardData.put("todayWeight", stats.getTodayWeight());
+        dashboardData.put("totalWeight", stats.getTotalWeight());
+        dashboardData.put("todayRevenue", stats.getTodayRevenue());
 
         // Get pending schedules
         var pendingSchedules = scheduleService.getPendingSchedulesForToday();
@@ -51,8 +36,7 @@ public class StaffService {
         dashboardData.put("pendingCollections", pendingSchedules.size());
 
         // Calculate efficiency (assuming target of 50 collections per day)
-        int efficiency = todayCollections.size() > 0 ? Math.round((todayCollections.size() / 50.0f) * 100) : 0;
-        dashboardData.put("efficiency", efficiency);
+        dashboardData.put("efficiency", stats.getEfficiency());
 
         return dashboardData;
     }
@@ -9,6 +9,8 @@ import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.fasterxml.jackson.annotation.JsonManagedReference;
 import jakarta.persistence.*;
 import lombok.Data;
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.DynamicUpdate;
 import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.List;
@@ -16,9 +18,12 @@ import java.util.List;
 @Entity
 @Table(name = "users")
 @Data
+@DynamicUpdate // Only changed columns are written, so saving a profile never overwrites ledger-maintained balances
 @JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
 public class User {
 
+    public static final String DEFAULT_CITY = "Colombo";
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
@@ -32,7 +37,13 @@ public class User {
     @Enumerated(EnumType.STRING)
     private UserRole role;
 
-    // Resident-specific fields
+    // Optimistic lock for profile edits. Ledger balance updates are relative UPDATEs that
+    // commute, so they deliberately leave the version alone and never cause conflicts
+    @Version
+    @ColumnDefault("0")
+    private Long version;
+
+    // Resident-specific fields (balances are maintained by ResidentLedgerService)
     private String residentId;
     private LocalDate accountActivationDate;
     private Double pendingCharges = 0.0;
@@ -63,4 +74,13 @@ public class User {
         invoices.add(invoice);
         invoice.setResident(this);
     }
+
+    // City of an address: its last comma-separated part (billing, analytics and bin counts all use this rule)
+    public static String cityOf(String address) {
+        if (address == null || address.trim().isEmpty()) {
+            return DEFAULT_CITY;
+        }
+        String[] addressParts = address.split(",");
+        return addressParts.length > 0 ? addressParts[addressParts.length - 1].trim() : DEFAULT_CITY;
+    }
 }
\ No newline at end of file
@@ -3,6 +3,7 @@ package com.CSSEProject.SmartWasteManagement.user.repository;
 import com.CSSEProject.SmartWasteManagement.user.entity.User;
 import com.CSSEProject.SmartWasteManagement.user.entity.UserRole;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -18,4 +19,26 @@ public interface UserRepository extends JpaRepository<User, Long> {
     Optional<User> findByResidentId(String residentId);
     @Query("SELECT u FROM User u WHERE u.email = :email AND u.id != :userId")
     Optional<User> findByEmailAndIdNot(@Param("email") String email, @Param("userId") Long userId);
+
+    // Balances only ever move through these statements (see ResidentLedgerService)
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE User u SET u.pendingCharges = COALESCE(u.pendingCharges, 0.0) + :pendingDelta, " +
+            "u.totalCharges = COALESCE(u.totalCharges, 0.0) + :totalDelta, " +
+            "u.recyclingCredits = COALESCE(u.recyclingCredits, 0.0) + :creditsDelta " +
+            "WHERE u.id = :userId")
+    int applyBalanceDelta(@Param("userId") Long userId,
+                          @Param("pendingDelta") Double pendingDelta,
+                          @Param("totalDelta") Double totalDelta,
+                          @Param("creditsDelta") Double creditsDelta);
+
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE User u SET u.pendingCharges = :pendingCharges, u.totalCharges = :totalCharges, " +
+            "u.recyclingCredits = :recyclingCredits WHERE u.id = :userId")
+    int setBalances(@Param("userId") Long userId,
+                    @Param("pendingCharges") Double pendingCharges,
+                    @Param("totalCharges") Double totalCharges,
+                    @Param("recyclingCredits") Double recyclingCredits);
+
+    @Query("SELECT u.pendingCharges FROM User u WHERE u.id = :userId")
+    Double findPendingCharges(@Param("userId") Long userId);
 }
\ No newline at end of file
@@ -1,5 +1,6 @@
 package com.CSSEProject.SmartWasteManagement.user.service;
 
+import com.CSSEProject.SmartWasteManagement.config.RetryOnConflict;
 import com.CSSEProject.SmartWasteManagement.dto.LoginRequestDto;
 import com.CSSEProject.SmartWasteManagement.dto.RegisterRequestDto;
 import com.CSSEProject.SmartWasteManagement.user.entity.User;
@@ -9,6 +10,7 @@ import com.CSSEProject.SmartWasteManagement.waste.entity.BinStatus;
 import com.CSSEProject.SmartWasteManagement.waste.entity.BinType;
 import com.CSSEProject.SmartWasteManagement.waste.entity.WasteBin;
 import com.CSSEProject.SmartWasteManagement.waste.repository.WasteBinRepository;
+import com.CSSEProject.SmartWasteManagement.waste.service.BinStatusCounters;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
@@ -16,6 +18,7 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
 import java.util.List;
+import java.util.stream.Collectors;
 
 @Service
 @Transactional
@@ -30,6 +33,9 @@ public class UserService {
     @Autowired
     private WasteBinRepository wasteBinRepository;
 
+    @Autowired
+    private BinStatusCounters binStatusCounters;
+
 
     public User registerUser(RegisterRequestDto registerRequestDto) {
         if (userRepository.findByEmail(registerRequestDto.getEmail()).isPresent()) {
@@ -73,6 +79,7 @@ public class UserService {
         defaultBin.setInstallationDate(LocalDate.now());
 
         wasteBinRepository.save(defaultBin);
+        binStatusCounters.binCreated(User.cityOf(resident.getAddress()), BinStatus.ACTIVE);
     }
 
     public User loginUser(LoginRequestDto loginRequestDto) {
@@ -101,6 +108,7 @@ public class UserService {
                 .orElseThrow(() -> new RuntimeException("User not found with id: " + id));
     }
 
+    @RetryOnConflict
     public User assignResidentId(Long userId, String residentId) {
         User user = getUserById(userId);
         if (user.getRole() != UserRole.ROLE_RESIDENT) {
@@ -114,6 +122,7 @@ public class UserService {
         return "RES" + System.currentTimeMillis();
     }
 
+    @RetryOnConflict
     public User updateUser(User user) {
         if (user == null || user.getId() == null) {
             throw new RuntimeException("User or user ID cannot be null");
@@ -137,6 +146,7 @@ public class UserService {
                     });
             existingUser.setEmail(user.getEmail());
         }
+        String previousCity = User.cityOf(existingUser.getAddress());
         if (user.getAddress() != null) {
             existingUser.setAddress(user.getAddress());
         }
@@ -144,17 +154,16 @@ public class UserService {
             existingUser.setPhone(user.getPhone());
         }
 
-        // Update pending charges and recycling credits (for residents)
-        if (user.getPendingCharges() != null) {
-            existingUser.setPendingCharges(user.getPendingCharges());
-        }
-        if (user.getRecyclingCredits() != null) {
-            existingUser.setRecyclingCredits(user.getRecyclingCredits());
+        // Balances (pending charges, recycling credits, total charges) change only through ResidentLedgerService
+        User savedUser = userRepository.save(existingUser);
+        String city = User.cityOf(savedUser.getAddress());
+        if (!city.equals(previousCity)) {
+            // The resident's bins are counted in the city of their address
+            wasteBinRepository.findByResidentId(savedUser.getId()).stream()
+                    .filter(bin -> bin.getStatus() != null)
+                    .collect(Collectors.groupingBy(WasteBin::getStatus, Collectors.counting()))
+                    .forEach((status, count) -> binStatusCounters.binsMoved(previousCity, city, status, count));
         }
-        if (user.getTotalCharges() != null) {
-            existingUser.setTotalCharges(user.getTotalCharges());
-        }
-
-        return userRepository.save(existingUser);
+        return savedUser;
     }
 }
\ No newline at end of file
@@ -2,9 +2,11 @@ package com.CSSEProject.SmartWasteManagement.waste.controller;
 
 import com.CSSEProject.SmartWasteManagement.dto.CollectionRequestDto;
 import com.CSSEProject.SmartWasteManagement.dto.CollectionResponseDto;
+import com.CSSEProject.SmartWasteManagement.dto.CollectorStatsDto;
 import com.CSSEProject.SmartWasteManagement.dto.RecyclingRequestDto;
 import com.CSSEProject.SmartWasteManagement.waste.entity.CollectionEvent;
 import com.CSSEProject.SmartWasteManagement.waste.service.CollectionService;
+import com.CSSEProject.SmartWasteManagement.waste.service.CollectorStatsService;
 import com.CSSEProject.SmartWasteManagement.waste.service.OfflineSyncService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
@@ -28,6 +30,9 @@ public class CollectionController {
     @Autowired
     private OfflineSyncService offlineSyncService;
 
+    @Autowired
+    private CollectorStatsService collectorStatsService;
+
     // FIXED: Use the DTO method directly for cleaner response
     @GetMapping("/collector/{collectorId}")
     public ResponseEntity<?> getCollectionsByCollector(@PathVariable Long collectorId) {
@@ -236,39 +241,16 @@ public class CollectionController {
     @GetMapping("/stats/collector/{collectorId}")
     public ResponseEntity<?> getCollectorStats(@PathVariable Long collectorId) {
         try {
-            List<CollectionEvent> collections = collectionService.getCollectionsByCollector(collectorId);
-
-            // Calculate stats
-            Long totalCollections = (long) collections.size();
-            Double totalWeight = collections.stream()
-                    .mapToDouble(c -> c.getWeight() != null ? c.getWeight() : 0.0)
-                    .sum();
-            Double totalRevenue = collections.stream()
-                    .mapToDouble(c -> c.getCalculatedCharge() != null ? c.getCalculatedCharge() : 0.0)
-                    .sum();
-
-            // Today's collections
-            LocalDate today = LocalDate.now();
-            List<CollectionEvent> todayCollections = collections.stream()
-                    .filter(c -> c.getCollectionTime() != null &&
-                            c.getCollectionTime().toLocalDate().equals(today))
-                    .collect(Collectors.toList());
-
-            Double todayWeight = todayCollections.stream()
-                    .mapToDouble(c -> c.getWeight() != null ? c.getWeight() : 0.0)
-                    .sum();
-            Double todayRevenue = todayCollections.stream()
-                    .mapToDouble(c -> c.getCalculatedCharge() != null ? c.getCalculatedCharge() : 0.0)
-                    .sum();
+            CollectorStatsDto stats = collectorStatsService.getCollectorStats(collectorId);
 
             return ResponseEntity.ok(Map.of(
-                    "totalCollections", totalCollections,
-                    "totalWeight", totalWeight,
-                    "totalRevenue", totalRevenue,
-                    "todayCollections", todayCollections.size(),
-                    "todayWeight", todayWeight,
-                    "todayRevenue", todayRevenue,
-                    "efficiency", todayCollections.size() > 0 ? Math.round((todayCollections.size() / 50.0) * 100) : 0
+                    "totalCollections", stats.getTotalCollections(),
+                    "totalWeight", stats.getTotalWeight(),
+                    "totalRevenue", stats.getTotalRevenue(),
+                    "todayCollections", stats.getTodayCollections(),
+                    "todayWeight", stats.getTodayWeight(),
+                    "todayRevenue", stats.getTodayRevenue(),
+                    "efficiency", stats.getEfficiency()
             ));
         } catch (Exception e) {
             return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
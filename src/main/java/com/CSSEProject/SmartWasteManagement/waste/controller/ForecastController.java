@@ -0,0 +1,54 @@
+package com.CSSEProject.SmartWasteManagement.waste.controller;
+
+import com.CSSEProject.SmartWasteManagement.dto.BinForecastDto;
+import com.CSSEProject.SmartWasteManagement.waste.service.FillForecastService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/waste/forecast")
+@CrossOrigin(origins = "http://localhost:5173")
+public class ForecastController {
+
+    @Autowired
+    private FillForecastService fillForecastService;
+
+    @GetMapping("/bins/{binId}")
+    public ResponseEntity<?> getBinForecast(@PathVariable String binId) {
+        try {
+            return ResponseEntity.ok(fillForecastService.forecastBin(binId));
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    // Bins predicted to reach 80% within the given number of days, soonest first
+    @GetMapping("/due")
+    public ResponseEntity<?> getBinsDue(@RequestParam(defaultValue = "3") int days) {
+        try {
+            List<BinForecastDto> due = fillForecastService.findBinsDueWithin(days);
+            return ResponseEntity.ok(Map.of("days", days, "count", due.size(), "bins", due));
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    @PostMapping("/admin/run")
+    public ResponseEntity<?> runScheduling() {
+        try {
+            return ResponseEntity.ok(fillForecastService.scheduleForecastCollections(LocalDateTime.now()));
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    @GetMapping("/admin/last-run")
+    public ResponseEntity<?> getLastRun() {
+        return ResponseEntity.ok(fillForecastService.getLastRun());
+    }
+}
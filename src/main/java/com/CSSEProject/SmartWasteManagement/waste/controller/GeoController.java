@@ -0,0 +1,81 @@
+package com.CSSEProject.SmartWasteManagement.waste.controller;
+
+import com.CSSEProject.SmartWasteManagement.dto.NearbyBinDto;
+import com.CSSEProject.SmartWasteManagement.waste.geo.GeoGridIndex.Hit;
+import com.CSSEProject.SmartWasteManagement.waste.service.BinLocationService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/waste/geo")
+@CrossOrigin(origins = "http://localhost:5173")
+public class GeoController {
+
+    @Autowired
+    private BinLocationService binLocationService;
+
+    @GetMapping("/bins/within")
+    public ResponseEntity<?> getBinsWithinRadius(@RequestParam double lat, @RequestParam double lon,
+                                                 @RequestParam(defaultValue = "500") double radius,
+                                                 @RequestParam(defaultValue = "500") int limit) {
+        try {
+            List<NearbyBinDto> bins = toDtos(binLocationService.findWithinRadius(lat, lon, radius, limit));
+            return ResponseEntity.ok(Map.of("count", bins.size(), "bins", bins));
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    // Map view: bins inside the visible area; "total" tells the client when to zoom in or cluster
+    @GetMapping("/bins/viewport")
+    public ResponseEntity<?> getBinsInViewport(@RequestParam double minLat, @RequestParam double minLon,
+                                               @RequestParam double maxLat, @RequestParam double maxLon,
+                                               @RequestParam(defaultValue = "2000") int limit) {
+        try {
+            int[] total = new int[1];
+            List<NearbyBinDto> bins = binLocationService.findInViewport(minLat, minLon, maxLat, maxLon, limit, total).stream()
+                    .map(entry -> new NearbyBinDto(entry.id(), entry.latitude(), entry.longitude(), null))
+                    .toList();
+            return ResponseEntity.ok(Map.of("total", total[0], "truncated", total[0] > bins.size(), "bins", bins));
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    // Truck app: the k bins closest to the truck's position
+    @GetMapping("/bins/nearest")
+    public ResponseEntity<?> getNearestBins(@RequestParam double lat, @RequestParam double lon,
+                                            @RequestParam(defaultValue = "10") int k) {
+        try {
+            return ResponseEntity.ok(toDtos(binLocationService.findNearest(lat, lon, k)));
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    @GetMapping("/stats")
+    public ResponseEntity<?> getIndexStats() {
+        return ResponseEntity.ok(binLocationService.getStats());
+    }
+
+    @PostMapping("/admin/rebuild")
+    public ResponseEntity<?> rebuildIndex() {
+        try {
+            int bins = binLocationService.rebuild();
+            return ResponseEntity.ok(Map.of("message", "Bin location index rebuilt", "bins", bins));
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    private static List<NearbyBinDto> toDtos(List<Hit> hits) {
+        return hits.stream()
+                .map(hit -> new NearbyBinDto(hit.entry().id(), hit.entry().latitude(), hit.entry().longitude(),
+                        Math.round(hit.distanceMeters() * 10) / 10.0))
+                .toList();
+    }
+}
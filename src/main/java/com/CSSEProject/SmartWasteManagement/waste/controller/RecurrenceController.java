@@ -0,0 +1,91 @@
+package com.CSSEProject.SmartWasteManagement.waste.controller;
+
+import com.CSSEProject.SmartWasteManagement.dto.RecurrenceExceptionRequestDto;
+import com.CSSEProject.SmartWasteManagement.dto.RecurrenceRuleRequestDto;
+import com.CSSEProject.SmartWasteManagement.waste.entity.RecurrenceException;
+import com.CSSEProject.SmartWasteManagement.waste.entity.RecurrenceRule;
+import com.CSSEProject.SmartWasteManagement.waste.service.RecurrenceService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/waste/schedules/recurring")
+@CrossOrigin(origins = "http://localhost:5173")
+public class RecurrenceController {
+
+    @Autowired
+    private RecurrenceService recurrenceService;
+
+    @PostMapping
+    public ResponseEntity<?> createRule(@RequestBody RecurrenceRuleRequestDto request) {
+        try {
+            RecurrenceRule rule = recurrenceService.createRule(request);
+            return ResponseEntity.ok(Map.of(
+                    "message", "Recurring collection created successfully",
+                    "rule", rule
+            ));
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    @GetMapping
+    public ResponseEntity<?> getRules(@RequestParam(required = false) String binId) {
+        return ResponseEntity.ok(recurrenceService.getActiveRules(binId));
+    }
+
+    @GetMapping("/{ruleId}")
+    public ResponseEntity<?> getRule(@PathVariable Long ruleId) {
+        try {
+            return ResponseEntity.ok(recurrenceService.getRule(ruleId));
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    @DeleteMapping("/{ruleId}")
+    public ResponseEntity<?> deactivateRule(@PathVariable Long ruleId) {
+        try {
+            return ResponseEntity.ok(recurrenceService.deactivateRule(ruleId));
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    @GetMapping("/{ruleId}/exceptions")
+    public ResponseEntity<?> getExceptions(@PathVariable Long ruleId) {
+        return ResponseEntity.ok(recurrenceService.getExceptions(ruleId));
+    }
+
+    // Skip one occurrence (no rescheduledTo) or move it to another day
+    @PostMapping("/{ruleId}/exceptions")
+    public ResponseEntity<?> addException(@PathVariable Long ruleId, @RequestBody RecurrenceExceptionRequestDto request) {
+        try {
+            RecurrenceException exception = recurrenceService.addException(ruleId, request);
+            return ResponseEntity.ok(Map.of(
+                    "message", exception.isSkip() ? "Occurrence skipped" : "Occurrence moved",
+                    "exception", exception
+            ));
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    @PostMapping("/admin/materialize")
+    public ResponseEntity<?> materialize() {
+        try {
+            return ResponseEntity.ok(recurrenceService.materializeAll(LocalDate.now()));
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    @GetMapping("/admin/last-run")
+    public ResponseEntity<?> getLastRun() {
+        return ResponseEntity.ok(recurrenceService.getLastRun());
+    }
+}
@@ -0,0 +1,71 @@
+package com.CSSEProject.SmartWasteManagement.waste.controller;
+
+import com.CSSEProject.SmartWasteManagement.waste.service.RoutePlanningService;
+import com.CSSEProject.SmartWasteManagement.waste.service.ScheduleBalancingService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/waste/routes")
+@CrossOrigin(origins = "http://localhost:5173")
+public class RouteController {
+
+    @Autowired
+    private RoutePlanningService routePlanningService;
+
+    @Autowired
+    private ScheduleBalancingService scheduleBalancingService;
+
+    // The stored plan of a day (today by default)
+    @GetMapping
+    public ResponseEntity<?> getPlan(@RequestParam(required = false) String date) {
+        try {
+            return ResponseEntity.ok(routePlanningService.getPlan(date != null ? LocalDate.parse(date) : LocalDate.now()));
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    @GetMapping("/trucks/{truckId}")
+    public ResponseEntity<?> getTruckRoute(@PathVariable String truckId, @RequestParam(required = false) String date) {
+        try {
+            LocalDate day = date != null ? LocalDate.parse(date) : LocalDate.now();
+            return ResponseEntity.ok(routePlanningService.getTruckRoute(day, truckId));
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    @PostMapping("/admin/plan")
+    public ResponseEntity<?> planRoutes(@RequestParam(required = false) String date) {
+        try {
+            return ResponseEntity.ok(routePlanningService.planRoutes(date != null ? LocalDate.parse(date) : LocalDate.now()));
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    // Per-truck load and estimated time of a day's balance (today by default)
+    @GetMapping("/balance")
+    public ResponseEntity<?> getBalance(@RequestParam(required = false) String date) {
+        try {
+            return ResponseEntity.ok(scheduleBalancingService.getBalance(date != null ? LocalDate.parse(date) : LocalDate.now()));
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    // Rebalance a day from scratch; stops that do not fit move to the next day
+    @PostMapping("/admin/balance")
+    public ResponseEntity<?> balance(@RequestParam(required = false) String date) {
+        try {
+            return ResponseEntity.ok(scheduleBalancingService.balance(date != null ? LocalDate.parse(date) : LocalDate.now()));
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+}
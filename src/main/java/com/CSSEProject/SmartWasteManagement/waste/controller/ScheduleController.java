@@ -1,13 +1,19 @@
 package com.CSSEProject.SmartWasteManagement.waste.controller;
 
+import com.CSSEProject.SmartWasteManagement.config.DataVersionRegistry;
+import com.CSSEProject.SmartWasteManagement.dto.BulkScheduleRequestDto;
 import com.CSSEProject.SmartWasteManagement.dto.ScheduleRequestDto;
 import com.CSSEProject.SmartWasteManagement.dto.ScheduleResponseDto;
 import com.CSSEProject.SmartWasteManagement.waste.entity.CollectionSchedule;
+import com.CSSEProject.SmartWasteManagement.waste.service.ScheduleFeedService;
 import com.CSSEProject.SmartWasteManagement.waste.service.ScheduleService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
+import java.time.LocalDate;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -22,6 +28,12 @@ public class ScheduleController {
     @Autowired
     private ScheduleService scheduleService;
 
+    @Autowired
+    private ScheduleFeedService scheduleFeedService;
+
+    @Autowired
+    private DataVersionRegistry dataVersionRegistry;
+
     @PostMapping("/create")
     public ResponseEntity<?> createSchedule(@RequestBody ScheduleRequestDto request) {
         try {
@@ -35,6 +47,25 @@ public class ScheduleController {
         }
     }
 
+    // One pickup day for a list of bins and/or every bin matching a filter
+    @PostMapping("/bulk/create")
+    public ResponseEntity<?> createBulkSchedules(@RequestBody BulkScheduleRequestDto request) {
+        try {
+            return ResponseEntity.ok(scheduleService.createBulkSchedules(request));
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    @PostMapping("/bulk/cancel")
+    public ResponseEntity<?> cancelBulkSchedules(@RequestBody BulkScheduleRequestDto request) {
+        try {
+            return ResponseEntity.ok(scheduleService.cancelBulkSchedules(request));
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
     @GetMapping("/bin/{binId}")
     public ResponseEntity<?> getSchedulesByBin(@PathVariable String binId) {
         try {
@@ -46,7 +77,11 @@ public class ScheduleController {
     }
 
     @GetMapping("/resident/{residentId}")
-    public ResponseEntity<?> getSchedulesByResident(@PathVariable Long residentId) {
+    public ResponseEntity<?> getSchedulesByResident(@PathVariable Long residentId, WebRequest request) {
+        String[] keys = {DataVersionRegistry.SCHEDULES, DataVersionRegistry.resident(residentId)};
+        if (request.checkNotModified(dataVersionRegistry.etag(keys), dataVersionRegistry.lastModified(keys))) {
+            return null; // 304 without touching the database
+        }
         try {
             List<ScheduleResponseDto> schedules = scheduleService.getSchedulesByResident(residentId);
             return ResponseEntity.ok(schedules);
@@ -119,4 +154,24 @@ public class ScheduleController {
             return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
         }
     }
-}
\ No newline at end of file
+
+    // Changes to the day's schedules since the client's last version (0 for a full snapshot);
+    // 304 when nothing changed since the ETag the client sends back
+    @GetMapping("/pending/today/changes")
+    public ResponseEntity<?> getTodayScheduleChanges(@RequestParam(defaultValue = "0") long since,
+                                                     @RequestParam(required = false) String date,
+                                                     @RequestHeader(value = "If-None-Match", required = false) String ifNoneMatch) {
+        try {
+            LocalDate day = date != null ? LocalDate.parse(date) : LocalDate.now();
+            long version = scheduleFeedService.currentVersion(day);
+            String etag = ScheduleFeedService.etag(day, version);
+            if (etag.equals(ifNoneMatch) || since == version) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+            }
+            Map<String, Object> feed = scheduleFeedService.changesSince(day, since);
+            return ResponseEntity.ok().eTag(ScheduleFeedService.etag(day, (Long) feed.get("version"))).body(feed);
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.CSSEProject.SmartWasteManagement.waste.controller;
+
+import com.CSSEProject.SmartWasteManagement.dto.BinLevelReadingDto;
+import com.CSSEProject.SmartWasteManagement.waste.service.BinTelemetryService;
+import com.CSSEProject.SmartWasteManagement.waste.service.LevelHistoryService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/waste/telemetry")
+@CrossOrigin(origins = "http://localhost:5173")
+public class TelemetryController {
+
+    private static final int MAX_READINGS_PER_REQUEST = 10000;
+
+    @Autowired
+    private BinTelemetryService binTelemetryService;
+
+    @Autowired
+    private LevelHistoryService levelHistoryService;
+
+    // Sensor gateways post readings in batches; they are buffered and written on the next flush
+    @PostMapping("/levels")
+    public ResponseEntity<?> ingestLevels(@RequestBody List<BinLevelReadingDto> readings) {
+        if (readings == null || readings.isEmpty()) {
+            return ResponseEntity.badRequest().body(Map.of("error", "No readings supplied"));
+        }
+        if (readings.size() > MAX_READINGS_PER_REQUEST) {
+            return ResponseEntity.badRequest().body(Map.of("error",
+                    "At most " + MAX_READINGS_PER_REQUEST + " readings per request"));
+        }
+        try {
+            Map<Integer, String> rejected = binTelemetryService.ingest(readings);
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(Map.of(
+                    "accepted", readings.size() - rejected.size(),
+                    "rejected", rejected
+            ));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    @GetMapping("/stats")
+    public ResponseEntity<?> getTelemetryStats() {
+        return ResponseEntity.ok(binTelemetryService.getStats());
+    }
+
+    @GetMapping("/history/stats")
+    public ResponseEntity<?> getHistoryStats() {
+        return ResponseEntity.ok(levelHistoryService.getStats());
+    }
+
+    @PostMapping("/flush")
+    public ResponseEntity<?> flush() {
+        try {
+            int updated = binTelemetryService.flush();
+            return ResponseEntity.ok(Map.of("message", "Telemetry flushed", "binsUpdated", updated));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package com.CSSEProject.SmartWasteManagement.waste.controller;
+
+import com.CSSEProject.SmartWasteManagement.dto.TruckPositionDto;
+import com.CSSEProject.SmartWasteManagement.waste.service.TruckPositionService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/waste/trucks")
+@CrossOrigin(origins = "http://localhost:5173")
+public class TruckController {
+
+    private static final int MAX_FIXES_PER_REQUEST = 10000;
+
+    @Autowired
+    private TruckPositionService truckPositionService;
+
+    // Trucks (or a fleet gateway) post GPS fixes in batches; the latest position is visible immediately
+    @PostMapping("/positions")
+    public ResponseEntity<?> ingestPositions(@RequestBody List<TruckPositionDto> fixes) {
+        if (fixes == null || fixes.isEmpty()) {
+            return ResponseEntity.badRequest().body(Map.of("error", "No positions supplied"));
+        }
+        if (fixes.size() > MAX_FIXES_PER_REQUEST) {
+            return ResponseEntity.badRequest().body(Map.of("error",
+                    "At most " + MAX_FIXES_PER_REQUEST + " positions per request"));
+        }
+        try {
+            Map<Integer, String> rejected = truckPositionService.ingest(fixes);
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(Map.of(
+                    "accepted", fixes.size() - rejected.size(),
+                    "rejected", rejected
+            ));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    // Where every truck is now; served from memory
+    @GetMapping("/positions")
+    public ResponseEntity<?> getAllPositions() {
+        List<TruckPositionDto> positions = truckPositionService.getAllPositions();
+        return ResponseEntity.ok(Map.of("count", positions.size(), "positions", positions));
+    }
+
+    @GetMapping("/{truckId}/position")
+    public ResponseEntity<?> getPosition(@PathVariable String truckId) {
+        return truckPositionService.getPosition(truckId)
+                .<ResponseEntity<?>>map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.badRequest().body(Map.of("error", "No position reported for truck " + truckId)));
+    }
+
+    @GetMapping("/{truckId}/track")
+    public ResponseEntity<?> getTrack(@PathVariable String truckId,
+                                      @RequestParam(required = false) String from,
+                                      @RequestParam(required = false) String to) {
+        try {
+            LocalDateTime toTime = to != null ? LocalDateTime.parse(to) : LocalDateTime.now();
+            LocalDateTime fromTime = from != null ? LocalDateTime.parse(from) : toTime.minusHours(12);
+            return ResponseEntity.ok(truckPositionService.getTrack(truckId, fromTime, toTime));
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    @GetMapping("/positions/stats")
+    public ResponseEntity<?> getPositionStats() {
+        return ResponseEntity.ok(truckPositionService.getStats());
+    }
+}
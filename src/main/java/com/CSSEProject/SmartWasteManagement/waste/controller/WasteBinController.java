@@ -1,13 +1,26 @@
 package com.CSSEProject.SmartWasteManagement.waste.controller;
 
+import com.CSSEProject.SmartWasteManagement.config.DataVersionRegistry;
+import com.CSSEProject.SmartWasteManagement.dto.LevelHistoryPointDto;
 import com.CSSEProject.SmartWasteManagement.dto.ScheduleResponseDto;
 import com.CSSEProject.SmartWasteManagement.waste.entity.WasteBin;
 import com.CSSEProject.SmartWasteManagement.waste.entity.BinStatus;
+import com.CSSEProject.SmartWasteManagement.waste.imports.BinImportReader.Format;
+import com.CSSEProject.SmartWasteManagement.waste.service.BinImportService;
+import com.CSSEProject.SmartWasteManagement.waste.service.BinSearchService;
+import com.CSSEProject.SmartWasteManagement.waste.service.BinStatusCounters;
+import com.CSSEProject.SmartWasteManagement.waste.service.LevelHistoryService;
 import com.CSSEProject.SmartWasteManagement.waste.service.ScheduleService;
 import com.CSSEProject.SmartWasteManagement.waste.service.WasteBinService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 
@@ -20,6 +33,16 @@ public class WasteBinController {
     private WasteBinService wasteBinService;
     @Autowired
     private ScheduleService scheduleService;
+    @Autowired
+    private LevelHistoryService levelHistoryService;
+    @Autowired
+    private BinSearchService binSearchService;
+    @Autowired
+    private BinImportService binImportService;
+    @Autowired
+    private BinStatusCounters binStatusCounters;
+    @Autowired
+    private DataVersionRegistry dataVersionRegistry;
 
     @PostMapping
     public ResponseEntity<?> createWasteBin(@RequestBody WasteBin wasteBin,
@@ -32,10 +55,44 @@ public class WasteBinController {
         }
     }
 
+    // Bulk provisioning: the body is streamed as CSV (header line first) or NDJSON, by Content-Type or ?format=
+    @PostMapping("/import")
+    public ResponseEntity<?> importBins(InputStream body,
+                                        @RequestHeader(value = "Content-Type", required = false) String contentType,
+                                        @RequestParam(required = false) String format,
+                                        @RequestParam(defaultValue = "false") boolean dryRun) {
+        try {
+            Format importFormat = format != null ? Format.valueOf(format.toUpperCase())
+                    : contentType != null && contentType.contains("json") ? Format.NDJSON : Format.CSV;
+            return ResponseEntity.ok(binImportService.importBins(
+                    new InputStreamReader(body, StandardCharsets.UTF_8), importFormat, dryRun));
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    // Fuzzy search by street or resident address, best matches first
+    @GetMapping("/search")
+    public ResponseEntity<?> searchBins(@RequestParam String q,
+                                        @RequestParam(defaultValue = "0") int page,
+                                        @RequestParam(defaultValue = "20") int size) {
+        try {
+            return ResponseEntity.ok(binSearchService.search(q, page, size));
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
     @GetMapping("/{binId}")
-    public ResponseEntity<?> getBinById(@PathVariable String binId) {
+    public ResponseEntity<?> getBinById(@PathVariable String binId, WebRequest request) {
+        // The bin and its embedded resident; unconditional until the bin's resident is known
+        String[] keys = dataVersionRegistry.binKeys(binId);
+        if (keys != null && request.checkNotModified(dataVersionRegistry.etag(keys), dataVersionRegistry.lastModified(keys))) {
+            return null; // 304 without touching the database
+        }
         try {
             WasteBin bin = wasteBinService.getBinById(binId);
+            dataVersionRegistry.trackBinResident(binId, bin.getResident() != null ? bin.getResident().getId() : null);
             return ResponseEntity.ok(bin);
         } catch (RuntimeException e) {
             return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
@@ -93,20 +150,35 @@ public class WasteBinController {
         }
     }
 
+    // Counts of all bins, or of one city's bins (the city of the resident's address)
     @GetMapping("/stats/count-by-status")
-    public ResponseEntity<?> getBinCountByStatus() {
+    public ResponseEntity<?> getBinCountByStatus(@RequestParam(required = false) String city) {
         try {
-            Map<String, Long> stats = Map.of(
+            Map<String, Long> stats = city == null
+                    ? Map.of(
                     "active", wasteBinService.getBinCountByStatus(BinStatus.ACTIVE),
                     "needs_emptying", wasteBinService.getBinCountByStatus(BinStatus.NEEDS_EMPTYING),
-                    "needs_maintenance", wasteBinService.getBinCountByStatus(BinStatus.NEEDS_MAINTENANCE)
-            );
+                    "needs_maintenance", wasteBinService.getBinCountByStatus(BinStatus.NEEDS_MAINTENANCE))
+                    : Map.of(
+                    "active", wasteBinService.getBinCountByStatus(city, BinStatus.ACTIVE),
+                    "needs_emptying", wasteBinService.getBinCountByStatus(city, BinStatus.NEEDS_EMPTYING),
+                    "needs_maintenance", wasteBinService.getBinCountByStatus(city, BinStatus.NEEDS_MAINTENANCE));
             return ResponseEntity.ok(stats);
         } catch (Exception e) {
             return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
         }
     }
 
+    // Recount statuses from the database and report how far the live counters had drifted
+    @PostMapping("/stats/reconcile")
+    public ResponseEntity<?> reconcileStatusCounters() {
+        try {
+            return ResponseEntity.ok(binStatusCounters.reconcile());
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
     @PutMapping("/{binId}/level")
     public ResponseEntity<?> updateBinLevel(@PathVariable String binId, @RequestBody Map<String, Double> request) {
         try {
@@ -129,6 +201,40 @@ public class WasteBinController {
         }
     }
 
+    @PutMapping("/{binId}/coordinates")
+    public ResponseEntity<?> updateBinCoordinates(@PathVariable String binId, @RequestBody Map<String, Double> request) {
+        try {
+            WasteBin bin = wasteBinService.updateBinCoordinates(binId, request.get("latitude"), request.get("longitude"));
+            return ResponseEntity.ok(Map.of(
+                    "message", "Bin coordinates updated successfully",
+                    "bin", Map.of(
+                            "binId", bin.getBinId(),
+                            "latitude", bin.getLatitude(),
+                            "longitude", bin.getLongitude()
+                    )
+            ));
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    // Fill-level history for charts; defaults to the last 7 days
+    @GetMapping("/{binId}/level-history")
+    public ResponseEntity<?> getLevelHistory(@PathVariable String binId,
+                                             @RequestParam(required = false) String from,
+                                             @RequestParam(required = false) String to) {
+        try {
+            LocalDateTime toTime = to != null ? LocalDateTime.parse(to) : LocalDateTime.now();
+            LocalDateTime fromTime = from != null ? LocalDateTime.parse(from) : toTime.minusDays(7);
+            List<LevelHistoryPointDto> points = levelHistoryService.getHistory(binId, fromTime, toTime).stream()
+                    .map(point -> new LevelHistoryPointDto(point.timestamp(), point.level()))
+                    .toList();
+            return ResponseEntity.ok(Map.of("binId", binId, "from", fromTime, "to", toTime, "points", points));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
     // FIXED: Use ScheduleResponseDto instead of CollectionSchedule
     @GetMapping("/{binId}/schedule/today")
     public ResponseEntity<?> getTodaySchedule(@PathVariable String binId) {
@@ -13,9 +13,15 @@ import java.util.List;
 
 // File: backend/src/main/java/com/CSSEProject/SmartWasteManagement/waste/entity/CollectionEvent.java
 @Entity
-@Table(name = "collection_events")
+@Table(name = "collection_events", indexes = {
+        @Index(name = "idx_collection_events_collector_time", columnList = "collector_id, collection_time")
+})
 @Data
 @JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
+// Fetch plan for endpoints that return collection events as JSON (bin, its resident and the collector in one query)
+@NamedEntityGraph(name = "CollectionEvent.withBinAndCollector",
+        attributeNodes = {@NamedAttributeNode(value = "wasteBin", subgraph = "bin"), @NamedAttributeNode("collector")},
+        subgraphs = @NamedSubgraph(name = "bin", attributeNodes = @NamedAttributeNode("resident")))
 public class CollectionEvent {
 
     @Id
@@ -42,12 +48,14 @@ public class CollectionEvent {
     private Integer recyclableItemsCount = 0;
 
     // Relationships
-    @ManyToOne(fetch = FetchType.EAGER)
+    // LAZY: queries that need the bin or collector say so with the entity graph above or a fetch join
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "bin_id")
     private WasteBin wasteBin;
 
-    @ManyToOne(fetch = FetchType.EAGER)
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "collector_id")
+    @JsonIgnoreProperties({"password", "pendingCharges", "recyclingCredits", "wasteBins"}) // Same view of a user as WasteBin.resident
     private User collector;
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -0,0 +1,31 @@
+package com.CSSEProject.SmartWasteManagement.waste.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+// Totals of one archived month of collection_events; the month's rows live only in the archive file
+@Entity
+@Table(name = "collection_monthly_rollups")
+@Data
+public class CollectionMonthlyRollup {
+
+    // First day of the month ("month" is a reserved word in H2)
+    @Id
+    @Column(name = "month_start")
+    private LocalDate month;
+
+    @Column(nullable = false)
+    private Long collections;
+
+    @Column(nullable = false)
+    private Double totalWeight;
+
+    @Column(nullable = false)
+    private Double totalRevenue;
+
+    private String archiveFile;
+
+    private LocalDateTime archivedAt;
+}
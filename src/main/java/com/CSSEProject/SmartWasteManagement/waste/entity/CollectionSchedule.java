@@ -3,12 +3,15 @@ package com.CSSEProject.SmartWasteManagement.waste.entity;
 import com.fasterxml.jackson.annotation.JsonBackReference;
 import jakarta.persistence.*;
 import lombok.Data;
+import org.hibernate.annotations.ColumnDefault;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 
 @Entity
 @Table(name = "collection_schedules")
 @Data
+// Fetch plan for schedule lists converted to ScheduleResponseDto (bin details; the resident id comes from the bin's foreign key)
+@NamedEntityGraph(name = "CollectionSchedule.withBin", attributeNodes = @NamedAttributeNode("wasteBin"))
 public class CollectionSchedule {
 
     @Id
@@ -27,8 +30,21 @@ public class CollectionSchedule {
     @Column(nullable = false)
     private ScheduleStatus status = ScheduleStatus.PENDING;
 
+    // Optimistic lock on status changes: completion by a collection vs. cancellation
+    @Version
+    @ColumnDefault("0")
+    private Long version;
+
     private String notes;
 
+    // Set when the schedule was materialized from a RecurrenceRule
+    @Column(name = "recurrence_rule_id")
+    private Long recurrenceRuleId;
+
+    // Original day when load balancing pushed the schedule to a later day (placed first there)
+    @Column(name = "deferred_from")
+    private LocalDate deferredFrom;
+
     @Column(nullable = false)
     private LocalDateTime createdAt = LocalDateTime.now();
 
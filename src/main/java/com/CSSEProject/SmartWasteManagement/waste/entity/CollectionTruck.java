@@ -20,6 +20,16 @@ public class CollectionTruck {
 
     private String assignedRoute;
 
+    // Where the truck starts and ends its daily route; null when unknown
+    private Double depotLatitude;
+
+    private Double depotLongitude;
+
+    // Limits for daily load balancing; null uses the balancing.default-* settings
+    private Double capacityKg;
+
+    private Integer shiftMinutes;
+
     private String currentDriver;
 
     private Boolean active = true;
@@ -0,0 +1,24 @@
+package com.CSSEProject.SmartWasteManagement.waste.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+// A collector's totals over all archived months, added to the live rows for lifetime stats
+@Entity
+@Table(name = "collector_archive_totals")
+@Data
+public class CollectorArchiveTotals {
+
+    @Id
+    @Column(name = "collector_id")
+    private Long collectorId;
+
+    @Column(nullable = false)
+    private Long collections;
+
+    @Column(nullable = false)
+    private Double totalWeight;
+
+    @Column(nullable = false)
+    private Double totalRevenue;
+}
@@ -0,0 +1,40 @@
+package com.CSSEProject.SmartWasteManagement.waste.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+// Overrides one occurrence of a RecurrenceRule: skipped, or moved to another day.
+// Without a binId it applies to every bin of the rule; a bin-specific exception wins over it.
+@Entity
+@Table(name = "recurrence_exceptions", indexes = {
+        @Index(name = "idx_recurrence_exceptions_rule_date", columnList = "rule_id, occurrence_date")
+})
+@Data
+public class RecurrenceException {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "rule_id", nullable = false)
+    private Long ruleId;
+
+    @Column(name = "occurrence_date", nullable = false)
+    private LocalDate occurrenceDate;
+
+    @Column(name = "bin_id")
+    private String binId;
+
+    private LocalDate rescheduledTo; // null means the occurrence is skipped
+
+    private String reason;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt = LocalDateTime.now();
+
+    public boolean isSkip() {
+        return rescheduledTo == null;
+    }
+}
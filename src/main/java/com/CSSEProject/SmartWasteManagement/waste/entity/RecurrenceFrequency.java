@@ -0,0 +1,16 @@
+package com.CSSEProject.SmartWasteManagement.waste.entity;
+
+public enum RecurrenceFrequency {
+    WEEKLY(1),
+    BIWEEKLY(2);
+
+    private final int weeks;
+
+    RecurrenceFrequency(int weeks) {
+        this.weeks = weeks;
+    }
+
+    public int getWeeks() {
+        return weeks;
+    }
+}
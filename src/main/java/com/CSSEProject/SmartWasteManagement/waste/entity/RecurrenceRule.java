@@ -0,0 +1,60 @@
+package com.CSSEProject.SmartWasteManagement.waste.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+// A standing pickup for one bin, or for every bin inside a zone (a latitude/longitude box).
+// Concrete CollectionSchedule rows are only materialized a short horizon ahead by RecurrenceService.
+@Entity
+@Table(name = "recurrence_rules", indexes = {
+        @Index(name = "idx_recurrence_rules_active", columnList = "active")
+})
+@Data
+public class RecurrenceRule {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "bin_id")
+    private String binId; // set for a single-bin rule
+
+    private String zoneName; // set for a zone rule, together with the box below
+
+    private Double minLatitude;
+    private Double minLongitude;
+    private Double maxLatitude;
+    private Double maxLongitude;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private RecurrenceFrequency frequency;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private DayOfWeek dayOfWeek;
+
+    // First occurrence is the first dayOfWeek on or after this date; biweekly rules count from it
+    @Column(nullable = false)
+    private LocalDate startDate;
+
+    private LocalDate endDate; // inclusive, null for open-ended
+
+    @Column(nullable = false)
+    private Boolean active = true;
+
+    // Occurrences up to this day have been written to collection_schedules
+    private LocalDate materializedThrough;
+
+    private String notes;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt = LocalDateTime.now();
+
+    public boolean isZoneRule() {
+        return binId == null;
+    }
+}
@@ -50,7 +50,8 @@ public class RecyclingCollection {
     private Invoice invoice;
 
     @ManyToOne(fetch = FetchType.LAZY)
-    @JoinColumn(name = "collection_event_id")
+    // No database foreign key: collection_events is partitioned on collection_time, so id alone is not unique there
+    @JoinColumn(name = "collection_event_id", foreignKey = @ForeignKey(ConstraintMode.NO_CONSTRAINT))
     @JsonIgnore
     private CollectionEvent collectionEvent;
 
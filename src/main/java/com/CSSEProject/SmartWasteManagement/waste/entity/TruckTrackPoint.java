@@ -0,0 +1,35 @@
+package com.CSSEProject.SmartWasteManagement.waste.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import java.time.LocalDateTime;
+
+// Downsampled GPS track of a truck, written in batches by TruckPositionService
+@Entity
+@Table(name = "truck_track_points", indexes = {
+        @Index(name = "idx_truck_track_points_truck_time", columnList = "truck_id, recorded_at")
+})
+@Data
+public class TruckTrackPoint {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "truck_id", nullable = false)
+    private String truckId;
+
+    @Column(nullable = false)
+    private Double latitude;
+
+    @Column(nullable = false)
+    private Double longitude;
+
+    @Column(name = "speed_kmh")
+    private Double speedKmh;
+
+    private Double heading;
+
+    @Column(name = "recorded_at", nullable = false)
+    private LocalDateTime recordedAt;
+}
@@ -7,7 +7,9 @@ import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.fasterxml.jackson.annotation.JsonManagedReference;
 import jakarta.persistence.*;
 import lombok.Data;
+import org.hibernate.annotations.ColumnDefault;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -15,6 +17,8 @@ import java.util.List;
 @Table(name = "waste_bins")
 @Data
 @JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
+// Fetch plan for bin lists returned as JSON, which include the resident
+@NamedEntityGraph(name = "WasteBin.withResident", attributeNodes = @NamedAttributeNode("resident"))
 public class WasteBin {
 
     @Id
@@ -23,6 +27,11 @@ public class WasteBin {
 
     private String location;
 
+    // WGS84 position for map and nearest-bin queries (see BinLocationService); null until surveyed
+    private Double latitude;
+
+    private Double longitude;
+
     @Enumerated(EnumType.STRING)
     @Column(name = "bin_type")
     private BinType binType;
@@ -32,9 +41,18 @@ public class WasteBin {
     @Column(name = "current_level")
     private Double currentLevel = 0.0;
 
+    // When currentLevel was measured; buffered telemetry older than this never overwrites it
+    @Column(name = "level_updated_at")
+    private LocalDateTime levelUpdatedAt;
+
     @Enumerated(EnumType.STRING)
     private BinStatus status = BinStatus.ACTIVE;
 
+    // Optimistic lock: a scan and a level update of the same bin cannot overwrite each other (see RetryOnConflict)
+    @Version
+    @ColumnDefault("0")
+    private Long version;
+
     @Column(name = "rfid_tag")
     private String rfidTag;
 
@@ -45,7 +63,7 @@ public class WasteBin {
     private LocalDate installationDate;
 
     // Option 2: Use @JsonIgnoreProperties with specific fields to exclude
-    @ManyToOne(fetch = FetchType.EAGER)
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "resident_id")
     @JsonIgnoreProperties({"password", "pendingCharges", "recyclingCredits", "wasteBins"}) // Break circular reference
     private User resident;
@@ -0,0 +1,101 @@
+package com.CSSEProject.SmartWasteManagement.waste.forecast;
+
+import com.CSSEProject.SmartWasteManagement.waste.history.LevelPoint;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Estimates how fast a bin fills from its level history
+ *
+ * The history is cut into fill cycles at every emptying (a drop of more than RESET_DROP points).
+ * Each cycle gets a Theil-Sen slope (median of pairwise slopes), which ignores the odd bad
+ * sensor reading that would skew a least-squares fit. The cycle rates are then combined with an
+ * EWMA in time order, so the latest cycles count most while one unusual week does not.
+ */
+public final class FillRateEstimator {
+
+    public static final double RESET_DROP = 10.0;
+
+    private static final long MIN_CYCLE_SECONDS = 30 * 60;
+    private static final int MAX_POINTS_PER_CYCLE = 64; // keeps the pairwise slopes at ~2000 per cycle
+
+    public record FillRate(double percentPerHour, int samples, int cycles) {
+    }
+
+    private FillRateEstimator() {
+    }
+
+    /**
+     * @param points History sorted by time
+     * @param alpha  EWMA weight of the newest cycle (0..1]
+     * @return The estimated rate, or null when no cycle spans enough time to fit
+     */
+    public static FillRate estimate(List<LevelPoint> points, double alpha) {
+        if (alpha <= 0 || alpha > 1) {
+            throw new IllegalArgumentException("alpha must be in (0, 1]");
+        }
+        Double ewma = null;
+        int cycles = 0;
+        int samples = 0;
+        for (List<LevelPoint> cycle : splitIntoCycles(points)) {
+            if (cycle.size() < 2 || cycle.get(cycle.size() - 1).epochSecond() - cycle.get(0).epochSecond() < MIN_CYCLE_SECONDS) {
+                continue;
+            }
+            // Levels only go down when emptied, so a negative fit is sensor noise
+            double rate = Math.max(0.0, theilSenSlopePerHour(cycle));
+            ewma = ewma == null ? rate : alpha * rate + (1 - alpha) * ewma;
+            cycles++;
+            samples += cycle.size();
+        }
+        return ewma == null ? null : new FillRate(ewma, samples, cycles);
+    }
+
+    static List<List<LevelPoint>> splitIntoCycles(List<LevelPoint> points) {
+        List<List<LevelPoint>> cycles = new ArrayList<>();
+        List<LevelPoint> current = new ArrayList<>();
+        for (LevelPoint point : points) {
+            if (!current.isEmpty() && current.get(current.size() - 1).level() - point.level() > RESET_DROP) {
+                cycles.add(current);
+                current = new ArrayList<>();
+            }
+            current.add(point);
+        }
+        if (!current.isEmpty()) {
+            cycles.add(current);
+        }
+        return cycles;
+    }
+
+    static double theilSenSlopePerHour(List<LevelPoint> cycle) {
+        List<LevelPoint> sample = evenlySpaced(cycle, MAX_POINTS_PER_CYCLE);
+        double[] slopes = new double[sample.size() * (sample.size() - 1) / 2];
+        int count = 0;
+        for (int i = 0; i < sample.size(); i++) {
+            for (int j = i + 1; j < sample.size(); j++) {
+                long seconds = sample.get(j).epochSecond() - sample.get(i).epochSecond();
+                if (seconds > 0) {
+                    slopes[count++] = (sample.get(j).level() - sample.get(i).level()) * 3600.0 / seconds;
+                }
+            }
+        }
+        if (count == 0) {
+            return 0.0;
+        }
+        Arrays.sort(slopes, 0, count);
+        return count % 2 == 1 ? slopes[count / 2] : (slopes[count / 2 - 1] + slopes[count / 2]) / 2;
+    }
+
+    private static List<LevelPoint> evenlySpaced(List<LevelPoint> points, int max) {
+        if (points.size() <= max) {
+            return points;
+        }
+        List<LevelPoint> sample = new ArrayList<>(max);
+        double step = (points.size() - 1) / (double) (max - 1);
+        for (int i = 0; i < max; i++) {
+            sample.add(points.get((int) Math.round(i * step)));
+        }
+        return sample;
+    }
+}
@@ -0,0 +1,318 @@
+package com.CSSEProject.SmartWasteManagement.waste.geo;
+
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+/**
+ * In-memory point index on a fixed latitude/longitude grid
+ *
+ * Points are bucketed into square cells of cellDegrees; a query only visits the cells its area
+ * touches, so the cost depends on the bins near the query rather than on the total. Updates move
+ * one entry between two cells. Readers share a lock, writers are exclusive.
+ */
+public class GeoGridIndex {
+
+    private static final double EARTH_RADIUS_METERS = 6_371_008.8;
+    private static final double METERS_PER_DEGREE = Math.PI * EARTH_RADIUS_METERS / 180;
+
+    public record Entry(String id, double latitude, double longitude) {
+    }
+
+    public record Hit(Entry entry, double distanceMeters) {
+    }
+
+    private final double cellDegrees;
+    private final Map<Long, List<Entry>> cells = new HashMap<>();
+    private final Map<String, Entry> entries = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    public GeoGridIndex(double cellDegrees) {
+        if (cellDegrees <= 0 || cellDegrees > 10) {
+            throw new IllegalArgumentException("cellDegrees must be in (0, 10]");
+        }
+        this.cellDegrees = cellDegrees;
+    }
+
+    /**
+     * Insert a point or move it to a new position
+     */
+    public void put(String id, double latitude, double longitude) {
+        validate(latitude, longitude);
+        Entry entry = new Entry(id, latitude, longitude);
+        lock.writeLock().lock();
+        try {
+            Entry previous = entries.put(id, entry);
+            if (previous != null) {
+                removeFromCell(previous);
+            }
+            cells.computeIfAbsent(cellOf(latitude, longitude), key -> new ArrayList<>()).add(entry);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(String id) {
+        lock.writeLock().lock();
+        try {
+            Entry previous = entries.remove(id);
+            if (previous != null) {
+                removeFromCell(previous);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Replace the whole content in one step
+     */
+    public void replaceAll(Collection<Entry> all) {
+        Map<Long, List<Entry>> newCells = new HashMap<>();
+        Map<String, Entry> newEntries = new HashMap<>(all.size() * 4 / 3 + 1);
+        for (Entry entry : all) {
+            validate(entry.latitude(), entry.longitude());
+            Entry previous = newEntries.put(entry.id(), entry);
+            if (previous != null) {
+                newCells.get(cellOf(previous.latitude(), previous.longitude())).remove(previous);
+            }
+            newCells.computeIfAbsent(cellOf(entry.latitude(), entry.longitude()), key -> new ArrayList<>()).add(entry);
+        }
+        lock.writeLock().lock();
+        try {
+            cells.clear();
+            cells.putAll(newCells);
+            entries.clear();
+            entries.putAll(newEntries);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return entries.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int cellCount() {
+        lock.readLock().lock();
+        try {
+            return cells.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Points within radiusMeters of the given position, nearest first
+     */
+    public List<Hit> withinRadius(double latitude, double longitude, double radiusMeters, int limit) {
+        validate(latitude, longitude);
+        double latDelta = radiusMeters / METERS_PER_DEGREE;
+        double lonDelta = radiusMeters / (METERS_PER_DEGREE * Math.max(0.01, Math.cos(Math.toRadians(Math.min(89.9, Math.abs(latitude) + latDelta)))));
+        List<Hit> hits = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            forEachCellInBox(latitude - latDelta, longitude - lonDelta, latitude + latDelta, longitude + lonDelta, cell -> {
+                for (Entry entry : cell) {
+                    double distance = distanceMeters(latitude, longitude, entry.latitude(), entry.longitude());
+                    if (distance <= radiusMeters) {
+                        hits.add(new Hit(entry, distance));
+                    }
+                }
+            });
+        } finally {
+            lock.readLock().unlock();
+        }
+        hits.sort(Comparator.comparingDouble(Hit::distanceMeters));
+        return hits.size() > limit ? new ArrayList<>(hits.subList(0, limit)) : hits;
+    }
+
+    /**
+     * Points inside a latitude/longitude box (a map viewport), at most limit of them
+     *
+     * @param total Receives the number of points in the box, which may exceed limit
+     */
+    public List<Entry> inBox(double minLatitude, double minLongitude, double maxLatitude, double maxLongitude,
+                             int limit, int[] total) {
+        validate(minLatitude, minLongitude);
+        validate(maxLatitude, maxLongitude);
+        if (minLatitude > maxLatitude || minLongitude > maxLongitude) {
+            throw new IllegalArgumentException("Box minimum must not exceed its maximum");
+        }
+        List<Entry> result = new ArrayList<>();
+        int[] count = {0};
+        lock.readLock().lock();
+        try {
+            forEachCellInBox(minLatitude, minLongitude, maxLatitude, maxLongitude, cell -> {
+                for (Entry entry : cell) {
+                    if (entry.latitude() >= minLatitude && entry.latitude() <= maxLatitude
+                            && entry.longitude() >= minLongitude && entry.longitude() <= maxLongitude) {
+                        count[0]++;
+                        if (result.size() < limit) {
+                            result.add(entry);
+                        }
+                    }
+                }
+            });
+        } finally {
+            lock.readLock().unlock();
+        }
+        if (total != null && total.length > 0) {
+            total[0] = count[0];
+        }
+        return result;
+    }
+
+    /**
+     * The k points nearest to the given position, nearest first. Searches rings of cells outwards
+     * and stops once no unvisited cell can hold a closer point than the k-th found.
+     */
+    public List<Hit> nearest(double latitude, double longitude, int k) {
+        validate(latitude, longitude);
+        if (k <= 0) {
+            return List.of();
+        }
+        PriorityQueue<Hit> best = new PriorityQueue<>(Comparator.comparingDouble(Hit::distanceMeters).reversed());
+        long centerLat = index(latitude + 90);
+        long centerLon = index(longitude + 180);
+        lock.readLock().lock();
+        try {
+            int visited = 0;
+            for (int ring = 0; visited < entries.size(); ring++) {
+                if (best.size() == k && best.peek().distanceMeters() <= minRingDistanceMeters(latitude, ring)) {
+                    break;
+                }
+                // Far from every point (or wrapping around the globe) a full scan is cheaper than more rings
+                long ringCells = (2L * ring + 1) * (2L * ring + 1);
+                if (ringCells > 4L * cells.size() || 2L * ring + 1 >= lonCells()) {
+                    best.clear();
+                    for (Entry entry : entries.values()) {
+                        offer(best, k, entry, distanceMeters(latitude, longitude, entry.latitude(), entry.longitude()));
+                    }
+                    break;
+                }
+                for (long latIndex = centerLat - ring; latIndex <= centerLat + ring; latIndex++) {
+                    boolean edgeRow = latIndex == centerLat - ring || latIndex == centerLat + ring;
+                    long step = edgeRow || ring == 0 ? 1 : 2L * ring;
+                    for (long lonIndex = centerLon - ring; lonIndex <= centerLon + ring; lonIndex += step) {
+                        List<Entry> cell = cells.get(key(latIndex, Math.floorMod(lonIndex, lonCells())));
+                        if (cell == null) {
+                            continue;
+                        }
+                        visited += cell.size();
+                        for (Entry entry : cell) {
+                            offer(best, k, entry, distanceMeters(latitude, longitude, entry.latitude(), entry.longitude()));
+                        }
+                    }
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        List<Hit> result = new ArrayList<>(best);
+        result.sort(Comparator.comparingDouble(Hit::distanceMeters));
+        return result;
+    }
+
+    private static void offer(PriorityQueue<Hit> best, int k, Entry entry, double distance) {
+        if (best.size() < k) {
+            best.add(new Hit(entry, distance));
+        } else if (distance < best.peek().distanceMeters()) {
+            best.poll();
+            best.add(new Hit(entry, distance));
+        }
+    }
+
+    public static double distanceMeters(double lat1, double lon1, double lat2, double lon2) {
+        double dLat = Math.toRadians(lat2 - lat1);
+        double dLon = Math.toRadians(lon2 - lon1);
+        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2)
+                + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2)) * Math.sin(dLon / 2) * Math.sin(dLon / 2);
+        return 2 * EARTH_RADIUS_METERS * Math.asin(Math.min(1.0, Math.sqrt(a)));
+    }
+
+    // Cells of ring r are at least r-1 whole cells away; longitude cells shrink towards the poles
+    private double minRingDistanceMeters(double latitude, int ring) {
+        if (ring <= 1) {
+            return 0;
+        }
+        double poleward = Math.min(89.9, Math.abs(latitude) + ring * cellDegrees);
+        return (ring - 1) * cellDegrees * METERS_PER_DEGREE * Math.cos(Math.toRadians(poleward));
+    }
+
+    // Visit the cells a box overlaps, or all cells when that is fewer (zoomed-out viewports)
+    private void forEachCellInBox(double minLat, double minLon, double maxLat, double maxLon,
+                                  Consumer<List<Entry>> visitor) {
+        long minLatIndex = index(Math.max(-90, minLat) + 90);
+        long maxLatIndex = index(Math.min(90, maxLat) + 90);
+        long minLonIndex = index(minLon + 180);
+        long maxLonIndex = index(maxLon + 180);
+        long boxCells = (maxLatIndex - minLatIndex + 1) * (maxLonIndex - minLonIndex + 1);
+        if (boxCells > cells.size()) {
+            for (Map.Entry<Long, List<Entry>> cell : cells.entrySet()) {
+                long latIndex = cell.getKey() >> 32;
+                long lonIndex = cell.getKey() & 0xFFFFFFFFL;
+                if (latIndex >= minLatIndex && latIndex <= maxLatIndex && inLonRange(lonIndex, minLonIndex, maxLonIndex)) {
+                    visitor.accept(cell.getValue());
+                }
+            }
+            return;
+        }
+        for (long latIndex = minLatIndex; latIndex <= maxLatIndex; latIndex++) {
+            for (long lonIndex = minLonIndex; lonIndex <= maxLonIndex; lonIndex++) {
+                List<Entry> cell = cells.get(key(latIndex, Math.floorMod(lonIndex, lonCells())));
+                if (cell != null) {
+                    visitor.accept(cell);
+                }
+            }
+        }
+    }
+
+    // A radius box may wrap around the antimeridian, so compare modulo the number of longitude cells
+    private boolean inLonRange(long lonIndex, long minLonIndex, long maxLonIndex) {
+        long span = maxLonIndex - minLonIndex;
+        return span >= lonCells() - 1 || Math.floorMod(lonIndex - minLonIndex, lonCells()) <= span;
+    }
+
+    private void removeFromCell(Entry entry) {
+        long key = cellOf(entry.latitude(), entry.longitude());
+        List<Entry> cell = cells.get(key);
+        if (cell != null) {
+            cell.remove(entry);
+            if (cell.isEmpty()) {
+                cells.remove(key);
+            }
+        }
+    }
+
+    private long cellOf(double latitude, double longitude) {
+        return key(index(latitude + 90), Math.floorMod(index(longitude + 180), lonCells()));
+    }
+
+    private long index(double shiftedDegrees) {
+        return (long) Math.floor(shiftedDegrees / cellDegrees);
+    }
+
+    private long lonCells() {
+        return (long) Math.ceil(360 / cellDegrees);
+    }
+
+    private static long key(long latIndex, long lonIndex) {
+        return (latIndex << 32) | (lonIndex & 0xFFFFFFFFL);
+    }
+
+    private static void validate(double latitude, double longitude) {
+        if (Double.isNaN(latitude) || latitude < -90 || latitude > 90) {
+            throw new IllegalArgumentException("Latitude must be between -90 and 90");
+        }
+        if (Double.isNaN(longitude) || longitude < -180 || longitude > 180) {
+            throw new IllegalArgumentException("Longitude must be between -180 and 180");
+        }
+    }
+}
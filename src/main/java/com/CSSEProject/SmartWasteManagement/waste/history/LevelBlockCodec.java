@@ -0,0 +1,142 @@
+package com.CSSEProject.SmartWasteManagement.waste.history;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * Binary encoding of one bin's run of fill-level readings (a block)
+ *
+ * Layout, big-endian:
+ * <pre>
+ * int     length of everything after this field
+ * short   binId length, then the binId in UTF-8
+ * varint  point count
+ * long    first timestamp (epoch seconds)
+ * byte    first level
+ * then per further point:
+ * varint  zigzag delta-of-delta of the timestamp (the first one is a plain delta)
+ * byte    level
+ * </pre>
+ * Levels are stored in half-percent steps (0..200), which is finer than the sensors resolve.
+ * A bin reporting on a fixed interval costs two bytes per reading after the block header.
+ */
+public final class LevelBlockCodec {
+
+    private LevelBlockCodec() {
+    }
+
+    public static byte quantize(double level) {
+        long steps = Math.round(Math.max(0.0, Math.min(100.0, level)) * 2);
+        return (byte) steps;
+    }
+
+    public static double dequantize(byte level) {
+        return (level & 0xFF) / 2.0;
+    }
+
+    /**
+     * Encode points (sorted by time) of one bin into a block
+     */
+    public static byte[] encode(String binId, long[] epochSeconds, byte[] levels, int count) {
+        if (count <= 0) {
+            throw new IllegalArgumentException("A block needs at least one point");
+        }
+        byte[] id = binId.getBytes(StandardCharsets.UTF_8);
+        ByteArrayOutputStream body = new ByteArrayOutputStream(16 + id.length + count * 2);
+        body.write(id.length >>> 8);
+        body.write(id.length);
+        body.writeBytes(id);
+        writeVarint(body, count);
+        writeLong(body, epochSeconds[0]);
+        body.write(levels[0]);
+
+        long previousDelta = 0;
+        for (int i = 1; i < count; i++) {
+            long delta = epochSeconds[i] - epochSeconds[i - 1];
+            writeVarint(body, zigzag(delta - previousDelta));
+            body.write(levels[i]);
+            previousDelta = delta;
+        }
+
+        byte[] payload = body.toByteArray();
+        return ByteBuffer.allocate(4 + payload.length).putInt(payload.length).put(payload).array();
+    }
+
+    /**
+     * Bin id of the block starting at the given offset, without decoding its points
+     */
+    public static String readBinId(ByteBuffer buffer, int offset) {
+        int idLength = buffer.getShort(offset + 4) & 0xFFFF;
+        byte[] id = new byte[idLength];
+        buffer.get(offset + 6, id);
+        return new String(id, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Total size of the block starting at the given offset, length field included
+     */
+    public static int blockSize(ByteBuffer buffer, int offset) {
+        return 4 + buffer.getInt(offset);
+    }
+
+    /**
+     * Decode the points of the block at the given offset that fall in [fromEpoch, toEpoch]
+     */
+    public static void decode(ByteBuffer buffer, int offset, long fromEpoch, long toEpoch, List<LevelPoint> out) {
+        int idLength = buffer.getShort(offset + 4) & 0xFFFF;
+        int[] position = {offset + 6 + idLength};
+        int count = (int) readVarint(buffer, position);
+        long timestamp = buffer.getLong(position[0]);
+        position[0] += 8;
+        byte level = buffer.get(position[0]++);
+        if (timestamp >= fromEpoch && timestamp <= toEpoch) {
+            out.add(new LevelPoint(timestamp, level));
+        }
+
+        long delta = 0;
+        for (int i = 1; i < count; i++) {
+            delta += unzigzag(readVarint(buffer, position));
+            timestamp += delta;
+            level = buffer.get(position[0]++);
+            if (timestamp >= fromEpoch && timestamp <= toEpoch) {
+                out.add(new LevelPoint(timestamp, level));
+            }
+        }
+    }
+
+    static long zigzag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    static long unzigzag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    private static void writeVarint(ByteArrayOutputStream out, long value) {
+        while ((value & ~0x7FL) != 0) {
+            out.write((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.write((int) value);
+    }
+
+    private static long readVarint(ByteBuffer buffer, int[] position) {
+        long value = 0;
+        int shift = 0;
+        byte b;
+        do {
+            b = buffer.get(position[0]++);
+            value |= (long) (b & 0x7F) << shift;
+            shift += 7;
+        } while ((b & 0x80) != 0);
+        return value;
+    }
+
+    private static void writeLong(ByteArrayOutputStream out, long value) {
+        for (int shift = 56; shift >= 0; shift -= 8) {
+            out.write((int) (value >>> shift));
+        }
+    }
+}
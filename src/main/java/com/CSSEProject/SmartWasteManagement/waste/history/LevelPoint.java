@@ -0,0 +1,27 @@
+package com.CSSEProject.SmartWasteManagement.waste.history;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * One stored fill-level reading: local time as epoch seconds and the quantized level
+ */
+public record LevelPoint(long epochSecond, byte quantizedLevel) {
+
+    public static LevelPoint of(LocalDateTime timestamp, double level) {
+        return new LevelPoint(toEpoch(timestamp), LevelBlockCodec.quantize(level));
+    }
+
+    public LocalDateTime timestamp() {
+        return LocalDateTime.ofEpochSecond(epochSecond, 0, ZoneOffset.UTC);
+    }
+
+    public double level() {
+        return LevelBlockCodec.dequantize(quantizedLevel);
+    }
+
+    // Local date-times are stored as if they were UTC, so day boundaries match the local calendar
+    public static long toEpoch(LocalDateTime timestamp) {
+        return timestamp.toEpochSecond(ZoneOffset.UTC);
+    }
+}
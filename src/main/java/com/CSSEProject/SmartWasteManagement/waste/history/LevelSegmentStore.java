@@ -0,0 +1,280 @@
+package com.CSSEProject.SmartWasteManagement.waste.history;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.*;
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+/**
+ * Append-only segment files of encoded level blocks, one file per day and resolution
+ *
+ * <pre>
+ * {root}/raw/2025-06-30.seg      every reading
+ * {root}/hourly/2025-06-30.seg   last reading per bin and hour (downsampled raw days)
+ * </pre>
+ * A segment is a 4-byte magic followed by blocks (see LevelBlockCodec). Reads go through a
+ * memory-mapped view; the per-bin block offsets are indexed the first time a segment is read
+ * and extended as the file grows, so a range scan only decodes the blocks of one bin.
+ */
+public class LevelSegmentStore {
+
+    public enum Resolution { RAW, HOURLY }
+
+    private static final byte[] MAGIC = {'L', 'V', 'H', '1'};
+    private static final String SUFFIX = ".seg";
+
+    private final Path root;
+    private final Map<Path, Segment> segments = new ConcurrentHashMap<>();
+
+    public LevelSegmentStore(Path root) {
+        this.root = root;
+    }
+
+    /**
+     * Append encoded blocks to the segment of a day
+     */
+    public void append(Resolution resolution, LocalDate day, List<byte[]> blocks) {
+        if (blocks.isEmpty()) {
+            return;
+        }
+        Path path = pathOf(resolution, day);
+        Segment segment = segment(path);
+        synchronized (segment) {
+            try {
+                Files.createDirectories(path.getParent());
+                try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+                    if (channel.size() == 0) {
+                        channel.write(ByteBuffer.wrap(MAGIC));
+                    }
+                    for (byte[] block : blocks) {
+                        ByteBuffer buffer = ByteBuffer.wrap(block);
+                        while (buffer.hasRemaining()) {
+                            channel.write(buffer);
+                        }
+                    }
+                    channel.force(false);
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to append to level segment " + path, e);
+            }
+        }
+    }
+
+    /**
+     * Replace a day's segment in one step (used by downsampling): written to a temp file, then moved
+     */
+    public void replace(Resolution resolution, LocalDate day, List<byte[]> blocks) {
+        Path path = pathOf(resolution, day);
+        Segment segment = segment(path);
+        synchronized (segment) {
+            try {
+                Files.createDirectories(path.getParent());
+                Path temp = path.resolveSibling(path.getFileName() + ".tmp");
+                try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                    channel.write(ByteBuffer.wrap(MAGIC));
+                    for (byte[] block : blocks) {
+                        ByteBuffer buffer = ByteBuffer.wrap(block);
+                        while (buffer.hasRemaining()) {
+                            channel.write(buffer);
+                        }
+                    }
+                    channel.force(true);
+                }
+                Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                segment.reset();
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to write level segment " + path, e);
+            }
+        }
+    }
+
+    /**
+     * Points of one bin in a day's segment that fall in [fromEpoch, toEpoch], in block order
+     */
+    public void scan(Resolution resolution, LocalDate day, String binId, long fromEpoch, long toEpoch, List<LevelPoint> out) {
+        Path path = pathOf(resolution, day);
+        if (!Files.exists(path)) {
+            return;
+        }
+        Segment segment = segment(path);
+        ByteBuffer mapped;
+        List<Integer> offsets;
+        synchronized (segment) {
+            segment.refresh(path);
+            mapped = segment.mapped;
+            List<Integer> indexed = segment.offsets.get(binId);
+            offsets = indexed != null ? new ArrayList<>(indexed) : List.of();
+        }
+        // Decoding only uses absolute reads, so concurrent scans of one segment need no lock
+        for (int offset : offsets) {
+            LevelBlockCodec.decode(mapped, offset, fromEpoch, toEpoch, out);
+        }
+    }
+
+    /**
+     * Every point of a day's segment grouped by bin (used by downsampling)
+     */
+    public Map<String, List<LevelPoint>> readAll(Resolution resolution, LocalDate day) {
+        Map<String, List<LevelPoint>> byBin = new HashMap<>();
+        Path path = pathOf(resolution, day);
+        if (!Files.exists(path)) {
+            return byBin;
+        }
+        Segment segment = segment(path);
+        synchronized (segment) {
+            segment.refresh(path);
+            segment.offsets.forEach((binId, offsets) -> {
+                List<LevelPoint> points = byBin.computeIfAbsent(binId, id -> new ArrayList<>());
+                for (int offset : offsets) {
+                    LevelBlockCodec.decode(segment.mapped, offset, Long.MIN_VALUE, Long.MAX_VALUE, points);
+                }
+            });
+        }
+        return byBin;
+    }
+
+    /**
+     * Cut a block torn by a crash mid-append off the end of a segment, so later appends stay readable
+     *
+     * @return Bytes removed
+     */
+    public long recover(Resolution resolution, LocalDate day) {
+        Path path = pathOf(resolution, day);
+        if (!Files.exists(path)) {
+            return 0;
+        }
+        Segment segment = segment(path);
+        synchronized (segment) {
+            segment.reset();
+            segment.refresh(path);
+            long size = segment.mapped.capacity();
+            long complete = segment.indexedUpTo;
+            if (complete >= size) {
+                return 0;
+            }
+            segment.reset();
+            try (FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE)) {
+                channel.truncate(complete);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to repair level segment " + path, e);
+            }
+            return size - complete;
+        }
+    }
+
+    public boolean exists(Resolution resolution, LocalDate day) {
+        return Files.exists(pathOf(resolution, day));
+    }
+
+    public void delete(Resolution resolution, LocalDate day) {
+        Path path = pathOf(resolution, day);
+        Segment segment = segments.remove(path);
+        try {
+            if (segment != null) {
+                synchronized (segment) {
+                    segment.reset();
+                    Files.deleteIfExists(path);
+                }
+            } else {
+                Files.deleteIfExists(path);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to delete level segment " + path, e);
+        }
+    }
+
+    /**
+     * Days that have a segment at the given resolution, oldest first
+     */
+    public List<LocalDate> days(Resolution resolution) {
+        Path directory = root.resolve(resolution.name().toLowerCase());
+        if (!Files.isDirectory(directory)) {
+            return List.of();
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.map(file -> file.getFileName().toString())
+                    .filter(name -> name.endsWith(SUFFIX))
+                    .map(name -> LocalDate.parse(name.substring(0, name.length() - SUFFIX.length())))
+                    .sorted()
+                    .toList();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to list level segments in " + directory, e);
+        }
+    }
+
+    public long sizeOnDisk(Resolution resolution) {
+        long total = 0;
+        for (LocalDate day : days(resolution)) {
+            try {
+                total += Files.size(pathOf(resolution, day));
+            } catch (IOException e) {
+                // Deleted by retention while listing
+            }
+        }
+        return total;
+    }
+
+    private Path pathOf(Resolution resolution, LocalDate day) {
+        return root.resolve(resolution.name().toLowerCase()).resolve(day + SUFFIX);
+    }
+
+    private Segment segment(Path path) {
+        return segments.computeIfAbsent(path, p -> new Segment());
+    }
+
+    private static class Segment {
+        private MappedByteBuffer mapped;
+        private int indexedUpTo;
+        private final Map<String, List<Integer>> offsets = new HashMap<>();
+
+        // Map the file again if it grew and index the blocks appended since the last read
+        void refresh(Path path) {
+            try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+                long size = channel.size();
+                if (size > Integer.MAX_VALUE) {
+                    throw new IllegalStateException("Level segment too large to map: " + path);
+                }
+                if (mapped != null && size == mapped.capacity()) {
+                    return;
+                }
+                mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to map level segment " + path, e);
+            }
+
+            if (mapped.capacity() < MAGIC.length) {
+                return;
+            }
+            int offset = Math.max(indexedUpTo, MAGIC.length);
+            if (indexedUpTo == 0) {
+                byte[] magic = new byte[MAGIC.length];
+                mapped.get(0, magic);
+                if (!Arrays.equals(magic, MAGIC)) {
+                    throw new IllegalStateException("Not a level segment: " + path);
+                }
+            }
+            // A torn block at the end (crash mid-append) is ignored until it is complete
+            while (offset + 4 <= mapped.capacity()) {
+                int size = LevelBlockCodec.blockSize(mapped, offset);
+                if (offset + size > mapped.capacity()) {
+                    break;
+                }
+                offsets.computeIfAbsent(LevelBlockCodec.readBinId(mapped, offset), id -> new ArrayList<>()).add(offset);
+                offset += size;
+            }
+            indexedUpTo = offset;
+        }
+
+        void reset() {
+            mapped = null;
+            indexedUpTo = 0;
+            offsets.clear();
+        }
+    }
+}
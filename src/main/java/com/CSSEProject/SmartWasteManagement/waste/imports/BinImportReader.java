@@ -0,0 +1,139 @@
+package com.CSSEProject.SmartWasteManagement.waste.imports;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.*;
+
+/**
+ * Reads bin import rows one at a time from CSV (header line first) or NDJSON (one JSON object
+ * per line), so an import of any size needs memory for one chunk only. Field names are matched
+ * case-insensitively. A malformed line becomes a row carrying an error instead of stopping the
+ * import.
+ */
+public class BinImportReader {
+
+    public enum Format {
+        CSV, NDJSON
+    }
+
+    public record RawRow(long line, Map<String, String> values, String error) {
+    }
+
+    private static final ObjectMapper JSON = new ObjectMapper();
+
+    private final BufferedReader reader;
+    private final Format format;
+    private List<String> header;
+    private long line;
+
+    public BinImportReader(Reader reader, Format format) {
+        this.reader = reader instanceof BufferedReader buffered ? buffered : new BufferedReader(reader, 64 * 1024);
+        this.format = format;
+    }
+
+    /**
+     * @return The next row, or null at the end of the input
+     */
+    public RawRow next() throws IOException {
+        while (true) {
+            String text = reader.readLine();
+            if (text == null) {
+                return null;
+            }
+            line++;
+            if (line == 1 && !text.isEmpty() && text.charAt(0) == '\uFEFF') {
+                text = text.substring(1);
+            }
+            if (text.isBlank()) {
+                continue;
+            }
+            if (format == Format.NDJSON) {
+                return parseJson(text);
+            }
+            if (header == null) {
+                header = splitCsv(text).stream().map(name -> name.trim().toLowerCase(Locale.ROOT)).toList();
+                if (!header.contains("binid")) {
+                    throw new IllegalArgumentException("CSV header must contain a binId column");
+                }
+                continue;
+            }
+            return parseCsv(text);
+        }
+    }
+
+    private RawRow parseCsv(String text) {
+        List<String> fields;
+        try {
+            fields = splitCsv(text);
+        } catch (IllegalArgumentException e) {
+            return new RawRow(line, Map.of(), e.getMessage());
+        }
+        if (fields.size() != header.size()) {
+            return new RawRow(line, Map.of(), "Expected " + header.size() + " fields but found " + fields.size());
+        }
+        Map<String, String> values = new HashMap<>();
+        for (int i = 0; i < fields.size(); i++) {
+            String value = fields.get(i).trim();
+            if (!value.isEmpty()) {
+                values.put(header.get(i), value);
+            }
+        }
+        return new RawRow(line, values, null);
+    }
+
+    private RawRow parseJson(String text) {
+        try {
+            JsonNode node = JSON.readTree(text);
+            if (node == null || !node.isObject()) {
+                return new RawRow(line, Map.of(), "Line is not a JSON object");
+            }
+            Map<String, String> values = new HashMap<>();
+            node.fields().forEachRemaining(field -> {
+                if (!field.getValue().isNull()) {
+                    values.put(field.getKey().toLowerCase(Locale.ROOT), field.getValue().asText().trim());
+                }
+            });
+            return new RawRow(line, values, null);
+        } catch (IOException e) {
+            return new RawRow(line, Map.of(), "Invalid JSON");
+        }
+    }
+
+    // RFC 4180 fields on one line: commas inside quotes, "" for a quote
+    static List<String> splitCsv(String text) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (quoted) {
+                if (c == '"') {
+                    if (i + 1 < text.length() && text.charAt(i + 1) == '"') {
+                        field.append('"');
+                        i++;
+                    } else {
+                        quoted = false;
+                    }
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        if (quoted) {
+            throw new IllegalArgumentException("Unterminated quoted field");
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+}
@@ -0,0 +1,97 @@
+package com.CSSEProject.SmartWasteManagement.waste.repository;
+
+import com.CSSEProject.SmartWasteManagement.config.DataVersionRegistry;
+import com.CSSEProject.SmartWasteManagement.user.entity.User;
+import com.CSSEProject.SmartWasteManagement.user.entity.UserRole;
+import com.CSSEProject.SmartWasteManagement.waste.entity.BinStatus;
+import com.CSSEProject.SmartWasteManagement.waste.entity.BinType;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Date;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.util.*;
+
+/**
+ * Set-based checks and batch inserts for bulk bin imports: one IN query per chunk for existing
+ * bin ids and one for residents (with their city), then one JDBC batch for the new rows
+ */
+@Repository
+public class BinImportJdbcRepository {
+
+    private static final int IN_LIST_CHUNK = 1000;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private DataVersionRegistry dataVersionRegistry;
+
+    @Autowired
+    private NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+
+    public record NewBin(String binId, String location, BinType binType, double capacity, Long residentId,
+                         Double latitude, Double longitude, String rfidTag, String qrCode) {
+    }
+
+    public Set<String> findExistingBinIds(Collection<String> binIds) {
+        return findIn("SELECT bin_id FROM waste_bins WHERE bin_id IN (:ids)", binIds, String.class, Map.of());
+    }
+
+    /**
+     * City (User.cityOf their address) of those of the given user ids that belong to residents
+     */
+    public Map<Long, String> findResidentCities(Collection<Long> userIds) {
+        Map<Long, String> cities = new HashMap<>();
+        List<Long> list = new ArrayList<>(userIds);
+        for (int start = 0; start < list.size(); start += IN_LIST_CHUNK) {
+            MapSqlParameterSource params = new MapSqlParameterSource("role", UserRole.ROLE_RESIDENT.name())
+                    .addValue("ids", list.subList(start, Math.min(start + IN_LIST_CHUNK, list.size())));
+            namedParameterJdbcTemplate.query("SELECT id, address FROM users WHERE id IN (:ids) AND role = :role", params,
+                    rs -> { cities.put(rs.getLong("id"), User.cityOf(rs.getString("address"))); });
+        }
+        return cities;
+    }
+
+    public int insertBins(List<NewBin> bins, int batchSize) {
+        if (bins.isEmpty()) {
+            return 0;
+        }
+        Date today = Date.valueOf(LocalDate.now());
+        int[][] counts = jdbcTemplate.batchUpdate(
+                "INSERT INTO waste_bins (bin_id, location, latitude, longitude, bin_type, capacity, current_level, " +
+                        "status, version, rfid_tag, qr_code, installation_date, resident_id) " +
+                        "VALUES (?, ?, ?, ?, ?, ?, 0, ?, 0, ?, ?, ?, ?)",
+                bins, batchSize, (ps, bin) -> {
+                    ps.setString(1, bin.binId());
+                    ps.setString(2, bin.location());
+                    ps.setObject(3, bin.latitude(), Types.DOUBLE);
+                    ps.setObject(4, bin.longitude(), Types.DOUBLE);
+                    ps.setString(5, bin.binType().name());
+                    ps.setDouble(6, bin.capacity());
+                    ps.setString(7, BinStatus.ACTIVE.name());
+                    ps.setString(8, bin.rfidTag());
+                    ps.setString(9, bin.qrCode());
+                    ps.setDate(10, today);
+                    ps.setObject(11, bin.residentId(), Types.BIGINT);
+                });
+        // New bins only show up in analytics; their own ETags start from nothing
+        dataVersionRegistry.bumpAfterCommit(DataVersionRegistry.ANALYTICS);
+        return ScheduleJdbcRepository.sum(counts);
+    }
+
+    private <T> Set<T> findIn(String sql, Collection<T> ids, Class<T> type, Map<String, Object> extra) {
+        Set<T> found = new HashSet<>();
+        List<T> list = new ArrayList<>(ids);
+        for (int start = 0; start < list.size(); start += IN_LIST_CHUNK) {
+            MapSqlParameterSource params = new MapSqlParameterSource(extra)
+                    .addValue("ids", list.subList(start, Math.min(start + IN_LIST_CHUNK, list.size())));
+            found.addAll(namedParameterJdbcTemplate.queryForList(sql, params, type));
+        }
+        return found;
+    }
+}
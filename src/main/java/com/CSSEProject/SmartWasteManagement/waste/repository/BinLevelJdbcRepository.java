@@ -0,0 +1,131 @@
+package com.CSSEProject.SmartWasteManagement.waste.repository;
+
+import com.CSSEProject.SmartWasteManagement.config.DataVersionRegistry;
+import com.CSSEProject.SmartWasteManagement.user.entity.User;
+import com.CSSEProject.SmartWasteManagement.waste.entity.BinStatus;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.*;
+
+/**
+ * Set-based fill-level access: batched writes for the telemetry flush (one UPDATE per bin in a
+ * single JDBC batch) and a light projection of every bin's level for forecasting
+ */
+@Repository
+public class BinLevelJdbcRepository {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private DataVersionRegistry dataVersionRegistry;
+
+    public record LevelUpdate(String binId, double level, LocalDateTime readAt) {
+    }
+
+    public record BinLevel(String binId, double level, LocalDateTime levelUpdatedAt) {
+    }
+
+    /**
+     * Current level of every bin in one of the given statuses, without loading the entities
+     */
+    public List<BinLevel> findLevelsByStatus(Set<BinStatus> statuses) {
+        if (statuses.isEmpty()) {
+            return List.of();
+        }
+        String placeholders = String.join(", ", statuses.stream().map(status -> "?").toList());
+        return jdbcTemplate.query(
+                "SELECT bin_id, current_level, level_updated_at FROM waste_bins WHERE status IN (" + placeholders + ")",
+                (rs, rowNum) -> {
+                    Timestamp updatedAt = rs.getTimestamp("level_updated_at");
+                    return new BinLevel(rs.getString("bin_id"), rs.getDouble("current_level"),
+                            updatedAt != null ? updatedAt.toLocalDateTime() : null);
+                },
+                statuses.stream().map(Enum::name).toArray());
+    }
+
+    /**
+     * Write the latest level of each bin. A row is only changed when the reading is newer than the
+     * level already stored, so a late flush never undoes a collection. The version is bumped so
+     * JPA writers holding the old row retry.
+     *
+     * @return Per update: 1 when the row changed, 0 when the bin is unknown or the reading was stale
+     */
+    public int[] updateLevels(List<LevelUpdate> updates) {
+        int[][] counts = jdbcTemplate.batchUpdate(
+                "UPDATE waste_bins SET current_level = ?, level_updated_at = ?, " +
+                        "version = COALESCE(version, 0) + 1 " +
+                        "WHERE bin_id = ? AND (level_updated_at IS NULL OR level_updated_at < ?)",
+                updates, Math.max(1, updates.size()), (ps, update) -> {
+                    Timestamp readAt = Timestamp.valueOf(update.readAt());
+                    ps.setDouble(1, update.level());
+                    ps.setTimestamp(2, readAt);
+                    ps.setString(3, update.binId());
+                    ps.setTimestamp(4, readAt);
+                });
+        int[] changed = counts.length > 0 ? counts[0] : new int[0];
+        List<String> keys = new ArrayList<>();
+        for (int i = 0; i < changed.length; i++) {
+            if (changed[i] != 0) {
+                keys.add(DataVersionRegistry.bin(updates.get(i).binId()));
+            }
+        }
+        binsChanged(keys);
+        return changed;
+    }
+
+    /**
+     * Move ACTIVE bins among the given ones to NEEDS_EMPTYING. A separate statement from the level
+     * update so the caller learns exactly which bins changed status (for BinStatusCounters).
+     *
+     * @return Ids of the bins whose status changed
+     */
+    public List<String> markNeedsEmptying(List<String> binIds) {
+        if (binIds.isEmpty()) {
+            return List.of();
+        }
+        int[][] counts = jdbcTemplate.batchUpdate(
+                "UPDATE waste_bins SET status = ?, version = COALESCE(version, 0) + 1 WHERE bin_id = ? AND status = ?",
+                binIds, binIds.size(), (ps, binId) -> {
+                    ps.setString(1, BinStatus.NEEDS_EMPTYING.name());
+                    ps.setString(2, binId);
+                    ps.setString(3, BinStatus.ACTIVE.name());
+                });
+        binsChanged(binIds.stream().map(DataVersionRegistry::bin).toList());
+        List<String> changed = new ArrayList<>();
+        for (int i = 0; i < counts[0].length; i++) {
+            if (counts[0][i] != 0) {
+                changed.add(binIds.get(i));
+            }
+        }
+        return changed;
+    }
+
+    /**
+     * Number of the given bins per city of their resident (User.cityOf), for BinStatusCounters
+     */
+    public Map<String, Long> countByResidentCity(List<String> binIds) {
+        Map<String, Long> byCity = new HashMap<>();
+        if (binIds.isEmpty()) {
+            return byCity;
+        }
+        String placeholders = String.join(", ", Collections.nCopies(binIds.size(), "?"));
+        jdbcTemplate.query("SELECT u.address FROM waste_bins b LEFT JOIN users u ON u.id = b.resident_id " +
+                "WHERE b.bin_id IN (" + placeholders + ")", rs -> {
+            byCity.merge(User.cityOf(rs.getString(1)), 1L, Long::sum);
+        }, binIds.toArray());
+        return byCity;
+    }
+
+    private void binsChanged(List<String> binKeys) {
+        if (!binKeys.isEmpty()) {
+            List<String> keys = new ArrayList<>(binKeys);
+            keys.add(DataVersionRegistry.ANALYTICS);
+            dataVersionRegistry.bumpAfterCommit(keys);
+        }
+    }
+}
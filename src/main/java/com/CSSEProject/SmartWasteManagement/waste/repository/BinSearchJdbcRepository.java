@@ -0,0 +1,142 @@
+package com.CSSEProject.SmartWasteManagement.waste.repository;
+
+import com.CSSEProject.SmartWasteManagement.dto.BinSearchResultDto;
+import com.CSSEProject.SmartWasteManagement.waste.search.TrigramSimilarity;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.*;
+
+/**
+ * Fuzzy search over bin location and resident address
+ *
+ * On PostgreSQL with pg_trgm, candidates come from GIN trigram indexes on lower(location) and
+ * lower(address) through the word-similarity operator, and are ranked by word_similarity.
+ * Elsewhere (H2 in tests, or PostgreSQL without the extension) candidates are prefiltered with
+ * LIKE on the query's trigrams and ranked in Java by TrigramSimilarity.
+ */
+@Repository
+public class BinSearchJdbcRepository {
+
+    private static final int FALLBACK_CANDIDATE_CAP = 5000;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+
+    private volatile Boolean trigramAvailable;
+
+    /**
+     * Create pg_trgm and the trigram indexes when possible
+     *
+     * @return Whether indexed trigram search is available
+     */
+    public boolean ensureTrigramIndexes() {
+        String product = jdbcTemplate.execute((ConnectionCallback<String>) connection -> connection.getMetaData().getDatabaseProductName());
+        if (!"PostgreSQL".equalsIgnoreCase(product)) {
+            trigramAvailable = false;
+            return false;
+        }
+        try {
+            jdbcTemplate.execute("CREATE EXTENSION IF NOT EXISTS pg_trgm");
+        } catch (Exception e) {
+            // Needs a privileged role; an administrator may have created it already
+            System.err.println("⚠️ Could not create pg_trgm: " + e.getMessage());
+        }
+        Integer installed = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM pg_extension WHERE extname = 'pg_trgm'", Integer.class);
+        if (installed == null || installed == 0) {
+            trigramAvailable = false;
+            return false;
+        }
+        jdbcTemplate.execute("CREATE INDEX IF NOT EXISTS idx_waste_bins_location_trgm ON waste_bins USING gin (lower(location) gin_trgm_ops)");
+        jdbcTemplate.execute("CREATE INDEX IF NOT EXISTS idx_users_address_trgm ON users USING gin (lower(address) gin_trgm_ops)");
+        trigramAvailable = true;
+        return true;
+    }
+
+    public boolean isTrigramAvailable() {
+        return Boolean.TRUE.equals(trigramAvailable);
+    }
+
+    /**
+     * One page of matches, best first. Fetches limit + 1 rows so callers can tell whether more exist.
+     * Must run inside a transaction on PostgreSQL (the similarity threshold is set locally).
+     */
+    public List<BinSearchResultDto> search(String query, double threshold, int offset, int limit) {
+        return isTrigramAvailable()
+                ? searchIndexed(query, threshold, offset, limit)
+                : searchFallback(query, threshold, offset, limit);
+    }
+
+    private List<BinSearchResultDto> searchIndexed(String query, double threshold, int offset, int limit) {
+        jdbcTemplate.queryForObject("SELECT set_config('pg_trgm.word_similarity_threshold', ?, true)",
+                String.class, String.valueOf(threshold));
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("q", query.toLowerCase(Locale.ROOT))
+                .addValue("limit", limit + 1)
+                .addValue("offset", offset);
+        // Each branch can use its own GIN index; an OR across the join could not
+        return namedParameterJdbcTemplate.query(
+                "WITH candidates AS (" +
+                        "  SELECT b.bin_id FROM waste_bins b WHERE :q <% lower(b.location)" +
+                        "  UNION" +
+                        "  SELECT b.bin_id FROM users u JOIN waste_bins b ON b.resident_id = u.id WHERE :q <% lower(u.address)" +
+                        ") " +
+                        "SELECT b.bin_id, b.location, b.status, u.name AS resident_name, u.address AS resident_address, " +
+                        "GREATEST(COALESCE(word_similarity(:q, lower(b.location)), 0), " +
+                        "         COALESCE(word_similarity(:q, lower(u.address)), 0)) AS score " +
+                        "FROM candidates c JOIN waste_bins b ON b.bin_id = c.bin_id " +
+                        "LEFT JOIN users u ON u.id = b.resident_id " +
+                        "ORDER BY score DESC, b.bin_id LIMIT :limit OFFSET :offset",
+                params, resultMapper(true));
+    }
+
+    private List<BinSearchResultDto> searchFallback(String query, double threshold, int offset, int limit) {
+        Set<String> fragments = TrigramSimilarity.likeFragments(query);
+        if (fragments.isEmpty()) {
+            return List.of();
+        }
+        StringJoiner where = new StringJoiner(" OR ");
+        List<Object> args = new ArrayList<>();
+        for (String fragment : fragments) {
+            where.add("LOWER(b.location) LIKE ? OR LOWER(u.address) LIKE ?");
+            String pattern = "%" + fragment.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_") + "%";
+            args.add(pattern);
+            args.add(pattern);
+        }
+        List<BinSearchResultDto> candidates = jdbcTemplate.query(
+                "SELECT b.bin_id, b.location, b.status, u.name AS resident_name, u.address AS resident_address " +
+                        "FROM waste_bins b LEFT JOIN users u ON u.id = b.resident_id " +
+                        "WHERE " + where + " LIMIT " + FALLBACK_CANDIDATE_CAP,
+                resultMapper(false), args.toArray());
+
+        List<BinSearchResultDto> matches = new ArrayList<>();
+        for (BinSearchResultDto candidate : candidates) {
+            double score = Math.max(TrigramSimilarity.wordSimilarity(query, candidate.getLocation()),
+                    TrigramSimilarity.wordSimilarity(query, candidate.getResidentAddress()));
+            if (score >= threshold) {
+                candidate.setScore(Math.round(score * 1000) / 1000.0);
+                matches.add(candidate);
+            }
+        }
+        matches.sort(Comparator.comparing(BinSearchResultDto::getScore).reversed().thenComparing(BinSearchResultDto::getBinId));
+        return matches.subList(Math.min(offset, matches.size()), Math.min(offset + limit + 1, matches.size()));
+    }
+
+    private static RowMapper<BinSearchResultDto> resultMapper(boolean scored) {
+        return (rs, rowNum) -> new BinSearchResultDto(
+                rs.getString("bin_id"),
+                rs.getString("location"),
+                rs.getString("status"),
+                rs.getString("resident_name"),
+                rs.getString("resident_address"),
+                scored ? Math.round(rs.getDouble("score") * 1000) / 1000.0 : null);
+    }
+}
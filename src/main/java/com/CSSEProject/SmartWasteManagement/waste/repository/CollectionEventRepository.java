@@ -1,11 +1,20 @@
 package com.CSSEProject.SmartWasteManagement.waste.repository;
 
+import com.CSSEProject.SmartWasteManagement.analytics.dto.CollectionAmountView;
+import com.CSSEProject.SmartWasteManagement.analytics.dto.CollectionRecordDto;
+import com.CSSEProject.SmartWasteManagement.analytics.dto.CollectionSketchRow;
+import com.CSSEProject.SmartWasteManagement.dto.CollectionEventDto;
+import com.CSSEProject.SmartWasteManagement.dto.CollectionTotalsDto;
+import com.CSSEProject.SmartWasteManagement.dto.CollectorStatsDto;
 import com.CSSEProject.SmartWasteManagement.waste.entity.CollectionEvent;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -19,16 +28,50 @@ public interface CollectionEventRepository extends JpaRepository<CollectionEvent
             "ORDER BY c.collectionTime DESC")
     List<CollectionEvent> findByCollectorId(@Param("collectorId") Long collectorId);
 
+    @Query("SELECT c FROM CollectionEvent c " +
+            "LEFT JOIN FETCH c.wasteBin wb " +
+            "LEFT JOIN FETCH wb.resident " +
+            "WHERE c.collector.id = :collectorId " +
+            "AND c.collectionTime >= :start AND c.collectionTime < :end " +
+            "ORDER BY c.collectionTime DESC")
+    List<CollectionEvent> findByCollectorIdBetween(@Param("collectorId") Long collectorId,
+                                                   @Param("start") LocalDateTime start,
+                                                   @Param("end") LocalDateTime end);
+
+    // Lifetime and per-day totals for one collector in a single aggregate pass
+    @Query("SELECT new com.CSSEProject.SmartWasteManagement.dto.CollectorStatsDto(" +
+            "COUNT(c), COALESCE(SUM(c.weight), 0.0), COALESCE(SUM(c.calculatedCharge), 0.0), " +
+            "COALESCE(SUM(CASE WHEN c.collectionTime >= :dayStart AND c.collectionTime < :dayEnd THEN 1L ELSE 0L END), 0L), " +
+            "COALESCE(SUM(CASE WHEN c.collectionTime >= :dayStart AND c.collectionTime < :dayEnd THEN c.weight ELSE 0.0 END), 0.0), " +
+            "COALESCE(SUM(CASE WHEN c.collectionTime >= :dayStart AND c.collectionTime < :dayEnd THEN c.calculatedCharge ELSE 0.0 END), 0.0), " +
+            "MAX(c.id)) " +
+            "FROM CollectionEvent c WHERE c.collector.id = :collectorId")
+    CollectorStatsDto getCollectorStats(@Param("collectorId") Long collectorId,
+                                        @Param("dayStart") LocalDateTime dayStart,
+                                        @Param("dayEnd") LocalDateTime dayEnd);
+
 
     // Existing methods...
+    @EntityGraph("CollectionEvent.withBinAndCollector")
     @Query("SELECT c FROM CollectionEvent c WHERE c.wasteBin.binId = :binId")
     List<CollectionEvent> findByWasteBinBinId(@Param("binId") String binId);
 
     List<CollectionEvent> findByCollectionTimeBetween(LocalDateTime start, LocalDateTime end);
 
+    // Interface projection: only the time, weight and charge columns are selected
+    List<CollectionAmountView> findAmountsByCollectionTimeBetween(LocalDateTime start, LocalDateTime end);
+
+    // Analytics collection records projected straight into DTOs, bin and collector joined in the same query
+    @Query("SELECT new com.CSSEProject.SmartWasteManagement.analytics.dto.CollectionRecordDto(" +
+            "c.id, wb.binId, wb.location, c.weight, c.collectionTime, s.name, c.calculatedCharge) " +
+            "FROM CollectionEvent c LEFT JOIN c.wasteBin wb LEFT JOIN c.collector s " +
+            "WHERE c.collectionTime BETWEEN :start AND :end")
+    List<CollectionRecordDto> findRecordsBetween(@Param("start") LocalDateTime start, @Param("end") LocalDateTime end);
+
     // ✅ Add this method (needed for AnalyticsService)
     long countByCollectionTimeBetween(LocalDateTime start, LocalDateTime end);
 
+    @EntityGraph("CollectionEvent.withBinAndCollector")
     @Query("SELECT c FROM CollectionEvent c WHERE c.invoice IS NULL")
     List<CollectionEvent> findUninvoicedCollections();
 
@@ -38,6 +81,54 @@ public interface CollectionEventRepository extends JpaRepository<CollectionEvent
     @Query("SELECT COUNT(c) FROM CollectionEvent c WHERE c.collectionTime BETWEEN :start AND :end")
     Long getCollectionCountBetween(@Param("start") LocalDateTime start, @Param("end") LocalDateTime end);
 
+    @EntityGraph("CollectionEvent.withBinAndCollector")
     @Query("SELECT c FROM CollectionEvent c WHERE c.wasteBin.resident.id = :residentId AND c.invoice IS NULL")
     List<CollectionEvent> findUninvoicedByResident(@Param("residentId") Long residentId);
-}
\ No newline at end of file
+
+    @Query("SELECT MAX(c.id) FROM CollectionEvent c")
+    Long findMaxId();
+
+    // Keyset-paged projection used to rebuild the analytics sketches without loading entities
+    @Query("SELECT new com.CSSEProject.SmartWasteManagement.analytics.dto.CollectionSketchRow(" +
+            "c.id, c.collectionTime, c.weight, wb.binId, wb.binType, r.id, r.address) " +
+            "FROM CollectionEvent c LEFT JOIN c.wasteBin wb LEFT JOIN wb.resident r " +
+            "WHERE c.id > :afterId AND c.id <= :maxId AND c.collectionTime >= :since " +
+            "ORDER BY c.id")
+    List<CollectionSketchRow> findSketchRowsAfter(@Param("afterId") Long afterId,
+                                                  @Param("maxId") Long maxId,
+                                                  @Param("since") LocalDateTime since,
+                                                  Pageable pageable);
+
+    @Query("SELECT new com.CSSEProject.SmartWasteManagement.dto.CollectionTotalsDto(" +
+            "COUNT(c), COALESCE(SUM(c.weight), 0.0), COALESCE(SUM(c.calculatedCharge), 0.0)) " +
+            "FROM CollectionEvent c")
+    CollectionTotalsDto getCollectionTotals();
+
+    // Monthly rollup: [month number, total weight] for the months that have collections
+    @Query("SELECT EXTRACT(MONTH FROM c.collectionTime), COALESCE(SUM(c.weight), 0.0) FROM CollectionEvent c " +
+            "WHERE c.collectionTime >= :start AND c.collectionTime < :end " +
+            "GROUP BY EXTRACT(MONTH FROM c.collectionTime)")
+    List<Object[]> getMonthlyWeightBetween(@Param("start") LocalDateTime start, @Param("end") LocalDateTime end);
+
+    // Keyset-paged event feed, projected straight into DTOs (no entities are loaded)
+    @Query("SELECT new com.CSSEProject.SmartWasteManagement.dto.CollectionEventDto(" +
+            "c.id, wb.binId, r.name, s.name, c.collectionTime, c.weight) " +
+            "FROM CollectionEvent c LEFT JOIN c.wasteBin wb LEFT JOIN wb.resident r LEFT JOIN c.collector s " +
+            "WHERE c.id > :afterId " +
+            "AND (:collectorId IS NULL OR s.id = :collectorId) " +
+            "AND (:binId IS NULL OR wb.binId = :binId) " +
+            "ORDER BY c.id")
+    List<CollectionEventDto> findEventFeedAfter(@Param("afterId") Long afterId,
+                                                @Param("collectorId") Long collectorId,
+                                                @Param("binId") String binId,
+                                                Pageable pageable);
+
+    // Mean weight per collection of each bin since the given time, for daily load estimates
+    @Query("SELECT c.wasteBin.binId, AVG(c.weight) FROM CollectionEvent c " +
+            "WHERE c.wasteBin.binId IN :binIds AND c.collectionTime >= :since AND c.weight > 0 " +
+            "GROUP BY c.wasteBin.binId")
+    List<Object[]> findAverageWeightByBin(@Param("binIds") Collection<String> binIds, @Param("since") LocalDateTime since);
+
+    @Query("SELECT AVG(c.weight) FROM CollectionEvent c WHERE c.collectionTime >= :since AND c.weight > 0")
+    Double findAverageWeightSince(@Param("since") LocalDateTime since);
+}
@@ -0,0 +1,11 @@
+package com.CSSEProject.SmartWasteManagement.waste.repository;
+
+import com.CSSEProject.SmartWasteManagement.waste.entity.CollectionMonthlyRollup;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+
+@Repository
+public interface CollectionMonthlyRollupRepository extends JpaRepository<CollectionMonthlyRollup, LocalDate> {
+}
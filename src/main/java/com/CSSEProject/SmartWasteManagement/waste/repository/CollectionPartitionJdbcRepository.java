@@ -0,0 +1,179 @@
+package com.CSSEProject.SmartWasteManagement.waste.repository;
+
+import com.CSSEProject.SmartWasteManagement.waste.entity.CollectionMonthlyRollup;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.ResultSetMetaData;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Monthly range partitions of collection_events on collection_time (PostgreSQL only)
+ *
+ * The table is converted by schema migration V2__partition_collection_events. Partitions are
+ * named collection_events_pYYYY_MM and cover [first of month, first of next month).
+ * collection_events_default takes rows outside every partition (late offline syncs for archived
+ * months, clock errors) so inserts never fail. The primary key is (id, collection_time), as
+ * PostgreSQL requires the partition key in unique constraints; ids still come from one sequence.
+ */
+@Repository
+public class CollectionPartitionJdbcRepository {
+
+    public static final String TABLE = "collection_events";
+    public static final String DEFAULT_PARTITION = TABLE + "_default";
+
+    private static final Pattern PARTITION_NAME = Pattern.compile(TABLE + "_p(\\d{4})_(\\d{2})");
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    public record ArchivePage(List<String> columns, List<Object[]> rows, long lastId) {
+    }
+
+    public boolean isPostgres() {
+        String product = jdbcTemplate.execute((ConnectionCallback<String>) connection -> connection.getMetaData().getDatabaseProductName());
+        return "PostgreSQL".equalsIgnoreCase(product);
+    }
+
+    public boolean isPartitioned() {
+        Integer count = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM pg_partitioned_table p " +
+                "JOIN pg_class c ON c.oid = p.partrelid WHERE c.relname = ?", Integer.class, TABLE);
+        return count != null && count > 0;
+    }
+
+    /**
+     * Months that have their own partition, oldest first
+     */
+    public List<YearMonth> findPartitionMonths() {
+        List<String> names = jdbcTemplate.queryForList("SELECT c.relname FROM pg_inherits i " +
+                "JOIN pg_class c ON c.oid = i.inhrelid JOIN pg_class p ON p.oid = i.inhparent " +
+                "WHERE p.relname = ? ORDER BY c.relname", String.class, TABLE);
+        List<YearMonth> months = new ArrayList<>();
+        for (String name : names) {
+            Matcher matcher = PARTITION_NAME.matcher(name);
+            if (matcher.matches()) {
+                months.add(YearMonth.of(Integer.parseInt(matcher.group(1)), Integer.parseInt(matcher.group(2))));
+            }
+        }
+        return months;
+    }
+
+    /**
+     * Create one month's partition. Rows of that month already in the default partition (device
+     * clock errors, downtime longer than months-ahead) would make PARTITION OF fail, so they are
+     * moved into a new table that is then attached. Must run inside a transaction.
+     *
+     * @return Number of rows moved out of the default partition
+     */
+    public int createPartition(YearMonth month) {
+        String name = partitionName(month);
+        String bounds = "FOR VALUES FROM ('" + month.atDay(1) + "') TO ('" + month.plusMonths(1).atDay(1) + "')";
+        Timestamp from = Timestamp.valueOf(month.atDay(1).atStartOfDay());
+        Timestamp to = Timestamp.valueOf(month.plusMonths(1).atDay(1).atStartOfDay());
+        Long stray = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM " + DEFAULT_PARTITION +
+                " WHERE collection_time >= ? AND collection_time < ?", Long.class, from, to);
+        if (stray == null || stray == 0) {
+            jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS " + name + " PARTITION OF " + TABLE + " " + bounds);
+            return 0;
+        }
+        jdbcTemplate.execute("CREATE TABLE " + name + " (LIKE " + TABLE + " INCLUDING DEFAULTS INCLUDING CONSTRAINTS)");
+        int moved = jdbcTemplate.update("INSERT INTO " + name + " SELECT * FROM " + DEFAULT_PARTITION +
+                " WHERE collection_time >= ? AND collection_time < ?", from, to);
+        jdbcTemplate.update("DELETE FROM " + DEFAULT_PARTITION + " WHERE collection_time >= ? AND collection_time < ?", from, to);
+        // Indexes, the primary key and foreign keys of the parent are added to the table on attach
+        jdbcTemplate.execute("ALTER TABLE " + TABLE + " ATTACH PARTITION " + name + " " + bounds);
+        return moved;
+    }
+
+    /**
+     * Totals of one month's partition (attached or detached), for the rollup kept once its rows are archived
+     */
+    public CollectionMonthlyRollup summarize(YearMonth month) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*), COALESCE(SUM(weight), 0), COALESCE(SUM(calculated_charge), 0) FROM "
+                + partitionName(month), (rs, rowNum) -> {
+            CollectionMonthlyRollup rollup = new CollectionMonthlyRollup();
+            rollup.setMonth(month.atDay(1));
+            rollup.setCollections(rs.getLong(1));
+            rollup.setTotalWeight(rs.getDouble(2));
+            rollup.setTotalRevenue(rs.getDouble(3));
+            return rollup;
+        });
+    }
+
+    /**
+     * Collections of a month not yet on an invoice; archiving them would mean they are never billed
+     */
+    public long countUninvoiced(YearMonth month) {
+        Long count = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM " + partitionName(month) + " WHERE invoice_id IS NULL", Long.class);
+        return count != null ? count : 0;
+    }
+
+    /**
+     * Add a month's per-collector totals to collector_archive_totals, in the transaction that drops its partition
+     */
+    public void addCollectorTotals(YearMonth month) {
+        jdbcTemplate.update("INSERT INTO collector_archive_totals (collector_id, collections, total_weight, total_revenue) " +
+                "SELECT collector_id, COUNT(*), COALESCE(SUM(weight), 0), COALESCE(SUM(calculated_charge), 0) FROM " +
+                partitionName(month) + " WHERE collector_id IS NOT NULL GROUP BY collector_id " +
+                "ON CONFLICT (collector_id) DO UPDATE SET collections = collector_archive_totals.collections + EXCLUDED.collections, " +
+                "total_weight = collector_archive_totals.total_weight + EXCLUDED.total_weight, " +
+                "total_revenue = collector_archive_totals.total_revenue + EXCLUDED.total_revenue");
+    }
+
+    /**
+     * One keyset page of a partition's rows, every column, in id order
+     */
+    public ArchivePage findArchivePage(YearMonth month, long afterId, int limit) {
+        List<String> columns = new ArrayList<>();
+        List<Object[]> rows = new ArrayList<>();
+        long[] lastId = {afterId};
+        jdbcTemplate.query("SELECT * FROM " + partitionName(month) + " WHERE id > ? ORDER BY id LIMIT ?", rs -> {
+            ResultSetMetaData metaData = rs.getMetaData();
+            if (columns.isEmpty()) {
+                for (int i = 1; i <= metaData.getColumnCount(); i++) {
+                    columns.add(metaData.getColumnName(i));
+                }
+            }
+            Object[] row = new Object[columns.size()];
+            for (int i = 0; i < row.length; i++) {
+                row[i] = rs.getObject(i + 1);
+            }
+            rows.add(row);
+            lastId[0] = rs.getLong("id");
+        }, afterId, limit);
+        return new ArchivePage(columns, rows, lastId[0]);
+    }
+
+    /**
+     * Detach a month's partition. Takes an exclusive lock, so no row can reach it until the
+     * transaction ends; rows for the month arriving later go to the default partition.
+     */
+    public void detachPartition(YearMonth month) {
+        jdbcTemplate.execute("ALTER TABLE " + TABLE + " DETACH PARTITION " + partitionName(month));
+    }
+
+    public void dropPartition(YearMonth month) {
+        jdbcTemplate.execute("DROP TABLE " + partitionName(month));
+    }
+
+    /**
+     * Rows that fell into the default partition before the given time (they are not archived)
+     */
+    public long countDefaultBefore(LocalDateTime before) {
+        Long count = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM " + DEFAULT_PARTITION + " WHERE collection_time < ?",
+                Long.class, Timestamp.valueOf(before));
+        return count != null ? count : 0;
+    }
+
+    public static String partitionName(YearMonth month) {
+        return String.format("%s_p%04d_%02d", TABLE, month.getYear(), month.getMonthValue());
+    }
+}
@@ -2,6 +2,7 @@ package com.CSSEProject.SmartWasteManagement.waste.repository;
 
 import com.CSSEProject.SmartWasteManagement.waste.entity.CollectionSchedule;
 import com.CSSEProject.SmartWasteManagement.waste.entity.ScheduleStatus;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -13,16 +14,22 @@ import java.util.Optional;
 @Repository
 public interface CollectionScheduleRepository extends JpaRepository<CollectionSchedule, Long> {
 
+    // Schedule lists load their bins in the same query (see ScheduleService.convertToDto)
+    @EntityGraph("CollectionSchedule.withBin")
     List<CollectionSchedule> findByWasteBinBinId(String binId);
     List<CollectionSchedule> findByWasteBinBinIdAndScheduledDate(String binId, LocalDate date);
+    @EntityGraph("CollectionSchedule.withBin")
     List<CollectionSchedule> findByScheduledDateAndStatus(LocalDate date, ScheduleStatus status);
 
     @Query("SELECT cs FROM CollectionSchedule cs WHERE cs.wasteBin.binId = :binId AND cs.scheduledDate = :date AND cs.status = 'PENDING'")
     Optional<CollectionSchedule> findPendingScheduleForBin(@Param("binId") String binId, @Param("date") LocalDate date);
 
     // FIXED: Use the relationship path
+    @EntityGraph("CollectionSchedule.withBin")
     @Query("SELECT cs FROM CollectionSchedule cs WHERE cs.wasteBin.resident.id = :residentId")
     List<CollectionSchedule> findByWasteBinResidentId(@Param("residentId") Long residentId);
 
     List<CollectionSchedule> findByStatus(ScheduleStatus status);
+
+    boolean existsByWasteBinBinIdAndStatusAndScheduledDateBetween(String binId, ScheduleStatus status, LocalDate from, LocalDate to);
 }
\ No newline at end of file
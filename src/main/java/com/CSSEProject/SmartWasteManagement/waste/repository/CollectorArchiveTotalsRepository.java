@@ -0,0 +1,9 @@
+package com.CSSEProject.SmartWasteManagement.waste.repository;
+
+import com.CSSEProject.SmartWasteManagement.waste.entity.CollectorArchiveTotals;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface CollectorArchiveTotalsRepository extends JpaRepository<CollectorArchiveTotals, Long> {
+}
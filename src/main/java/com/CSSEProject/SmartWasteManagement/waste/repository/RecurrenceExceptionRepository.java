@@ -0,0 +1,17 @@
+package com.CSSEProject.SmartWasteManagement.waste.repository;
+
+import com.CSSEProject.SmartWasteManagement.waste.entity.RecurrenceException;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface RecurrenceExceptionRepository extends JpaRepository<RecurrenceException, Long> {
+    List<RecurrenceException> findByRuleIdOrderByOccurrenceDate(Long ruleId);
+    List<RecurrenceException> findByRuleIdInAndOccurrenceDateBetween(Collection<Long> ruleIds, LocalDate from, LocalDate to);
+    boolean existsByRuleIdAndOccurrenceDateAndBinId(Long ruleId, LocalDate occurrenceDate, String binId);
+    boolean existsByRuleIdAndOccurrenceDateAndBinIdIsNull(Long ruleId, LocalDate occurrenceDate);
+}
@@ -0,0 +1,26 @@
+package com.CSSEProject.SmartWasteManagement.waste.repository;
+
+import com.CSSEProject.SmartWasteManagement.waste.entity.RecurrenceRule;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface RecurrenceRuleRepository extends JpaRepository<RecurrenceRule, Long> {
+    List<RecurrenceRule> findByActiveTrue();
+
+    // Keyset paging for the materialization job
+    List<RecurrenceRule> findByActiveTrueAndIdGreaterThanOrderById(Long afterId, Pageable pageable);
+
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE RecurrenceRule r SET r.materializedThrough = :through WHERE r.id IN :ids")
+    int markMaterializedThrough(@Param("ids") Collection<Long> ids, @Param("through") LocalDate through);
+    List<RecurrenceRule> findByBinIdAndActiveTrue(String binId);
+}
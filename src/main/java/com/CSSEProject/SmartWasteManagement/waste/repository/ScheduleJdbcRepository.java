@@ -0,0 +1,331 @@
+package com.CSSEProject.SmartWasteManagement.waste.repository;
+
+import com.CSSEProject.SmartWasteManagement.config.DataVersionRegistry;
+import com.CSSEProject.SmartWasteManagement.dto.ScheduleResponseDto;
+import com.CSSEProject.SmartWasteManagement.waste.entity.BinStatus;
+import com.CSSEProject.SmartWasteManagement.waste.entity.ScheduleStatus;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.*;
+
+/**
+ * Set-based access to collection_schedules for jobs that touch thousands of bins at once.
+ * Inserts go out as JDBC batches; lookups take the bin ids in IN-list chunks.
+ */
+@Repository
+public class ScheduleJdbcRepository {
+
+    private static final int IN_LIST_CHUNK = 1000;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+
+    // Schedule rows written here are not seen by DataVersionListener; they bump the SCHEDULES epoch
+    @Autowired
+    private DataVersionRegistry dataVersionRegistry;
+
+    public record NewSchedule(String binId, LocalDate scheduledDate, String notes, Long recurrenceRuleId) {
+
+        public NewSchedule(String binId, LocalDate scheduledDate, String notes) {
+            this(binId, scheduledDate, notes, null);
+        }
+    }
+
+    // Bin selection for bulk operations; null fields do not filter
+    public record BinFilter(Collection<String> binIds, Double minLatitude, Double minLongitude,
+                            Double maxLatitude, Double maxLongitude, String locationContains, BinStatus status) {
+    }
+
+    public record PendingStop(Long scheduleId, String binId, String location, Double latitude, Double longitude,
+                              LocalDate deferredFrom) {
+    }
+
+    public record DayWatermark(long pending, long maxId) {
+    }
+
+    public record DaySchedule(ScheduleResponseDto schedule, long rowVersion) {
+    }
+
+    /**
+     * PENDING schedules of one day with their bin's position (null coordinates when the bin has none)
+     */
+    public List<PendingStop> findPendingStops(LocalDate date) {
+        return jdbcTemplate.query(
+                "SELECT s.id, b.bin_id, b.location, b.latitude, b.longitude, s.deferred_from FROM collection_schedules s " +
+                        "JOIN waste_bins b ON b.bin_id = s.bin_id " +
+                        "WHERE s.scheduled_date = ? AND s.status = ? ORDER BY s.id",
+                (rs, rowNum) -> new PendingStop(
+                        rs.getLong("id"),
+                        rs.getString("bin_id"),
+                        rs.getString("location"),
+                        rs.getObject("latitude") != null ? rs.getDouble("latitude") : null,
+                        rs.getObject("longitude") != null ? rs.getDouble("longitude") : null,
+                        rs.getDate("deferred_from") != null ? rs.getDate("deferred_from").toLocalDate() : null),
+                Date.valueOf(date), ScheduleStatus.PENDING.name());
+    }
+
+    /**
+     * Every schedule of one day, in any status, with its bin's details; one query for the whole day
+     */
+    public List<DaySchedule> findDaySchedules(LocalDate date) {
+        return jdbcTemplate.query(
+                "SELECT s.id, s.bin_id, s.scheduled_date, s.status, s.notes, s.created_at, s.version, " +
+                        "b.resident_id, b.bin_type, b.location, b.current_level FROM collection_schedules s " +
+                        "LEFT JOIN waste_bins b ON b.bin_id = s.bin_id WHERE s.scheduled_date = ?",
+                (rs, rowNum) -> {
+                    ScheduleResponseDto dto = new ScheduleResponseDto();
+                    dto.setId(rs.getLong("id"));
+                    dto.setBinId(rs.getString("bin_id"));
+                    dto.setScheduledDate(rs.getDate("scheduled_date").toLocalDate());
+                    dto.setStatus(ScheduleStatus.valueOf(rs.getString("status")));
+                    dto.setNotes(rs.getString("notes"));
+                    Timestamp createdAt = rs.getTimestamp("created_at");
+                    dto.setCreatedAt(createdAt != null ? createdAt.toLocalDateTime() : null);
+                    dto.setResidentId(rs.getObject("resident_id") != null ? rs.getLong("resident_id") : null);
+                    dto.setBinType(rs.getString("bin_type"));
+                    dto.setLocation(rs.getString("location"));
+                    dto.setCurrentLevel(rs.getObject("current_level") != null ? rs.getDouble("current_level") : null);
+                    return new DaySchedule(dto, rs.getLong("version"));
+                },
+                Date.valueOf(date));
+    }
+
+    /**
+     * Per day between from and to, the number of PENDING schedules and the highest schedule id;
+     * either changes when schedules are added, cancelled, completed or moved
+     */
+    public Map<LocalDate, DayWatermark> findPendingWatermarks(LocalDate from, LocalDate to) {
+        Map<LocalDate, DayWatermark> watermarks = new HashMap<>();
+        jdbcTemplate.query(
+                "SELECT scheduled_date, COUNT(*) AS pending, MAX(id) AS max_id FROM collection_schedules " +
+                        "WHERE status = ? AND scheduled_date BETWEEN ? AND ? GROUP BY scheduled_date",
+                rs -> {
+                    watermarks.put(rs.getDate("scheduled_date").toLocalDate(),
+                            new DayWatermark(rs.getLong("pending"), rs.getLong("max_id")));
+                },
+                ScheduleStatus.PENDING.name(), Date.valueOf(from), Date.valueOf(to));
+        return watermarks;
+    }
+
+    /**
+     * Move PENDING schedules from one day to another, remembering the day they were first due
+     *
+     * @return Number of schedules moved
+     */
+    public int deferSchedules(Collection<Long> scheduleIds, LocalDate from, LocalDate to) {
+        int moved = 0;
+        List<Long> ids = new ArrayList<>(scheduleIds);
+        for (int start = 0; start < ids.size(); start += IN_LIST_CHUNK) {
+            MapSqlParameterSource params = new MapSqlParameterSource()
+                    .addValue("ids", ids.subList(start, Math.min(start + IN_LIST_CHUNK, ids.size())))
+                    .addValue("pending", ScheduleStatus.PENDING.name())
+                    .addValue("fromDate", Date.valueOf(from))
+                    .addValue("toDate", Date.valueOf(to));
+            moved += namedParameterJdbcTemplate.update(
+                    "UPDATE collection_schedules SET scheduled_date = :toDate, " +
+                            "deferred_from = COALESCE(deferred_from, :fromDate), version = version + 1 " +
+                            "WHERE id IN (:ids) AND status = :pending AND scheduled_date = :fromDate",
+                    params);
+        }
+        schedulesChanged(moved);
+        return moved;
+    }
+
+    /**
+     * Ids of the bins matching the filter, leaving out the excluded statuses
+     */
+    public List<String> findBinIds(BinFilter filter, Collection<BinStatus> excluded) {
+        StringBuilder sql = new StringBuilder("SELECT bin_id FROM waste_bins WHERE 1 = 1");
+        MapSqlParameterSource params = new MapSqlParameterSource();
+        if (!excluded.isEmpty()) {
+            sql.append(" AND status NOT IN (:excluded)");
+            params.addValue("excluded", excluded.stream().map(BinStatus::name).toList());
+        }
+        if (filter.minLatitude() != null && filter.minLongitude() != null
+                && filter.maxLatitude() != null && filter.maxLongitude() != null) {
+            sql.append(" AND latitude BETWEEN :minLat AND :maxLat AND longitude BETWEEN :minLon AND :maxLon");
+            params.addValue("minLat", filter.minLatitude()).addValue("maxLat", filter.maxLatitude())
+                    .addValue("minLon", filter.minLongitude()).addValue("maxLon", filter.maxLongitude());
+        }
+        if (filter.locationContains() != null && !filter.locationContains().isBlank()) {
+            String escaped = filter.locationContains().trim().toLowerCase(Locale.ROOT)
+                    .replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+            sql.append(" AND LOWER(location) LIKE :location");
+            params.addValue("location", "%" + escaped + "%");
+        }
+        if (filter.status() != null) {
+            sql.append(" AND status = :status");
+            params.addValue("status", filter.status().name());
+        }
+        if (filter.binIds() == null) {
+            return namedParameterJdbcTemplate.queryForList(sql + " ORDER BY bin_id", params, String.class);
+        }
+        List<String> found = new ArrayList<>();
+        List<String> ids = new ArrayList<>(new LinkedHashSet<>(filter.binIds()));
+        for (int start = 0; start < ids.size(); start += IN_LIST_CHUNK) {
+            params.addValue("binIds", ids.subList(start, Math.min(start + IN_LIST_CHUNK, ids.size())));
+            found.addAll(namedParameterJdbcTemplate.queryForList(sql + " AND bin_id IN (:binIds)", params, String.class));
+        }
+        return found;
+    }
+
+    /**
+     * Cancel the PENDING schedules of the given bins between from and to (inclusive)
+     *
+     * @return Number of schedules cancelled
+     */
+    public int cancelPendingForBins(Collection<String> binIds, LocalDate from, LocalDate to) {
+        int cancelled = 0;
+        List<String> ids = new ArrayList<>(binIds);
+        for (int start = 0; start < ids.size(); start += IN_LIST_CHUNK) {
+            MapSqlParameterSource params = new MapSqlParameterSource()
+                    .addValue("binIds", ids.subList(start, Math.min(start + IN_LIST_CHUNK, ids.size())))
+                    .addValue("pending", ScheduleStatus.PENDING.name())
+                    .addValue("cancelled", ScheduleStatus.CANCELLED.name())
+                    .addValue("fromDate", Date.valueOf(from))
+                    .addValue("toDate", Date.valueOf(to));
+            cancelled += namedParameterJdbcTemplate.update(
+                    "UPDATE collection_schedules SET status = :cancelled, version = version + 1 " +
+                            "WHERE bin_id IN (:binIds) AND status = :pending AND scheduled_date BETWEEN :fromDate AND :toDate",
+                    params);
+        }
+        schedulesChanged(cancelled);
+        return cancelled;
+    }
+
+    /**
+     * Bins among the given ones that already have a PENDING schedule between the two days (inclusive)
+     */
+    public Set<String> findBinsWithPendingScheduleBetween(Collection<String> binIds, LocalDate from, LocalDate to) {
+        Set<String> scheduled = new HashSet<>();
+        List<String> ids = new ArrayList<>(binIds);
+        for (int start = 0; start < ids.size(); start += IN_LIST_CHUNK) {
+            MapSqlParameterSource params = new MapSqlParameterSource()
+                    .addValue("binIds", ids.subList(start, Math.min(start + IN_LIST_CHUNK, ids.size())))
+                    .addValue("status", ScheduleStatus.PENDING.name())
+                    .addValue("fromDate", Date.valueOf(from))
+                    .addValue("toDate", Date.valueOf(to));
+            scheduled.addAll(namedParameterJdbcTemplate.queryForList(
+                    "SELECT DISTINCT bin_id FROM collection_schedules WHERE bin_id IN (:binIds) " +
+                            "AND status = :status AND scheduled_date BETWEEN :fromDate AND :toDate",
+                    params, String.class));
+        }
+        return scheduled;
+    }
+
+    /**
+     * Days between from and to (inclusive) on which each of the given bins already has a pickup:
+     * a PENDING schedule, or any schedule materialized from a recurrence rule (so a cancelled
+     * recurring occurrence is not written again)
+     */
+    public Map<String, Set<LocalDate>> findScheduledDates(Collection<String> binIds, LocalDate from, LocalDate to) {
+        Map<String, Set<LocalDate>> scheduled = new HashMap<>();
+        List<String> ids = new ArrayList<>(binIds);
+        for (int start = 0; start < ids.size(); start += IN_LIST_CHUNK) {
+            MapSqlParameterSource params = new MapSqlParameterSource()
+                    .addValue("binIds", ids.subList(start, Math.min(start + IN_LIST_CHUNK, ids.size())))
+                    .addValue("status", ScheduleStatus.PENDING.name())
+                    .addValue("fromDate", Date.valueOf(from))
+                    .addValue("toDate", Date.valueOf(to));
+            namedParameterJdbcTemplate.query(
+                    "SELECT bin_id, scheduled_date FROM collection_schedules WHERE bin_id IN (:binIds) " +
+                            "AND (status = :status OR recurrence_rule_id IS NOT NULL) " +
+                            "AND scheduled_date BETWEEN :fromDate AND :toDate",
+                    params, rs -> {
+                        scheduled.computeIfAbsent(rs.getString("bin_id"), key -> new HashSet<>())
+                                .add(rs.getDate("scheduled_date").toLocalDate());
+                    });
+        }
+        return scheduled;
+    }
+
+    /**
+     * Bins with a PENDING schedule of the rule on the given day (only binId when it is not null)
+     */
+    public List<String> findPendingRuleBins(Long ruleId, LocalDate date, String binId) {
+        return jdbcTemplate.queryForList(
+                "SELECT bin_id FROM collection_schedules WHERE recurrence_rule_id = ? AND scheduled_date = ? " +
+                        "AND status = ?" + (binId != null ? " AND bin_id = ?" : ""),
+                String.class, binId != null
+                        ? new Object[]{ruleId, Date.valueOf(date), ScheduleStatus.PENDING.name(), binId}
+                        : new Object[]{ruleId, Date.valueOf(date), ScheduleStatus.PENDING.name()});
+    }
+
+    /**
+     * Cancel the rule's PENDING schedules between from and to (inclusive; only binId when it is not null)
+     *
+     * @return Number of schedules cancelled
+     */
+    public int cancelPendingForRule(Long ruleId, LocalDate from, LocalDate to, String binId) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("ruleId", ruleId)
+                .addValue("pending", ScheduleStatus.PENDING.name())
+                .addValue("cancelled", ScheduleStatus.CANCELLED.name())
+                .addValue("fromDate", Date.valueOf(from))
+                .addValue("toDate", Date.valueOf(to))
+                .addValue("binId", binId);
+        int cancelled = namedParameterJdbcTemplate.update(
+                "UPDATE collection_schedules SET status = :cancelled, version = version + 1 " +
+                        "WHERE recurrence_rule_id = :ruleId AND status = :pending " +
+                        "AND scheduled_date BETWEEN :fromDate AND :toDate" +
+                        (binId != null ? " AND bin_id = :binId" : ""),
+                params);
+        schedulesChanged(cancelled);
+        return cancelled;
+    }
+
+    /**
+     * Insert PENDING schedules in JDBC batches
+     *
+     * @return Number of schedules inserted
+     */
+    public int insertPendingSchedules(List<NewSchedule> schedules, int batchSize) {
+        if (schedules.isEmpty()) {
+            return 0;
+        }
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        int[][] counts = jdbcTemplate.batchUpdate(
+                "INSERT INTO collection_schedules (bin_id, scheduled_date, status, notes, created_at, recurrence_rule_id, version) " +
+                        "VALUES (?, ?, ?, ?, ?, ?, 0)",
+                schedules, batchSize, (ps, schedule) -> {
+                    ps.setString(1, schedule.binId());
+                    ps.setDate(2, Date.valueOf(schedule.scheduledDate()));
+                    ps.setString(3, ScheduleStatus.PENDING.name());
+                    ps.setString(4, schedule.notes());
+                    ps.setTimestamp(5, now);
+                    ps.setObject(6, schedule.recurrenceRuleId(), Types.BIGINT);
+                });
+        int inserted = sum(counts);
+        schedulesChanged(inserted);
+        return inserted;
+    }
+
+    private void schedulesChanged(int rows) {
+        if (rows > 0) {
+            dataVersionRegistry.bumpAfterCommit(DataVersionRegistry.SCHEDULES);
+        }
+    }
+
+    // Drivers may report SUCCESS_NO_INFO (-2) for batched rows; count those as one row each
+    static int sum(int[][] counts) {
+        int total = 0;
+        for (int[] batch : counts) {
+            for (int count : batch) {
+                total += count >= 0 ? count : 1;
+            }
+        }
+        return total;
+    }
+}
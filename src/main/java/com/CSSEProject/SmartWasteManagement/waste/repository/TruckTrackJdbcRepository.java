@@ -0,0 +1,104 @@
+package com.CSSEProject.SmartWasteManagement.waste.repository;
+
+import com.CSSEProject.SmartWasteManagement.dto.TruckPositionDto;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Batched writes of truck positions: track points go out as one JDBC batch per flush, and the
+ * latest position of each truck that moved is written to collection_trucks in a second batch
+ */
+@Repository
+public class TruckTrackJdbcRepository {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    public List<String> findActiveTruckIds() {
+        return jdbcTemplate.queryForList("SELECT truck_id FROM collection_trucks WHERE active = TRUE", String.class);
+    }
+
+    /**
+     * Last persisted position of every truck that has one ("lat,lon" in current_location)
+     */
+    public List<TruckPositionDto> findLastPositions() {
+        return jdbcTemplate.query(
+                "SELECT truck_id, current_location, last_location_update FROM collection_trucks " +
+                        "WHERE current_location IS NOT NULL AND last_location_update IS NOT NULL",
+                (rs, rowNum) -> {
+                    String[] parts = rs.getString("current_location").split(",");
+                    if (parts.length != 2) {
+                        return null;
+                    }
+                    try {
+                        return new TruckPositionDto(rs.getString("truck_id"), Double.parseDouble(parts[0].trim()),
+                                Double.parseDouble(parts[1].trim()), null, null,
+                                rs.getTimestamp("last_location_update").toLocalDateTime());
+                    } catch (NumberFormatException e) {
+                        return null; // Free-text location from before positions were reported
+                    }
+                });
+    }
+
+    public int insertTrackPoints(List<TruckPositionDto> points, int batchSize) {
+        if (points.isEmpty()) {
+            return 0;
+        }
+        int[][] counts = jdbcTemplate.batchUpdate(
+                "INSERT INTO truck_track_points (truck_id, latitude, longitude, speed_kmh, heading, recorded_at) " +
+                        "VALUES (?, ?, ?, ?, ?, ?)",
+                points, batchSize, (ps, point) -> {
+                    ps.setString(1, point.getTruckId());
+                    ps.setDouble(2, point.getLatitude());
+                    ps.setDouble(3, point.getLongitude());
+                    ps.setObject(4, point.getSpeedKmh(), Types.DOUBLE);
+                    ps.setObject(5, point.getHeading(), Types.DOUBLE);
+                    ps.setTimestamp(6, Timestamp.valueOf(point.getRecordedAt()));
+                });
+        return ScheduleJdbcRepository.sum(counts);
+    }
+
+    /**
+     * Store each truck's latest position, unless a newer one is already stored
+     */
+    public int updateLatestPositions(List<TruckPositionDto> positions, int batchSize) {
+        if (positions.isEmpty()) {
+            return 0;
+        }
+        int[][] counts = jdbcTemplate.batchUpdate(
+                "UPDATE collection_trucks SET current_location = ?, last_location_update = ? " +
+                        "WHERE truck_id = ? AND (last_location_update IS NULL OR last_location_update <= ?)",
+                positions, batchSize, (ps, position) -> {
+                    Timestamp recordedAt = Timestamp.valueOf(position.getRecordedAt());
+                    ps.setString(1, position.getLatitude() + "," + position.getLongitude());
+                    ps.setTimestamp(2, recordedAt);
+                    ps.setString(3, position.getTruckId());
+                    ps.setTimestamp(4, recordedAt);
+                });
+        return ScheduleJdbcRepository.sum(counts);
+    }
+
+    public List<TruckPositionDto> findTrack(String truckId, LocalDateTime from, LocalDateTime to) {
+        return jdbcTemplate.query(
+                "SELECT truck_id, latitude, longitude, speed_kmh, heading, recorded_at FROM truck_track_points " +
+                        "WHERE truck_id = ? AND recorded_at BETWEEN ? AND ? ORDER BY recorded_at",
+                (rs, rowNum) -> new TruckPositionDto(
+                        rs.getString("truck_id"),
+                        rs.getDouble("latitude"),
+                        rs.getDouble("longitude"),
+                        rs.getObject("speed_kmh") != null ? rs.getDouble("speed_kmh") : null,
+                        rs.getObject("heading") != null ? rs.getDouble("heading") : null,
+                        rs.getTimestamp("recorded_at").toLocalDateTime()),
+                truckId, Timestamp.valueOf(from), Timestamp.valueOf(to));
+    }
+
+    public int deleteTrackBefore(LocalDateTime cutoff) {
+        return jdbcTemplate.update("DELETE FROM truck_track_points WHERE recorded_at < ?", Timestamp.valueOf(cutoff));
+    }
+}
@@ -1,27 +1,76 @@
 package com.CSSEProject.SmartWasteManagement.waste.repository;
 
+import com.CSSEProject.SmartWasteManagement.dto.BinSummaryDto;
 import com.CSSEProject.SmartWasteManagement.waste.entity.WasteBin;
 import com.CSSEProject.SmartWasteManagement.waste.entity.BinStatus;
 import com.CSSEProject.SmartWasteManagement.waste.entity.BinType;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface WasteBinRepository extends JpaRepository<WasteBin, String> {
 
+    // Bin lists are returned as JSON with their resident, so it is fetched in the same query
     // FIXED: Use the relationship path instead of direct field
+    @EntityGraph("WasteBin.withResident")
     @Query("SELECT wb FROM WasteBin wb WHERE wb.resident.id = :residentId")
     List<WasteBin> findByResidentId(@Param("residentId") Long residentId);
 
+    @EntityGraph("WasteBin.withResident")
     List<WasteBin> findByStatus(BinStatus status);
+    @EntityGraph("WasteBin.withResident")
     List<WasteBin> findByBinType(BinType binType);
     Optional<WasteBin> findByRfidTag(String rfidTag);
     Optional<WasteBin> findByQrCode(String qrCode);
     boolean existsByBinId(String binId);
+    @EntityGraph("WasteBin.withResident")
     List<WasteBin> findByLocationContaining(String location);
     long countByStatus(BinStatus status);
+
+    // Rows of {binId, latitude, longitude} for the location index, without loading entities
+    @Query("SELECT wb.binId, wb.latitude, wb.longitude FROM WasteBin wb " +
+            "WHERE wb.latitude IS NOT NULL AND wb.longitude IS NOT NULL AND wb.status <> :excluded")
+    List<Object[]> findIndexedLocations(@Param("excluded") BinStatus excluded);
+
+    // Bins of a recurring zone pickup; INACTIVE and DECOMMISSIONED bins are left out
+    @Query("SELECT wb.binId FROM WasteBin wb WHERE wb.latitude BETWEEN :minLat AND :maxLat " +
+            "AND wb.longitude BETWEEN :minLon AND :maxLon AND wb.status NOT IN :excluded ORDER BY wb.binId")
+    List<String> findBinIdsInBox(@Param("minLat") double minLatitude, @Param("minLon") double minLongitude,
+                                 @Param("maxLat") double maxLatitude, @Param("maxLon") double maxLongitude,
+                                 @Param("excluded") Collection<BinStatus> excluded);
+
+    @Query("SELECT wb.binId FROM WasteBin wb WHERE wb.binId IN :binIds AND wb.status NOT IN :excluded")
+    List<String> findBinIdsExcludingStatus(@Param("binIds") Collection<String> binIds,
+                                           @Param("excluded") Collection<BinStatus> excluded);
+
+    // Rows of {binId, location, status, currentLevel, last collection time} for the status overview, in one grouped scan
+    @Query("SELECT wb.binId, wb.location, wb.status, wb.currentLevel, MAX(c.collectionTime) " +
+            "FROM WasteBin wb LEFT JOIN wb.collections c " +
+            "GROUP BY wb.binId, wb.location, wb.status, wb.currentLevel")
+    List<Object[]> findStatusOverview();
+
+    // Keyset-paged flat bin rows for streaming exports; no entities or resident proxies are loaded
+    @Query("SELECT new com.CSSEProject.SmartWasteManagement.dto.BinSummaryDto(" +
+            "wb.binId, wb.location, wb.latitude, wb.longitude, wb.binType, wb.capacity, wb.currentLevel, wb.status, r.id, r.name) " +
+            "FROM WasteBin wb LEFT JOIN wb.resident r " +
+            "WHERE wb.binId > :afterBinId AND (:status IS NULL OR wb.status = :status) " +
+            "ORDER BY wb.binId")
+    List<BinSummaryDto> findSummariesAfter(@Param("afterBinId") String afterBinId,
+                                           @Param("status") BinStatus status,
+                                           Pageable pageable);
+
+    // One scan for all statuses, used to reconcile BinStatusCounters: rows of {resident address, status, count}
+    @Query("SELECT r.address, wb.status, COUNT(wb) FROM WasteBin wb LEFT JOIN wb.resident r GROUP BY r.address, wb.status")
+    List<Object[]> countGroupedByResidentAddressAndStatus();
+
+    // Address of the bin's resident (empty for a bin without one), for BinStatusCounters' city
+    @Query("SELECT r.address FROM WasteBin wb JOIN wb.resident r WHERE wb.binId = :binId")
+    Optional<String> findResidentAddress(@Param("binId") String binId);
 }
\ No newline at end of file
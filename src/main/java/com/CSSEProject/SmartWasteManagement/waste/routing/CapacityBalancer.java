@@ -0,0 +1,380 @@
+package com.CSSEProject.SmartWasteManagement.waste.routing;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Splits a day's stops between trucks so that no truck exceeds its load capacity or shift time
+ *
+ * Each truck starts from the centre of its sweep-clustering sector. Stops are placed greedily,
+ * higher priority first and then those whose nearest truck is clearest, into the nearest truck
+ * that still has room; a relocation pass then moves stops to a truck whose stops they are closer
+ * to whenever that truck can take them. Stops that fit nowhere stay unassigned (-1).
+ *
+ * A truck's time is the service time of its stops plus travel at a fixed speed over an
+ * estimated route length: 0.7124·√(n·A) over the bounding box of its stops (the
+ * Beardwood-Halton-Hammersley estimate, at least twice the box's longer side) plus the trip
+ * from the depot to the middle of its stops and back. Stops can be added and removed after the
+ * first balance, which keeps every other assignment as it is.
+ */
+public final class CapacityBalancer {
+
+    private static final double BHH_CONSTANT = 0.7124;
+    private static final int MAX_PASSES = 20;
+    private static final double EPSILON = 1e-6;
+
+    public record Vehicle(double[] depot, double capacityKg, double shiftSeconds) {
+    }
+
+    private final List<Vehicle> vehicles;
+    private final double serviceSeconds;
+    private final double metersPerSecond;
+
+    private double[] x = new double[64];
+    private double[] y = new double[64];
+    private double[] loadKg = new double[64];
+    private int[] priority = new int[64];
+    private int[] vehicleOf = new int[64];
+    private boolean[] removed = new boolean[64];
+    private int size;
+
+    private final int[] count;
+    private final double[] load;
+    private final double[] sumX;
+    private final double[] sumY;
+    private final double[][] box; // per vehicle {minX, minY, maxX, maxY}, may be larger than needed after removals
+    private final double[][] anchor;
+    private boolean boxesStale;
+
+    public CapacityBalancer(List<Vehicle> vehicles, double serviceSeconds, double metersPerSecond) {
+        if (vehicles.isEmpty()) {
+            throw new IllegalArgumentException("At least one truck is required");
+        }
+        if (metersPerSecond <= 0) {
+            throw new IllegalArgumentException("Speed must be positive");
+        }
+        this.vehicles = List.copyOf(vehicles);
+        this.serviceSeconds = serviceSeconds;
+        this.metersPerSecond = metersPerSecond;
+        int n = vehicles.size();
+        count = new int[n];
+        load = new double[n];
+        sumX = new double[n];
+        sumY = new double[n];
+        box = new double[n][];
+        anchor = new double[n][];
+    }
+
+    /**
+     * Add an unassigned stop
+     *
+     * @param priority Higher is placed first (stops carried over from an earlier day)
+     * @return Handle of the stop
+     */
+    public int addStop(double stopX, double stopY, double stopLoadKg, int priority) {
+        if (size == x.length) {
+            int capacity = size * 2;
+            x = Arrays.copyOf(x, capacity);
+            y = Arrays.copyOf(y, capacity);
+            loadKg = Arrays.copyOf(loadKg, capacity);
+            this.priority = Arrays.copyOf(this.priority, capacity);
+            vehicleOf = Arrays.copyOf(vehicleOf, capacity);
+            removed = Arrays.copyOf(removed, capacity);
+        }
+        x[size] = stopX;
+        y[size] = stopY;
+        loadKg[size] = Math.max(0, stopLoadKg);
+        this.priority[size] = priority;
+        vehicleOf[size] = -1;
+        return size++;
+    }
+
+    public void removeStop(int stop) {
+        if (!removed[stop]) {
+            unassign(stop);
+            removed[stop] = true;
+        }
+    }
+
+    /**
+     * Set each truck's starting point to the centre of its sweep sector over the current stops
+     */
+    public void seed() {
+        int[] live = liveStops();
+        double[] sx = new double[live.length];
+        double[] sy = new double[live.length];
+        for (int i = 0; i < live.length; i++) {
+            sx[i] = x[live[i]];
+            sy[i] = y[live[i]];
+        }
+        double[][] depots = new double[vehicles.size()][];
+        for (int v = 0; v < depots.length; v++) {
+            depots[v] = vehicles.get(v).depot();
+        }
+        int[] sector = SweepClustering.assign(sx, sy, depots);
+        double[][] sums = new double[vehicles.size()][3];
+        for (int i = 0; i < live.length; i++) {
+            sums[sector[i]][0] += sx[i];
+            sums[sector[i]][1] += sy[i];
+            sums[sector[i]][2]++;
+        }
+        double cx = Arrays.stream(sx).average().orElse(0);
+        double cy = Arrays.stream(sy).average().orElse(0);
+        for (int v = 0; v < anchor.length; v++) {
+            if (sums[v][2] > 0) {
+                anchor[v] = new double[]{sums[v][0] / sums[v][2], sums[v][1] / sums[v][2]};
+            } else {
+                anchor[v] = depots[v] != null ? depots[v] : new double[]{cx, cy};
+            }
+        }
+    }
+
+    /**
+     * Place every unassigned stop into the nearest truck that can still take it
+     *
+     * @return Number of stops placed
+     */
+    public int placeUnassigned(long deadlineNanos) {
+        refreshBoxes();
+        List<int[]> order = new ArrayList<>(); // {stop, regret in whole meters}
+        for (int stop : liveStops()) {
+            if (vehicleOf[stop] == -1) {
+                order.add(new int[]{stop, (int) Math.min(Integer.MAX_VALUE, regret(stop))});
+            }
+        }
+        order.sort(Comparator.<int[]>comparingInt(entry -> -priority[entry[0]])
+                .thenComparingInt(entry -> -entry[1]));
+        int placed = 0;
+        for (int i = 0; i < order.size(); i++) {
+            if ((i & 255) == 255 && System.nanoTime() >= deadlineNanos) {
+                break;
+            }
+            int stop = order.get(i)[0];
+            int best = -1;
+            double bestDistance = Double.MAX_VALUE;
+            for (int v = 0; v < vehicles.size(); v++) {
+                double distance = distanceToCentre(stop, v);
+                if (distance < bestDistance && fits(stop, v)) {
+                    bestDistance = distance;
+                    best = v;
+                }
+            }
+            if (best != -1) {
+                assign(stop, best);
+                placed++;
+            }
+        }
+        return placed;
+    }
+
+    /**
+     * Move stops to trucks whose stops they are closer to, while both trucks stay within limits
+     *
+     * @return Number of moves made
+     */
+    public int improve(long deadlineNanos) {
+        int moves = 0;
+        for (int pass = 0; pass < MAX_PASSES && System.nanoTime() < deadlineNanos; pass++) {
+            refreshBoxes();
+            int passMoves = 0;
+            for (int stop = 0; stop < size; stop++) {
+                int from = vehicleOf[stop];
+                if (from == -1 || removed[stop]) {
+                    continue;
+                }
+                if ((stop & 255) == 255 && System.nanoTime() >= deadlineNanos) {
+                    break;
+                }
+                double current = count[from] > 1
+                        ? Math.hypot(x[stop] - (sumX[from] - x[stop]) / (count[from] - 1),
+                                     y[stop] - (sumY[from] - y[stop]) / (count[from] - 1))
+                        : 0;
+                int best = -1;
+                double bestDistance = current - EPSILON;
+                for (int v = 0; v < vehicles.size(); v++) {
+                    if (v == from) {
+                        continue;
+                    }
+                    double distance = distanceToCentre(stop, v);
+                    if (distance < bestDistance && fits(stop, v)) {
+                        bestDistance = distance;
+                        best = v;
+                    }
+                }
+                if (best != -1) {
+                    // The old truck's box only shrinks at the next refresh, which is on the safe side
+                    unassignKeepingBox(stop);
+                    assign(stop, best);
+                    passMoves++;
+                }
+            }
+            moves += passMoves;
+            if (passMoves == 0) {
+                break;
+            }
+            boxesStale = true;
+        }
+        refreshBoxes();
+        return moves;
+    }
+
+    public int vehicleOf(int stop) {
+        return removed[stop] ? -1 : vehicleOf[stop];
+    }
+
+    public int stopCount(int vehicle) {
+        return count[vehicle];
+    }
+
+    public double loadKg(int vehicle) {
+        return load[vehicle];
+    }
+
+    public double estimatedSeconds(int vehicle) {
+        refreshBoxes();
+        return seconds(vehicle, -1);
+    }
+
+    public List<Integer> unassignedStops() {
+        List<Integer> unassigned = new ArrayList<>();
+        for (int stop : liveStops()) {
+            if (vehicleOf[stop] == -1) {
+                unassigned.add(stop);
+            }
+        }
+        return unassigned;
+    }
+
+    private boolean fits(int stop, int vehicle) {
+        Vehicle limits = vehicles.get(vehicle);
+        return load[vehicle] + loadKg[stop] <= limits.capacityKg() + EPSILON
+                && seconds(vehicle, stop) <= limits.shiftSeconds() + EPSILON;
+    }
+
+    // Estimated route time of the vehicle, with the extra stop when it is not -1
+    private double seconds(int vehicle, int extra) {
+        int n = count[vehicle] + (extra >= 0 ? 1 : 0);
+        if (n == 0) {
+            return 0;
+        }
+        double minX, minY, maxX, maxY;
+        if (box[vehicle] != null) {
+            minX = box[vehicle][0];
+            minY = box[vehicle][1];
+            maxX = box[vehicle][2];
+            maxY = box[vehicle][3];
+        } else {
+            minX = minY = Double.MAX_VALUE;
+            maxX = maxY = -Double.MAX_VALUE;
+        }
+        double cx = sumX[vehicle];
+        double cy = sumY[vehicle];
+        if (extra >= 0) {
+            minX = Math.min(minX, x[extra]);
+            minY = Math.min(minY, y[extra]);
+            maxX = Math.max(maxX, x[extra]);
+            maxY = Math.max(maxY, y[extra]);
+            cx += x[extra];
+            cy += y[extra];
+        }
+        double width = maxX - minX;
+        double height = maxY - minY;
+        double meters = Math.max(2 * Math.max(width, height), BHH_CONSTANT * Math.sqrt(n * width * height));
+        double[] depot = vehicles.get(vehicle).depot();
+        if (depot != null) {
+            meters += 2 * Math.hypot(depot[0] - cx / n, depot[1] - cy / n);
+        }
+        return n * serviceSeconds + meters / metersPerSecond;
+    }
+
+    private double distanceToCentre(int stop, int vehicle) {
+        if (count[vehicle] > 0) {
+            return Math.hypot(x[stop] - sumX[vehicle] / count[vehicle], y[stop] - sumY[vehicle] / count[vehicle]);
+        }
+        double[] centre = anchor[vehicle] != null ? anchor[vehicle] : vehicles.get(vehicle).depot();
+        return centre != null ? Math.hypot(x[stop] - centre[0], y[stop] - centre[1]) : 0;
+    }
+
+    // How much closer the nearest truck is than the second nearest
+    private double regret(int stop) {
+        double first = Double.MAX_VALUE;
+        double second = Double.MAX_VALUE;
+        for (int v = 0; v < vehicles.size(); v++) {
+            double distance = distanceToCentre(stop, v);
+            if (distance < first) {
+                second = first;
+                first = distance;
+            } else if (distance < second) {
+                second = distance;
+            }
+        }
+        return second == Double.MAX_VALUE ? 0 : second - first;
+    }
+
+    private void assign(int stop, int vehicle) {
+        vehicleOf[stop] = vehicle;
+        count[vehicle]++;
+        load[vehicle] += loadKg[stop];
+        sumX[vehicle] += x[stop];
+        sumY[vehicle] += y[stop];
+        if (box[vehicle] == null) {
+            box[vehicle] = new double[]{x[stop], y[stop], x[stop], y[stop]};
+        } else {
+            box[vehicle][0] = Math.min(box[vehicle][0], x[stop]);
+            box[vehicle][1] = Math.min(box[vehicle][1], y[stop]);
+            box[vehicle][2] = Math.max(box[vehicle][2], x[stop]);
+            box[vehicle][3] = Math.max(box[vehicle][3], y[stop]);
+        }
+    }
+
+    private void unassign(int stop) {
+        if (vehicleOf[stop] != -1) {
+            unassignKeepingBox(stop);
+            boxesStale = true;
+        }
+    }
+
+    private void unassignKeepingBox(int stop) {
+        int vehicle = vehicleOf[stop];
+        count[vehicle]--;
+        load[vehicle] -= loadKg[stop];
+        sumX[vehicle] -= x[stop];
+        sumY[vehicle] -= y[stop];
+        vehicleOf[stop] = -1;
+    }
+
+    private void refreshBoxes() {
+        if (!boxesStale) {
+            return;
+        }
+        Arrays.fill(box, null);
+        for (int stop = 0; stop < size; stop++) {
+            int vehicle = vehicleOf[stop];
+            if (vehicle == -1 || removed[stop]) {
+                continue;
+            }
+            if (box[vehicle] == null) {
+                box[vehicle] = new double[]{x[stop], y[stop], x[stop], y[stop]};
+            } else {
+                box[vehicle][0] = Math.min(box[vehicle][0], x[stop]);
+                box[vehicle][1] = Math.min(box[vehicle][1], y[stop]);
+                box[vehicle][2] = Math.max(box[vehicle][2], x[stop]);
+                box[vehicle][3] = Math.max(box[vehicle][3], y[stop]);
+            }
+        }
+        boxesStale = false;
+    }
+
+    private int[] liveStops() {
+        int[] live = new int[size];
+        int n = 0;
+        for (int stop = 0; stop < size; stop++) {
+            if (!removed[stop]) {
+                live[n++] = stop;
+            }
+        }
+        return Arrays.copyOf(live, n);
+    }
+}
@@ -0,0 +1,30 @@
+package com.CSSEProject.SmartWasteManagement.waste.routing;
+
+/**
+ * Equirectangular projection of latitude/longitude to meters around an origin
+ *
+ * Straight-line distances on it are within a fraction of a percent of great-circle distances
+ * over a city, which is all route planning and load balancing need.
+ */
+public final class LocalProjection {
+
+    private static final double EARTH_RADIUS_METERS = 6_371_008.8;
+
+    private final double originLatitude;
+    private final double originLongitude;
+    private final double longitudeScale;
+
+    public LocalProjection(double originLatitude, double originLongitude) {
+        this.originLatitude = originLatitude;
+        this.originLongitude = originLongitude;
+        this.longitudeScale = Math.cos(Math.toRadians(originLatitude));
+    }
+
+    public double x(double longitude) {
+        return Math.toRadians(longitude - originLongitude) * EARTH_RADIUS_METERS * longitudeScale;
+    }
+
+    public double y(double latitude) {
+        return Math.toRadians(latitude - originLatitude) * EARTH_RADIUS_METERS;
+    }
+}
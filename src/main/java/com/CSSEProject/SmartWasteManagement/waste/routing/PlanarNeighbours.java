@@ -0,0 +1,103 @@
+package com.CSSEProject.SmartWasteManagement.waste.routing;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * K nearest neighbours of every point in a planar point set, through a uniform grid sized so
+ * that a cell holds about two points. Each lookup searches rings of cells outwards until no
+ * unvisited cell can be closer than the k-th candidate found.
+ */
+final class PlanarNeighbours {
+
+    private PlanarNeighbours() {
+    }
+
+    static int[][] nearest(double[] x, double[] y, int k) {
+        int n = x.length;
+        int[][] result = new int[n][];
+        if (k <= 0) {
+            Arrays.fill(result, new int[0]);
+            return result;
+        }
+        double minX = Double.MAX_VALUE, minY = Double.MAX_VALUE, maxX = -Double.MAX_VALUE, maxY = -Double.MAX_VALUE;
+        for (int i = 0; i < n; i++) {
+            minX = Math.min(minX, x[i]);
+            minY = Math.min(minY, y[i]);
+            maxX = Math.max(maxX, x[i]);
+            maxY = Math.max(maxY, y[i]);
+        }
+        double area = Math.max((maxX - minX) * (maxY - minY), 1.0);
+        double cell = Math.max(Math.sqrt(2.0 * area / n), 1e-3);
+
+        Map<Long, List<Integer>> grid = new HashMap<>();
+        for (int i = 0; i < n; i++) {
+            grid.computeIfAbsent(key(cellIndex(x[i], minX, cell), cellIndex(y[i], minY, cell)), c -> new ArrayList<>()).add(i);
+        }
+        long maxRing = Math.max(cellIndex(maxX, minX, cell), cellIndex(maxY, minY, cell)) + 1;
+
+        int[] candidates = new int[k];
+        double[] distances = new double[k];
+        for (int i = 0; i < n; i++) {
+            long cx = cellIndex(x[i], minX, cell);
+            long cy = cellIndex(y[i], minY, cell);
+            int found = 0;
+            for (long ring = 0; ring <= maxRing; ring++) {
+                // Cells in this ring are at least (ring - 1) whole cells away
+                if (found == k && distances[k - 1] <= (ring - 1) * cell) {
+                    break;
+                }
+                for (long gx = cx - ring; gx <= cx + ring; gx++) {
+                    long step = gx == cx - ring || gx == cx + ring || ring == 0 ? 1 : 2 * ring;
+                    for (long gy = cy - ring; gy <= cy + ring; gy += step) {
+                        List<Integer> members = grid.get(key(gx, gy));
+                        if (members == null) {
+                            continue;
+                        }
+                        for (int j : members) {
+                            if (j == i) {
+                                continue;
+                            }
+                            double dx = x[i] - x[j];
+                            double dy = y[i] - y[j];
+                            double d = Math.sqrt(dx * dx + dy * dy);
+                            if (found < k) {
+                                found = insert(candidates, distances, found, j, d);
+                            } else if (d < distances[k - 1]) {
+                                insert(candidates, distances, k - 1, j, d);
+                            }
+                        }
+                    }
+                }
+            }
+            result[i] = Arrays.copyOf(candidates, found);
+        }
+        return result;
+    }
+
+    // Insertion into the sorted prefix [0, size); returns the new size
+    private static int insert(int[] candidates, double[] distances, int size, int id, double distance) {
+        int at = size;
+        while (at > 0 && distances[at - 1] > distance) {
+            if (at < candidates.length) {
+                candidates[at] = candidates[at - 1];
+                distances[at] = distances[at - 1];
+            }
+            at--;
+        }
+        candidates[at] = id;
+        distances[at] = distance;
+        return Math.min(size + 1, candidates.length);
+    }
+
+    private static long cellIndex(double value, double min, double cell) {
+        return (long) Math.floor((value - min) / cell);
+    }
+
+    private static long key(long gx, long gy) {
+        return (gx << 32) | (gy & 0xFFFFFFFFL);
+    }
+}
@@ -0,0 +1,124 @@
+package com.CSSEProject.SmartWasteManagement.waste.routing;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.stream.IntStream;
+
+/**
+ * Splits stops between trucks with the sweep method
+ *
+ * Stops are sorted by bearing around their centroid and cut into contiguous sectors of equal
+ * size, starting at the widest empty bearing gap so that no natural cluster is split at the
+ * seam. Sectors are then handed to the trucks whose depots are closest to them; trucks without
+ * a depot take whatever is left.
+ */
+public final class SweepClustering {
+
+    private SweepClustering() {
+    }
+
+    /**
+     * @param depots Per truck {x, y}, or null when the truck has no known start position
+     * @return Per stop the index of the truck it is assigned to
+     */
+    public static int[] assign(double[] x, double[] y, double[][] depots) {
+        int n = x.length;
+        int trucks = depots.length;
+        if (trucks == 0) {
+            throw new IllegalArgumentException("At least one truck is required");
+        }
+        int[] assignment = new int[n];
+        if (n == 0 || trucks == 1) {
+            return assignment;
+        }
+
+        double cx = Arrays.stream(x).average().orElse(0);
+        double cy = Arrays.stream(y).average().orElse(0);
+        double[] angle = new double[n];
+        for (int i = 0; i < n; i++) {
+            angle[i] = Math.atan2(y[i] - cy, x[i] - cx);
+        }
+        Integer[] byAngle = IntStream.range(0, n).boxed().toArray(Integer[]::new);
+        Arrays.sort(byAngle, Comparator.comparingDouble(i -> angle[i]));
+
+        int seam = 0;
+        double widestGap = -1;
+        for (int i = 0; i < n; i++) {
+            double gap = angle[byAngle[i]] - angle[byAngle[(i - 1 + n) % n]];
+            if (gap <= 0) {
+                gap += 2 * Math.PI;
+            }
+            if (gap > widestGap) {
+                widestGap = gap;
+                seam = i;
+            }
+        }
+
+        int sectors = Math.min(trucks, n);
+        double[][] sectorCentroid = new double[sectors][2];
+        int[] sectorSize = new int[sectors];
+        int[] sectorOf = new int[n];
+        for (int rank = 0; rank < n; rank++) {
+            int stop = byAngle[(seam + rank) % n];
+            int sector = (int) ((long) rank * sectors / n);
+            sectorOf[stop] = sector;
+            sectorSize[sector]++;
+            sectorCentroid[sector][0] += x[stop];
+            sectorCentroid[sector][1] += y[stop];
+        }
+        for (int sector = 0; sector < sectors; sector++) {
+            sectorCentroid[sector][0] /= sectorSize[sector];
+            sectorCentroid[sector][1] /= sectorSize[sector];
+        }
+
+        // Greedy pairing, closest depot/sector pair first
+        int[] truckOfSector = new int[sectors];
+        Arrays.fill(truckOfSector, -1);
+        boolean[] truckUsed = new boolean[trucks];
+        int paired = 0;
+        while (true) {
+            double best = Double.MAX_VALUE;
+            int bestTruck = -1, bestSector = -1;
+            for (int truck = 0; truck < trucks; truck++) {
+                if (truckUsed[truck] || depots[truck] == null) {
+                    continue;
+                }
+                for (int sector = 0; sector < sectors; sector++) {
+                    if (truckOfSector[sector] != -1) {
+                        continue;
+                    }
+                    double dx = depots[truck][0] - sectorCentroid[sector][0];
+                    double dy = depots[truck][1] - sectorCentroid[sector][1];
+                    double d = dx * dx + dy * dy;
+                    if (d < best) {
+                        best = d;
+                        bestTruck = truck;
+                        bestSector = sector;
+                    }
+                }
+            }
+            if (bestTruck == -1) {
+                break;
+            }
+            truckOfSector[bestSector] = bestTruck;
+            truckUsed[bestTruck] = true;
+            paired++;
+        }
+        for (int sector = 0, truck = 0; sector < sectors && paired < sectors; sector++) {
+            if (truckOfSector[sector] != -1) {
+                continue;
+            }
+            while (truckUsed[truck]) {
+                truck++;
+            }
+            truckOfSector[sector] = truck;
+            truckUsed[truck] = true;
+            paired++;
+        }
+
+        for (int i = 0; i < n; i++) {
+            assignment[i] = truckOfSector[sectorOf[i]];
+        }
+        return assignment;
+    }
+}
@@ -0,0 +1,298 @@
+package com.CSSEProject.SmartWasteManagement.waste.routing;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+
+/**
+ * Builds a short closed tour through planar points (meters), starting and ending at point 0
+ *
+ * A nearest-neighbour tour is improved with 2-opt and Or-opt moves until neither finds an
+ * improvement or the deadline passes. Both only try the K nearest neighbours of each point and
+ * 2-opt keeps "don't look" bits, so a pass over a few thousand stops takes milliseconds.
+ */
+public final class TourOptimizer {
+
+    private static final int NEIGHBOURS = 10;
+    private static final double EPSILON = 1e-7;
+
+    private final double[] x;
+    private final double[] y;
+    private final int n;
+    private final long deadlineNanos;
+    private final int[][] neighbours;
+    private int[] tour;
+    private int[] pos;
+
+    private TourOptimizer(double[] x, double[] y, long deadlineNanos) {
+        this.x = x;
+        this.y = y;
+        this.n = x.length;
+        this.deadlineNanos = deadlineNanos;
+        this.neighbours = PlanarNeighbours.nearest(x, y, Math.min(NEIGHBOURS, n - 1));
+    }
+
+    /**
+     * @return Visiting order as indices into x/y, starting with 0 (the tour returns to 0 after the last)
+     */
+    public static int[] optimize(double[] x, double[] y, long deadlineNanos) {
+        if (x.length != y.length) {
+            throw new IllegalArgumentException("x and y must have the same length");
+        }
+        if (x.length <= 3) {
+            int[] order = new int[x.length];
+            Arrays.setAll(order, i -> i);
+            return order;
+        }
+        TourOptimizer optimizer = new TourOptimizer(x, y, deadlineNanos);
+        optimizer.nearestNeighbourTour();
+        boolean improved = true;
+        while (improved && System.nanoTime() < deadlineNanos) {
+            improved = optimizer.twoOpt();
+            improved |= optimizer.orOpt();
+        }
+        return optimizer.fromDepot();
+    }
+
+    public static double length(double[] x, double[] y, int[] order, boolean closed) {
+        double total = 0;
+        for (int i = 1; i < order.length; i++) {
+            total += distance(x, y, order[i - 1], order[i]);
+        }
+        if (closed && order.length > 1) {
+            total += distance(x, y, order[order.length - 1], order[0]);
+        }
+        return total;
+    }
+
+    private void nearestNeighbourTour() {
+        tour = new int[n];
+        pos = new int[n];
+        boolean[] visited = new boolean[n];
+        int current = 0;
+        visited[0] = true;
+        for (int i = 1; i < n; i++) {
+            int next = -1;
+            // Neighbour list first; fall back to a scan once all neighbours are taken
+            for (int candidate : neighbours[current]) {
+                if (!visited[candidate]) {
+                    next = candidate;
+                    break;
+                }
+            }
+            if (next == -1) {
+                double best = Double.MAX_VALUE;
+                for (int candidate = 0; candidate < n; candidate++) {
+                    if (!visited[candidate]) {
+                        double d = distance(current, candidate);
+                        if (d < best) {
+                            best = d;
+                            next = candidate;
+                        }
+                    }
+                }
+            }
+            tour[i] = next;
+            visited[next] = true;
+            current = next;
+        }
+        for (int i = 0; i < n; i++) {
+            pos[tour[i]] = i;
+        }
+    }
+
+    private boolean twoOpt() {
+        boolean improvedAny = false;
+        boolean[] queued = new boolean[n];
+        Deque<Integer> queue = new ArrayDeque<>(n);
+        for (int city : tour) {
+            queue.add(city);
+            queued[city] = true;
+        }
+        int checks = 0;
+        while (!queue.isEmpty()) {
+            if ((++checks & 255) == 0 && System.nanoTime() >= deadlineNanos) {
+                break;
+            }
+            int a = queue.poll();
+            queued[a] = false;
+            boolean improved = false;
+
+            int b = next(a);
+            double ab = distance(a, b);
+            for (int c : neighbours[a]) {
+                double ac = distance(a, c);
+                if (ac >= ab) {
+                    break;
+                }
+                int d = next(c);
+                if (c == b || d == a) {
+                    continue;
+                }
+                if (ac + distance(b, d) - ab - distance(c, d) < -EPSILON) {
+                    reverse(pos[b], pos[c]);
+                    requeue(queue, queued, a, b, c, d);
+                    improved = true;
+                    break;
+                }
+            }
+            if (!improved) {
+                b = previous(a);
+                double ba = distance(b, a);
+                for (int c : neighbours[a]) {
+                    double ac = distance(a, c);
+                    if (ac >= ba) {
+                        break;
+                    }
+                    int d = previous(c);
+                    if (c == b || d == a) {
+                        continue;
+                    }
+                    if (ac + distance(b, d) - ba - distance(d, c) < -EPSILON) {
+                        reverse(pos[a], pos[d]);
+                        requeue(queue, queued, a, b, c, d);
+                        improved = true;
+                        break;
+                    }
+                }
+            }
+            improvedAny |= improved;
+        }
+        return improvedAny;
+    }
+
+    // Move a run of 1-3 stops between a nearby pair, in either direction
+    private boolean orOpt() {
+        boolean improvedAny = false;
+        for (int segmentLength = 1; segmentLength <= 3 && n > segmentLength + 2; segmentLength++) {
+            for (int start = 0; start < n; start++) {
+                if ((start & 63) == 0 && System.nanoTime() >= deadlineNanos) {
+                    return improvedAny;
+                }
+                int first = tour[start];
+                int last = tour[(start + segmentLength - 1) % n];
+                int before = previous(first);
+                int after = next(last);
+                double removeGain = distance(before, first) + distance(last, after) - distance(before, after);
+                if (removeGain <= EPSILON) {
+                    continue;
+                }
+                int bestC = -1;
+                boolean bestReversed = false;
+                double bestDelta = -EPSILON;
+                for (int end = 0; end < 2; end++) {
+                    int anchor = end == 0 ? first : last;
+                    for (int c : neighbours[anchor]) {
+                        int cNext = next(c);
+                        if (inSegment(c, start, segmentLength) || c == before) {
+                            continue;
+                        }
+                        double cd = distance(c, cNext);
+                        double forward = distance(c, first) + distance(last, cNext) - cd - removeGain;
+                        double backward = distance(c, last) + distance(first, cNext) - cd - removeGain;
+                        if (forward < bestDelta) {
+                            bestDelta = forward;
+                            bestC = c;
+                            bestReversed = false;
+                        }
+                        if (backward < bestDelta) {
+                            bestDelta = backward;
+                            bestC = c;
+                            bestReversed = true;
+                        }
+                    }
+                }
+                if (bestC != -1) {
+                    moveSegment(start, segmentLength, bestC, bestReversed);
+                    improvedAny = true;
+                }
+            }
+        }
+        return improvedAny;
+    }
+
+    private boolean inSegment(int city, int start, int length) {
+        return Math.floorMod(pos[city] - start, n) < length;
+    }
+
+    private void moveSegment(int start, int length, int after, boolean reversed) {
+        int[] segment = new int[length];
+        for (int i = 0; i < length; i++) {
+            segment[i] = tour[(start + i) % n];
+        }
+        int[] rebuilt = new int[n];
+        int size = 0;
+        for (int i = 0; i < n; i++) {
+            int city = tour[(start + length + i) % n];
+            if (i >= n - length) {
+                break;
+            }
+            rebuilt[size++] = city;
+            if (city == after) {
+                for (int j = 0; j < length; j++) {
+                    rebuilt[size++] = segment[reversed ? length - 1 - j : j];
+                }
+            }
+        }
+        tour = rebuilt;
+        for (int i = 0; i < n; i++) {
+            pos[tour[i]] = i;
+        }
+    }
+
+    // Reverse tour positions i..j (forward, wrapping); the shorter side is reversed, which is the same cycle
+    private void reverse(int i, int j) {
+        int length = Math.floorMod(j - i, n) + 1;
+        if (length * 2 > n) {
+            int newI = (j + 1) % n;
+            j = Math.floorMod(i - 1, n);
+            i = newI;
+            length = n - length;
+        }
+        for (int k = 0; k < length / 2; k++) {
+            int left = (i + k) % n;
+            int right = Math.floorMod(j - k, n);
+            int city = tour[left];
+            tour[left] = tour[right];
+            tour[right] = city;
+            pos[tour[left]] = left;
+            pos[tour[right]] = right;
+        }
+    }
+
+    private static void requeue(Deque<Integer> queue, boolean[] queued, int... cities) {
+        for (int city : cities) {
+            if (!queued[city]) {
+                queued[city] = true;
+                queue.add(city);
+            }
+        }
+    }
+
+    private int[] fromDepot() {
+        int[] order = new int[n];
+        int start = pos[0];
+        for (int i = 0; i < n; i++) {
+            order[i] = tour[(start + i) % n];
+        }
+        return order;
+    }
+
+    private int next(int city) {
+        return tour[(pos[city] + 1) % n];
+    }
+
+    private int previous(int city) {
+        return tour[(pos[city] - 1 + n) % n];
+    }
+
+    private double distance(int a, int b) {
+        return distance(x, y, a, b);
+    }
+
+    private static double distance(double[] x, double[] y, int a, int b) {
+        double dx = x[a] - x[b];
+        double dy = y[a] - y[b];
+        return Math.sqrt(dx * dx + dy * dy);
+    }
+}
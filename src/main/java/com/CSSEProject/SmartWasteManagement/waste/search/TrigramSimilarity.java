@@ -0,0 +1,94 @@
+package com.CSSEProject.SmartWasteManagement.waste.search;
+
+import java.util.*;
+
+/**
+ * Trigram similarity in the style of PostgreSQL pg_trgm, for databases without the extension
+ *
+ * Text is lower-cased and split into words on anything that is not a letter or digit; each word
+ * is padded with two spaces in front and one behind and cut into three-character grams.
+ * wordSimilarity compares the query with the best-matching run of consecutive words in the text,
+ * so "galle raod" still scores well against "No. 12, Galle Road, Colombo 03".
+ */
+public final class TrigramSimilarity {
+
+    private TrigramSimilarity() {
+    }
+
+    public static List<String> words(String text) {
+        if (text == null) {
+            return List.of();
+        }
+        List<String> words = new ArrayList<>();
+        for (String word : text.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+")) {
+            if (!word.isEmpty()) {
+                words.add(word);
+            }
+        }
+        return words;
+    }
+
+    public static Set<String> trigrams(List<String> words) {
+        Set<String> trigrams = new HashSet<>();
+        for (String word : words) {
+            String padded = "  " + word + " ";
+            for (int i = 0; i + 3 <= padded.length(); i++) {
+                trigrams.add(padded.substring(i, i + 3));
+            }
+        }
+        return trigrams;
+    }
+
+    /**
+     * Shared trigrams over all trigrams of both (0..1)
+     */
+    public static double similarity(Set<String> a, Set<String> b) {
+        if (a.isEmpty() || b.isEmpty()) {
+            return 0.0;
+        }
+        int shared = 0;
+        for (String trigram : a) {
+            if (b.contains(trigram)) {
+                shared++;
+            }
+        }
+        return shared / (double) (a.size() + b.size() - shared);
+    }
+
+    /**
+     * Best similarity between the query and any run of consecutive words in the text (0..1)
+     */
+    public static double wordSimilarity(String query, String text) {
+        List<String> queryWords = words(query);
+        List<String> textWords = words(text);
+        if (queryWords.isEmpty() || textWords.isEmpty()) {
+            return 0.0;
+        }
+        Set<String> queryTrigrams = trigrams(queryWords);
+        int maxRun = Math.min(textWords.size(), queryWords.size() + 1);
+        double best = 0.0;
+        for (int start = 0; start < textWords.size(); start++) {
+            for (int length = 1; length <= maxRun && start + length <= textWords.size(); length++) {
+                best = Math.max(best, similarity(queryTrigrams, trigrams(textWords.subList(start, start + length))));
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Unpadded trigrams of the query (whole words when shorter), usable as LIKE '%gram%' prefilters
+     */
+    public static Set<String> likeFragments(String query) {
+        Set<String> fragments = new LinkedHashSet<>();
+        for (String word : words(query)) {
+            if (word.length() <= 3) {
+                fragments.add(word);
+            } else {
+                for (int i = 0; i + 3 <= word.length(); i++) {
+                    fragments.add(word.substring(i, i + 3));
+                }
+            }
+        }
+        return fragments;
+    }
+}
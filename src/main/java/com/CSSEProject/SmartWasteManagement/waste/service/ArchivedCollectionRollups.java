@@ -0,0 +1,79 @@
+package com.CSSEProject.SmartWasteManagement.waste.service;
+
+import com.CSSEProject.SmartWasteManagement.waste.entity.CollectionMonthlyRollup;
+import com.CSSEProject.SmartWasteManagement.waste.repository.CollectionMonthlyRollupRepository;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Archived Collection Rollups - in-memory monthly totals of the archived collection months
+ *
+ * Archived months have no rows in collection_events any more, so reads over a range split at
+ * liveFrom(): the live part queries the table (and prunes partitions on collection_time), the
+ * archived part is answered from these rollups without a query. Rollups only change when the
+ * partition job archives a month, so they are loaded once and added to as months are archived.
+ */
+@Service
+public class ArchivedCollectionRollups {
+
+    @Autowired
+    private CollectionMonthlyRollupRepository collectionMonthlyRollupRepository;
+
+    private volatile List<CollectionMonthlyRollup> months = List.of();
+
+    @PostConstruct
+    public void reload() {
+        List<CollectionMonthlyRollup> loaded = new ArrayList<>(collectionMonthlyRollupRepository.findAll());
+        loaded.sort(Comparator.comparing(CollectionMonthlyRollup::getMonth));
+        months = List.copyOf(loaded);
+    }
+
+    public synchronized void add(CollectionMonthlyRollup rollup) {
+        List<CollectionMonthlyRollup> updated = new ArrayList<>(months);
+        updated.removeIf(month -> month.getMonth().equals(rollup.getMonth()));
+        updated.add(rollup);
+        updated.sort(Comparator.comparing(CollectionMonthlyRollup::getMonth));
+        months = List.copyOf(updated);
+    }
+
+    /**
+     * Start of the first month still held in collection_events, or null when nothing is archived
+     */
+    public LocalDateTime liveFrom() {
+        List<CollectionMonthlyRollup> current = months;
+        return current.isEmpty() ? null : current.get(current.size() - 1).getMonth().plusMonths(1).atStartOfDay();
+    }
+
+    /**
+     * Where a live query over a range starting at start should begin
+     */
+    public LocalDateTime liveStart(LocalDateTime start) {
+        LocalDateTime liveFrom = liveFrom();
+        return liveFrom != null && liveFrom.isAfter(start) ? liveFrom : start;
+    }
+
+    /**
+     * Archived months overlapping [start, end]; a month is counted whole, as rollups are monthly
+     */
+    public List<CollectionMonthlyRollup> between(LocalDateTime start, LocalDateTime end) {
+        List<CollectionMonthlyRollup> result = new ArrayList<>();
+        for (CollectionMonthlyRollup month : months) {
+            LocalDate first = month.getMonth();
+            if (!first.atStartOfDay().isAfter(end) && first.plusMonths(1).atStartOfDay().isAfter(start)) {
+                result.add(month);
+            }
+        }
+        return result;
+    }
+
+    public List<CollectionMonthlyRollup> all() {
+        return months;
+    }
+}
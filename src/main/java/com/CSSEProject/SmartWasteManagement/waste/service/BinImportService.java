@@ -0,0 +1,244 @@
+package com.CSSEProject.SmartWasteManagement.waste.service;
+
+import com.CSSEProject.SmartWasteManagement.user.entity.User;
+import com.CSSEProject.SmartWasteManagement.waste.entity.BinStatus;
+import com.CSSEProject.SmartWasteManagement.waste.entity.BinType;
+import com.CSSEProject.SmartWasteManagement.waste.geo.GeoGridIndex.Entry;
+import com.CSSEProject.SmartWasteManagement.waste.imports.BinImportReader;
+import com.CSSEProject.SmartWasteManagement.waste.imports.BinImportReader.Format;
+import com.CSSEProject.SmartWasteManagement.waste.imports.BinImportReader.RawRow;
+import com.CSSEProject.SmartWasteManagement.waste.repository.BinImportJdbcRepository;
+import com.CSSEProject.SmartWasteManagement.waste.repository.BinImportJdbcRepository.NewBin;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * Bin Import Service - provisions bins in bulk from a CSV or NDJSON stream
+ *
+ * Rows are read and validated in chunks of bins.import.chunk-size. Each chunk checks its bin
+ * ids and resident ids with one IN query each and inserts its valid rows in one JDBC batch in
+ * its own transaction, so a bad row or a failed chunk never loses the rest of the file. The
+ * report lists every rejected row by line number (up to bins.import.max-errors of them).
+ */
+@Service
+public class BinImportService {
+
+    private static final int MAX_ID_LENGTH = 100;
+
+    @Autowired
+    private BinImportJdbcRepository binImportJdbcRepository;
+
+    @Autowired
+    private BinLocationService binLocationService;
+
+    @Autowired
+    private BinStatusCounters binStatusCounters;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${bins.import.chunk-size:1000}")
+    private int chunkSize = 1000;
+
+    @Value("${bins.import.max-errors:1000}")
+    private int maxErrors = 1000;
+
+    private record Candidate(long line, NewBin bin) {
+    }
+
+    private class Report {
+        long rowsRead;
+        long imported;
+        long failed;
+        final List<Map<String, Object>> errors = new ArrayList<>();
+
+        void reject(long line, String binId, String error) {
+            failed++;
+            if (errors.size() < maxErrors) {
+                Map<String, Object> entry = new LinkedHashMap<>();
+                entry.put("line", line);
+                entry.put("binId", binId);
+                entry.put("error", error);
+                errors.add(entry);
+            }
+        }
+    }
+
+    /**
+     * Import bins from the stream. With dryRun every row is validated against the database but nothing is written.
+     *
+     * @return Counts and the per-row error report
+     */
+    public Map<String, Object> importBins(Reader input, Format format, boolean dryRun) {
+        long startedAt = System.currentTimeMillis();
+        BinImportReader reader = new BinImportReader(input, format);
+        Report report = new Report();
+        Set<String> seenBinIds = new HashSet<>();
+        List<RawRow> chunk = new ArrayList<>(chunkSize);
+        try {
+            RawRow row;
+            while ((row = reader.next()) != null) {
+                report.rowsRead++;
+                chunk.add(row);
+                if (chunk.size() >= chunkSize) {
+                    importChunk(chunk, seenBinIds, dryRun, report);
+                    chunk.clear();
+                }
+            }
+            importChunk(chunk, seenBinIds, dryRun, report);
+        } catch (IOException e) {
+            throw new RuntimeException("Reading the import failed after " + report.rowsRead + " rows: " + e.getMessage());
+        }
+
+        // Rows rejected by the database checks are found after the ones rejected while parsing
+        report.errors.sort(Comparator.comparingLong(error -> (Long) error.get("line")));
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("format", format);
+        summary.put("dryRun", dryRun);
+        summary.put("rowsRead", report.rowsRead);
+        summary.put(dryRun ? "valid" : "imported", report.imported);
+        summary.put("failed", report.failed);
+        summary.put("errors", report.errors);
+        summary.put("errorsTruncated", report.failed > report.errors.size());
+        summary.put("durationMs", System.currentTimeMillis() - startedAt);
+        System.out.println("📦 Bin import" + (dryRun ? " (dry run)" : "") + ": " + report.imported + " of "
+                + report.rowsRead + " rows " + (dryRun ? "valid" : "imported") + " in " + summary.get("durationMs") + " ms");
+        return summary;
+    }
+
+    private void importChunk(List<RawRow> rows, Set<String> seenBinIds, boolean dryRun, Report report) {
+        if (rows.isEmpty()) {
+            return;
+        }
+        List<Candidate> candidates = new ArrayList<>(rows.size());
+        for (RawRow row : rows) {
+            String binId = row.values().get("binid");
+            String error = row.error();
+            NewBin bin = null;
+            if (error == null) {
+                try {
+                    bin = toBin(row.values());
+                } catch (IllegalArgumentException e) {
+                    error = e.getMessage();
+                }
+            }
+            if (error == null && !seenBinIds.add(bin.binId())) {
+                error = "Duplicate binId in this import";
+            }
+            if (error != null) {
+                report.reject(row.line(), binId, error);
+            } else {
+                candidates.add(new Candidate(row.line(), bin));
+            }
+        }
+        if (candidates.isEmpty()) {
+            return;
+        }
+
+        Set<String> existing = binImportJdbcRepository.findExistingBinIds(
+                candidates.stream().map(candidate -> candidate.bin().binId()).toList());
+        Map<Long, String> residentCities = binImportJdbcRepository.findResidentCities(candidates.stream()
+                .map(candidate -> candidate.bin().residentId()).filter(Objects::nonNull).distinct().toList());
+        List<Candidate> valid = new ArrayList<>(candidates.size());
+        for (Candidate candidate : candidates) {
+            NewBin bin = candidate.bin();
+            if (existing.contains(bin.binId())) {
+                report.reject(candidate.line(), bin.binId(), "Bin with ID " + bin.binId() + " already exists");
+            } else if (bin.residentId() != null && !residentCities.containsKey(bin.residentId())) {
+                report.reject(candidate.line(), bin.binId(), "Resident " + bin.residentId() + " not found or not a resident");
+            } else {
+                valid.add(candidate);
+            }
+        }
+        if (dryRun || valid.isEmpty()) {
+            report.imported += dryRun ? valid.size() : 0;
+            return;
+        }
+
+        List<NewBin> bins = valid.stream().map(Candidate::bin).toList();
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                binImportJdbcRepository.insertBins(bins, chunkSize);
+                bins.stream()
+                        .collect(Collectors.groupingBy(bin -> bin.residentId() != null
+                                ? residentCities.get(bin.residentId()) : User.DEFAULT_CITY, Collectors.counting()))
+                        .forEach((city, count) -> binStatusCounters.binsCreated(city, BinStatus.ACTIVE, count));
+                binLocationService.binsAdded(bins.stream()
+                        .filter(bin -> bin.latitude() != null)
+                        .map(bin -> new Entry(bin.binId(), bin.latitude(), bin.longitude()))
+                        .toList());
+            });
+            report.imported += bins.size();
+        } catch (DataAccessException e) {
+            // Usually a bin created concurrently with the same id; the chunk is rolled back as a whole
+            String message = "Chunk rejected by the database: " + e.getMostSpecificCause().getMessage();
+            valid.forEach(candidate -> report.reject(candidate.line(), candidate.bin().binId(), message));
+        }
+    }
+
+    private static NewBin toBin(Map<String, String> values) {
+        String binId = values.get("binid");
+        if (binId == null) {
+            throw new IllegalArgumentException("binId is required");
+        }
+        if (binId.length() > MAX_ID_LENGTH) {
+            throw new IllegalArgumentException("binId is longer than " + MAX_ID_LENGTH + " characters");
+        }
+        String location = values.get("location");
+        if (location == null) {
+            throw new IllegalArgumentException("location is required");
+        }
+        BinType binType;
+        try {
+            binType = BinType.valueOf(values.getOrDefault("bintype", "").toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("binType must be one of " + Arrays.toString(BinType.values()));
+        }
+        Double capacity = number(values, "capacity");
+        if (capacity == null || capacity <= 0) {
+            throw new IllegalArgumentException("capacity must be a positive number");
+        }
+        Long residentId = null;
+        if (values.containsKey("residentid")) {
+            try {
+                residentId = Long.parseLong(values.get("residentid"));
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("residentId must be a number");
+            }
+        }
+        Double latitude = number(values, "latitude");
+        Double longitude = number(values, "longitude");
+        if ((latitude == null) != (longitude == null)) {
+            throw new IllegalArgumentException("Latitude and longitude must be given together");
+        }
+        if (latitude != null && (latitude < -90 || latitude > 90 || longitude < -180 || longitude > 180)) {
+            throw new IllegalArgumentException("Coordinates out of range");
+        }
+        return new NewBin(binId, location, binType, capacity, residentId, latitude, longitude,
+                values.get("rfidtag"), values.get("qrcode"));
+    }
+
+    private static Double number(Map<String, String> values, String field) {
+        String value = values.get(field);
+        if (value == null) {
+            return null;
+        }
+        try {
+            double number = Double.parseDouble(value);
+            if (Double.isNaN(number) || Double.isInfinite(number)) {
+                throw new NumberFormatException();
+            }
+            return number;
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(field + " must be a number");
+        }
+    }
+}
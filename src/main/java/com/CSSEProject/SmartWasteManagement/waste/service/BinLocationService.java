@@ -0,0 +1,170 @@
+package com.CSSEProject.SmartWasteManagement.waste.service;
+
+import com.CSSEProject.SmartWasteManagement.config.AfterCommit;
+import com.CSSEProject.SmartWasteManagement.waste.entity.BinStatus;
+import com.CSSEProject.SmartWasteManagement.waste.entity.WasteBin;
+import com.CSSEProject.SmartWasteManagement.waste.geo.GeoGridIndex;
+import com.CSSEProject.SmartWasteManagement.waste.geo.GeoGridIndex.Entry;
+import com.CSSEProject.SmartWasteManagement.waste.geo.GeoGridIndex.Hit;
+import com.CSSEProject.SmartWasteManagement.waste.repository.WasteBinRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Bin Location Service - answers map and nearest-bin queries from an in-memory grid index
+ *
+ * The index is loaded from the database on first use and then kept current by the bin writes
+ * (create, move, decommission), applied after their transaction commits. Decommissioned bins
+ * and bins without coordinates are not indexed. rebuild() reloads everything; changes that
+ * commit while it reads are replayed onto the new index before it replaces the old one.
+ */
+@Service
+public class BinLocationService {
+
+    public static final int MAX_RESULTS = 5000;
+
+    @Autowired
+    private WasteBinRepository wasteBinRepository;
+
+    @Value("${geo.index.cell-degrees:0.01}")
+    private double cellDegrees = 0.01;
+
+    private volatile GeoGridIndex index;
+
+    // Changes committed while rebuild() reads the database, replayed onto the new index; guarded by changeLock
+    private final Object changeLock = new Object();
+    private List<Consumer<GeoGridIndex>> duringRebuild;
+
+    public List<Hit> findWithinRadius(double latitude, double longitude, double radiusMeters, int limit) {
+        if (radiusMeters <= 0 || radiusMeters > 50_000) {
+            throw new IllegalArgumentException("Radius must be between 0 and 50000 meters");
+        }
+        return index().withinRadius(latitude, longitude, radiusMeters, clampLimit(limit));
+    }
+
+    /**
+     * @param total Receives the number of bins in the viewport, which may exceed the returned ones
+     */
+    public List<Entry> findInViewport(double minLatitude, double minLongitude, double maxLatitude, double maxLongitude,
+                                      int limit, int[] total) {
+        return index().inBox(minLatitude, minLongitude, maxLatitude, maxLongitude, clampLimit(limit), total);
+    }
+
+    public List<Hit> findNearest(double latitude, double longitude, int k) {
+        if (k <= 0 || k > 500) {
+            throw new IllegalArgumentException("k must be between 1 and 500");
+        }
+        return index().nearest(latitude, longitude, k);
+    }
+
+    /**
+     * Reflect a saved bin in the index once its transaction commits
+     */
+    public void binChanged(WasteBin bin) {
+        String binId = bin.getBinId();
+        Double latitude = bin.getLatitude();
+        Double longitude = bin.getLongitude();
+        boolean indexed = latitude != null && longitude != null && bin.getStatus() != BinStatus.DECOMMISSIONED;
+        AfterCommit.run(() -> apply(current -> {
+            if (indexed) {
+                current.put(binId, latitude, longitude);
+            } else {
+                current.remove(binId);
+            }
+        }));
+    }
+
+    /**
+     * Add bulk-imported bins to the index once their transaction commits
+     */
+    public void binsAdded(List<Entry> entries) {
+        if (entries.isEmpty()) {
+            return;
+        }
+        AfterCommit.run(() -> apply(current ->
+                entries.forEach(entry -> current.put(entry.id(), entry.latitude(), entry.longitude()))));
+    }
+
+    // Applied to the live index and, while a rebuild reads the database, also replayed onto the new one
+    private void apply(Consumer<GeoGridIndex> change) {
+        synchronized (changeLock) {
+            if (duringRebuild != null) {
+                duringRebuild.add(change);
+            }
+            GeoGridIndex current = index;
+            if (current != null) {
+                change.accept(current);
+            }
+        }
+    }
+
+    // Build at startup so the first map request does not pay for loading every bin
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        try {
+            index();
+        } catch (Exception e) {
+            System.err.println("❌ Bin location index warm-up failed: " + e.getMessage());
+        }
+    }
+
+    public synchronized int rebuild() {
+        synchronized (changeLock) {
+            duringRebuild = new ArrayList<>();
+        }
+        GeoGridIndex fresh = new GeoGridIndex(cellDegrees);
+        try {
+            List<Entry> entries = wasteBinRepository.findIndexedLocations(BinStatus.DECOMMISSIONED).stream()
+                    .map(row -> new Entry((String) row[0], (Double) row[1], (Double) row[2]))
+                    .toList();
+            fresh.replaceAll(entries);
+            // Changes committed while reading may be missing from the rows; replaying one the rows already have is harmless
+            synchronized (changeLock) {
+                duringRebuild.forEach(change -> change.accept(fresh));
+                index = fresh;
+            }
+        } finally {
+            synchronized (changeLock) {
+                duringRebuild = null;
+            }
+        }
+        System.out.println("🗺️ Bin location index built: " + fresh.size() + " bins in " + fresh.cellCount() + " cells");
+        return fresh.size();
+    }
+
+    public Map<String, Object> getStats() {
+        GeoGridIndex current = index;
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("loaded", current != null);
+        stats.put("bins", current != null ? current.size() : 0);
+        stats.put("cells", current != null ? current.cellCount() : 0);
+        stats.put("cellDegrees", cellDegrees);
+        return stats;
+    }
+
+    private GeoGridIndex index() {
+        GeoGridIndex current = index;
+        if (current == null) {
+            synchronized (this) {
+                if (index == null) {
+                    rebuild();
+                }
+                current = index;
+            }
+        }
+        return current;
+    }
+
+    private static int clampLimit(int limit) {
+        return Math.max(1, Math.min(limit, MAX_RESULTS));
+    }
+}
@@ -0,0 +1,65 @@
+package com.CSSEProject.SmartWasteManagement.waste.service;
+
+import com.CSSEProject.SmartWasteManagement.dto.BinSearchResultDto;
+import com.CSSEProject.SmartWasteManagement.waste.repository.BinSearchJdbcRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Bin Search Service - typo-tolerant, ranked and paged search over bin location and resident address
+ */
+@Service
+public class BinSearchService {
+
+    public static final int MAX_PAGE_SIZE = 100;
+
+    @Autowired
+    private BinSearchJdbcRepository binSearchJdbcRepository;
+
+    @Value("${search.similarity-threshold:0.3}")
+    private double similarityThreshold = 0.3;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void prepareIndexes() {
+        try {
+            boolean indexed = binSearchJdbcRepository.ensureTrigramIndexes();
+            System.out.println(indexed
+                    ? "🔎 Bin search uses pg_trgm indexes"
+                    : "🔎 Bin search uses the LIKE prefilter fallback (pg_trgm not available)");
+        } catch (Exception e) {
+            System.err.println("❌ Preparing bin search indexes failed: " + e.getMessage());
+        }
+    }
+
+    /**
+     * @return "results" (best first), "page", "size" and "hasMore"
+     */
+    @Transactional(readOnly = true)
+    public Map<String, Object> search(String query, int page, int size) {
+        String trimmed = query != null ? query.trim() : "";
+        if (trimmed.length() < 2 || trimmed.length() > 100) {
+            throw new RuntimeException("Search text must be between 2 and 100 characters");
+        }
+        if (page < 0 || size < 1 || size > MAX_PAGE_SIZE) {
+            throw new RuntimeException("page must be >= 0 and size between 1 and " + MAX_PAGE_SIZE);
+        }
+        List<BinSearchResultDto> rows = binSearchJdbcRepository.search(trimmed, similarityThreshold, page * size, size);
+        boolean hasMore = rows.size() > size;
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("query", trimmed);
+        result.put("page", page);
+        result.put("size", size);
+        result.put("hasMore", hasMore);
+        result.put("results", hasMore ? rows.subList(0, size) : rows);
+        return result;
+    }
+}
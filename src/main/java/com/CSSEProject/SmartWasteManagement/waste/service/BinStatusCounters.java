@@ -0,0 +1,222 @@
+package com.CSSEProject.SmartWasteManagement.waste.service;
+
+import com.CSSEProject.SmartWasteManagement.config.AfterCommit;
+import com.CSSEProject.SmartWasteManagement.user.entity.User;
+import com.CSSEProject.SmartWasteManagement.waste.entity.BinStatus;
+import com.CSSEProject.SmartWasteManagement.waste.repository.WasteBinRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bin Status Counters - number of bins per status, overall and per city, kept in memory
+ *
+ * A bin's city is that of its resident's address (User.cityOf, the billing rule), so writers report
+ * it with every creation, transition and move between cities; each is applied once its transaction
+ * commits. Reads are plain counter reads. A periodic reconcile replaces the counters with one
+ * GROUP BY over waste_bins and the resident's address, correcting writes made outside the services
+ * (manual SQL, a transition committing while the reconcile query runs) and reporting the drift found.
+ */
+@Service
+public class BinStatusCounters {
+
+    @Autowired
+    private WasteBinRepository wasteBinRepository;
+
+    private final Map<BinStatus, AtomicLong> counts = newCounts();
+    private final Map<String, Map<BinStatus, AtomicLong>> cityCounts = new ConcurrentHashMap<>();
+
+    private volatile boolean loaded;
+    private volatile Map<String, Object> lastReconcile = Map.of();
+
+    public void binCreated(String city, BinStatus status) {
+        binsCreated(city, status, 1);
+    }
+
+    public void binsCreated(String city, BinStatus status, long count) {
+        if (count > 0) {
+            AfterCommit.run(() -> {
+                counts.get(status).addAndGet(count);
+                cityCounts(city).get(status).addAndGet(count);
+            });
+        }
+    }
+
+    public void statusChanged(String city, BinStatus from, BinStatus to) {
+        statusChanged(city, from, to, 1);
+    }
+
+    public void statusChanged(String city, BinStatus from, BinStatus to, long count) {
+        if (from == to || count <= 0) {
+            return;
+        }
+        AfterCommit.run(() -> {
+            move(counts, from, to, count);
+            move(cityCounts(city), from, to, count);
+        });
+    }
+
+    /**
+     * Bins of one status now counted in another city (reassigned bin, resident's address changed)
+     */
+    public void binsMoved(String fromCity, String toCity, BinStatus status, long count) {
+        if (Objects.equals(fromCity, toCity) || status == null || count <= 0) {
+            return;
+        }
+        AfterCommit.run(() -> {
+            cityCounts(fromCity).get(status).addAndGet(-count);
+            cityCounts(toCity).get(status).addAndGet(count);
+        });
+    }
+
+    public long count(BinStatus status) {
+        ensureLoaded();
+        return Math.max(0, counts.get(status).get());
+    }
+
+    public long total() {
+        ensureLoaded();
+        return counts.values().stream().mapToLong(count -> Math.max(0, count.get())).sum();
+    }
+
+    /**
+     * Count of every status, in declaration order
+     */
+    public Map<BinStatus, Long> snapshot() {
+        ensureLoaded();
+        Map<BinStatus, Long> snapshot = new EnumMap<>(BinStatus.class);
+        counts.forEach((status, count) -> snapshot.put(status, Math.max(0, count.get())));
+        return snapshot;
+    }
+
+    /**
+     * Count of every status in one city, in declaration order (all zero for an unknown city)
+     */
+    public Map<BinStatus, Long> snapshot(String city) {
+        ensureLoaded();
+        Map<BinStatus, Long> snapshot = new EnumMap<>(BinStatus.class);
+        Map<BinStatus, AtomicLong> inCity = cityCounts.getOrDefault(city, Map.of());
+        for (BinStatus status : BinStatus.values()) {
+            AtomicLong count = inCity.get(status);
+            snapshot.put(status, count != null ? Math.max(0, count.get()) : 0L);
+        }
+        return snapshot;
+    }
+
+    public long count(String city, BinStatus status) {
+        return snapshot(city).get(status);
+    }
+
+    public Set<String> cities() {
+        ensureLoaded();
+        return new TreeSet<>(cityCounts.keySet());
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        try {
+            reconcile();
+        } catch (Exception e) {
+            System.err.println("❌ Loading bin status counters failed: " + e.getMessage());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${bins.status-counters.reconcile-interval-ms:300000}",
+            initialDelayString = "${bins.status-counters.reconcile-interval-ms:300000}")
+    public void scheduledReconcile() {
+        try {
+            reconcile();
+        } catch (Exception e) {
+            System.err.println("❌ Bin status counter reconcile failed: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Replace the counters with the database counts
+     *
+     * @return Drift per status that was corrected (database minus memory), and when
+     */
+    public synchronized Map<String, Object> reconcile() {
+        Map<BinStatus, Long> actual = new EnumMap<>(BinStatus.class);
+        for (BinStatus status : BinStatus.values()) {
+            actual.put(status, 0L);
+        }
+        Map<String, Map<BinStatus, Long>> actualByCity = new HashMap<>();
+        for (Object[] row : wasteBinRepository.countGroupedByResidentAddressAndStatus()) {
+            if (row[1] == null) {
+                continue;
+            }
+            BinStatus status = (BinStatus) row[1];
+            long count = ((Number) row[2]).longValue();
+            actual.merge(status, count, Long::sum);
+            actualByCity.computeIfAbsent(User.cityOf((String) row[0]), city -> new EnumMap<>(BinStatus.class))
+                    .merge(status, count, Long::sum);
+        }
+
+        cityCounts.keySet().retainAll(actualByCity.keySet());
+        actualByCity.forEach((city, byStatus) -> {
+            Map<BinStatus, AtomicLong> inCity = cityCounts(city);
+            for (BinStatus status : BinStatus.values()) {
+                inCity.get(status).set(byStatus.getOrDefault(status, 0L));
+            }
+        });
+
+        Map<String, Long> drift = new LinkedHashMap<>();
+        actual.forEach((status, count) -> {
+            long previous = counts.get(status).getAndSet(count);
+            if (loaded && previous != count) {
+                drift.put(status.name(), count - previous);
+            }
+        });
+        boolean initial = !loaded;
+        loaded = true;
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("reconciledAt", LocalDateTime.now());
+        result.put("initialLoad", initial);
+        result.put("drift", drift);
+        lastReconcile = result;
+        if (!drift.isEmpty()) {
+            System.out.println("⚠️ Bin status counters drifted, corrected: " + drift);
+        }
+        return result;
+    }
+
+    public Map<String, Object> getLastReconcile() {
+        return lastReconcile;
+    }
+
+    private Map<BinStatus, AtomicLong> cityCounts(String city) {
+        return cityCounts.computeIfAbsent(city != null ? city : User.DEFAULT_CITY, key -> newCounts());
+    }
+
+    private static Map<BinStatus, AtomicLong> newCounts() {
+        Map<BinStatus, AtomicLong> byStatus = new EnumMap<>(BinStatus.class);
+        for (BinStatus status : BinStatus.values()) {
+            byStatus.put(status, new AtomicLong());
+        }
+        return byStatus;
+    }
+
+    private static void move(Map<BinStatus, AtomicLong> byStatus, BinStatus from, BinStatus to, long count) {
+        if (from != null) {
+            byStatus.get(from).addAndGet(-count);
+        }
+        if (to != null) {
+            byStatus.get(to).addAndGet(count);
+        }
+    }
+
+    private void ensureLoaded() {
+        if (!loaded) {
+            reconcile();
+        }
+    }
+}
@@ -0,0 +1,293 @@
+package com.CSSEProject.SmartWasteManagement.waste.service;
+
+import com.CSSEProject.SmartWasteManagement.dto.BinLevelReadingDto;
+import com.CSSEProject.SmartWasteManagement.waste.entity.BinStatus;
+import com.CSSEProject.SmartWasteManagement.waste.repository.BinLevelJdbcRepository;
+import com.CSSEProject.SmartWasteManagement.waste.repository.BinLevelJdbcRepository.LevelUpdate;
+import com.CSSEProject.SmartWasteManagement.waste.repository.ScheduleJdbcRepository;
+import com.CSSEProject.SmartWasteManagement.waste.repository.ScheduleJdbcRepository.NewSchedule;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bin Telemetry Service - ingests fill-level readings from bin sensors
+ *
+ * Readings are coalesced per bin in memory (last write wins on the sensor timestamp) and
+ * written in periodic JDBC batches, so a bin reporting every few minutes costs one row
+ * update per flush instead of a findById/save per reading. The 80% threshold is checked
+ * against the in-memory last level; bins that crossed it get their collection scheduled
+ * at flush time with one lookup and one batch insert for the whole flush.
+ */
+@Service
+public class BinTelemetryService {
+
+    public static final double FULL_THRESHOLD = 80.0;
+
+    @Autowired
+    private BinLevelJdbcRepository binLevelJdbcRepository;
+
+    @Autowired
+    private ScheduleJdbcRepository scheduleJdbcRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private LevelHistoryService levelHistoryService;
+
+    @Autowired
+    private BinStatusCounters binStatusCounters;
+
+    @Value("${telemetry.flush.batch-size:1000}")
+    private int batchSize = 1000;
+
+    @Value("${telemetry.max-clock-skew-minutes:10}")
+    private long maxClockSkewMinutes = 10;
+
+    // Readings waiting for the next flush, at most one per bin
+    private final Map<String, PendingLevel> pending = new ConcurrentHashMap<>();
+
+    // Last accepted level per bin, the state the threshold check runs against
+    private final Map<String, LastLevel> lastLevels = new ConcurrentHashMap<>();
+
+    private final Object flushLock = new Object();
+
+    private final LongAdder accepted = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+    private final LongAdder outOfOrder = new LongAdder();
+    private final LongAdder thresholdCrossings = new LongAdder();
+    private final LongAdder rowsFlushed = new LongAdder();
+    private final LongAdder staleOrUnknown = new LongAdder();
+    private final LongAdder schedulesCreated = new LongAdder();
+    private final LongAdder flushes = new LongAdder();
+    private final LongAdder flushFailures = new LongAdder();
+    private final AtomicLong lastFlushMs = new AtomicLong();
+
+    private record PendingLevel(double level, LocalDateTime readAt, boolean crossedThreshold) {
+    }
+
+    private record LastLevel(double level, LocalDateTime readAt) {
+    }
+
+    /**
+     * Accept a batch of readings into the coalescing buffer
+     *
+     * @param readings Sensor readings, in any order
+     * @return Error message per rejected reading (index: message); empty when all were accepted
+     */
+    public Map<Integer, String> ingest(List<BinLevelReadingDto> readings) {
+        Map<Integer, String> rejected = new LinkedHashMap<>();
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 0; i < readings.size(); i++) {
+            BinLevelReadingDto reading = readings.get(i);
+            String error = validate(reading, now);
+            if (error != null) {
+                rejected.put(i, error);
+                continue;
+            }
+            String binId = reading.getBinId().trim();
+            LocalDateTime readAt = reading.getReadAt() != null ? reading.getReadAt() : now;
+            record(binId, reading.getLevel(), readAt);
+            // History keeps every reading, including the ones coalescing drops
+            levelHistoryService.record(binId, reading.getLevel(), readAt);
+        }
+        return rejected;
+    }
+
+    private String validate(BinLevelReadingDto reading, LocalDateTime now) {
+        if (reading == null || reading.getBinId() == null || reading.getBinId().trim().isEmpty()) {
+            return "binId is required";
+        }
+        if (reading.getLevel() == null || reading.getLevel() < 0 || reading.getLevel() > 100) {
+            return "Level must be between 0 and 100";
+        }
+        if (reading.getReadAt() != null && reading.getReadAt().isAfter(now.plusMinutes(maxClockSkewMinutes))) {
+            return "readAt is in the future";
+        }
+        return null;
+    }
+
+    private void record(String binId, double level, LocalDateTime readAt) {
+        // Threshold check against the in-memory state; only a reading newer than the last one counts
+        boolean[] crossed = {false};
+        boolean[] newest = {false};
+        lastLevels.compute(binId, (id, last) -> {
+            if (last != null && readAt.isBefore(last.readAt())) {
+                return last;
+            }
+            newest[0] = true;
+            crossed[0] = level >= FULL_THRESHOLD && (last == null || last.level() < FULL_THRESHOLD);
+            return new LastLevel(level, readAt);
+        });
+        if (!newest[0]) {
+            outOfOrder.increment();
+            return;
+        }
+        accepted.increment();
+        if (crossed[0]) {
+            thresholdCrossings.increment();
+        }
+
+        pending.merge(binId, new PendingLevel(level, readAt, crossed[0]), (older, newer) -> {
+            coalesced.increment();
+            // A crossing stays pending even if a later reading in the same window replaces the level
+            return new PendingLevel(newer.level(), newer.readAt(), older.crossedThreshold() || newer.crossedThreshold());
+        });
+    }
+
+    @Scheduled(fixedDelayString = "${telemetry.flush.interval-ms:5000}")
+    public void scheduledFlush() {
+        try {
+            flush();
+        } catch (Exception e) {
+            System.err.println("❌ Telemetry flush failed: " + e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        scheduledFlush();
+    }
+
+    /**
+     * Write every buffered reading to waste_bins and schedule collections for bins that crossed the threshold
+     *
+     * @return Number of bin rows updated
+     */
+    public int flush() {
+        synchronized (flushLock) {
+            if (pending.isEmpty()) {
+                return 0;
+            }
+            long started = System.currentTimeMillis();
+            int updated = 0;
+            List<Map.Entry<String, PendingLevel>> batch = new ArrayList<>(Math.min(batchSize, pending.size()));
+            for (String binId : pending.keySet()) {
+                PendingLevel level = pending.remove(binId);
+                if (level == null) {
+                    continue;
+                }
+                batch.add(Map.entry(binId, level));
+                if (batch.size() >= batchSize) {
+                    updated += flushBatch(batch);
+                    batch = new ArrayList<>(batchSize);
+                }
+            }
+            if (!batch.isEmpty()) {
+                updated += flushBatch(batch);
+            }
+            flushes.increment();
+            lastFlushMs.set(System.currentTimeMillis() - started);
+            return updated;
+        }
+    }
+
+    private int flushBatch(List<Map.Entry<String, PendingLevel>> batch) {
+        List<LevelUpdate> updates = new ArrayList<>(batch.size());
+        for (Map.Entry<String, PendingLevel> entry : batch) {
+            PendingLevel level = entry.getValue();
+            updates.add(new LevelUpdate(entry.getKey(), level.level(), level.readAt()));
+        }
+
+        try {
+            Integer changed = transactionTemplate.execute(status -> {
+                int[] counts = binLevelJdbcRepository.updateLevels(updates);
+                Map<String, Double> crossed = new LinkedHashMap<>();
+                List<String> full = new ArrayList<>();
+                int rows = 0;
+                for (int i = 0; i < counts.length; i++) {
+                    if (counts[i] == 0) {
+                        continue;
+                    }
+                    rows++;
+                    Map.Entry<String, PendingLevel> entry = batch.get(i);
+                    if (entry.getValue().level() >= FULL_THRESHOLD) {
+                        full.add(entry.getKey());
+                        if (entry.getValue().crossedThreshold()) {
+                            crossed.put(entry.getKey(), entry.getValue().level());
+                        }
+                    }
+                }
+                staleOrUnknown.add(counts.length - rows);
+                binLevelJdbcRepository.countByResidentCity(binLevelJdbcRepository.markNeedsEmptying(full))
+                        .forEach((city, count) -> binStatusCounters.statusChanged(city, BinStatus.ACTIVE, BinStatus.NEEDS_EMPTYING, count));
+                schedulesCreated.add(scheduleFullBins(crossed));
+                return rows;
+            });
+            int rows = changed != null ? changed : 0;
+            rowsFlushed.add(rows);
+            return rows;
+        } catch (RuntimeException e) {
+            flushFailures.increment();
+            requeue(batch);
+            throw e;
+        }
+    }
+
+    // Same rule as CollectionService.autoScheduleCollection, for the whole batch at once
+    private int scheduleFullBins(Map<String, Double> levelsByBin) {
+        if (levelsByBin.isEmpty()) {
+            return 0;
+        }
+        LocalDate tomorrow = LocalDate.now().plusDays(1);
+        Set<String> alreadyScheduled = scheduleJdbcRepository.findBinsWithPendingScheduleBetween(
+                levelsByBin.keySet(), tomorrow, tomorrow.plusDays(1));
+
+        List<NewSchedule> schedules = new ArrayList<>();
+        levelsByBin.forEach((binId, level) -> {
+            if (!alreadyScheduled.contains(binId)) {
+                schedules.add(new NewSchedule(binId, tomorrow, "Auto-scheduled: Bin reached " + level + "% capacity"));
+            }
+        });
+        int created = scheduleJdbcRepository.insertPendingSchedules(schedules, batchSize);
+        if (created > 0) {
+            System.out.println("📅 Telemetry auto-scheduled " + created + " full bins for " + tomorrow);
+        }
+        return created;
+    }
+
+    // Put a failed batch back without overwriting readings that arrived meanwhile
+    private void requeue(List<Map.Entry<String, PendingLevel>> batch) {
+        for (Map.Entry<String, PendingLevel> entry : batch) {
+            pending.merge(entry.getKey(), entry.getValue(), (failed, newer) -> newer.readAt().isBefore(failed.readAt())
+                    ? failed
+                    : new PendingLevel(newer.level(), newer.readAt(), failed.crossedThreshold() || newer.crossedThreshold()));
+        }
+    }
+
+    /**
+     * Last level received for a bin, including readings not flushed yet
+     */
+    public Optional<Double> getLatestLevel(String binId) {
+        LastLevel last = lastLevels.get(binId);
+        return last != null ? Optional.of(last.level()) : Optional.empty();
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("accepted", accepted.sum());
+        stats.put("coalesced", coalesced.sum());
+        stats.put("outOfOrder", outOfOrder.sum());
+        stats.put("pendingBins", pending.size());
+        stats.put("trackedBins", lastLevels.size());
+        stats.put("thresholdCrossings", thresholdCrossings.sum());
+        stats.put("rowsFlushed", rowsFlushed.sum());
+        stats.put("staleOrUnknownBins", staleOrUnknown.sum());
+        stats.put("schedulesCreated", schedulesCreated.sum());
+        stats.put("flushes", flushes.sum());
+        stats.put("flushFailures", flushFailures.sum());
+        stats.put("lastFlushMs", lastFlushMs.get());
+        return stats;
+    }
+}
@@ -0,0 +1,213 @@
+package com.CSSEProject.SmartWasteManagement.waste.service;
+
+import com.CSSEProject.SmartWasteManagement.waste.entity.CollectionMonthlyRollup;
+import com.CSSEProject.SmartWasteManagement.waste.repository.CollectionMonthlyRollupRepository;
+import com.CSSEProject.SmartWasteManagement.waste.repository.CollectionPartitionJdbcRepository;
+import com.CSSEProject.SmartWasteManagement.waste.repository.CollectionPartitionJdbcRepository.ArchivePage;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Collection Partition Service - monthly partitions of collection_events and archival of cold months
+ *
+ * collection_events is converted to a partitioned table by schema migration V2 (PostgreSQL only,
+ * before the web server starts). Every night partitions are created months-ahead in advance, and each month older than retain-months is
+ * written to a gzip CSV in archive-dir, then detached, checked against the file, summed into a
+ * CollectionMonthlyRollup (and per-collector CollectorArchiveTotals) and dropped in one transaction.
+ * A month that still has uninvoiced collections is not archived, so nothing unbilled leaves the
+ * table. A failure at any step leaves the month in place for the next run. Range queries on collection_time are pruned to the partitions they
+ * touch by PostgreSQL itself; archived months are answered from ArchivedCollectionRollups.
+ */
+@Service
+public class CollectionPartitionService {
+
+    @Autowired
+    private CollectionPartitionJdbcRepository collectionPartitionJdbcRepository;
+
+    @Autowired
+    private CollectionMonthlyRollupRepository collectionMonthlyRollupRepository;
+
+    @Autowired
+    private ArchivedCollectionRollups archivedCollectionRollups;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${collections.partitions.enabled:true}")
+    private boolean enabled = true;
+
+    @Value("${collections.partitions.months-ahead:3}")
+    private int monthsAhead = 3;
+
+    @Value("${collections.partitions.retain-months:24}")
+    private int retainMonths = 24;
+
+    @Value("${collections.partitions.archive-dir:data/collection-archive}")
+    private String archiveDir = "data/collection-archive";
+
+    @Value("${collections.partitions.archive-page-size:5000}")
+    private int archivePageSize = 5000;
+
+    @Scheduled(cron = "${collections.partitions.cron:0 45 2 * * *}")
+    public void nightlyMaintenance() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            if (collectionPartitionJdbcRepository.isPostgres() && collectionPartitionJdbcRepository.isPartitioned()) {
+                maintain(YearMonth.now());
+            }
+        } catch (Exception e) {
+            System.err.println("❌ Collection partition maintenance failed: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Create the partitions up to monthsAhead after the current month and archive every month
+     * older than retainMonths
+     *
+     * @return "partitionsCreated", "monthsArchived" and "strayRows" (default partition rows older than the horizon)
+     */
+    public Map<String, Object> maintain(YearMonth current) {
+        List<YearMonth> existing = collectionPartitionJdbcRepository.findPartitionMonths();
+        int created = 0;
+        for (YearMonth month = current; !month.isAfter(current.plusMonths(monthsAhead)); month = month.plusMonths(1)) {
+            if (existing.contains(month)) {
+                continue;
+            }
+            // A month that cannot be created is retried next run and never stops the archiving below
+            YearMonth creating = month;
+            try {
+                Integer moved = transactionTemplate.execute(status -> collectionPartitionJdbcRepository.createPartition(creating));
+                if (moved != null && moved > 0) {
+                    System.out.println("🗂️ Moved " + moved + " collections of " + month + " out of "
+                            + CollectionPartitionJdbcRepository.DEFAULT_PARTITION);
+                }
+                created++;
+            } catch (Exception e) {
+                System.err.println("❌ Creating the collection partition for " + month + " failed, retrying next run: " + e.getMessage());
+            }
+        }
+
+        YearMonth oldestKept = current.minusMonths(retainMonths);
+        List<String> archived = new ArrayList<>();
+        for (YearMonth month : existing) {
+            if (!month.isBefore(oldestKept)) {
+                continue;
+            }
+            try {
+                archive(month);
+                archived.add(month.toString());
+            } catch (Exception e) {
+                System.err.println("❌ Archiving collections of " + month + " failed, retrying next run: " + e.getMessage());
+            }
+        }
+
+        long stray = collectionPartitionJdbcRepository.countDefaultBefore(oldestKept.atDay(1).atStartOfDay());
+        if (stray > 0) {
+            System.err.println("⚠️ " + stray + " collections in " + CollectionPartitionJdbcRepository.DEFAULT_PARTITION
+                    + " are older than the archive horizon; they stay live and are not in the rollups");
+        }
+
+        System.out.println("🗂️ Collection partitions: " + created + " created, archived " + archived);
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("partitionsCreated", created);
+        summary.put("monthsArchived", archived);
+        summary.put("strayRows", stray);
+        return summary;
+    }
+
+    /**
+     * Move one month's collections to its archive file and keep only their rollup
+     */
+    public CollectionMonthlyRollup archive(YearMonth month) throws IOException {
+        long uninvoiced = collectionPartitionJdbcRepository.countUninvoiced(month);
+        if (uninvoiced > 0) {
+            throw new IllegalStateException(uninvoiced + " collections are not invoiced yet");
+        }
+        Path file = Paths.get(archiveDir).resolve(CollectionPartitionJdbcRepository.partitionName(month) + ".csv.gz");
+        long written = writeArchive(month, file);
+
+        CollectionMonthlyRollup rollup = transactionTemplate.execute(status -> {
+            collectionPartitionJdbcRepository.detachPartition(month);
+            // Detached under an exclusive lock, so these totals are final; a late row means the file is short
+            CollectionMonthlyRollup totals = collectionPartitionJdbcRepository.summarize(month);
+            if (totals.getCollections() != written) {
+                throw new IllegalStateException("partition has " + totals.getCollections() + " rows but "
+                        + written + " were archived");
+            }
+            if (collectionPartitionJdbcRepository.countUninvoiced(month) > 0) {
+                throw new IllegalStateException("an uninvoiced collection arrived while archiving");
+            }
+            totals.setArchiveFile(file.toString());
+            totals.setArchivedAt(LocalDateTime.now());
+            collectionMonthlyRollupRepository.save(totals);
+            collectionPartitionJdbcRepository.addCollectorTotals(month);
+            collectionPartitionJdbcRepository.dropPartition(month);
+            return totals;
+        });
+        archivedCollectionRollups.add(rollup);
+        System.out.println("📦 Archived " + written + " collections of " + month + " to " + file);
+        return rollup;
+    }
+
+    // Written to a temporary file and moved into place, so a file under the final name is always complete
+    private long writeArchive(YearMonth month, Path file) throws IOException {
+        Files.createDirectories(file.getParent());
+        Path partial = file.resolveSibling(file.getFileName() + ".part");
+        long rows = 0;
+        try (Writer out = new OutputStreamWriter(new GZIPOutputStream(Files.newOutputStream(partial)), StandardCharsets.UTF_8)) {
+            long afterId = 0L;
+            ArchivePage page;
+            do {
+                page = collectionPartitionJdbcRepository.findArchivePage(month, afterId, archivePageSize);
+                if (rows == 0 && !page.columns().isEmpty()) {
+                    writeCsvLine(out, page.columns().toArray());
+                }
+                for (Object[] row : page.rows()) {
+                    writeCsvLine(out, row);
+                }
+                rows += page.rows().size();
+                afterId = page.lastId();
+            } while (page.rows().size() == archivePageSize);
+        }
+        Files.move(partial, file, StandardCopyOption.REPLACE_EXISTING);
+        return rows;
+    }
+
+    private static void writeCsvLine(Writer out, Object[] values) throws IOException {
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                out.write(',');
+            }
+            if (values[i] == null) {
+                continue;
+            }
+            String value = values[i].toString();
+            if (value.indexOf(',') >= 0 || value.indexOf('"') >= 0 || value.indexOf('\n') >= 0 || value.indexOf('\r') >= 0) {
+                value = '"' + value.replace("\"", "\"\"") + '"';
+            }
+            out.write(value);
+        }
+        out.write('\n');
+    }
+}
@@ -1,5 +1,7 @@
 package com.CSSEProject.SmartWasteManagement.waste.service;
 
+import com.CSSEProject.SmartWasteManagement.analytics.service.SketchRollupService;
+import com.CSSEProject.SmartWasteManagement.config.RetryOnConflict;
 import com.CSSEProject.SmartWasteManagement.dto.CollectionRequestDto;
 import com.CSSEProject.SmartWasteManagement.dto.CollectionResponseDto;
 import com.CSSEProject.SmartWasteManagement.dto.RecyclingRequestDto;
@@ -9,6 +11,7 @@ import com.CSSEProject.SmartWasteManagement.payment.entity.Invoice;
 import com.CSSEProject.SmartWasteManagement.payment.entity.InvoiceStatus;
 import com.CSSEProject.SmartWasteManagement.payment.repository.InvoiceRepository;
 import com.CSSEProject.SmartWasteManagement.payment.service.BillingService;
+import com.CSSEProject.SmartWasteManagement.payment.service.ResidentLedgerService;
 import com.CSSEProject.SmartWasteManagement.payment.service.InvoiceService;
 import com.CSSEProject.SmartWasteManagement.user.entity.User;
 import com.CSSEProject.SmartWasteManagement.user.repository.UserRepository;
@@ -56,6 +59,18 @@ public class CollectionService {
     @Autowired
     private InvoiceService invoiceService;
 
+    @Autowired
+    private SketchRollupService sketchRollupService;
+
+    @Autowired
+    private CollectorStatsService collectorStatsService;
+
+    @Autowired
+    private ResidentLedgerService residentLedgerService;
+
+    @Autowired
+    private LevelHistoryService levelHistoryService;
+
     private final Map<QualityGrade, Double> qualityRefundRates = Map.of(
             QualityGrade.EXCELLENT, 0.8,  // $0.8/kg for excellent quality
             QualityGrade.GOOD, 0.6,       // $0.6/kg for good quality
@@ -117,13 +132,7 @@ public class CollectionService {
 
     public List<CollectionEvent> getTodayCollectionsByCollector(Long collectorId) {
         LocalDateTime startOfDay = LocalDate.now().atStartOfDay();
-        LocalDateTime endOfDay = LocalDate.now().atTime(23, 59, 59);
-
-        return collectionRepository.findByCollectorId(collectorId).stream()
-                .filter(collection -> collection.getCollectionTime() != null &&
-                        !collection.getCollectionTime().isBefore(startOfDay) &&
-                        !collection.getCollectionTime().isAfter(endOfDay))
-                .collect(Collectors.toList());
+        return collectionRepository.findByCollectorIdBetween(collectorId, startOfDay, startOfDay.plusDays(1));
     }
 
     // FIXED: Proper invoice generation with correct amounts
@@ -188,23 +197,13 @@ public class CollectionService {
 
     // Add this method to CollectionService.java
     private String extractCityFromAddress(String address) {
-        if (address == null || address.trim().isEmpty()) {
-            return "Colombo"; // Default city
-        }
-
-        // Simple extraction - you might need more sophisticated parsing
-        String[] addressParts = address.split(",");
-        if (addressParts.length > 0) {
-            // Get the last part (usually city)
-            String city = addressParts[addressParts.length - 1].trim();
-            System.out.println("📍 Extracted city from address: " + city);
-            return city;
-        }
-
-        return "Colombo"; // Default fallback
+        String city = User.cityOf(address);
+        System.out.println("📍 Extracted city from address: " + city);
+        return city;
     }
 
     // FIXED: Removed duplicate billingModel variable declaration
+    @RetryOnConflict
     public CollectionEvent recordCollection(CollectionRequestDto request) {
         // 1. Validate bin exists and get details
         WasteBin bin = wasteBinRepository.findById(request.getBinId())
@@ -285,12 +284,16 @@ public class CollectionService {
 
         collectionRepository.save(savedCollection);
 
+        // Feed the analytics rollup sketches and collector counters (applied after commit)
+        sketchRollupService.recordCollection(savedCollection, city);
+        collectorStatsService.recordCollection(savedCollection);
+
         // 10. Update bin level (reset to 0 after collection)
         updateBinLevelAfterCollection(bin);
 
         // 11. Update resident recycling credits
         if (request.hasRecyclables()) {
-            updateResidentRecyclingCredits(resident, collection.getRefundAmount());
+            updateResidentRecyclingCredits(resident, collection.getRefundAmount(), "COLLECTION", savedCollection.getId());
         }
 
         // 12. Provide feedback
@@ -368,6 +371,7 @@ public class CollectionService {
     }
 
     // FIXED: Updated recordRecyclingCollection method with correct parameters
+    @RetryOnConflict
     public CollectionEvent recordRecyclingCollection(RecyclingRequestDto request) {
         // Implementation for recycling collections
         User resident = userRepository.findById(request.getResidentId())
@@ -396,7 +400,7 @@ public class CollectionService {
         RecyclingCollection savedRecycling = recyclingCollectionRepository.save(recycling);
 
         // Update resident recycling credits
-        updateResidentRecyclingCredits(resident, paybackAmount);
+        updateResidentRecyclingCredits(resident, paybackAmount, "RECYCLING", savedRecycling.getId());
 
         return null; // Return appropriate response
     }
@@ -449,16 +453,16 @@ public class CollectionService {
 
     private void updateBinLevelAfterCollection(WasteBin bin) {
         bin.setCurrentLevel(0.0); // Reset level after collection
+        bin.setLevelUpdatedAt(LocalDateTime.now());
         wasteBinRepository.save(bin);
+        levelHistoryService.recordAfterCommit(bin.getBinId(), 0.0, bin.getLevelUpdatedAt());
     }
 
-    private void updateResidentPendingCharges(User resident, Double charge) {
-        Double currentCharges = resident.getPendingCharges() != null ? resident.getPendingCharges() : 0.0;
-        resident.setPendingCharges(currentCharges + charge);
-        userRepository.save(resident);
+    private void updateResidentPendingCharges(User resident, Double charge, Long collectionId) {
+        residentLedgerService.recordCharge(resident.getId(), charge, "COLLECTION", collectionId, "Collection charge");
 
         // AUTO-INVOICE: Generate invoice if charges exceed threshold
-        if (resident.getPendingCharges() >= 50.0) {
+        if (residentLedgerService.getPendingCharges(resident.getId()) >= 50.0) {
             try {
                 invoiceService.generateMonthlyInvoice(resident.getId());
             } catch (Exception e) {
@@ -467,10 +471,8 @@ public class CollectionService {
         }
     }
 
-    private void updateResidentRecyclingCredits(User resident, Double credits) {
-        Double currentCredits = resident.getRecyclingCredits() != null ? resident.getRecyclingCredits() : 0.0;
-        resident.setRecyclingCredits(currentCredits + credits);
-        userRepository.save(resident);
+    private void updateResidentRecyclingCredits(User resident, Double credits, String referenceType, Long referenceId) {
+        residentLedgerService.recordCredit(resident.getId(), credits, referenceType, referenceId, "Recycling credit");
     }
 
     // Schedule-related methods
@@ -524,6 +526,7 @@ public class CollectionService {
     }
 
     // Bin level update method for residents
+    @RetryOnConflict
     public WasteBin updateBinLevel(String binId, Double newLevel) {
         if (newLevel < 0 || newLevel > 100) {
             throw new RuntimeException("Bin level must be between 0 and 100");
@@ -533,6 +536,8 @@ public class CollectionService {
                 .orElseThrow(() -> new RuntimeException("Bin not found: " + binId));
 
         bin.setCurrentLevel(newLevel);
+        bin.setLevelUpdatedAt(LocalDateTime.now());
+        levelHistoryService.recordAfterCommit(binId, newLevel, bin.getLevelUpdatedAt());
 
         // Auto-schedule collection if bin is nearly full
         if (newLevel >= 80) {
@@ -543,12 +548,12 @@ public class CollectionService {
     }
 
     private void autoScheduleCollection(WasteBin bin) {
-        // Check if there's already a pending schedule for the next 2 days
+        // Check if there's already a pending schedule for the next 2 days (e.g. one the forecast job created)
         LocalDate tomorrow = LocalDate.now().plusDays(1);
         LocalDate dayAfter = LocalDate.now().plusDays(2);
 
-        boolean hasSchedule = collectionScheduleRepository.findPendingScheduleForBin(bin.getBinId(), tomorrow).isPresent() ||
-                collectionScheduleRepository.findPendingScheduleForBin(bin.getBinId(), dayAfter).isPresent();
+        boolean hasSchedule = collectionScheduleRepository.existsByWasteBinBinIdAndStatusAndScheduledDateBetween(
+                bin.getBinId(), ScheduleStatus.PENDING, tomorrow, dayAfter);
 
         if (!hasSchedule) {
             // Auto-schedule for tomorrow
@@ -0,0 +1,165 @@
+package com.CSSEProject.SmartWasteManagement.waste.service;
+
+import com.CSSEProject.SmartWasteManagement.config.AfterCommit;
+import com.CSSEProject.SmartWasteManagement.dto.CollectorStatsDto;
+import com.CSSEProject.SmartWasteManagement.waste.entity.CollectionEvent;
+import com.CSSEProject.SmartWasteManagement.waste.repository.CollectionEventRepository;
+import com.CSSEProject.SmartWasteManagement.waste.repository.CollectorArchiveTotalsRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Collector Stats Service - today and lifetime totals per collector
+ *
+ * Counters are seeded once per collector with an aggregate query and then moved forward
+ * by every committed collection, so reading a collector's stats never touches collection_events again.
+ * Collections with an id above the seed's highest id are applied in any commit order. One at or
+ * below it may or may not be in the seed (it was in flight while the seed ran), so it makes the
+ * next read seed again instead of guessing.
+ * The aggregate query is also the fallback when the counters are disabled. Lifetime totals add
+ * the collector's CollectorArchiveTotals, as archived months no longer have rows to aggregate.
+ */
+@Service
+public class CollectorStatsService {
+
+    @Autowired
+    private CollectionEventRepository collectionRepository;
+
+    @Autowired
+    private CollectorArchiveTotalsRepository collectorArchiveTotalsRepository;
+
+    @Value("${collector.stats.counters-enabled:true}")
+    private boolean countersEnabled = true;
+
+    private final Map<Long, CollectorCounters> counters = new ConcurrentHashMap<>();
+
+    public CollectorStatsDto getCollectorStats(Long collectorId) {
+        LocalDate today = LocalDate.now();
+        if (!countersEnabled) {
+            return queryStats(collectorId, today);
+        }
+
+        CollectorCounters collectorCounters = counters.computeIfAbsent(collectorId, id -> new CollectorCounters());
+        synchronized (collectorCounters) {
+            if (!collectorCounters.loaded) {
+                collectorCounters.seed(queryStats(collectorId, today), today);
+            }
+            return collectorCounters.snapshot(today);
+        }
+    }
+
+    /**
+     * Move the collector's counters forward once the surrounding transaction commits
+     *
+     * @param collection Saved collection event
+     */
+    public void recordCollection(CollectionEvent collection) {
+        if (collection.getCollector() == null || collection.getId() == null) {
+            return;
+        }
+        Long collectorId = collection.getCollector().getId();
+        Long collectionId = collection.getId();
+        LocalDate day = collection.getCollectionTime() != null ? collection.getCollectionTime().toLocalDate() : null;
+        double weight = collection.getWeight() != null ? collection.getWeight() : 0.0;
+        double charge = collection.getCalculatedCharge() != null ? collection.getCalculatedCharge() : 0.0;
+
+        AfterCommit.run(() -> {
+            CollectorCounters collectorCounters = counters.get(collectorId);
+            // Not seeded yet: the seeding query runs after this commit and will include the collection
+            if (collectorCounters == null) {
+                return;
+            }
+            synchronized (collectorCounters) {
+                if (collectorCounters.loaded) {
+                    collectorCounters.apply(collectionId, day, weight, charge);
+                }
+            }
+        });
+    }
+
+    private CollectorStatsDto queryStats(Long collectorId, LocalDate day) {
+        LocalDateTime dayStart = day.atStartOfDay();
+        CollectorStatsDto stats = collectionRepository.getCollectorStats(collectorId, dayStart, dayStart.plusDays(1));
+        collectorArchiveTotalsRepository.findById(collectorId).ifPresent(archived -> {
+            stats.setTotalCollections(stats.getTotalCollections() + archived.getCollections());
+            stats.setTotalWeight(stats.getTotalWeight() + archived.getTotalWeight());
+            stats.setTotalRevenue(stats.getTotalRevenue() + archived.getTotalRevenue());
+        });
+        return stats;
+    }
+
+    private static class CollectorCounters {
+        private boolean loaded;
+        // Highest id in the seeding query; fixed until the next seed
+        private long seedMaxId;
+        private long lastCollectionId;
+        private long totalCollections;
+        private double totalWeight;
+        private double totalRevenue;
+        private LocalDate day;
+        private long todayCollections;
+        private double todayWeight;
+        private double todayRevenue;
+
+        void seed(CollectorStatsDto stats, LocalDate today) {
+            seedMaxId = stats.getLastCollectionId() != null ? stats.getLastCollectionId() : 0L;
+            lastCollectionId = seedMaxId;
+            totalCollections = stats.getTotalCollections();
+            totalWeight = stats.getTotalWeight();
+            totalRevenue = stats.getTotalRevenue();
+            day = today;
+            todayCollections = stats.getTodayCollections();
+            todayWeight = stats.getTodayWeight();
+            todayRevenue = stats.getTodayRevenue();
+            loaded = true;
+        }
+
+        void apply(long collectionId, LocalDate collectionDay, double weight, double charge) {
+            // Committed around the seed: it may already be counted, so let the next read seed again
+            if (collectionId <= seedMaxId) {
+                loaded = false;
+                return;
+            }
+            lastCollectionId = Math.max(lastCollectionId, collectionId);
+            totalCollections++;
+            totalWeight += weight;
+            totalRevenue += charge;
+
+            if (collectionDay == null) {
+                return;
+            }
+            rollTo(collectionDay);
+            if (collectionDay.equals(day)) {
+                todayCollections++;
+                todayWeight += weight;
+                todayRevenue += charge;
+            }
+        }
+
+        CollectorStatsDto snapshot(LocalDate today) {
+            rollTo(today);
+            boolean current = today.equals(day);
+            return new CollectorStatsDto(totalCollections, totalWeight, totalRevenue,
+                    current ? todayCollections : 0L,
+                    current ? todayWeight : 0.0,
+                    current ? todayRevenue : 0.0,
+                    lastCollectionId);
+        }
+
+        // Every collection after the seed passes through apply, so a new day starts from zero
+        private void rollTo(LocalDate newDay) {
+            if (newDay.isAfter(day)) {
+                day = newDay;
+                todayCollections = 0;
+                todayWeight = 0.0;
+                todayRevenue = 0.0;
+            }
+        }
+    }
+}
@@ -0,0 +1,241 @@
+package com.CSSEProject.SmartWasteManagement.waste.service;
+
+import com.CSSEProject.SmartWasteManagement.dto.BinForecastDto;
+import com.CSSEProject.SmartWasteManagement.waste.entity.BinStatus;
+import com.CSSEProject.SmartWasteManagement.waste.entity.WasteBin;
+import com.CSSEProject.SmartWasteManagement.waste.forecast.FillRateEstimator;
+import com.CSSEProject.SmartWasteManagement.waste.forecast.FillRateEstimator.FillRate;
+import com.CSSEProject.SmartWasteManagement.waste.history.LevelPoint;
+import com.CSSEProject.SmartWasteManagement.waste.repository.BinLevelJdbcRepository;
+import com.CSSEProject.SmartWasteManagement.waste.repository.BinLevelJdbcRepository.BinLevel;
+import com.CSSEProject.SmartWasteManagement.waste.repository.ScheduleJdbcRepository;
+import com.CSSEProject.SmartWasteManagement.waste.repository.ScheduleJdbcRepository.NewSchedule;
+import com.CSSEProject.SmartWasteManagement.waste.repository.WasteBinRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * Fill Forecast Service - predicts when each bin reaches the auto-schedule threshold
+ *
+ * The fill rate comes from the bin's level history (see FillRateEstimator) and is projected
+ * from the current level. A nightly job forecasts every active bin, in chunks on the compute
+ * executor within forecast.job.timeout-ms, and schedules a collection for each bin predicted
+ * to be full within forecast.horizon-days that has no pending schedule yet, with one lookup
+ * and one batch insert.
+ */
+@Service
+public class FillForecastService {
+
+    private static final Set<BinStatus> FORECAST_STATUSES = EnumSet.of(BinStatus.ACTIVE, BinStatus.NEEDS_EMPTYING);
+    private static final double MIN_RATE_PER_HOUR = 0.01; // below this a bin is treated as not filling
+    private static final int MAX_CHUNKS = 64; // chunks grow past chunk-size beyond this, leaving room in the compute queue
+
+    @Autowired
+    private LevelHistoryService levelHistoryService;
+
+    @Autowired
+    private BinLevelJdbcRepository binLevelJdbcRepository;
+
+    @Autowired
+    private ScheduleJdbcRepository scheduleJdbcRepository;
+
+    @Autowired
+    private WasteBinRepository wasteBinRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    @Qualifier("computeExecutor")
+    private ExecutorService computeExecutor;
+
+    @Value("${forecast.lookback-days:14}")
+    private int lookbackDays = 14;
+
+    @Value("${forecast.horizon-days:3}")
+    private int horizonDays = 3;
+
+    @Value("${forecast.ewma-alpha:0.5}")
+    private double ewmaAlpha = 0.5;
+
+    @Value("${forecast.chunk-size:500}")
+    private int chunkSize = 500;
+
+    @Value("${forecast.job.timeout-ms:600000}")
+    private long jobTimeoutMs = 600000;
+
+    @Value("${forecast.insert-batch-size:1000}")
+    private int insertBatchSize = 1000;
+
+    private volatile Map<String, Object> lastRun = Map.of();
+
+    public BinForecastDto forecastBin(String binId) {
+        WasteBin bin = wasteBinRepository.findById(binId)
+                .orElseThrow(() -> new RuntimeException("Bin not found: " + binId));
+        BinLevel level = new BinLevel(bin.getBinId(), bin.getCurrentLevel() != null ? bin.getCurrentLevel() : 0.0,
+                bin.getLevelUpdatedAt());
+        return forecast(level, LocalDateTime.now());
+    }
+
+    /**
+     * Forecasts of every active bin predicted to be full within the given number of days, soonest first
+     */
+    public List<BinForecastDto> findBinsDueWithin(int days) {
+        if (days < 0 || days > 30) {
+            throw new RuntimeException("days must be between 0 and 30");
+        }
+        LocalDateTime now = LocalDateTime.now();
+        LocalDate lastDay = now.toLocalDate().plusDays(days);
+        return forecastAll(now).stream()
+                .filter(forecast -> forecast.getPredictedFullAt() != null
+                        && !forecast.getPredictedFullAt().toLocalDate().isAfter(lastDay))
+                .sorted(Comparator.comparing(BinForecastDto::getPredictedFullAt))
+                .toList();
+    }
+
+    @Scheduled(cron = "${forecast.cron:0 0 4 * * *}")
+    public void nightlyScheduling() {
+        try {
+            scheduleForecastCollections(LocalDateTime.now());
+        } catch (Exception e) {
+            System.err.println("❌ Forecast scheduling failed: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Schedule every bin predicted full within the horizon that has no pending schedule in it
+     *
+     * @return Summary of the run (also kept for getLastRun)
+     */
+    public Map<String, Object> scheduleForecastCollections(LocalDateTime now) {
+        long startedAt = System.currentTimeMillis();
+        LocalDate today = now.toLocalDate();
+        LocalDate tomorrow = today.plusDays(1);
+        LocalDate lastDay = today.plusDays(horizonDays);
+
+        List<BinForecastDto> forecasts = forecastAll(now);
+        Map<String, BinForecastDto> due = new LinkedHashMap<>();
+        int withoutRate = 0;
+        for (BinForecastDto forecast : forecasts) {
+            if (forecast.getPredictedFullAt() == null) {
+                withoutRate++;
+            } else if (!forecast.getPredictedFullAt().toLocalDate().isAfter(lastDay)) {
+                due.put(forecast.getBinId(), forecast);
+            }
+        }
+
+        Integer created = transactionTemplate.execute(status -> {
+            Set<String> alreadyScheduled = scheduleJdbcRepository.findBinsWithPendingScheduleBetween(due.keySet(), today, lastDay);
+            List<NewSchedule> schedules = new ArrayList<>();
+            for (BinForecastDto forecast : due.values()) {
+                if (alreadyScheduled.contains(forecast.getBinId())) {
+                    continue;
+                }
+                LocalDate fullOn = forecast.getPredictedFullAt().toLocalDate();
+                LocalDate scheduledDate = fullOn.isBefore(tomorrow) ? tomorrow : fullOn;
+                String notes = forecast.getFillRatePerDay() != null
+                        ? String.format("Forecast: %.0f%% now, filling %.1f%%/day, full around %s",
+                                forecast.getCurrentLevel(), forecast.getFillRatePerDay(), fullOn)
+                        : String.format("Forecast: already at %.0f%%", forecast.getCurrentLevel());
+                schedules.add(new NewSchedule(forecast.getBinId(), scheduledDate, notes));
+            }
+            return scheduleJdbcRepository.insertPendingSchedules(schedules, insertBatchSize);
+        });
+
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("ranAt", now);
+        summary.put("binsForecast", forecasts.size());
+        summary.put("binsWithoutRate", withoutRate);
+        summary.put("binsDue", due.size());
+        summary.put("schedulesCreated", created != null ? created : 0);
+        summary.put("horizonDays", horizonDays);
+        summary.put("durationMs", System.currentTimeMillis() - startedAt);
+        lastRun = summary;
+        System.out.println("🔮 Forecast scheduling: " + summary.get("schedulesCreated") + " collections scheduled for "
+                + due.size() + " bins due within " + horizonDays + " days");
+        return summary;
+    }
+
+    public Map<String, Object> getLastRun() {
+        return lastRun;
+    }
+
+    // Bins are forecast in chunks in parallel; the work is history reads and arithmetic, no JDBC
+    private List<BinForecastDto> forecastAll(LocalDateTime now) {
+        List<BinLevel> bins = binLevelJdbcRepository.findLevelsByStatus(FORECAST_STATUSES);
+        int size = Math.max(chunkSize, (bins.size() + MAX_CHUNKS - 1) / MAX_CHUNKS);
+        List<Callable<List<BinForecastDto>>> chunks = new ArrayList<>();
+        for (int start = 0; start < bins.size(); start += size) {
+            List<BinLevel> chunk = bins.subList(start, Math.min(start + size, bins.size()));
+            chunks.add(() -> {
+                List<BinForecastDto> forecasts = new ArrayList<>(chunk.size());
+                for (BinLevel bin : chunk) {
+                    // Cancelled at the job timeout: stop instead of finishing the chunk
+                    if (Thread.currentThread().isInterrupted()) {
+                        throw new CancellationException();
+                    }
+                    forecasts.add(forecast(bin, now));
+                }
+                return forecasts;
+            });
+        }
+
+        List<BinForecastDto> forecasts = new ArrayList<>(bins.size());
+        try {
+            for (Future<List<BinForecastDto>> future : computeExecutor.invokeAll(chunks, jobTimeoutMs, TimeUnit.MILLISECONDS)) {
+                forecasts.addAll(future.get());
+            }
+        } catch (CancellationException e) {
+            throw new RuntimeException("Forecasting did not finish within " + jobTimeoutMs + " ms");
+        } catch (RejectedExecutionException e) {
+            throw new RuntimeException("Forecasting rejected: the compute pool is busy, try again later");
+        } catch (ExecutionException e) {
+            throw new RuntimeException("Forecasting failed: " + e.getCause().getMessage(), e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Forecasting interrupted");
+        }
+        return forecasts;
+    }
+
+    private BinForecastDto forecast(BinLevel bin, LocalDateTime now) {
+        List<LevelPoint> history = levelHistoryService.getHistory(bin.binId(), now.minusDays(lookbackDays), now);
+        FillRate rate = FillRateEstimator.estimate(history, ewmaAlpha);
+
+        BinForecastDto forecast = new BinForecastDto();
+        forecast.setBinId(bin.binId());
+        forecast.setCurrentLevel(bin.level());
+        forecast.setLevelUpdatedAt(bin.levelUpdatedAt());
+        if (rate != null) {
+            forecast.setFillRatePerDay(rate.percentPerHour() * 24);
+            forecast.setSamples(rate.samples());
+            forecast.setCycles(rate.cycles());
+        }
+
+        // Project from when the current level was measured, not from now
+        LocalDateTime measuredAt = bin.levelUpdatedAt() != null ? bin.levelUpdatedAt()
+                : !history.isEmpty() ? history.get(history.size() - 1).timestamp() : now;
+        LocalDateTime fullAt = null;
+        if (bin.level() >= BinTelemetryService.FULL_THRESHOLD) {
+            fullAt = measuredAt;
+        } else if (rate != null && rate.percentPerHour() >= MIN_RATE_PER_HOUR) {
+            double hours = (BinTelemetryService.FULL_THRESHOLD - bin.level()) / rate.percentPerHour();
+            fullAt = measuredAt.plusSeconds(Math.round(hours * 3600));
+        }
+        if (fullAt != null) {
+            forecast.setPredictedFullAt(fullAt);
+            forecast.setHoursToFull(Math.max(0.0, Duration.between(now, fullAt).toMinutes() / 60.0));
+        }
+        return forecast;
+    }
+}
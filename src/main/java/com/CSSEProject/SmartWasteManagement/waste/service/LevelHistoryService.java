@@ -0,0 +1,321 @@
+package com.CSSEProject.SmartWasteManagement.waste.service;
+
+import com.CSSEProject.SmartWasteManagement.config.AfterCommit;
+import com.CSSEProject.SmartWasteManagement.waste.history.LevelBlockCodec;
+import com.CSSEProject.SmartWasteManagement.waste.history.LevelPoint;
+import com.CSSEProject.SmartWasteManagement.waste.history.LevelSegmentStore;
+import com.CSSEProject.SmartWasteManagement.waste.history.LevelSegmentStore.Resolution;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.nio.file.Paths;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Level History Service - keeps every fill-level reading of every bin for charting and forecasting
+ *
+ * Readings collect in a small open block per bin and are sealed into the day's append-only
+ * segment file when the block is full, changes day, or has been open for history.seal-after-minutes.
+ * Raw days older than history.raw-retention-days are downsampled to the last reading per hour;
+ * hourly days older than history.hourly-retention-days are deleted. Readings in open blocks are
+ * lost on a crash, so the seal interval is the data-loss window.
+ */
+@Service
+public class LevelHistoryService {
+
+    private static final int MAX_POINTS_PER_BLOCK = 512;
+    private static final long MAX_RANGE_DAYS = 400;
+
+    @Value("${history.dir:data/level-history}")
+    private String directory = "data/level-history";
+
+    @Value("${history.seal-after-minutes:60}")
+    private long sealAfterMinutes = 60;
+
+    @Value("${history.raw-retention-days:30}")
+    private int rawRetentionDays = 30;
+
+    @Value("${history.hourly-retention-days:400}")
+    private int hourlyRetentionDays = 400;
+
+    private LevelSegmentStore store;
+
+    private final Map<String, OpenBlock> openBlocks = new ConcurrentHashMap<>();
+    private final Queue<SealedBlock> sealed = new ConcurrentLinkedQueue<>();
+    // Readers share the lock so forecasting can scan many bins in parallel; writes and retention are exclusive
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private record SealedBlock(String binId, LocalDate day, byte[] encoded, List<LevelPoint> points) {
+    }
+
+    private static class OpenBlock {
+        private final LocalDate day;
+        private final long openedAtMillis = System.currentTimeMillis();
+        private final List<LevelPoint> points = new ArrayList<>();
+
+        OpenBlock(LocalDate day) {
+            this.day = day;
+        }
+    }
+
+    @PostConstruct
+    public void open() {
+        store = new LevelSegmentStore(Paths.get(directory));
+        // The newest segments are the only ones a crash can have left half-written
+        for (Resolution resolution : Resolution.values()) {
+            List<LocalDate> days = store.days(resolution);
+            if (!days.isEmpty()) {
+                long removed = store.recover(resolution, days.get(days.size() - 1));
+                if (removed > 0) {
+                    System.out.println("🩹 Removed " + removed + " torn bytes from the last " + resolution + " level segment");
+                }
+            }
+        }
+    }
+
+    /**
+     * Record a reading; visible to getHistory immediately, written to disk when its block is sealed
+     */
+    public void record(String binId, double level, LocalDateTime readAt) {
+        if (binId == null || readAt == null) {
+            return;
+        }
+        LevelPoint point = LevelPoint.of(readAt, level);
+        LocalDate day = readAt.toLocalDate();
+        openBlocks.compute(binId, (id, block) -> {
+            if (block != null && !block.day.equals(day)) {
+                seal(id, block);
+                block = null;
+            }
+            if (block == null) {
+                block = new OpenBlock(day);
+            }
+            block.points.add(point);
+            if (block.points.size() >= MAX_POINTS_PER_BLOCK) {
+                seal(id, block);
+                return null;
+            }
+            return block;
+        });
+    }
+
+    /**
+     * Record a level set inside a transaction once it commits (collections, manual level updates)
+     */
+    public void recordAfterCommit(String binId, double level, LocalDateTime readAt) {
+        AfterCommit.run(() -> record(binId, level, readAt));
+    }
+
+    /**
+     * Readings of a bin in [from, to], oldest first. Days past raw retention come back hourly.
+     */
+    public List<LevelPoint> getHistory(String binId, LocalDateTime from, LocalDateTime to) {
+        if (from.isAfter(to)) {
+            throw new IllegalArgumentException("from must not be after to");
+        }
+        if (from.toLocalDate().plusDays(MAX_RANGE_DAYS).isBefore(to.toLocalDate())) {
+            throw new IllegalArgumentException("Range is limited to " + MAX_RANGE_DAYS + " days");
+        }
+        long fromEpoch = LevelPoint.toEpoch(from);
+        long toEpoch = LevelPoint.toEpoch(to);
+
+        // Open block first: if it is sealed meanwhile it shows up again below and is deduplicated
+        List<LevelPoint> points = new ArrayList<>();
+        openBlocks.computeIfPresent(binId, (id, block) -> {
+            addInRange(block.points, fromEpoch, toEpoch, points);
+            return block;
+        });
+        lock.readLock().lock();
+        try {
+            // A late reading can give an already downsampled day a raw segment again, so read both
+            for (LocalDate day = from.toLocalDate(); !day.isAfter(to.toLocalDate()); day = day.plusDays(1)) {
+                for (Resolution resolution : Resolution.values()) {
+                    store.scan(resolution, day, binId, fromEpoch, toEpoch, points);
+                }
+            }
+            for (SealedBlock block : sealed) {
+                if (block.binId().equals(binId)) {
+                    addInRange(block.points(), fromEpoch, toEpoch, points);
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        points.sort(Comparator.comparingLong(LevelPoint::epochSecond));
+        List<LevelPoint> distinct = new ArrayList<>(points.size());
+        for (LevelPoint point : points) {
+            if (distinct.isEmpty() || !distinct.get(distinct.size() - 1).equals(point)) {
+                distinct.add(point);
+            }
+        }
+        return distinct;
+    }
+
+    @Scheduled(fixedDelayString = "${history.write-interval-ms:60000}")
+    public void scheduledWrite() {
+        try {
+            write(false);
+        } catch (Exception e) {
+            System.err.println("❌ Level history write failed: " + e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        write(true);
+    }
+
+    /**
+     * Seal open blocks that are old enough (or all of them) and append every sealed block to its day segment
+     *
+     * @return Number of blocks written
+     */
+    public int write(boolean sealAll) {
+        lock.writeLock().lock();
+        try {
+            long cutoff = System.currentTimeMillis() - sealAfterMinutes * 60_000;
+            for (String binId : openBlocks.keySet()) {
+                openBlocks.computeIfPresent(binId, (id, block) -> {
+                    if (sealAll || block.openedAtMillis <= cutoff) {
+                        seal(id, block);
+                        return null;
+                    }
+                    return block;
+                });
+            }
+
+            Map<LocalDate, List<SealedBlock>> byDay = new TreeMap<>();
+            for (SealedBlock block : sealed) {
+                byDay.computeIfAbsent(block.day(), day -> new ArrayList<>()).add(block);
+            }
+            int written = 0;
+            for (Map.Entry<LocalDate, List<SealedBlock>> entry : byDay.entrySet()) {
+                store.append(Resolution.RAW, entry.getKey(), entry.getValue().stream().map(SealedBlock::encoded).toList());
+                // Only now leave the queue, so readers never miss a block between queue and file
+                sealed.removeAll(entry.getValue());
+                written += entry.getValue().size();
+            }
+            return written;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Downsample raw days past retention to hourly and drop hourly days past theirs
+     */
+    @Scheduled(cron = "${history.retention-cron:0 45 2 * * *}")
+    public void applyRetention() {
+        try {
+            applyRetention(LocalDate.now());
+        } catch (Exception e) {
+            System.err.println("❌ Level history retention failed: " + e.getMessage());
+        }
+    }
+
+    public void applyRetention(LocalDate today) {
+        lock.writeLock().lock();
+        try {
+            LocalDate rawCutoff = today.minusDays(rawRetentionDays);
+            int downsampled = 0;
+            for (LocalDate day : store.days(Resolution.RAW)) {
+                if (!day.isBefore(rawCutoff)) {
+                    break;
+                }
+                Map<String, List<LevelPoint>> points = store.readAll(Resolution.RAW, day);
+                // Late readings for a day downsampled earlier: merge, or replace would drop its hourly history
+                if (store.exists(Resolution.HOURLY, day)) {
+                    store.readAll(Resolution.HOURLY, day).forEach((binId, hourly) ->
+                            points.computeIfAbsent(binId, id -> new ArrayList<>()).addAll(hourly));
+                }
+                store.replace(Resolution.HOURLY, day, downsampleToHourly(points));
+                store.delete(Resolution.RAW, day);
+                downsampled++;
+            }
+
+            LocalDate hourlyCutoff = today.minusDays(hourlyRetentionDays);
+            int deleted = 0;
+            for (LocalDate day : store.days(Resolution.HOURLY)) {
+                if (!day.isBefore(hourlyCutoff)) {
+                    break;
+                }
+                store.delete(Resolution.HOURLY, day);
+                deleted++;
+            }
+            if (downsampled > 0 || deleted > 0) {
+                System.out.println("🗜️ Level history retention: " + downsampled + " days downsampled, " + deleted + " days deleted");
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("openBlocks", openBlocks.size());
+        stats.put("sealedBlocksPending", sealed.size());
+        stats.put("rawDays", store.days(Resolution.RAW).size());
+        stats.put("hourlyDays", store.days(Resolution.HOURLY).size());
+        stats.put("rawBytes", store.sizeOnDisk(Resolution.RAW));
+        stats.put("hourlyBytes", store.sizeOnDisk(Resolution.HOURLY));
+        return stats;
+    }
+
+    // Last reading of every hour, per bin
+    private List<byte[]> downsampleToHourly(Map<String, List<LevelPoint>> rawByBin) {
+        List<byte[]> blocks = new ArrayList<>(rawByBin.size());
+        rawByBin.forEach((binId, points) -> {
+            points.sort(Comparator.comparingLong(LevelPoint::epochSecond));
+            List<LevelPoint> hourly = new ArrayList<>();
+            for (LevelPoint point : points) {
+                LevelPoint last = hourly.isEmpty() ? null : hourly.get(hourly.size() - 1);
+                if (last != null && last.epochSecond() / 3600 == point.epochSecond() / 3600) {
+                    hourly.set(hourly.size() - 1, point);
+                } else {
+                    hourly.add(point);
+                }
+            }
+            if (!hourly.isEmpty()) {
+                blocks.add(encode(binId, hourly));
+            }
+        });
+        return blocks;
+    }
+
+    private void seal(String binId, OpenBlock block) {
+        if (block.points.isEmpty()) {
+            return;
+        }
+        List<LevelPoint> points = new ArrayList<>(block.points);
+        points.sort(Comparator.comparingLong(LevelPoint::epochSecond));
+        sealed.add(new SealedBlock(binId, block.day, encode(binId, points), points));
+    }
+
+    private static byte[] encode(String binId, List<LevelPoint> points) {
+        long[] epochSeconds = new long[points.size()];
+        byte[] levels = new byte[points.size()];
+        for (int i = 0; i < points.size(); i++) {
+            epochSeconds[i] = points.get(i).epochSecond();
+            levels[i] = points.get(i).quantizedLevel();
+        }
+        return LevelBlockCodec.encode(binId, epochSeconds, levels, points.size());
+    }
+
+    private static void addInRange(List<LevelPoint> source, long fromEpoch, long toEpoch, List<LevelPoint> out) {
+        for (LevelPoint point : source) {
+            if (point.epochSecond() >= fromEpoch && point.epochSecond() <= toEpoch) {
+                out.add(point);
+            }
+        }
+    }
+}
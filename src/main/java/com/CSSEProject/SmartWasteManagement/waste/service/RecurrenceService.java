@@ -0,0 +1,407 @@
+package com.CSSEProject.SmartWasteManagement.waste.service;
+
+import com.CSSEProject.SmartWasteManagement.dto.RecurrenceExceptionRequestDto;
+import com.CSSEProject.SmartWasteManagement.dto.RecurrenceRuleRequestDto;
+import com.CSSEProject.SmartWasteManagement.waste.entity.BinStatus;
+import com.CSSEProject.SmartWasteManagement.waste.entity.RecurrenceException;
+import com.CSSEProject.SmartWasteManagement.waste.entity.RecurrenceRule;
+import com.CSSEProject.SmartWasteManagement.waste.repository.RecurrenceExceptionRepository;
+import com.CSSEProject.SmartWasteManagement.waste.repository.RecurrenceRuleRepository;
+import com.CSSEProject.SmartWasteManagement.waste.repository.ScheduleJdbcRepository;
+import com.CSSEProject.SmartWasteManagement.waste.repository.ScheduleJdbcRepository.NewSchedule;
+import com.CSSEProject.SmartWasteManagement.waste.repository.WasteBinRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.TemporalAdjusters;
+import java.util.*;
+
+/**
+ * Recurrence Service - Standing weekly/biweekly pickups for a bin or a zone
+ *
+ * A rule is one row however many bins and weeks it covers. The nightly job writes concrete
+ * PENDING schedules only for the next horizon-days, picking up where the previous run stopped
+ * (materializedThrough), so each night adds about one day of rows. Exceptions skip or move a
+ * single occurrence; once that occurrence is materialized its schedules are changed directly.
+ */
+@Service
+public class RecurrenceService {
+
+    private static final Set<BinStatus> EXCLUDED_STATUSES = EnumSet.of(BinStatus.INACTIVE, BinStatus.DECOMMISSIONED);
+
+    @Autowired
+    private RecurrenceRuleRepository ruleRepository;
+
+    @Autowired
+    private RecurrenceExceptionRepository exceptionRepository;
+
+    @Autowired
+    private WasteBinRepository wasteBinRepository;
+
+    @Autowired
+    private ScheduleJdbcRepository scheduleJdbcRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${recurrence.horizon-days:14}")
+    private int horizonDays;
+
+    @Value("${recurrence.chunk-size:500}")
+    private int chunkSize;
+
+    @Value("${recurrence.insert-batch-size:1000}")
+    private int insertBatchSize;
+
+    private volatile Map<String, Object> lastRun = Map.of();
+
+    public RecurrenceRule createRule(RecurrenceRuleRequestDto request) {
+        RecurrenceRule rule = new RecurrenceRule();
+        if (request.getBinId() != null) {
+            if (!wasteBinRepository.existsById(request.getBinId())) {
+                throw new RuntimeException("Bin not found: " + request.getBinId());
+            }
+            rule.setBinId(request.getBinId());
+        } else {
+            if (request.getMinLatitude() == null || request.getMinLongitude() == null
+                    || request.getMaxLatitude() == null || request.getMaxLongitude() == null) {
+                throw new IllegalArgumentException("Either binId or a zone box (min/max latitude and longitude) is required");
+            }
+            if (request.getMinLatitude() > request.getMaxLatitude() || request.getMinLongitude() > request.getMaxLongitude()) {
+                throw new IllegalArgumentException("Zone minimum must not exceed its maximum");
+            }
+            rule.setZoneName(request.getZoneName());
+            rule.setMinLatitude(request.getMinLatitude());
+            rule.setMinLongitude(request.getMinLongitude());
+            rule.setMaxLatitude(request.getMaxLatitude());
+            rule.setMaxLongitude(request.getMaxLongitude());
+        }
+        if (request.getFrequency() == null || request.getDayOfWeek() == null) {
+            throw new IllegalArgumentException("frequency and dayOfWeek are required");
+        }
+        LocalDate startDate = request.getStartDate() != null ? request.getStartDate() : LocalDate.now();
+        if (request.getEndDate() != null && request.getEndDate().isBefore(startDate)) {
+            throw new IllegalArgumentException("endDate must not be before startDate");
+        }
+        rule.setFrequency(request.getFrequency());
+        rule.setDayOfWeek(request.getDayOfWeek());
+        rule.setStartDate(startDate);
+        rule.setEndDate(request.getEndDate());
+        rule.setNotes(request.getNotes());
+
+        // Materialize the first horizon right away so the pickups are visible immediately
+        LocalDate today = LocalDate.now();
+        return transactionTemplate.execute(status -> {
+            RecurrenceRule saved = ruleRepository.save(rule);
+            int created = materialize(List.of(saved), today);
+            // The bulk update in materialize bypasses the managed entity
+            saved.setMaterializedThrough(today.plusDays(horizonDays));
+            System.out.println("🔁 Recurrence rule " + saved.getId() + " created, " + created + " schedules materialized");
+            return saved;
+        });
+    }
+
+    public List<RecurrenceRule> getActiveRules(String binId) {
+        return binId != null ? ruleRepository.findByBinIdAndActiveTrue(binId) : ruleRepository.findByActiveTrue();
+    }
+
+    public RecurrenceRule getRule(Long ruleId) {
+        return ruleRepository.findById(ruleId)
+                .orElseThrow(() -> new RuntimeException("Recurrence rule not found: " + ruleId));
+    }
+
+    /**
+     * Stop a rule and cancel its pending schedules from today on
+     */
+    public Map<String, Object> deactivateRule(Long ruleId) {
+        return transactionTemplate.execute(status -> {
+            RecurrenceRule rule = getRule(ruleId);
+            rule.setActive(false);
+            ruleRepository.save(rule);
+            int cancelled = scheduleJdbcRepository.cancelPendingForRule(ruleId, LocalDate.now(), LocalDate.of(9999, 12, 31), null);
+            return Map.of("ruleId", ruleId, "schedulesCancelled", cancelled);
+        });
+    }
+
+    public List<RecurrenceException> getExceptions(Long ruleId) {
+        return exceptionRepository.findByRuleIdOrderByOccurrenceDate(ruleId);
+    }
+
+    /**
+     * Skip or move one occurrence of a rule, for all its bins or for one of them
+     */
+    public RecurrenceException addException(Long ruleId, RecurrenceExceptionRequestDto request) {
+        LocalDate today = LocalDate.now();
+        return transactionTemplate.execute(status -> {
+            RecurrenceRule rule = getRule(ruleId);
+            if (!Boolean.TRUE.equals(rule.getActive())) {
+                throw new IllegalArgumentException("Recurrence rule " + ruleId + " is not active");
+            }
+            LocalDate date = request.getOccurrenceDate();
+            if (date == null || occurrences(rule, date, date).isEmpty()) {
+                throw new IllegalArgumentException("No occurrence of rule " + ruleId + " on " + date);
+            }
+            if (date.isBefore(today) || (request.getRescheduledTo() != null && request.getRescheduledTo().isBefore(today))) {
+                throw new IllegalArgumentException("Occurrences can only be changed for today or later");
+            }
+            if (date.equals(request.getRescheduledTo())) {
+                throw new IllegalArgumentException("rescheduledTo must differ from the occurrence date");
+            }
+            if (!rule.isZoneRule() && request.getBinId() != null && !request.getBinId().equals(rule.getBinId())) {
+                throw new IllegalArgumentException("Bin " + request.getBinId() + " is not covered by rule " + ruleId);
+            }
+            String binId = rule.isZoneRule() ? request.getBinId() : null;
+            boolean exists = binId != null
+                    ? exceptionRepository.existsByRuleIdAndOccurrenceDateAndBinId(ruleId, date, binId)
+                    : exceptionRepository.existsByRuleIdAndOccurrenceDateAndBinIdIsNull(ruleId, date);
+            if (exists) {
+                throw new IllegalArgumentException("An exception for this occurrence already exists");
+            }
+
+            RecurrenceException exception = new RecurrenceException();
+            exception.setRuleId(ruleId);
+            exception.setOccurrenceDate(date);
+            exception.setBinId(binId);
+            exception.setRescheduledTo(request.getRescheduledTo());
+            exception.setReason(request.getReason());
+            exceptionRepository.save(exception);
+
+            // Already written out: cancel those schedules, and re-create them on the new day for a move
+            LocalDate materializedThrough = rule.getMaterializedThrough();
+            if (materializedThrough != null && !date.isAfter(materializedThrough)) {
+                List<String> bins = scheduleJdbcRepository.findPendingRuleBins(ruleId, date, binId);
+                scheduleJdbcRepository.cancelPendingForRule(ruleId, date, date, binId);
+                if (!exception.isSkip()) {
+                    insertMoved(rule, exception, bins);
+                }
+                System.out.println("🔁 Rule " + ruleId + " occurrence " + date + (exception.isSkip() ? " skipped" : " moved")
+                        + " for " + bins.size() + " scheduled bins");
+            } else if (!exception.isSkip() && materializedThrough != null && !exception.getRescheduledTo().isAfter(materializedThrough)) {
+                // Moved into the written-out horizon: the nightly run only reaches the original day once the new one is close or past
+                int moved = insertMoved(rule, exception, occurrenceBins(rule, exception));
+                System.out.println("🔁 Rule " + ruleId + " occurrence " + date + " moved ahead to "
+                        + exception.getRescheduledTo() + " for " + moved + " bins");
+            }
+            return exception;
+        });
+    }
+
+    // One pickup per bin and day, as in materialize: bins already due on the new day keep that pickup
+    private int insertMoved(RecurrenceRule rule, RecurrenceException exception, List<String> bins) {
+        if (bins.isEmpty()) {
+            return 0;
+        }
+        LocalDate target = exception.getRescheduledTo();
+        Map<String, Set<LocalDate>> taken = scheduleJdbcRepository.findScheduledDates(bins, target, target);
+        List<NewSchedule> moved = new ArrayList<>(bins.size());
+        for (String bin : bins) {
+            if (!taken.getOrDefault(bin, Set.of()).contains(target)) {
+                moved.add(new NewSchedule(bin, target, notes(rule, exception), rule.getId()));
+            }
+        }
+        return scheduleJdbcRepository.insertPendingSchedules(moved, insertBatchSize);
+    }
+
+    // Bins an exception applies to, resolved as materialize does; a rule-wide one leaves out bins with their own exception
+    private List<String> occurrenceBins(RecurrenceRule rule, RecurrenceException exception) {
+        if (exception.getBinId() != null || !rule.isZoneRule()) {
+            String binId = exception.getBinId() != null ? exception.getBinId() : rule.getBinId();
+            return wasteBinRepository.findBinIdsExcludingStatus(List.of(binId), EXCLUDED_STATUSES);
+        }
+        Set<String> ownException = new HashSet<>();
+        LocalDate date = exception.getOccurrenceDate();
+        for (RecurrenceException other : exceptionRepository.findByRuleIdInAndOccurrenceDateBetween(List.of(rule.getId()), date, date)) {
+            if (other.getBinId() != null) {
+                ownException.add(other.getBinId());
+            }
+        }
+        List<String> bins = new ArrayList<>(wasteBinRepository.findBinIdsInBox(rule.getMinLatitude(), rule.getMinLongitude(),
+                rule.getMaxLatitude(), rule.getMaxLongitude(), EXCLUDED_STATUSES));
+        bins.removeAll(ownException);
+        return bins;
+    }
+
+    @Scheduled(cron = "${recurrence.cron:0 30 3 * * *}")
+    public void nightlyMaterialization() {
+        try {
+            materializeAll(LocalDate.now());
+        } catch (Exception e) {
+            System.err.println("❌ Recurrence materialization failed: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Write the schedules of every active rule up to today + horizon-days, one chunk of rules per transaction
+     *
+     * @return Summary of the run (also kept for getLastRun)
+     */
+    public Map<String, Object> materializeAll(LocalDate today) {
+        long startedAt = System.currentTimeMillis();
+        int rules = 0;
+        int created = 0;
+        int failedChunks = 0;
+        long afterId = 0;
+        while (true) {
+            List<RecurrenceRule> chunk = ruleRepository.findByActiveTrueAndIdGreaterThanOrderById(afterId, PageRequest.of(0, chunkSize));
+            if (chunk.isEmpty()) {
+                break;
+            }
+            afterId = chunk.get(chunk.size() - 1).getId();
+            rules += chunk.size();
+            try {
+                Integer inserted = transactionTemplate.execute(status -> materialize(chunk, today));
+                created += inserted != null ? inserted : 0;
+            } catch (RuntimeException e) {
+                failedChunks++;
+                System.err.println("❌ Recurrence chunk up to rule " + afterId + " failed: " + e.getMessage());
+            }
+        }
+
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("ranAt", LocalDateTime.now());
+        summary.put("materializedThrough", today.plusDays(horizonDays));
+        summary.put("activeRules", rules);
+        summary.put("schedulesCreated", created);
+        summary.put("failedChunks", failedChunks);
+        summary.put("durationMs", System.currentTimeMillis() - startedAt);
+        lastRun = summary;
+        System.out.println("🔁 Recurrence materialization: " + created + " schedules from " + rules + " rules through "
+                + summary.get("materializedThrough"));
+        return summary;
+    }
+
+    public Map<String, Object> getLastRun() {
+        return lastRun;
+    }
+
+    // Must run inside a transaction
+    private int materialize(List<RecurrenceRule> rules, LocalDate today) {
+        LocalDate horizonEnd = today.plusDays(horizonDays);
+
+        // Bins of each rule: single bins checked in one query, zones resolved from their box
+        Set<String> singleBins = new HashSet<>();
+        for (RecurrenceRule rule : rules) {
+            if (!rule.isZoneRule()) {
+                singleBins.add(rule.getBinId());
+            }
+        }
+        Set<String> eligible = singleBins.isEmpty()
+                ? Set.of()
+                : new HashSet<>(wasteBinRepository.findBinIdsExcludingStatus(singleBins, EXCLUDED_STATUSES));
+
+        Map<Long, LocalDate> windowStart = new HashMap<>();
+        LocalDate earliest = null;
+        for (RecurrenceRule rule : rules) {
+            LocalDate from = rule.getMaterializedThrough() != null && !rule.getMaterializedThrough().isBefore(today)
+                    ? rule.getMaterializedThrough().plusDays(1)
+                    : today;
+            windowStart.put(rule.getId(), from);
+            earliest = earliest == null || from.isBefore(earliest) ? from : earliest;
+        }
+        Map<Long, List<RecurrenceException>> exceptionsByRule = new HashMap<>();
+        if (earliest != null && !earliest.isAfter(horizonEnd)) {
+            for (RecurrenceException exception : exceptionRepository.findByRuleIdInAndOccurrenceDateBetween(windowStart.keySet(), earliest, horizonEnd)) {
+                exceptionsByRule.computeIfAbsent(exception.getRuleId(), key -> new ArrayList<>()).add(exception);
+            }
+        }
+
+        List<NewSchedule> candidates = new ArrayList<>();
+        for (RecurrenceRule rule : rules) {
+            List<LocalDate> dates = occurrences(rule, windowStart.get(rule.getId()), horizonEnd);
+            if (dates.isEmpty()) {
+                continue;
+            }
+            List<String> bins = rule.isZoneRule()
+                    ? wasteBinRepository.findBinIdsInBox(rule.getMinLatitude(), rule.getMinLongitude(),
+                            rule.getMaxLatitude(), rule.getMaxLongitude(), EXCLUDED_STATUSES)
+                    : eligible.contains(rule.getBinId()) ? List.of(rule.getBinId()) : List.of();
+
+            Map<LocalDate, RecurrenceException> ruleWide = new HashMap<>();
+            Map<LocalDate, Map<String, RecurrenceException>> perBin = new HashMap<>();
+            for (RecurrenceException exception : exceptionsByRule.getOrDefault(rule.getId(), List.of())) {
+                if (exception.getBinId() == null) {
+                    ruleWide.put(exception.getOccurrenceDate(), exception);
+                } else {
+                    perBin.computeIfAbsent(exception.getOccurrenceDate(), key -> new HashMap<>()).put(exception.getBinId(), exception);
+                }
+            }
+
+            String defaultNotes = notes(rule, null);
+            for (LocalDate date : dates) {
+                Map<String, RecurrenceException> binExceptions = perBin.getOrDefault(date, Map.of());
+                RecurrenceException wide = ruleWide.get(date);
+                String wideNotes = wide != null && !wide.isSkip() ? notes(rule, wide) : defaultNotes;
+                for (String binId : bins) {
+                    RecurrenceException exception = binExceptions.getOrDefault(binId, wide);
+                    if (exception == null) {
+                        candidates.add(new NewSchedule(binId, date, defaultNotes, rule.getId()));
+                    } else if (!exception.isSkip() && !exception.getRescheduledTo().isBefore(today)) {
+                        // A move to a day already past is dropped rather than written as an overdue pickup
+                        String moveNotes = exception == wide ? wideNotes : notes(rule, exception);
+                        candidates.add(new NewSchedule(binId, exception.getRescheduledTo(), moveNotes, rule.getId()));
+                    }
+                }
+            }
+        }
+
+        int created = 0;
+        if (!candidates.isEmpty()) {
+            Set<String> binIds = new HashSet<>();
+            LocalDate minDate = candidates.get(0).scheduledDate();
+            LocalDate maxDate = minDate;
+            for (NewSchedule candidate : candidates) {
+                binIds.add(candidate.binId());
+                minDate = candidate.scheduledDate().isBefore(minDate) ? candidate.scheduledDate() : minDate;
+                maxDate = candidate.scheduledDate().isAfter(maxDate) ? candidate.scheduledDate() : maxDate;
+            }
+            // One pickup per bin and day, whether it came from a rule, a forecast or a manual schedule
+            Map<String, Set<LocalDate>> taken = scheduleJdbcRepository.findScheduledDates(binIds, minDate, maxDate);
+            List<NewSchedule> schedules = new ArrayList<>(candidates.size());
+            for (NewSchedule candidate : candidates) {
+                if (taken.computeIfAbsent(candidate.binId(), key -> new HashSet<>()).add(candidate.scheduledDate())) {
+                    schedules.add(candidate);
+                }
+            }
+            created = scheduleJdbcRepository.insertPendingSchedules(schedules, insertBatchSize);
+        }
+
+        List<Long> ruleIds = rules.stream().map(RecurrenceRule::getId).toList();
+        ruleRepository.markMaterializedThrough(ruleIds, horizonEnd);
+        return created;
+    }
+
+    /**
+     * Occurrence days of the rule between from and to (inclusive)
+     */
+    static List<LocalDate> occurrences(RecurrenceRule rule, LocalDate from, LocalDate to) {
+        LocalDate first = rule.getStartDate().with(TemporalAdjusters.nextOrSame(rule.getDayOfWeek()));
+        int stepDays = 7 * rule.getFrequency().getWeeks();
+        LocalDate last = rule.getEndDate() != null && rule.getEndDate().isBefore(to) ? rule.getEndDate() : to;
+        LocalDate date = first;
+        if (from.isAfter(first)) {
+            long behind = ChronoUnit.DAYS.between(first, from);
+            date = first.plusDays((behind + stepDays - 1) / stepDays * stepDays);
+        }
+        List<LocalDate> dates = new ArrayList<>();
+        for (; !date.isAfter(last); date = date.plusDays(stepDays)) {
+            dates.add(date);
+        }
+        return dates;
+    }
+
+    private static String notes(RecurrenceRule rule, RecurrenceException exception) {
+        String base = "Recurring " + rule.getFrequency().name().toLowerCase() + " pickup (rule " + rule.getId() + ")";
+        if (exception == null) {
+            return base;
+        }
+        return base + ", moved from " + exception.getOccurrenceDate()
+                + (exception.getReason() != null ? ": " + exception.getReason() : "");
+    }
+}
@@ -0,0 +1,251 @@
+package com.CSSEProject.SmartWasteManagement.waste.service;
+
+import com.CSSEProject.SmartWasteManagement.dto.RouteStopDto;
+import com.CSSEProject.SmartWasteManagement.dto.TruckRouteDto;
+import com.CSSEProject.SmartWasteManagement.waste.entity.CollectionTruck;
+import com.CSSEProject.SmartWasteManagement.waste.repository.CollectionTruckRepository;
+import com.CSSEProject.SmartWasteManagement.waste.repository.ScheduleJdbcRepository;
+import com.CSSEProject.SmartWasteManagement.waste.repository.ScheduleJdbcRepository.PendingStop;
+import com.CSSEProject.SmartWasteManagement.waste.routing.LocalProjection;
+import com.CSSEProject.SmartWasteManagement.waste.routing.SweepClustering;
+import com.CSSEProject.SmartWasteManagement.waste.routing.TourOptimizer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * Route Planning Service - orders a day's pending collections into one route per active truck
+ *
+ * Stops are split between trucks as ScheduleBalancingService assigned them within capacity and
+ * shift limits (sweep clustering when there is no balance), then each truck's route is built with
+ * nearest-neighbour and improved with 2-opt and Or-opt (see TourOptimizer), all trucks in
+ * parallel on the compute executor within routing.time-budget-ms. Distances are straight lines
+ * on a local flat projection, which ranks stops the same way road distance mostly does at city
+ * scale. Plans are kept in memory per day; each truck's assignedRoute names its plan.
+ */
+@Service
+public class RoutePlanningService {
+
+    private static final int PLAN_DAYS_KEPT = 7;
+
+    @Autowired
+    private ScheduleJdbcRepository scheduleJdbcRepository;
+
+    @Autowired
+    private CollectionTruckRepository collectionTruckRepository;
+
+    @Autowired
+    private ScheduleBalancingService scheduleBalancingService;
+
+    @Autowired
+    @Qualifier("computeExecutor")
+    private ExecutorService computeExecutor;
+
+    @Value("${routing.time-budget-ms:1500}")
+    private long timeBudgetMs = 1500;
+
+    private final Map<LocalDate, Map<String, Object>> plans = new ConcurrentHashMap<>();
+
+    /**
+     * Plan the routes of the given day from its PENDING schedules and replace any earlier plan
+     */
+    public Map<String, Object> planRoutes(LocalDate date) {
+        long startedAt = System.currentTimeMillis();
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeBudgetMs);
+
+        List<CollectionTruck> trucks = new ArrayList<>(collectionTruckRepository.findByActiveTrue());
+        if (trucks.isEmpty()) {
+            throw new RuntimeException("No active trucks to plan routes for");
+        }
+        trucks.sort(Comparator.comparing(CollectionTruck::getTruckId));
+        // Balancing first: it may defer stops that no truck has room for to the next day
+        Map<Long, String> balanced = scheduleBalancingService.truckAssignment(date);
+
+        List<PendingStop> stops = new ArrayList<>();
+        List<Map<String, Object>> unroutable = new ArrayList<>();
+        for (PendingStop stop : scheduleJdbcRepository.findPendingStops(date)) {
+            if (stop.latitude() != null && stop.longitude() != null) {
+                stops.add(stop);
+            } else {
+                unroutable.add(Map.of("scheduleId", stop.scheduleId(), "binId", stop.binId()));
+            }
+        }
+
+        // Local equirectangular projection around the stops' mean position, in meters
+        LocalProjection projection = new LocalProjection(
+                stops.stream().mapToDouble(PendingStop::latitude).average().orElse(0),
+                stops.stream().mapToDouble(PendingStop::longitude).average().orElse(0));
+        double[] x = new double[stops.size()];
+        double[] y = new double[stops.size()];
+        for (int i = 0; i < stops.size(); i++) {
+            x[i] = projection.x(stops.get(i).longitude());
+            y[i] = projection.y(stops.get(i).latitude());
+        }
+        double[][] depots = new double[trucks.size()][];
+        for (int t = 0; t < trucks.size(); t++) {
+            CollectionTruck truck = trucks.get(t);
+            if (truck.getDepotLatitude() != null && truck.getDepotLongitude() != null) {
+                depots[t] = new double[]{projection.x(truck.getDepotLongitude()), projection.y(truck.getDepotLatitude())};
+            }
+        }
+
+        int[] assignment = balancedAssignment(stops, trucks, balanced);
+        if (assignment == null) {
+            assignment = SweepClustering.assign(x, y, depots);
+        }
+        List<List<Integer>> members = new ArrayList<>();
+        for (int t = 0; t < trucks.size(); t++) {
+            members.add(new ArrayList<>());
+        }
+        for (int i = 0; i < assignment.length; i++) {
+            members.get(assignment[i]).add(i);
+        }
+
+        List<Callable<TruckRouteDto>> tasks = new ArrayList<>();
+        for (int t = 0; t < trucks.size(); t++) {
+            CollectionTruck truck = trucks.get(t);
+            double[] depot = depots[t];
+            List<Integer> truckStops = members.get(t);
+            tasks.add(() -> buildRoute(truck, depot, truckStops, stops, x, y, deadline));
+        }
+        List<TruckRouteDto> routes = new ArrayList<>();
+        try {
+            long timeoutMs = timeBudgetMs + 10_000;
+            for (Future<TruckRouteDto> future : computeExecutor.invokeAll(tasks, timeoutMs, TimeUnit.MILLISECONDS)) {
+                routes.add(future.get());
+            }
+        } catch (CancellationException e) {
+            throw new RuntimeException("Route planning did not finish in time");
+        } catch (RejectedExecutionException e) {
+            throw new RuntimeException("Route planning rejected: the compute pool is busy, try again later");
+        } catch (ExecutionException e) {
+            throw new RuntimeException("Route planning failed: " + e.getCause().getMessage(), e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Route planning interrupted");
+        }
+
+        for (int t = 0; t < trucks.size(); t++) {
+            trucks.get(t).setAssignedRoute("PLAN-" + date + " (" + routes.get(t).getStopCount() + " stops)");
+        }
+        collectionTruckRepository.saveAll(trucks);
+
+        Map<String, Object> plan = new LinkedHashMap<>();
+        plan.put("date", date);
+        plan.put("plannedAt", LocalDateTime.now());
+        plan.put("trucks", trucks.size());
+        plan.put("stopsRouted", stops.size());
+        plan.put("totalDistanceMeters", routes.stream().mapToDouble(TruckRouteDto::getDistanceMeters).sum());
+        plan.put("durationMs", System.currentTimeMillis() - startedAt);
+        plan.put("unroutable", unroutable);
+        plan.put("routes", routes);
+        plans.put(date, plan);
+        plans.keySet().removeIf(day -> day.isBefore(date.minusDays(PLAN_DAYS_KEPT)));
+
+        System.out.println("🗺️ Planned " + trucks.size() + " routes for " + date + ": " + stops.size()
+                + " stops in " + plan.get("durationMs") + " ms" + (unroutable.isEmpty() ? "" : ", "
+                + unroutable.size() + " without coordinates"));
+        return plan;
+    }
+
+    public Map<String, Object> getPlan(LocalDate date) {
+        Map<String, Object> plan = plans.get(date);
+        if (plan == null) {
+            throw new RuntimeException("No route plan for " + date);
+        }
+        return plan;
+    }
+
+    @SuppressWarnings("unchecked")
+    public TruckRouteDto getTruckRoute(LocalDate date, String truckId) {
+        return ((List<TruckRouteDto>) getPlan(date).get("routes")).stream()
+                .filter(route -> route.getTruckId().equals(truckId))
+                .findFirst()
+                .orElseThrow(() -> new RuntimeException("Truck " + truckId + " has no route on " + date));
+    }
+
+    // Truck index per stop from the load balance, or null when it does not cover every stop
+    private static int[] balancedAssignment(List<PendingStop> stops, List<CollectionTruck> trucks, Map<Long, String> balanced) {
+        if (balanced == null || balanced.isEmpty()) {
+            return null;
+        }
+        Map<String, Integer> truckIndex = new HashMap<>();
+        for (int t = 0; t < trucks.size(); t++) {
+            truckIndex.put(trucks.get(t).getTruckId(), t);
+        }
+        int[] assignment = new int[stops.size()];
+        for (int i = 0; i < stops.size(); i++) {
+            Integer t = truckIndex.get(balanced.get(stops.get(i).scheduleId()));
+            if (t == null) {
+                return null;
+            }
+            assignment[i] = t;
+        }
+        return assignment;
+    }
+
+    private TruckRouteDto buildRoute(CollectionTruck truck, double[] depot, List<Integer> truckStops,
+                                     List<PendingStop> stops, double[] x, double[] y, long deadline) {
+        // With a depot it is point 0 of a closed tour; without one the tour is opened at its longest edge
+        int offset = depot != null ? 1 : 0;
+        int size = truckStops.size() + offset;
+        double[] rx = new double[size];
+        double[] ry = new double[size];
+        if (depot != null) {
+            rx[0] = depot[0];
+            ry[0] = depot[1];
+        }
+        for (int i = 0; i < truckStops.size(); i++) {
+            rx[i + offset] = x[truckStops.get(i)];
+            ry[i + offset] = y[truckStops.get(i)];
+        }
+
+        int[] order = size > 0 ? TourOptimizer.optimize(rx, ry, deadline) : new int[0];
+        double distance;
+        if (depot != null) {
+            distance = TourOptimizer.length(rx, ry, order, true);
+            order = Arrays.copyOfRange(order, 1, order.length);
+        } else {
+            order = openAtLongestEdge(rx, ry, order);
+            distance = TourOptimizer.length(rx, ry, order, false);
+        }
+
+        List<RouteStopDto> route = new ArrayList<>(order.length);
+        for (int point : order) {
+            PendingStop stop = stops.get(truckStops.get(point - offset));
+            route.add(new RouteStopDto(route.size() + 1, stop.scheduleId(), stop.binId(), stop.location(),
+                    stop.latitude(), stop.longitude()));
+        }
+        return new TruckRouteDto(truck.getTruckId(), truck.getCurrentDriver(), depot != null, route.size(),
+                (double) Math.round(distance), route);
+    }
+
+    private static int[] openAtLongestEdge(double[] x, double[] y, int[] tour) {
+        int n = tour.length;
+        if (n < 3) {
+            return tour;
+        }
+        int cutAfter = n - 1;
+        double longest = -1;
+        for (int i = 0; i < n; i++) {
+            int a = tour[i];
+            int b = tour[(i + 1) % n];
+            double d = Math.hypot(x[a] - x[b], y[a] - y[b]);
+            if (d > longest) {
+                longest = d;
+                cutAfter = i;
+            }
+        }
+        int[] open = new int[n];
+        for (int i = 0; i < n; i++) {
+            open[i] = tour[(cutAfter + 1 + i) % n];
+        }
+        return open;
+    }
+}
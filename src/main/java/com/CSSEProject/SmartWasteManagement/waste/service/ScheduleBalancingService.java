@@ -0,0 +1,356 @@
+package com.CSSEProject.SmartWasteManagement.waste.service;
+
+import com.CSSEProject.SmartWasteManagement.dto.TruckLoadDto;
+import com.CSSEProject.SmartWasteManagement.waste.entity.CollectionTruck;
+import com.CSSEProject.SmartWasteManagement.waste.repository.CollectionEventRepository;
+import com.CSSEProject.SmartWasteManagement.waste.repository.CollectionTruckRepository;
+import com.CSSEProject.SmartWasteManagement.waste.repository.ScheduleJdbcRepository;
+import com.CSSEProject.SmartWasteManagement.waste.repository.ScheduleJdbcRepository.DayWatermark;
+import com.CSSEProject.SmartWasteManagement.waste.repository.ScheduleJdbcRepository.PendingStop;
+import com.CSSEProject.SmartWasteManagement.waste.routing.CapacityBalancer;
+import com.CSSEProject.SmartWasteManagement.waste.routing.LocalProjection;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Schedule Balancing Service - fits each day's pending collections to the trucks' capacity and shift
+ *
+ * A stop's load is its bin's mean collected weight over the lookback period (the fleet mean for
+ * bins without history). CapacityBalancer assigns stops to trucks; stops no truck can take are
+ * moved to the next day and placed first there. Every minute the pending count and highest
+ * schedule id per day are compared with the last run, and only the changed days are updated:
+ * new schedules are added to the existing assignment and vanished ones released, without
+ * reshuffling the rest. Route planning follows the balanced assignment.
+ */
+@Service
+public class ScheduleBalancingService {
+
+    @Autowired
+    private ScheduleJdbcRepository scheduleJdbcRepository;
+
+    @Autowired
+    private CollectionTruckRepository collectionTruckRepository;
+
+    @Autowired
+    private CollectionEventRepository collectionEventRepository;
+
+    @Value("${balancing.default-truck-capacity-kg:8000}")
+    private double defaultCapacityKg = 8000;
+
+    @Value("${balancing.default-shift-minutes:480}")
+    private int defaultShiftMinutes = 480;
+
+    @Value("${balancing.service-seconds-per-stop:90}")
+    private double serviceSecondsPerStop = 90;
+
+    @Value("${balancing.average-speed-kmh:25}")
+    private double averageSpeedKmh = 25;
+
+    @Value("${balancing.default-stop-kg:15}")
+    private double defaultStopKg = 15;
+
+    @Value("${balancing.weight-lookback-days:90}")
+    private int weightLookbackDays = 90;
+
+    @Value("${balancing.horizon-days:7}")
+    private int horizonDays = 7;
+
+    @Value("${balancing.time-budget-ms:1000}")
+    private long timeBudgetMs = 1000;
+
+    private final Map<LocalDate, DayBalance> days = new ConcurrentHashMap<>();
+    private final Map<LocalDate, DayWatermark> seen = new ConcurrentHashMap<>();
+
+    private static class DayBalance {
+        final String fleetKey;
+        final List<CollectionTruck> trucks;
+        final LocalProjection projection;
+        final CapacityBalancer balancer;
+        final Map<Long, Integer> handles = new HashMap<>();
+        final List<Long> scheduleIds = new ArrayList<>();
+        int withoutCoordinates;
+        LocalDateTime balancedAt;
+
+        DayBalance(String fleetKey, List<CollectionTruck> trucks, LocalProjection projection, CapacityBalancer balancer) {
+            this.fleetKey = fleetKey;
+            this.trucks = trucks;
+            this.projection = projection;
+            this.balancer = balancer;
+        }
+    }
+
+    /**
+     * Assign all pending schedules of the day from scratch and push what does not fit to the next day
+     */
+    public synchronized Map<String, Object> balance(LocalDate date) {
+        long startedAt = System.currentTimeMillis();
+        requireNotPast(date);
+        List<CollectionTruck> trucks = activeTrucks();
+        List<PendingStop> stops = new ArrayList<>();
+        int withoutCoordinates = 0;
+        for (PendingStop stop : scheduleJdbcRepository.findPendingStops(date)) {
+            if (stop.latitude() != null && stop.longitude() != null) {
+                stops.add(stop);
+            } else {
+                withoutCoordinates++;
+            }
+        }
+
+        LocalProjection projection = new LocalProjection(
+                stops.stream().mapToDouble(PendingStop::latitude).average().orElse(0),
+                stops.stream().mapToDouble(PendingStop::longitude).average().orElse(0));
+        List<CapacityBalancer.Vehicle> vehicles = new ArrayList<>();
+        for (CollectionTruck truck : trucks) {
+            double[] depot = truck.getDepotLatitude() != null && truck.getDepotLongitude() != null
+                    ? new double[]{projection.x(truck.getDepotLongitude()), projection.y(truck.getDepotLatitude())}
+                    : null;
+            vehicles.add(new CapacityBalancer.Vehicle(depot, capacityKg(truck), shiftMinutes(truck) * 60.0));
+        }
+        DayBalance day = new DayBalance(fleetKey(trucks), trucks, projection,
+                new CapacityBalancer(vehicles, serviceSecondsPerStop, averageSpeedKmh / 3.6));
+        day.withoutCoordinates = withoutCoordinates;
+        addStops(day, date, stops);
+
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeBudgetMs);
+        day.balancer.seed();
+        day.balancer.placeUnassigned(deadline);
+        day.balancer.improve(deadline);
+        day.balancer.placeUnassigned(deadline);
+        int deferred = deferUnassigned(day, date);
+        day.balancedAt = LocalDateTime.now();
+        days.put(date, day);
+        markSeen(date);
+
+        Map<String, Object> summary = summary(date, day);
+        summary.put("mode", "full");
+        summary.put("deferredToNextDay", deferred);
+        summary.put("durationMs", System.currentTimeMillis() - startedAt);
+        System.out.println("⚖️ Balanced " + date + ": " + day.handles.size() + " stops on " + trucks.size()
+                + " trucks, " + deferred + " deferred to " + date.plusDays(1));
+        return summary;
+    }
+
+    /**
+     * Bring the day's assignment up to date: release schedules that are no longer pending and place
+     * new ones. Falls back to a full balance when the day has none yet or the fleet changed.
+     */
+    public synchronized Map<String, Object> update(LocalDate date) {
+        long startedAt = System.currentTimeMillis();
+        requireNotPast(date);
+        DayBalance day = days.get(date);
+        List<CollectionTruck> trucks = activeTrucks();
+        if (day == null || !day.fleetKey.equals(fleetKey(trucks))) {
+            return balance(date);
+        }
+
+        Set<Long> pending = new HashSet<>();
+        List<PendingStop> added = new ArrayList<>();
+        int withoutCoordinates = 0;
+        for (PendingStop stop : scheduleJdbcRepository.findPendingStops(date)) {
+            if (stop.latitude() == null || stop.longitude() == null) {
+                withoutCoordinates++;
+                continue;
+            }
+            pending.add(stop.scheduleId());
+            if (!day.handles.containsKey(stop.scheduleId())) {
+                added.add(stop);
+            }
+        }
+        int released = 0;
+        for (Iterator<Map.Entry<Long, Integer>> it = day.handles.entrySet().iterator(); it.hasNext(); ) {
+            Map.Entry<Long, Integer> entry = it.next();
+            if (!pending.contains(entry.getKey())) {
+                day.balancer.removeStop(entry.getValue());
+                it.remove();
+                released++;
+            }
+        }
+        day.withoutCoordinates = withoutCoordinates;
+        addStops(day, date, added);
+        day.balancer.placeUnassigned(System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeBudgetMs));
+        int deferred = deferUnassigned(day, date);
+        day.balancedAt = LocalDateTime.now();
+        markSeen(date);
+
+        Map<String, Object> summary = summary(date, day);
+        summary.put("mode", "incremental");
+        summary.put("added", added.size());
+        summary.put("released", released);
+        summary.put("deferredToNextDay", deferred);
+        summary.put("durationMs", System.currentTimeMillis() - startedAt);
+        if (!added.isEmpty() || released > 0) {
+            System.out.println("⚖️ Updated " + date + ": +" + added.size() + " / -" + released + " stops, "
+                    + deferred + " deferred to " + date.plusDays(1));
+        }
+        return summary;
+    }
+
+    public synchronized Map<String, Object> getBalance(LocalDate date) {
+        DayBalance day = days.get(date);
+        if (day == null) {
+            throw new RuntimeException("No load balance for " + date);
+        }
+        return summary(date, day);
+    }
+
+    /**
+     * Truck per pending schedule of the day after bringing the balance up to date; empty for past days
+     */
+    public synchronized Map<Long, String> truckAssignment(LocalDate date) {
+        if (date.isBefore(LocalDate.now())) {
+            return Map.of();
+        }
+        update(date);
+        DayBalance day = days.get(date);
+        Map<Long, String> assignment = new HashMap<>();
+        for (Map.Entry<Long, Integer> entry : day.handles.entrySet()) {
+            int vehicle = day.balancer.vehicleOf(entry.getValue());
+            if (vehicle >= 0) {
+                assignment.put(entry.getKey(), day.trucks.get(vehicle).getTruckId());
+            }
+        }
+        return assignment;
+    }
+
+    @Scheduled(fixedDelayString = "${balancing.check-interval-ms:60000}")
+    public void checkForChanges() {
+        try {
+            LocalDate today = LocalDate.now();
+            days.keySet().removeIf(date -> date.isBefore(today));
+            seen.keySet().removeIf(date -> date.isBefore(today));
+            if (collectionTruckRepository.findByActiveTrue().isEmpty()) {
+                return;
+            }
+            Map<LocalDate, DayWatermark> current = scheduleJdbcRepository.findPendingWatermarks(today, today.plusDays(horizonDays));
+            List<LocalDate> changed = new ArrayList<>();
+            for (Map.Entry<LocalDate, DayWatermark> entry : current.entrySet()) {
+                if (!entry.getValue().equals(seen.get(entry.getKey()))) {
+                    changed.add(entry.getKey());
+                }
+            }
+            // Earlier days first: what they defer lands on the next day before that is looked at
+            Collections.sort(changed);
+            for (LocalDate date : changed) {
+                update(date);
+            }
+        } catch (Exception e) {
+            System.err.println("❌ Schedule balancing failed: " + e.getMessage());
+        }
+    }
+
+    private void addStops(DayBalance day, LocalDate date, List<PendingStop> stops) {
+        Map<String, Double> loads = estimateLoads(stops.stream().map(PendingStop::binId).toList());
+        for (PendingStop stop : stops) {
+            // Deferred stops go first, the longest-waiting first of all
+            int priority = stop.deferredFrom() != null ? (int) Math.max(1, ChronoUnit.DAYS.between(stop.deferredFrom(), date)) : 0;
+            int handle = day.balancer.addStop(day.projection.x(stop.longitude()), day.projection.y(stop.latitude()),
+                    loads.get(stop.binId()), priority);
+            day.handles.put(stop.scheduleId(), handle);
+            day.scheduleIds.add(stop.scheduleId());
+        }
+    }
+
+    /**
+     * Expected weight per bin: its mean over the lookback period, else the fleet mean, else the default
+     */
+    Map<String, Double> estimateLoads(Collection<String> binIds) {
+        LocalDateTime since = LocalDateTime.now().minusDays(weightLookbackDays);
+        Map<String, Double> loads = new HashMap<>();
+        List<String> ids = new ArrayList<>(new HashSet<>(binIds));
+        for (int start = 0; start < ids.size(); start += 1000) {
+            for (Object[] row : collectionEventRepository.findAverageWeightByBin(ids.subList(start, Math.min(start + 1000, ids.size())), since)) {
+                loads.put((String) row[0], ((Number) row[1]).doubleValue());
+            }
+        }
+        if (loads.size() < ids.size()) {
+            Double fleetMean = collectionEventRepository.findAverageWeightSince(since);
+            double fallback = fleetMean != null ? fleetMean : defaultStopKg;
+            for (String binId : ids) {
+                loads.putIfAbsent(binId, fallback);
+            }
+        }
+        return loads;
+    }
+
+    private int deferUnassigned(DayBalance day, LocalDate date) {
+        List<Integer> unassigned = day.balancer.unassignedStops();
+        if (unassigned.isEmpty()) {
+            return 0;
+        }
+        List<Long> scheduleIds = new ArrayList<>(unassigned.size());
+        for (int handle : unassigned) {
+            Long scheduleId = day.scheduleIds.get(handle);
+            scheduleIds.add(scheduleId);
+            day.balancer.removeStop(handle);
+            day.handles.remove(scheduleId);
+        }
+        return scheduleJdbcRepository.deferSchedules(scheduleIds, date, date.plusDays(1));
+    }
+
+    private Map<String, Object> summary(LocalDate date, DayBalance day) {
+        List<TruckLoadDto> trucks = new ArrayList<>();
+        for (int v = 0; v < day.trucks.size(); v++) {
+            CollectionTruck truck = day.trucks.get(v);
+            trucks.add(new TruckLoadDto(truck.getTruckId(), day.balancer.stopCount(v),
+                    (double) Math.round(day.balancer.loadKg(v)), capacityKg(truck),
+                    Math.round(day.balancer.estimatedSeconds(v) / 6.0) / 10.0, shiftMinutes(truck)));
+        }
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("date", date);
+        summary.put("balancedAt", day.balancedAt);
+        summary.put("stops", day.handles.size());
+        summary.put("withoutCoordinates", day.withoutCoordinates);
+        summary.put("trucks", trucks);
+        return summary;
+    }
+
+    private void markSeen(LocalDate date) {
+        DayWatermark watermark = scheduleJdbcRepository.findPendingWatermarks(date, date).get(date);
+        if (watermark != null) {
+            seen.put(date, watermark);
+        } else {
+            seen.remove(date);
+        }
+    }
+
+    private List<CollectionTruck> activeTrucks() {
+        List<CollectionTruck> trucks = new ArrayList<>(collectionTruckRepository.findByActiveTrue());
+        if (trucks.isEmpty()) {
+            throw new RuntimeException("No active trucks to balance collections across");
+        }
+        trucks.sort(Comparator.comparing(CollectionTruck::getTruckId));
+        return trucks;
+    }
+
+    private String fleetKey(List<CollectionTruck> trucks) {
+        StringJoiner key = new StringJoiner(";");
+        for (CollectionTruck truck : trucks) {
+            key.add(truck.getTruckId() + "," + capacityKg(truck) + "," + shiftMinutes(truck) + ","
+                    + truck.getDepotLatitude() + "," + truck.getDepotLongitude());
+        }
+        return key.toString();
+    }
+
+    private double capacityKg(CollectionTruck truck) {
+        return truck.getCapacityKg() != null ? truck.getCapacityKg() : defaultCapacityKg;
+    }
+
+    private int shiftMinutes(CollectionTruck truck) {
+        return truck.getShiftMinutes() != null ? truck.getShiftMinutes() : defaultShiftMinutes;
+    }
+
+    private static void requireNotPast(LocalDate date) {
+        if (date.isBefore(LocalDate.now())) {
+            throw new IllegalArgumentException("Cannot balance a past day: " + date);
+        }
+    }
+}
@@ -0,0 +1,161 @@
+package com.CSSEProject.SmartWasteManagement.waste.service;
+
+import com.CSSEProject.SmartWasteManagement.dto.ScheduleChangeDto;
+import com.CSSEProject.SmartWasteManagement.dto.ScheduleResponseDto;
+import com.CSSEProject.SmartWasteManagement.waste.repository.ScheduleJdbcRepository;
+import com.CSSEProject.SmartWasteManagement.waste.repository.ScheduleJdbcRepository.DaySchedule;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Schedule Feed Service - versioned change feed of a day's schedules for polling staff devices
+ *
+ * Each day's schedules are held in memory with the feed version of their last change. At most
+ * once per schedules.feed.refresh-ms the day is re-read with one query and compared with the
+ * held copy by row version and status, so changes made by any path (manual, bulk, collection,
+ * balancing) show up without every poll touching the database. Versions start from the startup
+ * time in microseconds, so they keep increasing across restarts; a client whose version is older
+ * than the day's feed gets a full snapshot instead of changes.
+ */
+@Service
+public class ScheduleFeedService {
+
+    public static final String ADDED = "ADDED";
+    public static final String UPDATED = "UPDATED";
+    public static final String REMOVED = "REMOVED";
+
+    private static final int DAYS_KEPT = 1;
+
+    @Autowired
+    private ScheduleJdbcRepository scheduleJdbcRepository;
+
+    @Value("${schedules.feed.refresh-ms:5000}")
+    private long refreshMs = 5000;
+
+    private final AtomicLong versions = new AtomicLong(System.currentTimeMillis() * 1000);
+    private final Map<LocalDate, DayFeed> days = new ConcurrentHashMap<>();
+
+    private record Entry(long rowVersion, String change, long changeVersion, ScheduleResponseDto schedule) {
+    }
+
+    private static class DayFeed {
+        final Map<Long, Entry> entries = new HashMap<>();
+        long baseVersion;
+        long version;
+        long refreshedAtNanos;
+        boolean loaded;
+    }
+
+    /**
+     * Changes of the day after the given version, oldest first, or a full snapshot when the
+     * version is unknown to this feed (0, from before a restart, or from before the day was loaded)
+     */
+    public Map<String, Object> changesSince(LocalDate date, long since) {
+        DayFeed feed = refreshed(date);
+        synchronized (feed) {
+            boolean full = since < feed.baseVersion || since > feed.version;
+            List<ScheduleChangeDto> changes = new ArrayList<>();
+            for (Entry entry : feed.entries.values()) {
+                if (full ? !REMOVED.equals(entry.change()) : entry.changeVersion() > since) {
+                    changes.add(new ScheduleChangeDto(entry.changeVersion(), full ? ADDED : entry.change(), entry.schedule()));
+                }
+            }
+            changes.sort(Comparator.comparing(ScheduleChangeDto::getVersion)
+                    .thenComparing(change -> change.getSchedule().getId()));
+
+            Map<String, Object> result = new LinkedHashMap<>();
+            result.put("date", date);
+            result.put("version", feed.version);
+            result.put("full", full);
+            result.put("changes", changes);
+            return result;
+        }
+    }
+
+    public long currentVersion(LocalDate date) {
+        DayFeed feed = refreshed(date);
+        synchronized (feed) {
+            return feed.version;
+        }
+    }
+
+    public static String etag(LocalDate date, long version) {
+        return "\"" + date + "-" + version + "\"";
+    }
+
+    /**
+     * Make the next poll of the day re-read the database instead of waiting for the refresh interval
+     */
+    public void invalidate(LocalDate date) {
+        DayFeed feed = days.get(date);
+        if (feed != null) {
+            synchronized (feed) {
+                feed.refreshedAtNanos = 0;
+            }
+        }
+    }
+
+    private DayFeed refreshed(LocalDate date) {
+        LocalDate oldest = LocalDate.now().minusDays(DAYS_KEPT);
+        days.keySet().removeIf(day -> day.isBefore(oldest));
+        DayFeed feed = days.computeIfAbsent(date, day -> new DayFeed());
+        synchronized (feed) {
+            long now = System.nanoTime();
+            if (!feed.loaded || now - feed.refreshedAtNanos >= TimeUnit.MILLISECONDS.toNanos(refreshMs)) {
+                apply(feed, scheduleJdbcRepository.findDaySchedules(date));
+                feed.refreshedAtNanos = System.nanoTime();
+            }
+        }
+        return feed;
+    }
+
+    // Must hold the feed's lock
+    private void apply(DayFeed feed, List<DaySchedule> rows) {
+        if (!feed.loaded) {
+            long version = versions.incrementAndGet();
+            for (DaySchedule row : rows) {
+                feed.entries.put(row.schedule().getId(), new Entry(row.rowVersion(), ADDED, version, row.schedule()));
+            }
+            feed.baseVersion = version;
+            feed.version = version;
+            feed.loaded = true;
+            return;
+        }
+
+        long version = 0;
+        Set<Long> present = new HashSet<>();
+        for (DaySchedule row : rows) {
+            ScheduleResponseDto schedule = row.schedule();
+            present.add(schedule.getId());
+            Entry previous = feed.entries.get(schedule.getId());
+            String change;
+            if (previous == null || REMOVED.equals(previous.change())) {
+                change = ADDED;
+            } else if (previous.rowVersion() != row.rowVersion() || previous.schedule().getStatus() != schedule.getStatus()
+                    || !Objects.equals(previous.schedule().getNotes(), schedule.getNotes())) {
+                change = UPDATED;
+            } else {
+                continue;
+            }
+            version = version == 0 ? versions.incrementAndGet() : version;
+            feed.entries.put(schedule.getId(), new Entry(row.rowVersion(), change, version, schedule));
+        }
+        for (Map.Entry<Long, Entry> entry : feed.entries.entrySet()) {
+            Entry previous = entry.getValue();
+            if (!present.contains(entry.getKey()) && !REMOVED.equals(previous.change())) {
+                version = version == 0 ? versions.incrementAndGet() : version;
+                entry.setValue(new Entry(previous.rowVersion(), REMOVED, version, previous.schedule()));
+            }
+        }
+        if (version != 0) {
+            feed.version = version;
+        }
+    }
+}
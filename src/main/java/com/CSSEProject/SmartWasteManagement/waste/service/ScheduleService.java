@@ -1,17 +1,24 @@
 package com.CSSEProject.SmartWasteManagement.waste.service;
 
+import com.CSSEProject.SmartWasteManagement.config.RetryOnConflict;
+import com.CSSEProject.SmartWasteManagement.dto.BulkScheduleRequestDto;
 import com.CSSEProject.SmartWasteManagement.dto.ScheduleRequestDto;
 import com.CSSEProject.SmartWasteManagement.dto.ScheduleResponseDto;
+import com.CSSEProject.SmartWasteManagement.waste.entity.BinStatus;
 import com.CSSEProject.SmartWasteManagement.waste.entity.CollectionSchedule;
 import com.CSSEProject.SmartWasteManagement.waste.entity.ScheduleStatus;
 import com.CSSEProject.SmartWasteManagement.waste.entity.WasteBin;
 import com.CSSEProject.SmartWasteManagement.waste.repository.CollectionScheduleRepository;
+import com.CSSEProject.SmartWasteManagement.waste.repository.ScheduleJdbcRepository;
+import com.CSSEProject.SmartWasteManagement.waste.repository.ScheduleJdbcRepository.BinFilter;
+import com.CSSEProject.SmartWasteManagement.waste.repository.ScheduleJdbcRepository.NewSchedule;
 import com.CSSEProject.SmartWasteManagement.waste.repository.WasteBinRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
 import java.time.LocalDate;
-import java.util.List;
-import java.util.Optional;
+import java.util.*;
 import java.util.stream.Collectors;
 
 @Service
@@ -23,6 +30,21 @@ public class ScheduleService {
     @Autowired
     private WasteBinRepository wasteBinRepository;
 
+    @Autowired
+    private ScheduleJdbcRepository scheduleJdbcRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ScheduleFeedService scheduleFeedService;
+
+    @Value("${schedules.bulk.max-bins:50000}")
+    private int bulkMaxBins;
+
+    @Value("${schedules.bulk.insert-batch-size:1000}")
+    private int bulkInsertBatchSize;
+
     public CollectionSchedule createCollectionSchedule(ScheduleRequestDto request) {
         WasteBin bin = wasteBinRepository.findById(request.getBinId())
                 .orElseThrow(() -> new RuntimeException("Bin not found: " + request.getBinId()));
@@ -37,7 +59,9 @@ public class ScheduleService {
         schedule.setNotes(request.getNotes());
         schedule.setStatus(ScheduleStatus.PENDING);
 
-        return scheduleRepository.save(schedule);
+        CollectionSchedule saved = scheduleRepository.save(schedule);
+        scheduleFeedService.invalidate(saved.getScheduledDate());
+        return saved;
     }
 
     public List<ScheduleResponseDto> getSchedulesByBin(String binId) {
@@ -59,12 +83,116 @@ public class ScheduleService {
         return schedule.map(this::convertToDto);
     }
 
+    @RetryOnConflict
     public CollectionSchedule cancelSchedule(Long scheduleId) {
         CollectionSchedule schedule = scheduleRepository.findById(scheduleId)
                 .orElseThrow(() -> new RuntimeException("Schedule not found"));
 
         schedule.setStatus(ScheduleStatus.CANCELLED);
-        return scheduleRepository.save(schedule);
+        CollectionSchedule saved = scheduleRepository.save(schedule);
+        scheduleFeedService.invalidate(saved.getScheduledDate());
+        return saved;
+    }
+
+    /**
+     * Schedule one pickup day for every matching bin: bins resolved in one query, schedules
+     * inserted in JDBC batches, all in a single transaction
+     */
+    public Map<String, Object> createBulkSchedules(BulkScheduleRequestDto request) {
+        LocalDate date = request.getScheduledDate();
+        if (date == null) {
+            throw new IllegalArgumentException("scheduledDate is required");
+        }
+        if (date.isBefore(LocalDate.now())) {
+            throw new IllegalArgumentException("scheduledDate must not be in the past");
+        }
+        boolean skipAlreadyScheduled = !Boolean.FALSE.equals(request.getSkipAlreadyScheduled());
+        String notes = request.getNotes() != null ? request.getNotes() : "Bulk scheduled";
+
+        return transactionTemplate.execute(status -> {
+            List<String> binIds = resolveBulkBins(request, EnumSet.of(BinStatus.INACTIVE, BinStatus.DECOMMISSIONED));
+            Set<String> alreadyScheduled = skipAlreadyScheduled
+                    ? scheduleJdbcRepository.findBinsWithPendingScheduleBetween(binIds, date, date)
+                    : Set.of();
+            List<NewSchedule> schedules = new ArrayList<>(binIds.size());
+            for (String binId : binIds) {
+                if (!alreadyScheduled.contains(binId)) {
+                    schedules.add(new NewSchedule(binId, date, notes));
+                }
+            }
+            int created = scheduleJdbcRepository.insertPendingSchedules(schedules, bulkInsertBatchSize);
+
+            Map<String, Object> summary = bulkSummary(request, binIds);
+            summary.put("scheduledDate", date);
+            summary.put("alreadyScheduled", alreadyScheduled.size());
+            summary.put("schedulesCreated", created);
+            System.out.println("📅 Bulk scheduling: " + created + " collections on " + date + " for " + binIds.size() + " bins");
+            return summary;
+        });
+    }
+
+    /**
+     * Cancel the pending schedules of every matching bin in a day or date range, in a single transaction
+     */
+    public Map<String, Object> cancelBulkSchedules(BulkScheduleRequestDto request) {
+        LocalDate from = request.getFromDate() != null ? request.getFromDate() : request.getScheduledDate();
+        LocalDate to = request.getToDate() != null ? request.getToDate() : from;
+        if (from == null) {
+            throw new IllegalArgumentException("scheduledDate or fromDate is required");
+        }
+        if (to.isBefore(from)) {
+            throw new IllegalArgumentException("toDate must not be before fromDate");
+        }
+
+        return transactionTemplate.execute(status -> {
+            // Retired bins keep no pickups either, so no status is excluded here
+            List<String> binIds = resolveBulkBins(request, EnumSet.noneOf(BinStatus.class));
+            int cancelled = scheduleJdbcRepository.cancelPendingForBins(binIds, from, to);
+
+            Map<String, Object> summary = bulkSummary(request, binIds);
+            summary.put("fromDate", from);
+            summary.put("toDate", to);
+            summary.put("schedulesCancelled", cancelled);
+            System.out.println("📅 Bulk cancellation: " + cancelled + " collections between " + from + " and " + to
+                    + " for " + binIds.size() + " bins");
+            return summary;
+        });
+    }
+
+    private List<String> resolveBulkBins(BulkScheduleRequestDto request, Set<BinStatus> excluded) {
+        boolean hasBox = request.getMinLatitude() != null && request.getMinLongitude() != null
+                && request.getMaxLatitude() != null && request.getMaxLongitude() != null;
+        boolean hasLocation = request.getLocationContains() != null && !request.getLocationContains().isBlank();
+        if (request.getBinIds() == null && !hasBox && !hasLocation && request.getStatus() == null) {
+            throw new IllegalArgumentException("binIds or a filter (zone box, locationContains, status) is required");
+        }
+        if (request.getBinIds() != null && request.getBinIds().size() > bulkMaxBins) {
+            throw new IllegalArgumentException("At most " + bulkMaxBins + " bins per bulk request");
+        }
+        List<String> binIds = scheduleJdbcRepository.findBinIds(new BinFilter(request.getBinIds(),
+                request.getMinLatitude(), request.getMinLongitude(), request.getMaxLatitude(), request.getMaxLongitude(),
+                request.getLocationContains(), request.getStatus()), excluded);
+        if (binIds.size() > bulkMaxBins) {
+            throw new IllegalArgumentException("Filter matches " + binIds.size() + " bins; at most " + bulkMaxBins
+                    + " per bulk request");
+        }
+        return binIds;
+    }
+
+    // Listed bins that were not matched (unknown, retired or outside the filter), first 100 only
+    private static Map<String, Object> bulkSummary(BulkScheduleRequestDto request, List<String> binIds) {
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("binsMatched", binIds.size());
+        if (request.getBinIds() != null) {
+            Set<String> matched = new HashSet<>(binIds);
+            List<String> unmatched = request.getBinIds().stream()
+                    .filter(binId -> !matched.contains(binId))
+                    .distinct()
+                    .toList();
+            summary.put("unmatchedCount", unmatched.size());
+            summary.put("unmatchedBinIds", unmatched.subList(0, Math.min(100, unmatched.size())));
+        }
+        return summary;
     }
 
     public List<ScheduleResponseDto> getPendingSchedulesForToday() {
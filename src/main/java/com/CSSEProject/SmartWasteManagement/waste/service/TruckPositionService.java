@@ -0,0 +1,290 @@
+package com.CSSEProject.SmartWasteManagement.waste.service;
+
+import com.CSSEProject.SmartWasteManagement.dto.TruckPositionDto;
+import com.CSSEProject.SmartWasteManagement.waste.geo.GeoGridIndex;
+import com.CSSEProject.SmartWasteManagement.waste.repository.TruckTrackJdbcRepository;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Truck Position Service - ingests GPS fixes from collection trucks
+ *
+ * The latest fix of each truck lives in memory in an AtomicReference that fixes replace by
+ * compare-and-set (newest GPS timestamp wins), so ingest never blocks and "where is every
+ * truck now" is answered without touching the database. A fix is also kept for the track when
+ * the truck moved track.min-distance-meters or track.min-interval-seconds passed since the last
+ * kept one; kept fixes and each moved truck's latest position are written in periodic batches.
+ */
+@Service
+public class TruckPositionService {
+
+    @Autowired
+    private TruckTrackJdbcRepository truckTrackJdbcRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${trucks.track.min-interval-seconds:30}")
+    private long minIntervalSeconds = 30;
+
+    @Value("${trucks.track.min-distance-meters:100}")
+    private double minDistanceMeters = 100;
+
+    @Value("${trucks.track.retention-days:30}")
+    private int retentionDays = 30;
+
+    @Value("${trucks.position.max-clock-skew-minutes:10}")
+    private long maxClockSkewMinutes = 10;
+
+    @Value("${trucks.position.batch-size:1000}")
+    private int batchSize = 1000;
+
+    private record TruckState(TruckPositionDto latest, TruckPositionDto lastKept) {
+    }
+
+    private final Map<String, AtomicReference<TruckState>> states = new ConcurrentHashMap<>();
+
+    // Fixes kept for the track and trucks whose latest position is not persisted yet
+    private final Queue<TruckPositionDto> pendingTrack = new ConcurrentLinkedQueue<>();
+    private final Set<String> movedTrucks = ConcurrentHashMap.newKeySet();
+
+    // Trucks allowed to report; refreshed on every flush so newly registered trucks are picked up
+    private volatile Set<String> knownTrucks;
+
+    private final Object flushLock = new Object();
+
+    private final LongAdder accepted = new LongAdder();
+    private final LongAdder outOfOrder = new LongAdder();
+    private final LongAdder trackPointsKept = new LongAdder();
+    private final LongAdder trackPointsWritten = new LongAdder();
+    private final LongAdder flushes = new LongAdder();
+    private final LongAdder flushFailures = new LongAdder();
+    private final AtomicLong lastFlushMs = new AtomicLong();
+
+    // Resume from the positions persisted before the last shutdown; they are stored already, so nothing is queued
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadLastPositions() {
+        try {
+            for (TruckPositionDto position : truckTrackJdbcRepository.findLastPositions()) {
+                if (position != null) {
+                    states.computeIfAbsent(position.getTruckId(), id -> new AtomicReference<>())
+                            .compareAndSet(null, new TruckState(position, position));
+                }
+            }
+            System.out.println("🚛 Loaded last positions of " + states.size() + " trucks");
+        } catch (Exception e) {
+            System.err.println("❌ Loading truck positions failed: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Accept a batch of GPS fixes, from one truck or many, in any order; each batch is applied
+     * oldest first, so an unsorted batch loses no track points
+     *
+     * @return Error message per rejected fix (index: message); empty when all were accepted
+     */
+    public Map<Integer, String> ingest(List<TruckPositionDto> fixes) {
+        Map<Integer, String> rejected = new LinkedHashMap<>();
+        Set<String> trucks = knownTrucks();
+        LocalDateTime now = LocalDateTime.now();
+        List<TruckPositionDto> valid = new ArrayList<>(fixes.size());
+        for (int i = 0; i < fixes.size(); i++) {
+            TruckPositionDto fix = fixes.get(i);
+            String error = validate(fix, trucks, now);
+            if (error != null) {
+                rejected.put(i, error);
+                continue;
+            }
+            valid.add(new TruckPositionDto(fix.getTruckId().trim(), fix.getLatitude(), fix.getLongitude(),
+                    fix.getSpeedKmh(), fix.getHeading(), fix.getRecordedAt() != null ? fix.getRecordedAt() : now));
+        }
+        valid.sort(Comparator.comparing(TruckPositionDto::getRecordedAt));
+        valid.forEach(this::offer);
+        return rejected;
+    }
+
+    private String validate(TruckPositionDto fix, Set<String> trucks, LocalDateTime now) {
+        if (fix == null || fix.getTruckId() == null || fix.getTruckId().trim().isEmpty()) {
+            return "truckId is required";
+        }
+        if (!trucks.contains(fix.getTruckId().trim())) {
+            return "Unknown or inactive truck: " + fix.getTruckId();
+        }
+        if (fix.getLatitude() == null || fix.getLatitude() < -90 || fix.getLatitude() > 90) {
+            return "Latitude must be between -90 and 90";
+        }
+        if (fix.getLongitude() == null || fix.getLongitude() < -180 || fix.getLongitude() > 180) {
+            return "Longitude must be between -180 and 180";
+        }
+        if (fix.getRecordedAt() != null && fix.getRecordedAt().isAfter(now.plusMinutes(maxClockSkewMinutes))) {
+            return "recordedAt is in the future";
+        }
+        return null;
+    }
+
+    private void offer(TruckPositionDto fix) {
+        AtomicReference<TruckState> state = states.computeIfAbsent(fix.getTruckId(), id -> new AtomicReference<>());
+        while (true) {
+            TruckState current = state.get();
+            if (current != null && fix.getRecordedAt().isBefore(current.latest().getRecordedAt())) {
+                // Older than the latest (an earlier batch was newer): still a track point if far enough from the last kept
+                outOfOrder.increment();
+                if (current.lastKept() == null || worthKeeping(current.lastKept(), fix)) {
+                    pendingTrack.add(fix);
+                    trackPointsKept.increment();
+                }
+                return;
+            }
+            boolean keep = current == null || current.lastKept() == null || worthKeeping(current.lastKept(), fix);
+            TruckState next = new TruckState(fix, keep ? fix : current.lastKept());
+            if (state.compareAndSet(current, next)) {
+                accepted.increment();
+                movedTrucks.add(fix.getTruckId());
+                if (keep) {
+                    pendingTrack.add(fix);
+                    trackPointsKept.increment();
+                }
+                return;
+            }
+        }
+    }
+
+    private boolean worthKeeping(TruckPositionDto lastKept, TruckPositionDto fix) {
+        return Duration.between(lastKept.getRecordedAt(), fix.getRecordedAt()).abs().getSeconds() >= minIntervalSeconds
+                || GeoGridIndex.distanceMeters(lastKept.getLatitude(), lastKept.getLongitude(),
+                fix.getLatitude(), fix.getLongitude()) >= minDistanceMeters;
+    }
+
+    /**
+     * Latest position of every truck that has reported, from memory only
+     */
+    public List<TruckPositionDto> getAllPositions() {
+        List<TruckPositionDto> positions = new ArrayList<>(states.size());
+        for (AtomicReference<TruckState> state : states.values()) {
+            TruckState current = state.get();
+            if (current != null) {
+                positions.add(current.latest());
+            }
+        }
+        positions.sort(Comparator.comparing(TruckPositionDto::getTruckId));
+        return positions;
+    }
+
+    public Optional<TruckPositionDto> getPosition(String truckId) {
+        AtomicReference<TruckState> state = states.get(truckId);
+        TruckState current = state != null ? state.get() : null;
+        return current != null ? Optional.of(current.latest()) : Optional.empty();
+    }
+
+    /**
+     * Persisted track of one truck; fixes since the last flush are not included
+     */
+    public List<TruckPositionDto> getTrack(String truckId, LocalDateTime from, LocalDateTime to) {
+        if (from.isAfter(to)) {
+            throw new IllegalArgumentException("from must not be after to");
+        }
+        if (Duration.between(from, to).toDays() > 7) {
+            throw new IllegalArgumentException("A track covers at most 7 days");
+        }
+        return truckTrackJdbcRepository.findTrack(truckId, from, to);
+    }
+
+    @Scheduled(fixedDelayString = "${trucks.position.flush-interval-ms:30000}")
+    public void scheduledFlush() {
+        try {
+            flush();
+        } catch (Exception e) {
+            System.err.println("❌ Truck position flush failed: " + e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        scheduledFlush();
+    }
+
+    /**
+     * Write the kept track points and the latest position of every truck that moved
+     *
+     * @return Number of track points written
+     */
+    public int flush() {
+        synchronized (flushLock) {
+            long started = System.currentTimeMillis();
+            List<TruckPositionDto> track = new ArrayList<>();
+            TruckPositionDto point;
+            while ((point = pendingTrack.poll()) != null) {
+                track.add(point);
+            }
+            List<TruckPositionDto> latest = new ArrayList<>();
+            for (String truckId : movedTrucks) {
+                movedTrucks.remove(truckId);
+                getPosition(truckId).ifPresent(latest::add);
+            }
+            try {
+                transactionTemplate.executeWithoutResult(status -> {
+                    truckTrackJdbcRepository.insertTrackPoints(track, batchSize);
+                    truckTrackJdbcRepository.updateLatestPositions(latest, batchSize);
+                });
+            } catch (RuntimeException e) {
+                flushFailures.increment();
+                pendingTrack.addAll(track);
+                latest.forEach(position -> movedTrucks.add(position.getTruckId()));
+                throw e;
+            }
+            knownTrucks = null;
+            trackPointsWritten.add(track.size());
+            flushes.increment();
+            lastFlushMs.set(System.currentTimeMillis() - started);
+            return track.size();
+        }
+    }
+
+    @Scheduled(cron = "${trucks.track.prune-cron:0 30 3 * * *}")
+    public void pruneTrack() {
+        try {
+            int deleted = truckTrackJdbcRepository.deleteTrackBefore(LocalDateTime.now().minusDays(retentionDays));
+            System.out.println("🧹 Pruned " + deleted + " truck track points older than " + retentionDays + " days");
+        } catch (Exception e) {
+            System.err.println("❌ Pruning truck tracks failed: " + e.getMessage());
+        }
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("accepted", accepted.sum());
+        stats.put("outOfOrder", outOfOrder.sum());
+        stats.put("trackedTrucks", states.size());
+        stats.put("trackPointsKept", trackPointsKept.sum());
+        stats.put("trackPointsWritten", trackPointsWritten.sum());
+        stats.put("pendingTrackPoints", pendingTrack.size());
+        stats.put("flushes", flushes.sum());
+        stats.put("flushFailures", flushFailures.sum());
+        stats.put("lastFlushMs", lastFlushMs.get());
+        return stats;
+    }
+
+    private Set<String> knownTrucks() {
+        Set<String> trucks = knownTrucks;
+        if (trucks == null) {
+            trucks = Set.copyOf(truckTrackJdbcRepository.findActiveTruckIds());
+            knownTrucks = trucks;
+        }
+        return trucks;
+    }
+}
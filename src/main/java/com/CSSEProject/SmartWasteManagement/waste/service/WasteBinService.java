@@ -1,5 +1,6 @@
 package com.CSSEProject.SmartWasteManagement.waste.service;
 
+import com.CSSEProject.SmartWasteManagement.config.RetryOnConflict;
 import com.CSSEProject.SmartWasteManagement.user.entity.User;
 import com.CSSEProject.SmartWasteManagement.user.service.UserService;
 import com.CSSEProject.SmartWasteManagement.waste.entity.WasteBin;
@@ -9,6 +10,7 @@ import com.CSSEProject.SmartWasteManagement.waste.repository.WasteBinRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Service
@@ -20,6 +22,15 @@ public class WasteBinService {
     @Autowired
     private UserService userService;
 
+    @Autowired
+    private LevelHistoryService levelHistoryService;
+
+    @Autowired
+    private BinLocationService binLocationService;
+
+    @Autowired
+    private BinStatusCounters binStatusCounters;
+
     public WasteBin createWasteBin(WasteBin wasteBin, Long residentId) {
         if (wasteBinRepository.existsByBinId(wasteBin.getBinId())) {
             throw new RuntimeException("Bin with ID " + wasteBin.getBinId() + " already exists");
@@ -33,10 +44,17 @@ public class WasteBinService {
             wasteBin.setResident(resident);
         }
 
+        validateCoordinates(wasteBin.getLatitude(), wasteBin.getLongitude());
+
         wasteBin.setInstallationDate(LocalDate.now());
         wasteBin.setStatus(BinStatus.ACTIVE);
+        wasteBin.setVersion(null); // New row: ignore any version sent by the client
         
-        return wasteBinRepository.save(wasteBin);
+        WasteBin savedBin = wasteBinRepository.save(wasteBin);
+        binLocationService.binChanged(savedBin);
+        binStatusCounters.binCreated(User.cityOf(wasteBin.getResident() != null ? wasteBin.getResident().getAddress() : null),
+                BinStatus.ACTIVE);
+        return savedBin;
     }
 
     public WasteBin getBinById(String binId) {
@@ -57,24 +75,54 @@ public class WasteBinService {
         return wasteBinRepository.findByStatus(status);
     }
 
+    @RetryOnConflict
     public WasteBin updateBinStatus(String binId, BinStatus status) {
         WasteBin bin = getBinById(binId);
+        BinStatus previousStatus = bin.getStatus();
         bin.setStatus(status);
-        return wasteBinRepository.save(bin);
+        WasteBin savedBin = wasteBinRepository.save(bin);
+        binLocationService.binChanged(savedBin);
+        if (previousStatus != status) {
+            binStatusCounters.statusChanged(residentCity(binId), previousStatus, status);
+        }
+        return savedBin;
     }
 
+    @RetryOnConflict
+    public WasteBin updateBinCoordinates(String binId, Double latitude, Double longitude) {
+        if (latitude == null || longitude == null) {
+            throw new RuntimeException("Latitude and longitude are required");
+        }
+        validateCoordinates(latitude, longitude);
+        WasteBin bin = getBinById(binId);
+        bin.setLatitude(latitude);
+        bin.setLongitude(longitude);
+        WasteBin savedBin = wasteBinRepository.save(bin);
+        binLocationService.binChanged(savedBin);
+        return savedBin;
+    }
+
+    @RetryOnConflict
     public WasteBin updateBinLevel(String binId, Double currentLevel) {
         WasteBin bin = getBinById(binId);
         bin.setCurrentLevel(currentLevel);
+        bin.setLevelUpdatedAt(LocalDateTime.now());
         
         // Auto-update status based on level
+        BinStatus previousStatus = bin.getStatus();
         if (currentLevel >= 80) {
             bin.setStatus(BinStatus.NEEDS_EMPTYING);
         }
         
-        return wasteBinRepository.save(bin);
+        WasteBin savedBin = wasteBinRepository.save(bin);
+        levelHistoryService.recordAfterCommit(binId, currentLevel, savedBin.getLevelUpdatedAt());
+        if (previousStatus != savedBin.getStatus()) {
+            binStatusCounters.statusChanged(residentCity(binId), previousStatus, savedBin.getStatus());
+        }
+        return savedBin;
     }
 
+    @RetryOnConflict
     public WasteBin assignBinToResident(String binId, Long residentId) {
         WasteBin bin = getBinById(binId);
         User resident = userService.getUserById(residentId);
@@ -83,11 +131,32 @@ public class WasteBinService {
             throw new RuntimeException("Only residents can be assigned waste bins");
         }
         
+        String previousCity = residentCity(binId);
         bin.setResident(resident);
-        return wasteBinRepository.save(bin);
+        WasteBin savedBin = wasteBinRepository.save(bin);
+        binStatusCounters.binsMoved(previousCity, User.cityOf(resident.getAddress()), savedBin.getStatus(), 1);
+        return savedBin;
     }
 
     public long getBinCountByStatus(BinStatus status) {
-        return wasteBinRepository.countByStatus(status);
+        return binStatusCounters.count(status);
+    }
+
+    public long getBinCountByStatus(String city, BinStatus status) {
+        return binStatusCounters.count(city, status);
+    }
+
+    // The resident is lazy on a bin loaded by id, so its address is read with a query of its own
+    private String residentCity(String binId) {
+        return User.cityOf(wasteBinRepository.findResidentAddress(binId).orElse(null));
+    }
+
+    private void validateCoordinates(Double latitude, Double longitude) {
+        if ((latitude == null) != (longitude == null)) {
+            throw new RuntimeException("Latitude and longitude must be given together");
+        }
+        if (latitude != null && (latitude < -90 || latitude > 90 || longitude < -180 || longitude > 180)) {
+            throw new RuntimeException("Coordinates out of range");
+        }
     }
 }
\ No newline at end of file
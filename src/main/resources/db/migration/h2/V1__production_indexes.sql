@@ -0,0 +1,9 @@
+-- Same index set as postgresql/V1 for tests. H2 has no partial indexes, so the uninvoiced
+-- index is left out.
+CREATE INDEX IF NOT EXISTS idx_collection_events_time ON collection_events (collection_time);
+CREATE INDEX IF NOT EXISTS idx_collection_events_collector_time ON collection_events (collector_id, collection_time);
+CREATE INDEX IF NOT EXISTS idx_collection_events_bin ON collection_events (bin_id);
+CREATE INDEX IF NOT EXISTS idx_collection_schedules_bin_date_status ON collection_schedules (bin_id, scheduled_date, status);
+CREATE INDEX IF NOT EXISTS idx_invoices_resident ON invoices (resident_id);
+CREATE INDEX IF NOT EXISTS idx_invoices_status_due ON invoices (status, due_date);
+CREATE INDEX IF NOT EXISTS idx_offline_collections_device_synced ON offline_collections (device_id, synced);
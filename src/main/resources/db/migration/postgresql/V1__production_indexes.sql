@@ -0,0 +1,21 @@
+-- Indexes on the predicates of the hot read paths. Tables themselves are still created and
+-- extended by Hibernate (ddl-auto=update).
+
+-- Analytics and report ranges; a collector's history; a bin's collections
+CREATE INDEX IF NOT EXISTS idx_collection_events_time ON collection_events (collection_time);
+CREATE INDEX IF NOT EXISTS idx_collection_events_collector_time ON collection_events (collector_id, collection_time);
+CREATE INDEX IF NOT EXISTS idx_collection_events_bin ON collection_events (bin_id);
+
+-- Invoicing reads only the uninvoiced collections, a small and shrinking part of the table
+CREATE INDEX IF NOT EXISTS idx_collection_events_uninvoiced ON collection_events (bin_id) WHERE invoice_id IS NULL;
+
+-- A bin's pickups on a day by status (today's schedule, bulk create/cancel, recurrence)
+CREATE INDEX IF NOT EXISTS idx_collection_schedules_bin_date_status ON collection_schedules (bin_id, scheduled_date, status);
+
+-- A resident's invoices; the overdue sweep and aging report. invoice_number is already
+-- indexed by its unique constraint.
+CREATE INDEX IF NOT EXISTS idx_invoices_resident ON invoices (resident_id);
+CREATE INDEX IF NOT EXISTS idx_invoices_status_due ON invoices (status, due_date);
+
+-- A device's unsynced offline collections
+CREATE INDEX IF NOT EXISTS idx_offline_collections_device_synced ON offline_collections (device_id, synced);
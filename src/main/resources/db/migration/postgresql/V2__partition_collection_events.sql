@@ -0,0 +1,72 @@
+-- separator: EOF
+-- Rebuilds collection_events as a table range-partitioned by month on collection_time, holding the
+-- same rows, indexes and foreign keys. Partitions are named collection_events_pYYYY_MM and run from
+-- the oldest row's month through three months ahead; collection_events_default takes rows outside
+-- every partition so inserts never fail. The nightly CollectionPartitionService job keeps creating
+-- months ahead and archives cold ones.
+--
+-- The primary key becomes (id, collection_time), as PostgreSQL requires the partition key in unique
+-- constraints; ids keep coming from one sequence. Foreign keys pointing at collection_events are
+-- dropped, as they can no longer reference id alone. Runs before the web server starts, so the
+-- exclusive lock only delays startup; a row without collection_time aborts it with the table untouched.
+DO $$
+DECLARE
+    oldest TIMESTAMP;
+    max_id BIGINT;
+    month DATE;
+    last_month DATE := (date_trunc('month', now()) + INTERVAL '3 months')::DATE;
+    index_defs TEXT[];
+    foreign_keys TEXT[];
+    definition TEXT;
+BEGIN
+    -- Already converted by an earlier release
+    IF EXISTS (SELECT 1 FROM pg_partitioned_table p JOIN pg_class c ON c.oid = p.partrelid
+               WHERE c.relname = 'collection_events') THEN
+        RETURN;
+    END IF;
+
+    LOCK TABLE collection_events IN ACCESS EXCLUSIVE MODE;
+    IF EXISTS (SELECT 1 FROM collection_events WHERE collection_time IS NULL) THEN
+        RAISE EXCEPTION 'collection_events has rows without collection_time; set it before partitioning';
+    END IF;
+
+    SELECT array_agg(indexdef) INTO index_defs FROM pg_indexes
+    WHERE tablename = 'collection_events'
+      AND indexname NOT IN (SELECT conname FROM pg_constraint
+                            WHERE conrelid = 'collection_events'::regclass AND contype IN ('p', 'u'));
+    SELECT array_agg(format('ALTER TABLE collection_events ADD CONSTRAINT %I %s', conname, pg_get_constraintdef(oid)))
+    INTO foreign_keys FROM pg_constraint
+    WHERE conrelid = 'collection_events'::regclass AND contype = 'f';
+    SELECT MIN(collection_time), COALESCE(MAX(id), 0) INTO oldest, max_id FROM collection_events;
+
+    ALTER TABLE collection_events RENAME TO collection_events_unpartitioned;
+    -- Frees the name collection_events_id_seq, which the identity sequence holds
+    ALTER TABLE collection_events_unpartitioned ALTER COLUMN id DROP IDENTITY IF EXISTS;
+    CREATE TABLE collection_events (LIKE collection_events_unpartitioned INCLUDING DEFAULTS)
+        PARTITION BY RANGE (collection_time);
+    -- A serial column's sequence survives (and keeps its position); owning it keeps it past the DROP below
+    EXECUTE format('CREATE SEQUENCE IF NOT EXISTS collection_events_id_seq START WITH %s', max_id + 1);
+    ALTER SEQUENCE collection_events_id_seq OWNED BY collection_events.id;
+    ALTER TABLE collection_events ALTER COLUMN id SET DEFAULT nextval('collection_events_id_seq');
+    ALTER TABLE collection_events ALTER COLUMN collection_time SET NOT NULL;
+
+    month := date_trunc('month', COALESCE(oldest, now()))::DATE;
+    WHILE month <= last_month LOOP
+        EXECUTE format('CREATE TABLE %I PARTITION OF collection_events FOR VALUES FROM (%L) TO (%L)',
+                       'collection_events_p' || to_char(month, 'YYYY_MM'), month, (month + INTERVAL '1 month')::DATE);
+        month := (month + INTERVAL '1 month')::DATE;
+    END LOOP;
+    CREATE TABLE collection_events_default PARTITION OF collection_events DEFAULT;
+
+    INSERT INTO collection_events SELECT * FROM collection_events_unpartitioned;
+    DROP TABLE collection_events_unpartitioned CASCADE;
+
+    ALTER TABLE collection_events ADD CONSTRAINT collection_events_pkey PRIMARY KEY (id, collection_time);
+    FOREACH definition IN ARRAY COALESCE(index_defs, ARRAY[]::TEXT[]) LOOP
+        EXECUTE definition;
+    END LOOP;
+    FOREACH definition IN ARRAY COALESCE(foreign_keys, ARRAY[]::TEXT[]) LOOP
+        EXECUTE definition;
+    END LOOP;
+END
+$$;
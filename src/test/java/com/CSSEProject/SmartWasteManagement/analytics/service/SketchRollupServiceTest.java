@@ -0,0 +1,77 @@
+package com.CSSEProject.SmartWasteManagement.analytics.service;
+
+import com.CSSEProject.SmartWasteManagement.analytics.dto.CollectionSketchRow;
+import com.CSSEProject.SmartWasteManagement.analytics.dto.SketchKpisDto;
+import com.CSSEProject.SmartWasteManagement.waste.entity.BinType;
+import com.CSSEProject.SmartWasteManagement.waste.entity.CollectionEvent;
+import com.CSSEProject.SmartWasteManagement.waste.entity.WasteBin;
+import com.CSSEProject.SmartWasteManagement.waste.repository.CollectionEventRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class SketchRollupServiceTest {
+
+    private final LocalDateTime now = LocalDateTime.now();
+
+    @Mock
+    private CollectionEventRepository collectionEventRepository;
+
+    @InjectMocks
+    private SketchRollupService sketchRollupService;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(sketchRollupService, "retentionDays", 400);
+    }
+
+    @Test
+    void rebuild_WithCollectionsCommittingDuringTheScan_ShouldCountEachOnce() {
+        // Arrange: 3 and 11 commit before the rebuild starts, 7 and 12 while it scans up to max id 10
+        sketchRollupService.recordCollection(collection(3L), "Kandy");
+        sketchRollupService.recordCollection(collection(11L), "Kandy");
+        when(collectionEventRepository.findMaxId()).thenReturn(10L);
+        when(collectionEventRepository.findSketchRowsAfter(eq(0L), eq(10L), any(), any())).thenAnswer(invocation -> {
+            sketchRollupService.recordCollection(collection(7L), "Kandy");
+            sketchRollupService.recordCollection(collection(12L), "Kandy");
+            return List.of(row(3L), row(5L), row(7L));
+        });
+
+        // Act
+        sketchRollupService.rebuild();
+        sketchRollupService.recordCollection(collection(13L), "Kandy");
+
+        // Assert: 3, 5 and 7 from the scan, 11, 12 and 13 live
+        List<SketchKpisDto> kpis = sketchRollupService.getSketchKpis(LocalDate.now(), LocalDate.now(), null, null, "none");
+        assertEquals(6L, kpis.get(0).getCollections());
+    }
+
+    private CollectionEvent collection(Long id) {
+        WasteBin bin = new WasteBin();
+        bin.setBinId("BIN-" + id);
+        bin.setBinType(BinType.GENERAL_WASTE);
+        CollectionEvent collection = new CollectionEvent();
+        collection.setId(id);
+        collection.setWasteBin(bin);
+        collection.setCollectionTime(now);
+        collection.setWeight(10.0);
+        return collection;
+    }
+
+    private CollectionSketchRow row(Long id) {
+        return new CollectionSketchRow(id, now, 10.0, "BIN-" + id, BinType.GENERAL_WASTE, null, "1 Main St, Kandy");
+    }
+}
@@ -0,0 +1,120 @@
+package com.CSSEProject.SmartWasteManagement.analytics.sketch;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Accuracy and mergeability checks for the analytics sketches.
+ * Bounds are generous multiples of the documented error so the tests stay deterministic in practice.
+ */
+class SketchAccuracyTest {
+
+    @Test
+    void hyperLogLog_ShouldEstimateDistinctCountWithinErrorBound() {
+        // Arrange
+        HyperLogLog sketch = new HyperLogLog();
+        int distinct = 100_000;
+
+        // Act - every id is added twice, duplicates must not change the estimate
+        for (int i = 0; i < distinct; i++) {
+            sketch.add("BIN-" + i);
+            sketch.add("BIN-" + i);
+        }
+
+        // Assert
+        double relativeError = Math.abs(sketch.estimate() - distinct) / (double) distinct;
+        assertTrue(relativeError < 4 * sketch.relativeStandardError(), "relative error " + relativeError);
+    }
+
+    @Test
+    void hyperLogLog_ShouldBeExactEnoughForSmallSparseSets() {
+        // Arrange
+        HyperLogLog sketch = new HyperLogLog();
+
+        // Act
+        for (long id = 1; id <= 50; id++) {
+            sketch.add(id);
+        }
+
+        // Assert
+        assertEquals(50, sketch.estimate(), 2);
+    }
+
+    @Test
+    void hyperLogLog_MergeShouldMatchUnion() {
+        // Arrange
+        HyperLogLog first = new HyperLogLog();
+        HyperLogLog second = new HyperLogLog();
+        for (int i = 0; i < 30_000; i++) {
+            first.add("BIN-" + i);
+        }
+        for (int i = 20_000; i < 50_000; i++) {
+            second.add("BIN-" + i);
+        }
+
+        // Act
+        first.merge(second);
+
+        // Assert - union has 50k distinct ids
+        double relativeError = Math.abs(first.estimate() - 50_000) / 50_000.0;
+        assertTrue(relativeError < 4 * first.relativeStandardError(), "relative error " + relativeError);
+    }
+
+    @Test
+    void kllSketch_ShouldReturnQuantilesWithinRankError() {
+        // Arrange
+        KllSketch sketch = new KllSketch();
+        Random random = new Random(42);
+        double[] values = new double[200_000];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = random.nextDouble() * 100.0;
+            sketch.update(values[i]);
+        }
+        Arrays.sort(values);
+
+        // Act & Assert
+        for (double rank : new double[]{0.5, 0.95, 0.99}) {
+            double estimate = sketch.quantile(rank);
+            double actualRank = rankOf(values, estimate);
+            assertEquals(rank, actualRank, 2 * sketch.normalizedRankError(), "rank " + rank);
+        }
+        assertEquals(values.length, sketch.getCount());
+    }
+
+    @Test
+    void kllSketch_MergeShouldKeepCountAndQuantiles() {
+        // Arrange
+        KllSketch first = new KllSketch();
+        KllSketch second = new KllSketch();
+        for (int i = 1; i <= 50_000; i++) {
+            first.update(i);
+            second.update(50_000 + i);
+        }
+
+        // Act
+        first.merge(second);
+
+        // Assert
+        assertEquals(100_000, first.getCount());
+        assertEquals(50_000, first.quantile(0.5), 100_000 * 2 * first.normalizedRankError());
+        assertEquals(1.0, first.getMin());
+        assertEquals(100_000.0, first.getMax());
+    }
+
+    @Test
+    void kllSketch_WhenEmpty_ShouldReturnNull() {
+        assertNull(new KllSketch().quantile(0.5));
+    }
+
+    private double rankOf(double[] sorted, double value) {
+        int index = Arrays.binarySearch(sorted, value);
+        if (index < 0) {
+            index = -index - 1;
+        }
+        return index / (double) sorted.length;
+    }
+}
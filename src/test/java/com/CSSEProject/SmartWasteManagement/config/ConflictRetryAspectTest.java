@@ -0,0 +1,86 @@
+package com.CSSEProject.SmartWasteManagement.config;
+
+import com.CSSEProject.SmartWasteManagement.waste.entity.WasteBin;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConflictRetryAspectTest {
+
+    private ContentionMetrics contentionMetrics;
+    private BinWriter target;
+    private BinWriter binWriter;
+
+    @BeforeEach
+    void setUp() {
+        contentionMetrics = new ContentionMetrics();
+        ConflictRetryAspect aspect = new ConflictRetryAspect();
+        ReflectionTestUtils.setField(aspect, "contentionMetrics", contentionMetrics);
+        ReflectionTestUtils.setField(aspect, "baseBackoffMs", 1L);
+        ReflectionTestUtils.setField(aspect, "maxBackoffMs", 2L);
+
+        target = new BinWriter();
+        AspectJProxyFactory factory = new AspectJProxyFactory(target);
+        factory.setProxyTargetClass(true);
+        factory.addAspect(aspect);
+        binWriter = factory.getProxy();
+    }
+
+    @Test
+    void retryOnConflict_ShouldRetryUntilTheWriteWins() {
+        // Act - two lost races, then success
+        String result = binWriter.write(2);
+
+        // Assert
+        assertEquals("written", result);
+        assertEquals(3, target.attempts.get());
+        Map<String, Object> binContention = contentionMetrics.getContention().get("WasteBin");
+        assertEquals(2L, binContention.get("conflicts"));
+        assertEquals(2L, binContention.get("retries"));
+        assertEquals(1L, binContention.get("recovered"));
+        assertEquals(0L, binContention.get("exhausted"));
+    }
+
+    @Test
+    void retryOnConflict_ShouldGiveUpAfterMaxAttempts() {
+        // Act & Assert
+        assertThrows(RuntimeException.class, () -> binWriter.write(10));
+        assertEquals(4, target.attempts.get());
+        assertEquals(1L, contentionMetrics.getContention().get("WasteBin").get("exhausted"));
+    }
+
+    @Test
+    void retryOnConflict_ShouldNotRetryOtherFailures() {
+        // Act & Assert
+        assertThrows(IllegalStateException.class, () -> binWriter.fail());
+        assertEquals(1, target.attempts.get());
+        assertTrue(contentionMetrics.getContention().isEmpty());
+    }
+
+    static class BinWriter {
+        final AtomicInteger attempts = new AtomicInteger();
+
+        // Conflicts arrive wrapped, the way services rethrow them
+        @RetryOnConflict
+        public String write(int conflicts) {
+            if (attempts.incrementAndGet() <= conflicts) {
+                throw new RuntimeException("Failed to update bin",
+                        new ObjectOptimisticLockingFailureException(WasteBin.class, "BIN-001"));
+            }
+            return "written";
+        }
+
+        @RetryOnConflict
+        public void fail() {
+            attempts.incrementAndGet();
+            throw new IllegalStateException("Not a conflict");
+        }
+    }
+}
@@ -0,0 +1,131 @@
+package com.CSSEProject.SmartWasteManagement.config;
+
+import com.CSSEProject.SmartWasteManagement.user.entity.User;
+import com.CSSEProject.SmartWasteManagement.waste.controller.WasteBinController;
+import com.CSSEProject.SmartWasteManagement.waste.entity.WasteBin;
+import com.CSSEProject.SmartWasteManagement.waste.service.WasteBinService;
+import org.hibernate.persister.entity.EntityPersister;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class DataVersionRegistryTest {
+
+    private final DataVersionRegistry registry = new DataVersionRegistry();
+
+    @Test
+    void etag_ShouldOnlyChangeWhenOneOfItsKeysIsBumped() {
+        // Arrange
+        String key = DataVersionRegistry.bin("BIN-1");
+        String before = registry.etag(DataVersionRegistry.SCHEDULES, key);
+        long modifiedBefore = registry.lastModified(key);
+
+        // Act
+        registry.bump(DataVersionRegistry.bin("BIN-2"));
+        String unrelated = registry.etag(DataVersionRegistry.SCHEDULES, key);
+        registry.bump(key);
+        String after = registry.etag(DataVersionRegistry.SCHEDULES, key);
+
+        // Assert
+        assertEquals(before, unrelated);
+        assertNotEquals(before, after);
+        assertTrue(registry.lastModified(key) >= modifiedBefore);
+    }
+
+    @Test
+    void listener_BinMovedToAnotherResident_ShouldBumpBinBothResidentsAndAnalytics() {
+        // Arrange
+        DataVersionListener listener = new DataVersionListener();
+        ReflectionTestUtils.setField(listener, "dataVersionRegistry", registry);
+        EntityPersister persister = mock(EntityPersister.class);
+        when(persister.getPropertyIndex("resident")).thenReturn(0);
+        WasteBin bin = new WasteBin();
+        bin.setBinId("BIN-1");
+        bin.setResident(user(2L));
+        String[] keys = {DataVersionRegistry.bin("BIN-1"), DataVersionRegistry.resident(1L),
+                DataVersionRegistry.resident(2L), DataVersionRegistry.ANALYTICS};
+        long[] before = new long[keys.length];
+        for (int i = 0; i < keys.length; i++) {
+            before[i] = registry.version(keys[i]);
+        }
+
+        // Act
+        listener.changed(bin, new Object[]{user(1L)}, persister);
+
+        // Assert
+        for (int i = 0; i < keys.length; i++) {
+            assertTrue(registry.version(keys[i]) > before[i], keys[i]);
+        }
+        assertEquals(before[0], registry.version(DataVersionRegistry.resident(3L)));
+    }
+
+    @Test
+    void getBinById_WithCurrentEtag_ShouldAnswer304WithoutCallingTheService() {
+        // Arrange
+        WasteBinService wasteBinService = mock(WasteBinService.class);
+        WasteBinController controller = controller(wasteBinService);
+        registry.trackBinResident("BIN-1", 7L);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        // Act
+        ResponseEntity<?> result = controller.getBinById("BIN-1", conditionalGet(registry.etag(registry.binKeys("BIN-1")), response));
+
+        // Assert
+        assertNull(result);
+        assertEquals(304, response.getStatus());
+        verifyNoInteractions(wasteBinService);
+    }
+
+    @Test
+    void getBinById_AfterTheResidentIsEdited_ShouldReturnTheBinAgain() {
+        // Arrange: the first response teaches the registry the bin's resident
+        WasteBinService wasteBinService = mock(WasteBinService.class);
+        WasteBinController controller = controller(wasteBinService);
+        WasteBin bin = new WasteBin();
+        bin.setBinId("BIN-1");
+        bin.setResident(user(7L));
+        when(wasteBinService.getBinById("BIN-1")).thenReturn(bin);
+        controller.getBinById("BIN-1", conditionalGet(null, new MockHttpServletResponse()));
+        String etag = registry.etag(registry.binKeys("BIN-1"));
+        DataVersionListener listener = new DataVersionListener();
+        ReflectionTestUtils.setField(listener, "dataVersionRegistry", registry);
+
+        // Act
+        listener.changed(user(7L), new Object[0], mock(EntityPersister.class));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        ResponseEntity<?> result = controller.getBinById("BIN-1", conditionalGet(etag, response));
+
+        // Assert
+        assertNotNull(result);
+        assertEquals(200, result.getStatusCode().value());
+        assertNotEquals(etag, response.getHeader("ETag"));
+        verify(wasteBinService, times(2)).getBinById("BIN-1");
+    }
+
+    private WasteBinController controller(WasteBinService wasteBinService) {
+        WasteBinController controller = new WasteBinController();
+        ReflectionTestUtils.setField(controller, "wasteBinService", wasteBinService);
+        ReflectionTestUtils.setField(controller, "dataVersionRegistry", registry);
+        return controller;
+    }
+
+    private static ServletWebRequest conditionalGet(String etag, MockHttpServletResponse response) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/waste/bins/BIN-1");
+        if (etag != null) {
+            request.addHeader("If-None-Match", etag);
+        }
+        return new ServletWebRequest(request, response);
+    }
+
+    private static User user(Long id) {
+        User user = new User();
+        user.setId(id);
+        return user;
+    }
+}
@@ -0,0 +1,99 @@
+package com.CSSEProject.SmartWasteManagement.config;
+
+import com.CSSEProject.SmartWasteManagement.dto.BinSummaryDto;
+import com.CSSEProject.SmartWasteManagement.user.entity.User;
+import com.CSSEProject.SmartWasteManagement.waste.entity.BinStatus;
+import com.CSSEProject.SmartWasteManagement.waste.entity.BinType;
+import com.CSSEProject.SmartWasteManagement.waste.entity.WasteBin;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JsonArrayStreamerTest {
+
+    private static final int RECORDS = 5000;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+    private final JsonArrayStreamer streamer = new JsonArrayStreamer();
+
+    private final List<WasteBin> entities = new ArrayList<>();
+    private final List<BinSummaryDto> summaries = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(streamer, "objectMapper", objectMapper);
+        for (int i = 0; i < RECORDS; i++) {
+            User resident = new User();
+            resident.setId((long) i);
+            resident.setName("Resident " + i);
+            resident.setEmail("resident" + i + "@test.com");
+            resident.setAddress(i + " Main Street, Colombo");
+            resident.setPhone("0771234567");
+
+            WasteBin bin = new WasteBin();
+            bin.setBinId("BIN-" + i);
+            bin.setLocation(i + " Main Street, Colombo");
+            bin.setLatitude(6.9 + i * 1e-5);
+            bin.setLongitude(79.86 + i * 1e-5);
+            bin.setBinType(BinType.GENERAL_WASTE);
+            bin.setCapacity(120.0);
+            bin.setCurrentLevel(40.0);
+            bin.setStatus(BinStatus.ACTIVE);
+            bin.setInstallationDate(LocalDate.of(2024, 1, 1));
+            bin.setResident(resident);
+            entities.add(bin);
+
+            summaries.add(new BinSummaryDto(bin.getBinId(), bin.getLocation(), bin.getLatitude(), bin.getLongitude(),
+                    bin.getBinType(), bin.getCapacity(), bin.getCurrentLevel(), bin.getStatus(),
+                    resident.getId(), resident.getName()));
+        }
+    }
+
+    @Test
+    void write_ShouldProduceTheSameJsonAsSerializingTheList() throws IOException {
+        // Act
+        String streamed = streamTo(sink -> summaries.forEach(sink));
+
+        // Assert
+        assertEquals(objectMapper.writeValueAsString(summaries), streamed);
+        assertEquals("[]", streamTo(sink -> { }));
+    }
+
+    @Test
+    void write_FlatSummaries_ShouldBeSmallerThanEntities() throws IOException {
+        // Arrange: warm up both paths
+        objectMapper.writeValueAsString(entities);
+        streamTo(sink -> summaries.forEach(sink));
+
+        // Act
+        long entityStart = System.nanoTime();
+        byte[] entityJson = objectMapper.writeValueAsBytes(entities);
+        long entityNanos = System.nanoTime() - entityStart;
+        long flatStart = System.nanoTime();
+        String flatJson = streamTo(sink -> summaries.forEach(sink));
+        long flatNanos = System.nanoTime() - flatStart;
+
+        // Assert
+        double entityBytes = (double) entityJson.length / RECORDS;
+        double flatBytes = (double) flatJson.length() / RECORDS;
+        System.out.printf("📏 Bin JSON: entity %.0f bytes/record in %.1f ms, streamed summary %.0f bytes/record in %.1f ms%n",
+                entityBytes, entityNanos / 1e6, flatBytes, flatNanos / 1e6);
+        assertTrue(flatBytes < entityBytes * 0.75, "Summary rows should be well under the entity size");
+        assertFalse(flatJson.contains("password"));
+    }
+
+    private String streamTo(JsonArrayStreamer.RowSource<BinSummaryDto> source) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        streamer.write(source, out);
+        return out.toString();
+    }
+}
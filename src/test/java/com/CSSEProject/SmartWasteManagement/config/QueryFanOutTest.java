@@ -0,0 +1,97 @@
+package com.CSSEProject.SmartWasteManagement.config;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class QueryFanOutTest {
+
+    private ThreadPoolExecutor executor;
+    private QueryFanOut queryFanOut;
+
+    @BeforeEach
+    void setUp() {
+        executor = new QueryExecutorConfig().queryExecutor(4, 16);
+        queryFanOut = new QueryFanOut();
+        ReflectionTestUtils.setField(queryFanOut, "queryExecutor", executor);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void join_ShouldRunSubQueriesInParallel() {
+        // Arrange - each sub-query waits until all three are running
+        CountDownLatch allStarted = new CountDownLatch(3);
+
+        // Act
+        try (QueryFanOut.Scope scope = queryFanOut.open("test", 2000)) {
+            Supplier<Integer> first = scope.fork("first", () -> awaitOthers(allStarted, 1));
+            Supplier<Integer> second = scope.fork("second", () -> awaitOthers(allStarted, 2));
+            Supplier<Integer> third = scope.fork("third", () -> awaitOthers(allStarted, 3));
+            scope.join();
+
+            // Assert
+            assertEquals(6, first.get() + second.get() + third.get());
+            assertEquals(3, scope.getElapsedMs().size());
+        }
+        assertEquals(3, queryFanOut.getTimings().size());
+        assertEquals(1L, queryFanOut.getTimings().get("test.first").get("calls"));
+    }
+
+    @Test
+    void join_WhenDeadlinePasses_ShouldFailAndCancelTheRest() {
+        // Arrange
+        CountDownLatch never = new CountDownLatch(1);
+
+        // Act & Assert
+        try (QueryFanOut.Scope scope = queryFanOut.open("slow", 50)) {
+            scope.fork("fast", () -> 1);
+            scope.fork("stuck", () -> never.await(5, TimeUnit.SECONDS));
+            RuntimeException error = assertThrows(RuntimeException.class, scope::join);
+            assertTrue(error.getMessage().contains("stuck"));
+        }
+    }
+
+    @Test
+    void join_WhenSubQueryFails_ShouldRethrowItsError() {
+        // Act & Assert
+        try (QueryFanOut.Scope scope = queryFanOut.open("failing", 2000)) {
+            scope.fork("ok", () -> 1);
+            scope.fork("broken", () -> {
+                throw new IllegalStateException("database unavailable");
+            });
+            IllegalStateException error = assertThrows(IllegalStateException.class, scope::join);
+            assertEquals("database unavailable", error.getMessage());
+        }
+        assertEquals(1L, queryFanOut.getTimings().get("failing.broken").get("failures"));
+    }
+
+    @Test
+    void get_BeforeJoin_ShouldBeRejected() {
+        CountDownLatch release = new CountDownLatch(1);
+        try (QueryFanOut.Scope scope = queryFanOut.open("early", 2000)) {
+            Supplier<Boolean> pending = scope.fork("pending", () -> release.await(5, TimeUnit.SECONDS));
+            assertThrows(IllegalStateException.class, pending::get);
+            release.countDown();
+        }
+    }
+
+    private int awaitOthers(CountDownLatch allStarted, int value) throws InterruptedException {
+        allStarted.countDown();
+        if (!allStarted.await(1, TimeUnit.SECONDS)) {
+            throw new IllegalStateException("sub-queries did not run in parallel");
+        }
+        return value;
+    }
+}
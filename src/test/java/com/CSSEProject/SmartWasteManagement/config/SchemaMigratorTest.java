@@ -0,0 +1,81 @@
+package com.CSSEProject.SmartWasteManagement.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.init.ScriptUtils;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@Import(SchemaMigrator.class)
+class SchemaMigratorTest {
+
+    @Autowired
+    private SchemaMigrator schemaMigrator;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void migrate_AfterStartup_ShouldNotApplyAnythingTwice() {
+        // Act
+        var applied = schemaMigrator.migrate();
+
+        // Assert
+        assertTrue(applied.isEmpty());
+        Integer recorded = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM schema_migrations", Integer.class);
+        assertEquals(schemaMigrator.findMigrations().size(), recorded);
+    }
+
+    @Test
+    void separator_ShouldFollowTheScriptsFirstLineDirective() throws Exception {
+        // Assert
+        assertEquals(";", SchemaMigrator.separator(script("CREATE INDEX a ON t (c);")));
+        assertEquals(ScriptUtils.EOF_STATEMENT_SEPARATOR, SchemaMigrator.separator(script("-- separator: EOF\nDO $$ BEGIN END $$;")));
+        assertEquals("GO", SchemaMigrator.separator(script("-- separator: GO\nSELECT 1\nGO")));
+    }
+
+    @Test
+    void mainQueries_ShouldUseTheMigratedIndexes() {
+        // Assert: the planner picks the index for each hot predicate
+        assertUsesIndex("idx_collection_events_time",
+                "SELECT * FROM collection_events WHERE collection_time BETWEEN TIMESTAMP '2025-01-01 00:00:00' AND TIMESTAMP '2025-02-01 00:00:00'");
+        assertUsesIndex("idx_collection_events_collector_time",
+                "SELECT * FROM collection_events WHERE collector_id = 7 AND collection_time >= TIMESTAMP '2025-01-01 00:00:00'");
+        assertUsesIndex("idx_collection_schedules_bin_date_status",
+                "SELECT * FROM collection_schedules WHERE bin_id = 'BIN-1' AND scheduled_date = DATE '2025-01-01' AND status = 'PENDING'");
+        // H2 indexes foreign keys by itself (PostgreSQL does not, hence the migration), so only check there is no scan
+        assertNoTableScan("SELECT * FROM invoices WHERE resident_id = 7");
+        assertUsesIndex("idx_invoices_status_due",
+                "SELECT id FROM invoices WHERE status = 'PENDING' AND due_date < DATE '2025-01-01'");
+        assertUsesIndex("idx_offline_collections_device_synced",
+                "SELECT * FROM offline_collections WHERE device_id = 'DEVICE-1' AND synced = FALSE");
+    }
+
+    private static ByteArrayResource script(String sql) {
+        return new ByteArrayResource(sql.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private void assertUsesIndex(String index, String sql) {
+        String plan = explain(sql);
+        assertTrue(plan.contains(index), "Expected " + index + " in plan:\n" + plan);
+    }
+
+    private void assertNoTableScan(String sql) {
+        String plan = explain(sql);
+        assertFalse(plan.contains("tablescan"), "Expected an index lookup in plan:\n" + plan);
+    }
+
+    private String explain(String sql) {
+        return jdbcTemplate.queryForObject("EXPLAIN " + sql, String.class).toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,140 @@
+package com.CSSEProject.SmartWasteManagement.payment.repository;
+
+import com.CSSEProject.SmartWasteManagement.config.DataVersionRegistry;
+import com.CSSEProject.SmartWasteManagement.dto.InvoiceAgingBucketDto;
+import com.CSSEProject.SmartWasteManagement.payment.entity.Invoice;
+import com.CSSEProject.SmartWasteManagement.payment.entity.InvoiceStatus;
+import com.CSSEProject.SmartWasteManagement.payment.service.InvoiceService;
+import com.CSSEProject.SmartWasteManagement.payment.service.OverdueInvoiceSweeper;
+import com.CSSEProject.SmartWasteManagement.payment.service.ResidentLedgerService;
+import com.CSSEProject.SmartWasteManagement.user.entity.User;
+import com.CSSEProject.SmartWasteManagement.user.service.UserService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@Import({OverdueInvoiceSweeper.class, InvoiceService.class, DataVersionRegistry.class})
+class InvoiceRepositoryTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private InvoiceRepository invoiceRepository;
+
+    @Autowired
+    private OverdueInvoiceSweeper overdueInvoiceSweeper;
+
+    @Autowired
+    private InvoiceService invoiceService;
+
+    @MockBean
+    private UserService userService;
+
+    @MockBean
+    private ResidentLedgerService residentLedgerService;
+
+    private final LocalDate today = LocalDate.of(2025, 6, 30);
+    private User resident;
+    private int invoiceSequence = 0;
+
+    @BeforeEach
+    void setUp() {
+        resident = new User();
+        resident.setName("Resident");
+        resident.setEmail("aging@test.com");
+        entityManager.persist(resident);
+    }
+
+    @Test
+    void sweep_ShouldMarkOnlyPastDuePendingInvoicesOverdue() {
+        // Arrange - small chunks so the keyset paging crosses several pages
+        ReflectionTestUtils.setField(overdueInvoiceSweeper, "chunkSize", 2);
+        Invoice pastDue1 = invoice(today.minusDays(1), InvoiceStatus.PENDING, 10.0);
+        Invoice pastDue2 = invoice(today.minusDays(40), InvoiceStatus.PENDING, 10.0);
+        Invoice pastDue3 = invoice(today.minusDays(100), InvoiceStatus.PENDING, 10.0);
+        Invoice dueToday = invoice(today, InvoiceStatus.PENDING, 10.0);
+        Invoice paid = invoice(today.minusDays(10), InvoiceStatus.PAID, 10.0);
+        entityManager.flush();
+
+        // Act
+        int updated = overdueInvoiceSweeper.sweep(today);
+
+        // Assert
+        assertEquals(3, updated);
+        assertEquals(InvoiceStatus.OVERDUE, statusOf(pastDue1));
+        assertEquals(InvoiceStatus.OVERDUE, statusOf(pastDue2));
+        assertEquals(InvoiceStatus.OVERDUE, statusOf(pastDue3));
+        assertEquals(InvoiceStatus.PENDING, statusOf(dueToday));
+        assertEquals(InvoiceStatus.PAID, statusOf(paid));
+        assertEquals(0, overdueInvoiceSweeper.sweep(today));
+    }
+
+    @Test
+    void getInvoiceAging_ShouldBucketByDaysPastDue() {
+        // Arrange - a mix of swept and not-yet-swept overdue invoices
+        invoice(today.minusDays(5), InvoiceStatus.PENDING, 100.0);
+        invoice(today.minusDays(30), InvoiceStatus.OVERDUE, 50.0);
+        invoice(today.minusDays(31), InvoiceStatus.OVERDUE, 20.0);
+        invoice(today.minusDays(75), InvoiceStatus.PENDING, 30.0);
+        invoice(today.minusDays(200), InvoiceStatus.OVERDUE, 40.0);
+        invoice(today.minusDays(200), InvoiceStatus.PAID, 999.0);
+        invoice(today.plusDays(5), InvoiceStatus.PENDING, 999.0);
+        entityManager.flush();
+
+        // Act
+        List<InvoiceAgingBucketDto> aging = invoiceService.getInvoiceAging(today);
+
+        // Assert
+        assertEquals(4, aging.size());
+        assertBucket(aging.get(0), "0-30", 2L, 150.0);
+        assertBucket(aging.get(1), "31-60", 1L, 20.0);
+        assertBucket(aging.get(2), "61-90", 1L, 30.0);
+        assertBucket(aging.get(3), "90+", 1L, 40.0);
+    }
+
+    @Test
+    void getInvoiceAging_WithNoOverdueInvoices_ShouldReturnEmptyBuckets() {
+        List<InvoiceAgingBucketDto> aging = invoiceService.getInvoiceAging(today);
+
+        assertEquals(4, aging.size());
+        aging.forEach(bucket -> assertEquals(0L, bucket.getInvoiceCount()));
+    }
+
+    private void assertBucket(InvoiceAgingBucketDto bucket, String name, Long count, Double amount) {
+        assertEquals(name, bucket.getBucket());
+        assertEquals(count, bucket.getInvoiceCount());
+        assertEquals(amount, bucket.getOutstandingAmount(), 0.001);
+    }
+
+    private InvoiceStatus statusOf(Invoice invoice) {
+        return invoiceRepository.findById(invoice.getId()).orElseThrow().getStatus();
+    }
+
+    private Invoice invoice(LocalDate dueDate, InvoiceStatus status, Double amount) {
+        Invoice invoice = new Invoice();
+        invoice.setInvoiceNumber("INV-AGING-" + (++invoiceSequence));
+        invoice.setInvoiceDate(dueDate.minusDays(14));
+        invoice.setDueDate(dueDate);
+        invoice.setPeriodStart(dueDate.minusDays(44));
+        invoice.setPeriodEnd(dueDate.minusDays(14));
+        invoice.setStatus(status);
+        invoice.setTotalAmount(amount);
+        invoice.setFinalAmount(amount);
+        invoice.setResident(resident);
+        return entityManager.persist(invoice);
+    }
+}
@@ -14,6 +14,7 @@ import com.CSSEProject.SmartWasteManagement.waste.repository.RecyclingCollection
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
@@ -45,6 +46,9 @@ class InvoiceServiceTest {
     @Mock
     private RecyclingCollectionRepository recyclingCollectionRepository;
 
+    @Mock
+    private ResidentLedgerService residentLedgerService;
+
     @InjectMocks
     private InvoiceService invoiceService;
 
@@ -87,7 +91,7 @@ class InvoiceServiceTest {
         when(collectionEventRepository.findUninvoicedByResident(1L)).thenReturn(Arrays.asList());
         when(recyclingCollectionRepository.findUninvoicedByResident(1L)).thenReturn(Arrays.asList());
         when(invoiceRepository.save(any(Invoice.class))).thenReturn(testInvoice);
-        when(userService.updateUser(any(User.class))).thenReturn(testUser);
+        when(residentLedgerService.getPendingCharges(1L)).thenReturn(1000.0);
 
         // Act
         Invoice result = invoiceService.generateMonthlyInvoice(1L);
@@ -96,7 +100,12 @@ class InvoiceServiceTest {
         assertNotNull(result);
         assertEquals("INV-001", result.getInvoiceNumber());
         assertEquals(InvoiceStatus.PENDING, result.getStatus());
-        verify(userService).updateUser(testUser);
+        verify(residentLedgerService).recordInvoice(1L, 1L, 1000.0);
+        verify(userService, never()).updateUser(any(User.class));
+        InOrder order = inOrder(residentLedgerService, collectionEventRepository);
+        order.verify(residentLedgerService).lockBalances(1L);
+        order.verify(collectionEventRepository).findUninvoicedByResident(1L);
+        order.verify(residentLedgerService).getPendingCharges(1L);
         verify(invoiceRepository).save(any(Invoice.class));
     }
 
@@ -255,7 +264,7 @@ class InvoiceServiceTest {
     @Test
     void getOverdueInvoices_ShouldReturnOverdueInvoices() {
         // Arrange
-        when(invoiceRepository.findByDueDateBeforeAndStatus(any(LocalDate.class), eq(InvoiceStatus.PENDING)))
+        when(invoiceRepository.findOverdueInvoices(any(LocalDate.class)))
                 .thenReturn(Arrays.asList(testInvoice));
 
         // Act
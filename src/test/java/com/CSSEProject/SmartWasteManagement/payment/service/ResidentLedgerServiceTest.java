@@ -0,0 +1,108 @@
+package com.CSSEProject.SmartWasteManagement.payment.service;
+
+import com.CSSEProject.SmartWasteManagement.config.DataVersionRegistry;
+import com.CSSEProject.SmartWasteManagement.dto.LedgerBalanceDto;
+import com.CSSEProject.SmartWasteManagement.payment.entity.LedgerEntry;
+import com.CSSEProject.SmartWasteManagement.payment.entity.LedgerEntryType;
+import com.CSSEProject.SmartWasteManagement.user.entity.User;
+import com.CSSEProject.SmartWasteManagement.user.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@Import({ResidentLedgerService.class, DataVersionRegistry.class})
+class ResidentLedgerServiceTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private ResidentLedgerService residentLedgerService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private User resident;
+
+    @BeforeEach
+    void setUp() {
+        resident = new User();
+        resident.setName("Ledger Resident");
+        resident.setEmail("ledger@test.com");
+        entityManager.persistAndFlush(resident);
+    }
+
+    @Test
+    void recordEntries_ShouldMoveBalancesWithRelativeUpdates() {
+        // Act
+        residentLedgerService.recordCharge(resident.getId(), 300.0, "COLLECTION", 1L, "Collection charge");
+        residentLedgerService.recordCharge(resident.getId(), 200.0, "COLLECTION", 2L, "Collection charge");
+        residentLedgerService.recordCredit(resident.getId(), 50.0, "RECYCLING", 3L, "Recycling credit");
+        residentLedgerService.recordInvoice(resident.getId(), 10L, 300.0);
+
+        // Assert
+        User reloaded = reload();
+        assertEquals(200.0, reloaded.getPendingCharges(), 0.001);
+        assertEquals(500.0, reloaded.getTotalCharges(), 0.001);
+        assertEquals(50.0, reloaded.getRecyclingCredits(), 0.001);
+
+        List<LedgerEntry> entries = residentLedgerService.getEntries(resident.getId(), null, 10);
+        assertEquals(4, entries.size());
+        assertEquals(LedgerEntryType.INVOICE, entries.get(0).getEntryType());
+        assertEquals(-300.0, entries.get(0).getPendingDelta(), 0.001);
+    }
+
+    @Test
+    void replay_ShouldRestoreBalancesFromSnapshotAndLaterEntries() {
+        // Arrange
+        residentLedgerService.recordCharge(resident.getId(), 400.0, "COLLECTION", 1L, "Collection charge");
+        residentLedgerService.takeSnapshot(resident.getId());
+        residentLedgerService.recordCharge(resident.getId(), 100.0, "COLLECTION", 2L, "Collection charge");
+        residentLedgerService.recordCredit(resident.getId(), 25.0, "RECYCLING", 3L, "Recycling credit");
+        userRepository.setBalances(resident.getId(), 0.0, 0.0, 0.0);
+
+        // Act
+        LedgerBalanceDto balance = residentLedgerService.replay(resident.getId());
+
+        // Assert
+        assertEquals(500.0, balance.getPendingCharges(), 0.001);
+        User reloaded = reload();
+        assertEquals(500.0, reloaded.getPendingCharges(), 0.001);
+        assertEquals(500.0, reloaded.getTotalCharges(), 0.001);
+        assertEquals(25.0, reloaded.getRecyclingCredits(), 0.001);
+    }
+
+    @Test
+    void openLedgers_ShouldCarryExistingBalancesOverOnce() {
+        // Arrange - balances written before the ledger existed
+        userRepository.setBalances(resident.getId(), 120.0, 700.0, 30.0);
+
+        // Act
+        residentLedgerService.openLedgers();
+        residentLedgerService.openLedgers();
+
+        // Assert
+        List<LedgerEntry> entries = residentLedgerService.getEntries(resident.getId(), null, 10);
+        assertEquals(1, entries.size());
+        assertEquals(LedgerEntryType.OPENING, entries.get(0).getEntryType());
+        LedgerBalanceDto balance = residentLedgerService.computeBalance(resident.getId());
+        assertEquals(120.0, balance.getPendingCharges(), 0.001);
+        assertEquals(700.0, balance.getTotalCharges(), 0.001);
+        assertEquals(30.0, balance.getRecyclingCredits(), 0.001);
+    }
+
+    private User reload() {
+        entityManager.clear();
+        return userRepository.findById(resident.getId()).orElseThrow();
+    }
+}
@@ -0,0 +1,150 @@
+package com.CSSEProject.SmartWasteManagement.reporting.service;
+
+import com.CSSEProject.SmartWasteManagement.dto.BinSummaryDto;
+import com.CSSEProject.SmartWasteManagement.dto.CollectionEventDto;
+import com.CSSEProject.SmartWasteManagement.dto.DashboardStatsDto;
+import com.CSSEProject.SmartWasteManagement.dto.MonthlyWasteDto;
+import com.CSSEProject.SmartWasteManagement.user.entity.User;
+import com.CSSEProject.SmartWasteManagement.waste.entity.BinStatus;
+import com.CSSEProject.SmartWasteManagement.waste.entity.CollectionEvent;
+import com.CSSEProject.SmartWasteManagement.waste.entity.WasteBin;
+import com.CSSEProject.SmartWasteManagement.waste.service.ArchivedCollectionRollups;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Regression guard: reporting must be answered by aggregates and projections.
+ * Fails if any ReportingService method materialises more than a handful of entities,
+ * whatever the number of collection events in the table.
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+@Import({ReportingService.class, ArchivedCollectionRollups.class})
+@TestPropertySource(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class ReportingServiceEntityLoadTest {
+
+    private static final int COLLECTIONS = 60;
+    private static final long MAX_ENTITY_LOADS = 5;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private ReportingService reportingService;
+
+    private Statistics statistics;
+    private User collector;
+
+    @BeforeEach
+    void setUp() {
+        collector = new User();
+        collector.setName("Collector");
+        collector.setEmail("load-test@test.com");
+        entityManager.persist(collector);
+
+        User resident = new User();
+        resident.setName("Resident");
+        resident.setEmail("resident-load-test@test.com");
+        entityManager.persist(resident);
+
+        WasteBin bin = new WasteBin();
+        bin.setBinId("LOAD-BIN-1");
+        bin.setStatus(BinStatus.ACTIVE);
+        bin.setResident(resident);
+        entityManager.persist(bin);
+
+        for (int i = 0; i < COLLECTIONS; i++) {
+            CollectionEvent collection = new CollectionEvent();
+            collection.setWeight(2.0);
+            collection.setCalculatedCharge(10.0);
+            collection.setCollectionTime(LocalDateTime.now().minusHours(i));
+            collection.setWasteBin(bin);
+            collection.setCollector(collector);
+            entityManager.persist(collection);
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void getDashboardStats_ShouldNotLoadEntities() {
+        DashboardStatsDto stats = reportingService.getDashboardStats();
+
+        assertEquals(COLLECTIONS, stats.getTotalCollections());
+        assertEquals(COLLECTIONS * 2.0, stats.getTotalWasteCollected(), 0.001);
+        assertEntityLoadsWithinLimit();
+    }
+
+    @Test
+    void getMonthlyWaste_ShouldNotLoadEntities() {
+        List<MonthlyWasteDto> months = reportingService.getMonthlyWaste(LocalDateTime.now().getYear());
+
+        assertEquals(12, months.size());
+        assertEntityLoadsWithinLimit();
+    }
+
+    @Test
+    void eventFeed_ShouldNotLoadEntities() {
+        List<CollectionEventDto> firstPage = reportingService.getCollectionEvents(null, 25);
+        List<CollectionEventDto> secondPage = reportingService.getCollectionEvents(
+                firstPage.get(firstPage.size() - 1).getId(), 25);
+        List<CollectionEventDto> byCollector = reportingService.getCollectionEventsByCollector(collector.getId(), null, 100);
+        List<CollectionEventDto> byBin = reportingService.getCollectionEventsByBin("LOAD-BIN-1", null, 100);
+
+        assertEquals(25, firstPage.size());
+        assertEquals(25, secondPage.size());
+        assertTrue(secondPage.get(0).getId() > firstPage.get(24).getId());
+        assertEquals(COLLECTIONS, byCollector.size());
+        assertEquals(COLLECTIONS, byBin.size());
+        assertEquals("Resident", byBin.get(0).getResidentName());
+        assertEntityLoadsWithinLimit();
+    }
+
+    @Test
+    void streamCollectionEvents_ShouldNotLoadEntities() {
+        List<Long> ids = new ArrayList<>();
+        long streamed = reportingService.streamCollectionEvents(event -> ids.add(event.getId()));
+
+        assertEquals(COLLECTIONS, streamed);
+        assertEquals(COLLECTIONS, ids.stream().distinct().count());
+        assertEntityLoadsWithinLimit();
+    }
+
+    @Test
+    void streamBinSummaries_ShouldNotLoadEntities() {
+        List<BinSummaryDto> bins = new ArrayList<>();
+        long streamed = reportingService.streamBinSummaries(BinStatus.ACTIVE, bins::add);
+
+        assertEquals(1, streamed);
+        assertEquals("Resident", bins.get(0).getResidentName());
+        assertEquals(0, reportingService.streamBinSummaries(BinStatus.DECOMMISSIONED, bin -> { }));
+        assertEntityLoadsWithinLimit();
+    }
+
+    private void assertEntityLoadsWithinLimit() {
+        long loaded = statistics.getEntityLoadCount();
+        assertTrue(loaded <= MAX_ENTITY_LOADS,
+                "Reporting loaded " + loaded + " entities, limit is " + MAX_ENTITY_LOADS);
+    }
+}
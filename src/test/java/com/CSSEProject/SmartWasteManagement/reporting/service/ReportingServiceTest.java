@@ -1,7 +1,10 @@
 // Testing ReportingService analytics and dashboard functionality with mocked repositories
 package com.CSSEProject.SmartWasteManagement.reporting.service;
 
+import com.CSSEProject.SmartWasteManagement.dto.CollectionEventDto;
+import com.CSSEProject.SmartWasteManagement.dto.CollectionTotalsDto;
 import com.CSSEProject.SmartWasteManagement.dto.DashboardStatsDto;
+import com.CSSEProject.SmartWasteManagement.dto.MonthlyWasteDto;
 import com.CSSEProject.SmartWasteManagement.reporting.service.ReportingService;
 import com.CSSEProject.SmartWasteManagement.user.entity.User;
 import com.CSSEProject.SmartWasteManagement.user.entity.UserRole;
@@ -11,21 +14,27 @@ import com.CSSEProject.SmartWasteManagement.waste.entity.BinStatus;
 import com.CSSEProject.SmartWasteManagement.waste.entity.BinType;
 import com.CSSEProject.SmartWasteManagement.waste.repository.CollectionEventRepository;
 import com.CSSEProject.SmartWasteManagement.waste.repository.WasteBinRepository;
+import com.CSSEProject.SmartWasteManagement.waste.service.ArchivedCollectionRollups;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.*;
 
 /**
@@ -41,6 +50,9 @@ class ReportingServiceTest {
     @Mock
     private WasteBinRepository wasteBinRepository;
 
+    @Mock
+    private ArchivedCollectionRollups archivedCollectionRollups;
+
     @InjectMocks
     private ReportingService reportingService;
 
@@ -87,8 +99,7 @@ class ReportingServiceTest {
     @Test
     void getDashboardStats_ShouldReturnCorrectStats_WhenDataExists() {
         // Arrange
-        List<CollectionEvent> collections = Arrays.asList(mockCollection1, mockCollection2);
-        when(collectionEventRepository.findAll()).thenReturn(collections);
+        when(collectionEventRepository.getCollectionTotals()).thenReturn(new CollectionTotalsDto(2L, 37.8, 60.0));
         when(wasteBinRepository.count()).thenReturn(5L);
         when(wasteBinRepository.countByStatus(BinStatus.ACTIVE)).thenReturn(4L);
 
@@ -102,70 +113,118 @@ class ReportingServiceTest {
         assertEquals(60.0, result.getTotalRevenue(), 0.001); // 25.0 + 35.0
         assertEquals(5, result.getTotalBins());
         assertEquals(4, result.getActiveBins());
-        verify(collectionEventRepository).findAll();
+        verify(collectionEventRepository).getCollectionTotals();
+        verify(collectionEventRepository, never()).findAll();
         verify(wasteBinRepository).count();
         verify(wasteBinRepository).countByStatus(BinStatus.ACTIVE);
     }
 
     @Test
-    void getCollectionEvents_ShouldReturnEvents_WhenEventsExist() {
+    void getCollectionEvents_ShouldReturnFirstPage_WhenNoCursorGiven() {
         // Arrange
-        List<CollectionEvent> collections = Arrays.asList(mockCollection1, mockCollection2);
-        when(collectionEventRepository.findAll()).thenReturn(collections);
+        when(collectionEventRepository.findEventFeedAfter(eq(0L), isNull(), isNull(), any(Pageable.class)))
+                .thenReturn(Arrays.asList(toDto(mockCollection1), toDto(mockCollection2)));
 
         // Act
-        List<CollectionEvent> result = reportingService.getCollectionEvents();
+        List<CollectionEventDto> result = reportingService.getCollectionEvents(null, 50);
 
         // Assert
         assertNotNull(result);
         assertEquals(2, result.size());
         assertEquals(1L, result.get(0).getId());
         assertEquals(2L, result.get(1).getId());
-        assertEquals(15.5, result.get(0).getWeight(), 0.001);
-        assertEquals(22.3, result.get(1).getWeight(), 0.001);
-        verify(collectionEventRepository).findAll();
+        assertEquals(15.5, result.get(0).getWeightInKg(), 0.001);
+        assertEquals(22.3, result.get(1).getWeightInKg(), 0.001);
+        verify(collectionEventRepository, never()).findAll();
+    }
+
+    @Test
+    void getCollectionEvents_ShouldCapPageSize() {
+        // Arrange
+        ArgumentCaptor<Pageable> pageable = ArgumentCaptor.forClass(Pageable.class);
+        when(collectionEventRepository.findEventFeedAfter(eq(10L), isNull(), isNull(), pageable.capture()))
+                .thenReturn(List.of());
+
+        // Act
+        reportingService.getCollectionEvents(10L, 1_000_000);
+
+        // Assert
+        assertEquals(ReportingService.MAX_PAGE_SIZE, pageable.getValue().getPageSize());
     }
 
     @Test
     void getCollectionEventsByCollector_ShouldReturnFilteredEvents_WhenCollectorHasEvents() {
         // Arrange
-        List<CollectionEvent> collections = Arrays.asList(mockCollection1, mockCollection2);
-        when(collectionEventRepository.findByCollectorId(1L)).thenReturn(collections);
+        when(collectionEventRepository.findEventFeedAfter(eq(0L), eq(1L), isNull(), any(Pageable.class)))
+                .thenReturn(Arrays.asList(toDto(mockCollection1), toDto(mockCollection2)));
 
         // Act
-        List<CollectionEvent> result = reportingService.getCollectionEventsByCollector(1L);
+        List<CollectionEventDto> result = reportingService.getCollectionEventsByCollector(1L, null, 100);
 
         // Assert
         assertNotNull(result);
         assertEquals(2, result.size());
-        assertEquals(1L, result.get(0).getId());
-        assertEquals(2L, result.get(1).getId());
-        verify(collectionEventRepository).findByCollectorId(1L);
+        assertEquals("Staff Member", result.get(0).getStaffName());
+        verify(collectionEventRepository, never()).findByCollectorId(anyLong());
     }
 
     @Test
     void getCollectionEventsByBin_ShouldReturnFilteredEvents_WhenBinHasEvents() {
         // Arrange
-        List<CollectionEvent> collections = Arrays.asList(mockCollection1, mockCollection2);
-        when(collectionEventRepository.findByWasteBinBinId("BIN-001")).thenReturn(collections);
+        when(collectionEventRepository.findEventFeedAfter(eq(0L), isNull(), eq("BIN-001"), any(Pageable.class)))
+                .thenReturn(Arrays.asList(toDto(mockCollection1), toDto(mockCollection2)));
 
         // Act
-        List<CollectionEvent> result = reportingService.getCollectionEventsByBin("BIN-001");
+        List<CollectionEventDto> result = reportingService.getCollectionEventsByBin("BIN-001", null, 100);
 
         // Assert
         assertNotNull(result);
         assertEquals(2, result.size());
-        assertEquals("BIN-001", result.get(0).getWasteBin().getBinId());
-        assertEquals("BIN-001", result.get(1).getWasteBin().getBinId());
-        verify(collectionEventRepository).findByWasteBinBinId("BIN-001");
+        assertEquals("BIN-001", result.get(0).getBinId());
+        assertEquals("BIN-001", result.get(1).getBinId());
     }
 
+    @Test
+    void streamCollectionEvents_ShouldFollowTheKeysetCursor() {
+        // Arrange - a full first page forces a second request after the last id
+        List<CollectionEventDto> fullPage = new ArrayList<>();
+        for (long id = 1; id <= ReportingService.MAX_PAGE_SIZE; id++) {
+            fullPage.add(new CollectionEventDto(id, "BIN-001", null, null, LocalDateTime.now(), 1.0));
+        }
+        when(collectionEventRepository.findEventFeedAfter(eq(0L), isNull(), isNull(), any(Pageable.class)))
+                .thenReturn(fullPage);
+        when(collectionEventRepository.findEventFeedAfter(eq((long) ReportingService.MAX_PAGE_SIZE), isNull(), isNull(), any(Pageable.class)))
+                .thenReturn(List.of(toDto(mockCollection1)));
 
+        // Act
+        List<Long> seen = new ArrayList<>();
+        long streamed = reportingService.streamCollectionEvents(event -> seen.add(event.getId()));
+
+        // Assert
+        assertEquals(ReportingService.MAX_PAGE_SIZE + 1, streamed);
+        assertEquals(seen.size(), streamed);
+    }
+
+    @Test
+    void getMonthlyWaste_ShouldFillMissingMonthsWithZero() {
+        // Arrange
+        when(collectionEventRepository.getMonthlyWeightBetween(any(), any()))
+                .thenReturn(List.<Object[]>of(new Object[]{3, 120.5}));
+
+        // Act
+        List<MonthlyWasteDto> result = reportingService.getMonthlyWaste(2025);
+
+        // Assert
+        assertEquals(12, result.size());
+        assertEquals("MARCH", result.get(2).getMonth());
+        assertEquals(120.5, result.get(2).getTotalWeight(), 0.001);
+        assertEquals(0.0, result.get(0).getTotalWeight(), 0.001);
+    }
 
     @Test
     void getDashboardStats_ShouldHandleZeroData_WhenNoCollectionsOrBinsExist() {
         // Arrange - Empty database scenario
-        when(collectionEventRepository.findAll()).thenReturn(Arrays.asList());
+        when(collectionEventRepository.getCollectionTotals()).thenReturn(new CollectionTotalsDto(0L, 0.0, 0.0));
         when(wasteBinRepository.count()).thenReturn(0L);
         when(wasteBinRepository.countByStatus(BinStatus.ACTIVE)).thenReturn(0L);
 
@@ -179,10 +238,13 @@ class ReportingServiceTest {
         assertEquals(0.0, result.getTotalRevenue(), 0.001);
         assertEquals(0, result.getTotalBins());
         assertEquals(0, result.getActiveBins());
-        verify(collectionEventRepository).findAll();
+        verify(collectionEventRepository).getCollectionTotals();
         verify(wasteBinRepository).count();
         verify(wasteBinRepository).countByStatus(BinStatus.ACTIVE);
     }
 
-
+    private CollectionEventDto toDto(CollectionEvent collection) {
+        return new CollectionEventDto(collection.getId(), collection.getWasteBin().getBinId(), null,
+                collection.getCollector().getName(), collection.getCollectionTime(), collection.getWeight());
+    }
 }
@@ -6,6 +6,7 @@ import com.CSSEProject.SmartWasteManagement.user.entity.User;
 import com.CSSEProject.SmartWasteManagement.user.entity.UserRole;
 import com.CSSEProject.SmartWasteManagement.user.repository.UserRepository;
 import com.CSSEProject.SmartWasteManagement.waste.repository.WasteBinRepository;
+import com.CSSEProject.SmartWasteManagement.waste.service.BinStatusCounters;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -37,6 +38,9 @@ class UserServiceTest {
     @Mock
     private WasteBinRepository wasteBinRepository;
 
+    @Mock
+    private BinStatusCounters binStatusCounters;
+
     @InjectMocks
     private UserService userService;
 
@@ -95,4 +99,29 @@ class UserServiceTest {
         verify(userRepository).findByEmail("john@example.com");
         verify(userRepository, never()).save(any(User.class));
     }
+
+    @Test
+    void updateUser_ShouldNotOverwriteLedgerBalances() {
+        // Arrange
+        mockUser.setPendingCharges(120.0);
+        mockUser.setRecyclingCredits(15.0);
+        mockUser.setTotalCharges(900.0);
+        User request = new User();
+        request.setId(1L);
+        request.setPhone("555-0100");
+        request.setPendingCharges(0.0);
+        request.setRecyclingCredits(999.0);
+        request.setTotalCharges(0.0);
+        when(userRepository.findById(1L)).thenReturn(Optional.of(mockUser));
+        when(userRepository.save(any(User.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // Act
+        User result = userService.updateUser(request);
+
+        // Assert
+        assertEquals("555-0100", result.getPhone());
+        assertEquals(120.0, result.getPendingCharges());
+        assertEquals(15.0, result.getRecyclingCredits());
+        assertEquals(900.0, result.getTotalCharges());
+    }
 }
@@ -2,10 +2,12 @@ package com.CSSEProject.SmartWasteManagement.waste.controller;
 
 import com.CSSEProject.SmartWasteManagement.dto.CollectionRequestDto;
 import com.CSSEProject.SmartWasteManagement.dto.CollectionResponseDto;
+import com.CSSEProject.SmartWasteManagement.dto.CollectorStatsDto;
 import com.CSSEProject.SmartWasteManagement.dto.RecyclableItemDto;
 import com.CSSEProject.SmartWasteManagement.waste.entity.CollectionEvent;
 import com.CSSEProject.SmartWasteManagement.waste.entity.WasteBin;
 import com.CSSEProject.SmartWasteManagement.waste.service.CollectionService;
+import com.CSSEProject.SmartWasteManagement.waste.service.CollectorStatsService;
 import com.CSSEProject.SmartWasteManagement.waste.service.OfflineSyncService;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
@@ -37,6 +39,9 @@ class CollectionControllerTest {
     @Mock
     private OfflineSyncService offlineSyncService;
 
+    @Mock
+    private CollectorStatsService collectorStatsService;
+
     @InjectMocks
     private CollectionController collectionController;
 
@@ -158,18 +163,18 @@ class CollectionControllerTest {
     @Test
     void getCollectorStats_ShouldReturnStatistics() throws Exception {
         // Arrange
-        List<CollectionEvent> mockCollections = Arrays.asList(mockCollection);
-        when(collectionService.getCollectionsByCollector(100L))
-                .thenReturn(mockCollections);
+        when(collectorStatsService.getCollectorStats(100L))
+                .thenReturn(new CollectorStatsDto(120L, 1500.0, 7500.0, 25L, 300.0, 1500.0, 42L));
 
         // Act & Assert
         mockMvc.perform(get("/api/waste/collections/stats/collector/100"))
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$.totalCollections").exists())
-                .andExpect(jsonPath("$.totalWeight").exists())
-                .andExpect(jsonPath("$.totalRevenue").exists())
-                .andExpect(jsonPath("$.todayCollections").exists())
-                .andExpect(jsonPath("$.efficiency").exists());
+                .andExpect(jsonPath("$.totalCollections").value(120))
+                .andExpect(jsonPath("$.totalWeight").value(1500.0))
+                .andExpect(jsonPath("$.totalRevenue").value(7500.0))
+                .andExpect(jsonPath("$.todayCollections").value(25))
+                .andExpect(jsonPath("$.todayWeight").value(300.0))
+                .andExpect(jsonPath("$.efficiency").value(50));
     }
 
     @Test
@@ -0,0 +1,65 @@
+package com.CSSEProject.SmartWasteManagement.waste.forecast;
+
+import com.CSSEProject.SmartWasteManagement.waste.forecast.FillRateEstimator.FillRate;
+import com.CSSEProject.SmartWasteManagement.waste.history.LevelPoint;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FillRateEstimatorTest {
+
+    private final LocalDateTime start = LocalDateTime.of(2025, 6, 1, 0, 0);
+
+    @Test
+    void estimate_ShouldIgnoreOutlierReadings() {
+        // Arrange - 2% per hour with two glitched readings
+        List<LevelPoint> points = new ArrayList<>();
+        for (int hour = 0; hour <= 30; hour++) {
+            double level = hour == 10 ? 100.0 : hour == 20 ? 0.0 : 2.0 * hour;
+            points.add(LevelPoint.of(start.plusHours(hour), level));
+        }
+
+        // Act
+        FillRate rate = FillRateEstimator.estimate(points, 0.5);
+
+        // Assert
+        assertNotNull(rate);
+        assertEquals(2.0, rate.percentPerHour(), 0.05);
+    }
+
+    @Test
+    void estimate_ShouldSplitCyclesAtEmptyingAndWeightRecentCycles() {
+        // Arrange - a cycle at 1%/h, an emptying, then a cycle at 3%/h
+        List<LevelPoint> points = new ArrayList<>();
+        for (int hour = 0; hour <= 20; hour++) {
+            points.add(LevelPoint.of(start.plusHours(hour), hour));
+        }
+        for (int hour = 0; hour <= 20; hour++) {
+            points.add(LevelPoint.of(start.plusHours(21 + hour), 3.0 * hour));
+        }
+
+        // Act
+        FillRate rate = FillRateEstimator.estimate(points, 0.75);
+
+        // Assert - 0.75 * 3 + 0.25 * 1
+        assertNotNull(rate);
+        assertEquals(2, rate.cycles());
+        assertEquals(2.5, rate.percentPerHour(), 0.05);
+    }
+
+    @Test
+    void estimate_ShouldReturnNullWithoutEnoughHistory() {
+        // Arrange - two readings ten minutes apart
+        List<LevelPoint> points = List.of(
+                LevelPoint.of(start, 10.0),
+                LevelPoint.of(start.plusMinutes(10), 12.0));
+
+        // Act & Assert
+        assertNull(FillRateEstimator.estimate(points, 0.5));
+        assertNull(FillRateEstimator.estimate(List.of(), 0.5));
+    }
+}
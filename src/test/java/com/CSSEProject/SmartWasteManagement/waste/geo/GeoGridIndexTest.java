@@ -0,0 +1,94 @@
+package com.CSSEProject.SmartWasteManagement.waste.geo;
+
+import com.CSSEProject.SmartWasteManagement.waste.geo.GeoGridIndex.Entry;
+import com.CSSEProject.SmartWasteManagement.waste.geo.GeoGridIndex.Hit;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GeoGridIndexTest {
+
+    private GeoGridIndex index;
+    private final List<Entry> points = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        // 20,000 bins scattered over Colombo
+        Random random = new Random(42);
+        for (int i = 0; i < 20_000; i++) {
+            points.add(new Entry("BIN-" + i, 6.85 + random.nextDouble() * 0.15, 79.82 + random.nextDouble() * 0.12));
+        }
+        index = new GeoGridIndex(0.01);
+        index.replaceAll(points);
+    }
+
+    @Test
+    void withinRadiusAndInBox_ShouldMatchAFullScan() {
+        // Act
+        List<Hit> hits = index.withinRadius(6.92, 79.86, 750, Integer.MAX_VALUE);
+        int[] total = new int[1];
+        List<Entry> boxed = index.inBox(6.90, 79.85, 6.93, 79.88, 100, total);
+
+        // Assert
+        Set<String> expectedInRadius = new HashSet<>();
+        int expectedInBox = 0;
+        for (Entry point : points) {
+            if (GeoGridIndex.distanceMeters(6.92, 79.86, point.latitude(), point.longitude()) <= 750) {
+                expectedInRadius.add(point.id());
+            }
+            if (point.latitude() >= 6.90 && point.latitude() <= 6.93 && point.longitude() >= 79.85 && point.longitude() <= 79.88) {
+                expectedInBox++;
+            }
+        }
+        assertEquals(expectedInRadius, hits.stream().map(hit -> hit.entry().id()).collect(java.util.stream.Collectors.toSet()));
+        assertTrue(hits.get(0).distanceMeters() <= hits.get(hits.size() - 1).distanceMeters());
+        assertEquals(expectedInBox, total[0]);
+        assertEquals(100, boxed.size());
+    }
+
+    @Test
+    void nearest_ShouldMatchAFullScanAfterUpdates() {
+        // Arrange - move one bin next to the query point and remove another
+        index.put("BIN-7", 6.9001, 79.8601);
+        index.remove("BIN-8");
+        Map<String, Entry> current = new HashMap<>();
+        points.forEach(point -> current.put(point.id(), point));
+        current.put("BIN-7", new Entry("BIN-7", 6.9001, 79.8601));
+        current.remove("BIN-8");
+
+        // Act
+        List<Hit> nearest = index.nearest(6.90, 79.86, 25);
+
+        // Assert
+        List<String> expected = current.values().stream()
+                .sorted(Comparator.comparingDouble(p -> GeoGridIndex.distanceMeters(6.90, 79.86, p.latitude(), p.longitude())))
+                .limit(25)
+                .map(Entry::id)
+                .toList();
+        assertEquals(expected, nearest.stream().map(hit -> hit.entry().id()).toList());
+        assertEquals("BIN-7", nearest.get(0).entry().id());
+        assertEquals(20_000 - 1, index.size());
+    }
+
+    @Test
+    void nearest_ShouldFindDistantPointsAndWrapAroundTheAntimeridian() {
+        // Arrange
+        GeoGridIndex sparse = new GeoGridIndex(0.01);
+        sparse.put("FIJI", -17.7, 179.99);
+        sparse.put("COLOMBO", 6.93, 79.85);
+
+        // Act
+        List<Hit> fromSamoa = sparse.nearest(-17.7, -179.99, 1);
+        List<Hit> all = sparse.nearest(0, 0, 5);
+        List<Hit> wrapped = sparse.withinRadius(-17.7, -179.99, 5_000, 10);
+
+        // Assert
+        assertEquals("FIJI", fromSamoa.get(0).entry().id());
+        assertTrue(fromSamoa.get(0).distanceMeters() < 5_000);
+        assertEquals(2, all.size());
+        assertEquals(1, wrapped.size());
+    }
+}
@@ -1,5 +1,7 @@
 package com.CSSEProject.SmartWasteManagement.waste.repository;
 
+import com.CSSEProject.SmartWasteManagement.dto.CollectorStatsDto;
+import com.CSSEProject.SmartWasteManagement.user.entity.User;
 import com.CSSEProject.SmartWasteManagement.waste.entity.CollectionEvent;
 import com.CSSEProject.SmartWasteManagement.waste.entity.WasteBin;
 import org.junit.jupiter.api.Test;
@@ -8,6 +10,7 @@ import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
 import org.springframework.test.context.ActiveProfiles;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
 
@@ -225,4 +228,62 @@ class CollectionRepositoryTest {
         // Assert
         assertEquals(2, result);
     }
-}
\ No newline at end of file
+
+    @Test
+    void getCollectorStats_ShouldAggregateLifetimeAndToday() {
+        // Arrange
+        User collector = new User();
+        collector.setName("Collector");
+        collector.setEmail("collector@test.com");
+        entityManager.persist(collector);
+
+        WasteBin bin = new WasteBin();
+        bin.setBinId("TEST-BIN-8");
+        entityManager.persist(bin);
+
+        LocalDateTime dayStart = LocalDate.now().atStartOfDay();
+
+        CollectionEvent older = new CollectionEvent();
+        older.setWeight(4.0);
+        older.setCalculatedCharge(20.0);
+        older.setCollectionTime(dayStart.minusDays(3));
+        older.setWasteBin(bin);
+        older.setCollector(collector);
+
+        CollectionEvent today = new CollectionEvent();
+        today.setWeight(6.0);
+        today.setCalculatedCharge(30.0);
+        today.setCollectionTime(dayStart.plusHours(9));
+        today.setWasteBin(bin);
+        today.setCollector(collector);
+
+        entityManager.persist(older);
+        entityManager.persist(today);
+        entityManager.flush();
+
+        // Act
+        CollectorStatsDto stats = collectionRepository.getCollectorStats(collector.getId(), dayStart, dayStart.plusDays(1));
+
+        // Assert
+        assertEquals(2L, stats.getTotalCollections());
+        assertEquals(10.0, stats.getTotalWeight());
+        assertEquals(50.0, stats.getTotalRevenue());
+        assertEquals(1L, stats.getTodayCollections());
+        assertEquals(6.0, stats.getTodayWeight());
+        assertEquals(30.0, stats.getTodayRevenue());
+        assertEquals(today.getId(), stats.getLastCollectionId());
+    }
+
+    @Test
+    void getCollectorStats_WithNoCollections_ShouldReturnZeros() {
+        // Act
+        LocalDateTime dayStart = LocalDate.now().atStartOfDay();
+        CollectorStatsDto stats = collectionRepository.getCollectorStats(999L, dayStart, dayStart.plusDays(1));
+
+        // Assert
+        assertEquals(0L, stats.getTotalCollections());
+        assertEquals(0.0, stats.getTotalWeight());
+        assertEquals(0L, stats.getTodayCollections());
+        assertNull(stats.getLastCollectionId());
+    }
+}
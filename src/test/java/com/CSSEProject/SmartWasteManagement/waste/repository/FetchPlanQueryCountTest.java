@@ -0,0 +1,210 @@
+package com.CSSEProject.SmartWasteManagement.waste.repository;
+
+import com.CSSEProject.SmartWasteManagement.analytics.dto.BinStatusDto;
+import com.CSSEProject.SmartWasteManagement.analytics.dto.CollectionRecordDto;
+import com.CSSEProject.SmartWasteManagement.analytics.dto.KPIsDto;
+import com.CSSEProject.SmartWasteManagement.analytics.service.AnalyticsService;
+import com.CSSEProject.SmartWasteManagement.analytics.service.SketchRollupService;
+import com.CSSEProject.SmartWasteManagement.analytics.strategy.AllTimeStrategy;
+import com.CSSEProject.SmartWasteManagement.analytics.strategy.FilterStrategyFactory;
+import com.CSSEProject.SmartWasteManagement.analytics.strategy.Last30DaysStrategy;
+import com.CSSEProject.SmartWasteManagement.analytics.strategy.Last7DaysStrategy;
+import com.CSSEProject.SmartWasteManagement.config.DataVersionRegistry;
+import com.CSSEProject.SmartWasteManagement.config.QueryFanOut;
+import com.CSSEProject.SmartWasteManagement.dto.ScheduleResponseDto;
+import com.CSSEProject.SmartWasteManagement.user.entity.User;
+import com.CSSEProject.SmartWasteManagement.waste.entity.*;
+import com.CSSEProject.SmartWasteManagement.waste.service.ArchivedCollectionRollups;
+import com.CSSEProject.SmartWasteManagement.waste.service.BinStatusCounters;
+import com.CSSEProject.SmartWasteManagement.waste.service.ScheduleFeedService;
+import com.CSSEProject.SmartWasteManagement.waste.service.ScheduleService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Regression guard for the fetch plans: each endpoint's read path must issue a fixed number of
+ * SQL statements, whatever the number of bins, residents and collections involved. Results are
+ * serialized to JSON inside the session, as open-in-view does for the controllers, so lazy
+ * loads triggered by serialization are counted too.
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+@Import({ScheduleService.class, ScheduleFeedService.class, ScheduleJdbcRepository.class, AnalyticsService.class,
+        FilterStrategyFactory.class, Last7DaysStrategy.class, Last30DaysStrategy.class, AllTimeStrategy.class, DataVersionRegistry.class,
+        ArchivedCollectionRollups.class})
+@TestPropertySource(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class FetchPlanQueryCountTest {
+
+    private static final int RESIDENTS = 4;
+    private static final int BINS_PER_RESIDENT = 3;
+    private static final int COLLECTIONS_PER_BIN = 2;
+
+    @MockBean
+    private BinStatusCounters binStatusCounters;
+
+    @MockBean
+    private SketchRollupService sketchRollupService;
+
+    @MockBean
+    private QueryFanOut queryFanOut;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private ScheduleService scheduleService;
+
+    @Autowired
+    private AnalyticsService analyticsService;
+
+    @Autowired
+    private CollectionEventRepository collectionEventRepository;
+
+    @Autowired
+    private WasteBinRepository wasteBinRepository;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
+    private Statistics statistics;
+    private User firstResident;
+
+    @BeforeEach
+    void setUp() {
+        // Each bin has its own resident, collector and schedule so per-row lazy loads would show up
+        for (int r = 0; r < RESIDENTS; r++) {
+            User resident = persistUser("Resident " + r);
+            User collector = persistUser("Collector " + r);
+            if (r == 0) {
+                firstResident = resident;
+            }
+            for (int b = 0; b < BINS_PER_RESIDENT; b++) {
+                WasteBin bin = new WasteBin();
+                bin.setBinId("PLAN-" + r + "-" + b);
+                bin.setLocation("Plan Street " + b);
+                bin.setBinType(BinType.GENERAL_WASTE);
+                bin.setStatus(BinStatus.ACTIVE);
+                bin.setResident(resident);
+                entityManager.persist(bin);
+                for (int c = 0; c < COLLECTIONS_PER_BIN; c++) {
+                    CollectionEvent collection = new CollectionEvent();
+                    collection.setWeight(5.0);
+                    collection.setCalculatedCharge(2.5);
+                    collection.setCollectionTime(LocalDateTime.now().minusHours(c + 1));
+                    collection.setWasteBin(bin);
+                    collection.setCollector(collector);
+                    entityManager.persist(collection);
+                }
+                CollectionSchedule schedule = new CollectionSchedule();
+                schedule.setWasteBin(bin);
+                schedule.setScheduledDate(LocalDate.now());
+                entityManager.persist(schedule);
+            }
+        }
+        entityManager.flush();
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    void scheduleEndpoints_ShouldUseOneQueryEach() {
+        // Act
+        List<ScheduleResponseDto> today = assertQueries(1, () -> scheduleService.getPendingSchedulesForToday());
+        List<ScheduleResponseDto> byBin = assertQueries(1, () -> scheduleService.getSchedulesByBin("PLAN-1-1"));
+        List<ScheduleResponseDto> byResident = assertQueries(1, () -> scheduleService.getSchedulesByResident(firstResident.getId()));
+
+        // Assert
+        assertEquals(RESIDENTS * BINS_PER_RESIDENT, today.size());
+        assertTrue(today.stream().allMatch(s -> s.getLocation() != null && s.getResidentId() != null));
+        assertEquals(1, byBin.size());
+        assertEquals(BINS_PER_RESIDENT, byResident.size());
+    }
+
+    @Test
+    void collectionEndpoints_ShouldUseOneQueryEach() {
+        // Act
+        List<CollectionEvent> byBin = assertQueries(1, () -> collectionEventRepository.findByWasteBinBinId("PLAN-2-0"));
+        List<CollectionEvent> uninvoiced = assertQueries(1, () -> collectionEventRepository.findUninvoicedCollections());
+        List<CollectionEvent> residentUninvoiced = assertQueries(1,
+                () -> collectionEventRepository.findUninvoicedByResident(firstResident.getId()));
+
+        // Assert
+        assertEquals(COLLECTIONS_PER_BIN, byBin.size());
+        assertEquals(RESIDENTS * BINS_PER_RESIDENT * COLLECTIONS_PER_BIN, uninvoiced.size());
+        assertEquals(BINS_PER_RESIDENT * COLLECTIONS_PER_BIN, residentUninvoiced.size());
+    }
+
+    @Test
+    void binListEndpoints_ShouldFetchResidentsInTheSameQuery() {
+        // Act
+        List<WasteBin> active = assertQueries(1, () -> wasteBinRepository.findByStatus(BinStatus.ACTIVE));
+        List<WasteBin> byResident = assertQueries(1, () -> wasteBinRepository.findByResidentId(firstResident.getId()));
+
+        // Assert
+        assertEquals(RESIDENTS * BINS_PER_RESIDENT, active.size());
+        assertEquals(BINS_PER_RESIDENT, byResident.size());
+    }
+
+    @Test
+    void analyticsEndpoints_ShouldUseProjections() {
+        // Act
+        List<CollectionRecordDto> records = assertQueries(1, () -> analyticsService.getCollectionRecords("all"));
+        KPIsDto kpis = assertQueries(1, () -> analyticsService.getKPIs("all"));
+        List<BinStatusDto> overview = assertQueries(1, () -> analyticsService.getBinStatusOverview());
+
+        // Assert
+        int collections = RESIDENTS * BINS_PER_RESIDENT * COLLECTIONS_PER_BIN;
+        assertEquals(collections, records.size());
+        assertTrue(records.stream().allMatch(r -> r.getStaffName() != null && r.getLocation() != null));
+        assertEquals(collections * 5.0, kpis.getTotalWasteCollected(), 0.001);
+        assertEquals(RESIDENTS * BINS_PER_RESIDENT, overview.size());
+        assertTrue(overview.stream().allMatch(b -> b.getLastCollectionDate() != null));
+        assertEquals(0, statistics.getEntityLoadCount());
+    }
+
+    // Runs one endpoint's read path on an empty session, serializes the result and checks the statement count
+    private <T> T assertQueries(long expected, Supplier<T> call) {
+        entityManager.clear();
+        statistics.clear();
+
+        T result = call.get();
+        try {
+            objectMapper.writeValueAsString(result);
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException(e);
+        }
+
+        long queries = statistics.getPrepareStatementCount();
+        assertEquals(expected, queries, "Expected " + expected + " SQL statements but " + queries + " were issued");
+        return result;
+    }
+
+    private User persistUser(String name) {
+        User user = new User();
+        user.setName(name);
+        user.setEmail(name.replace(' ', '.').toLowerCase() + "@plan.test");
+        entityManager.persist(user);
+        return user;
+    }
+}
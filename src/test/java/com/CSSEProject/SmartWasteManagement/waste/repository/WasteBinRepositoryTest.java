@@ -11,6 +11,7 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.dao.OptimisticLockingFailureException;
 
 import java.time.LocalDate;
 import java.util.List;
@@ -100,4 +101,18 @@ class WasteBinRepositoryTest {
         // Assert
         assertEquals(1, count);
     }
+
+    @Test
+    void save_WithStaleVersion_ShouldRaiseOptimisticLockingFailure() {
+        // Arrange - testBin is left at version 0 while another writer moves the row to version 1
+        entityManager.clear();
+        WasteBin concurrent = wasteBinRepository.findById("TEST-BIN-001").orElseThrow();
+        concurrent.setCurrentLevel(70.0);
+        entityManager.flush();
+        entityManager.clear();
+        testBin.setStatus(BinStatus.NEEDS_EMPTYING);
+
+        // Act & Assert
+        assertThrows(OptimisticLockingFailureException.class, () -> wasteBinRepository.save(testBin));
+    }
 }
@@ -0,0 +1,103 @@
+package com.CSSEProject.SmartWasteManagement.waste.routing;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CapacityBalancerTest {
+
+    private static final double UNLIMITED_SHIFT = 1e9;
+
+    @Test
+    void balance_TwoClusters_ShouldGiveEachTruckTheClusterNearItsDepot() {
+        // Arrange: 20 stops around (0, 0) and 20 around (10 km, 0); depots next to each cluster
+        CapacityBalancer balancer = new CapacityBalancer(List.of(
+                new CapacityBalancer.Vehicle(new double[]{10_500, 0}, 1000, UNLIMITED_SHIFT),
+                new CapacityBalancer.Vehicle(new double[]{-500, 0}, 1000, UNLIMITED_SHIFT)), 60, 7);
+        Random random = new Random(3);
+        List<Integer> west = new ArrayList<>();
+        List<Integer> east = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            west.add(balancer.addStop(random.nextDouble() * 500, random.nextDouble() * 500, 10, 0));
+            east.add(balancer.addStop(10_000 + random.nextDouble() * 500, random.nextDouble() * 500, 10, 0));
+        }
+
+        // Act
+        balance(balancer);
+
+        // Assert
+        assertTrue(west.stream().allMatch(stop -> balancer.vehicleOf(stop) == 1));
+        assertTrue(east.stream().allMatch(stop -> balancer.vehicleOf(stop) == 0));
+        assertTrue(balancer.unassignedStops().isEmpty());
+    }
+
+    @Test
+    void balance_OverCapacity_ShouldRespectLimitsAndLeaveLowPriorityStopsUnassigned() {
+        // Arrange: 3 trucks of 100 kg, 40 stops of 10 kg; 10 of them were deferred before
+        List<CapacityBalancer.Vehicle> vehicles = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            vehicles.add(new CapacityBalancer.Vehicle(null, 100, UNLIMITED_SHIFT));
+        }
+        CapacityBalancer balancer = new CapacityBalancer(vehicles, 60, 7);
+        Random random = new Random(5);
+        List<Integer> deferred = new ArrayList<>();
+        for (int i = 0; i < 40; i++) {
+            int stop = balancer.addStop(random.nextDouble() * 5000, random.nextDouble() * 5000, 10, i < 10 ? 1 : 0);
+            if (i < 10) {
+                deferred.add(stop);
+            }
+        }
+
+        // Act
+        balance(balancer);
+
+        // Assert
+        assertEquals(10, balancer.unassignedStops().size());
+        for (int v = 0; v < 3; v++) {
+            assertEquals(10, balancer.stopCount(v));
+            assertTrue(balancer.loadKg(v) <= 100.0 + 1e-9);
+        }
+        assertTrue(deferred.stream().allMatch(stop -> balancer.vehicleOf(stop) >= 0));
+    }
+
+    @Test
+    void placeUnassigned_AfterBalance_ShouldRespectShiftAndKeepExistingAssignments() {
+        // Arrange: one truck with a 30 minute shift and 60 s per stop, stops 100 m apart on a line
+        CapacityBalancer balancer = new CapacityBalancer(List.of(
+                new CapacityBalancer.Vehicle(new double[]{0, 0}, 10_000, 30 * 60)), 60, 10);
+        List<Integer> first = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            first.add(balancer.addStop(i * 100.0, 0, 10, 0));
+        }
+        balance(balancer);
+
+        // Act: 40 more stops further along the line
+        for (int i = 10; i < 50; i++) {
+            balancer.addStop(i * 100.0, 0, 10, 0);
+        }
+        balancer.placeUnassigned(deadlineIn(1000));
+
+        // Assert: every original stop kept; the shift caps how many of the new ones fit
+        assertTrue(first.stream().allMatch(stop -> balancer.vehicleOf(stop) == 0));
+        assertTrue(balancer.estimatedSeconds(0) <= 30 * 60);
+        assertTrue(balancer.stopCount(0) < 50);
+        assertEquals(50 - balancer.stopCount(0), balancer.unassignedStops().size());
+    }
+
+    private static void balance(CapacityBalancer balancer) {
+        long deadline = deadlineIn(1000);
+        balancer.seed();
+        balancer.placeUnassigned(deadline);
+        balancer.improve(deadline);
+        balancer.placeUnassigned(deadline);
+    }
+
+    private static long deadlineIn(long millis) {
+        return System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(millis);
+    }
+}
@@ -0,0 +1,101 @@
+package com.CSSEProject.SmartWasteManagement.waste.routing;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TourOptimizerTest {
+
+    @Test
+    void optimize_ShouldFindTheOptimalTourOfAGrid() {
+        // Arrange: a 10x10 grid 100 m apart, visited in scrambled order; the best tour is 100 x 100 m
+        double[] x = new double[100];
+        double[] y = new double[100];
+        int[] scrambled = new int[100];
+        for (int i = 0; i < 100; i++) {
+            scrambled[i] = (i * 37) % 100;
+        }
+        for (int i = 0; i < 100; i++) {
+            x[i] = (scrambled[i] % 10) * 100.0;
+            y[i] = (scrambled[i] / 10) * 100.0;
+        }
+
+        // Act
+        int[] order = TourOptimizer.optimize(x, y, deadlineIn(1000));
+
+        // Assert
+        assertEquals(0, order[0]);
+        assertPermutation(order, 100);
+        assertEquals(10_000.0, TourOptimizer.length(x, y, order, true), 1_000.0);
+    }
+
+    @Test
+    void optimize_5000Stops_ShouldVisitEachOnceAndBeatNearestNeighbourWithinBudget() {
+        // Arrange: 5,000 stops over a 15 km square
+        Random random = new Random(7);
+        double[] x = new double[5000];
+        double[] y = new double[5000];
+        for (int i = 0; i < x.length; i++) {
+            x[i] = random.nextDouble() * 15_000;
+            y[i] = random.nextDouble() * 15_000;
+        }
+        double nearestNeighbour = TourOptimizer.length(x, y, TourOptimizer.optimize(x, y, System.nanoTime()), true);
+
+        // Act
+        long startedAt = System.nanoTime();
+        int[] order = TourOptimizer.optimize(x, y, deadlineIn(1500));
+        long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt);
+
+        // Assert
+        assertPermutation(order, x.length);
+        assertTrue(elapsedMs < 2000, "took " + elapsedMs + " ms");
+        double optimized = TourOptimizer.length(x, y, order, true);
+        assertTrue(optimized < nearestNeighbour * 0.9, optimized + " vs nearest-neighbour " + nearestNeighbour);
+    }
+
+    @Test
+    void sweepClustering_ShouldSplitStopsEvenlyAndGiveEachDepotItsNearbySector() {
+        // Arrange: stops around the origin, depots east and west of them
+        Random random = new Random(3);
+        double[] x = new double[1001];
+        double[] y = new double[1001];
+        for (int i = 0; i < x.length; i++) {
+            x[i] = random.nextGaussian() * 1000;
+            y[i] = random.nextGaussian() * 1000;
+        }
+        double[][] depots = {{-5000, 0}, {5000, 0}, null};
+
+        // Act
+        int[] assignment = SweepClustering.assign(x, y, depots);
+
+        // Assert
+        int[] counts = new int[3];
+        double[] meanX = new double[3];
+        for (int i = 0; i < assignment.length; i++) {
+            counts[assignment[i]]++;
+            meanX[assignment[i]] += x[i];
+        }
+        for (int count : counts) {
+            assertTrue(count == 333 || count == 334, Arrays.toString(counts));
+        }
+        assertTrue(meanX[0] / counts[0] < 0, "west depot should get western stops");
+        assertTrue(meanX[1] / counts[1] > 0, "east depot should get eastern stops");
+    }
+
+    private static long deadlineIn(long ms) {
+        return System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(ms);
+    }
+
+    private static void assertPermutation(int[] order, int n) {
+        assertEquals(n, order.length);
+        boolean[] seen = new boolean[n];
+        for (int point : order) {
+            assertFalse(seen[point], "visited twice: " + point);
+            seen[point] = true;
+        }
+    }
+}
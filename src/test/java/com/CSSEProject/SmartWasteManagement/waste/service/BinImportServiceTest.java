@@ -0,0 +1,122 @@
+package com.CSSEProject.SmartWasteManagement.waste.service;
+
+import com.CSSEProject.SmartWasteManagement.config.DataVersionRegistry;
+import com.CSSEProject.SmartWasteManagement.user.entity.User;
+import com.CSSEProject.SmartWasteManagement.user.entity.UserRole;
+import com.CSSEProject.SmartWasteManagement.waste.entity.BinStatus;
+import com.CSSEProject.SmartWasteManagement.waste.entity.BinType;
+import com.CSSEProject.SmartWasteManagement.waste.entity.WasteBin;
+import com.CSSEProject.SmartWasteManagement.waste.imports.BinImportReader.Format;
+import com.CSSEProject.SmartWasteManagement.waste.repository.BinImportJdbcRepository;
+import com.CSSEProject.SmartWasteManagement.waste.repository.WasteBinRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.StringReader;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@Import({BinImportService.class, BinImportJdbcRepository.class, BinStatusCounters.class, DataVersionRegistry.class})
+class BinImportServiceTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private BinImportService binImportService;
+
+    @Autowired
+    private WasteBinRepository wasteBinRepository;
+
+    @MockBean
+    private BinLocationService binLocationService;
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void importBins_Csv_ShouldInsertValidRowsAndReportEachRejectedLine() {
+        // Arrange
+        User resident = persistUser("Nimal", UserRole.ROLE_RESIDENT);
+        User staff = persistUser("Kamal", UserRole.ROLE_STAFF);
+        persistBin("EXISTING");
+        entityManager.flush();
+        String csv = "binId,location,binType,capacity,residentId,latitude,longitude\n" +
+                "NEW-1,\"No. 5, Galle Road\",general_waste,120," + resident.getId() + ",6.9,79.85\n" +
+                "NEW-2,Park Lane,ORGANIC_WASTE,80,,,\n" +
+                "NEW-1,Duplicate,GENERAL_WASTE,120,,,\n" +
+                "EXISTING,Somewhere,GENERAL_WASTE,120,,,\n" +
+                "NEW-3,Staff House,GENERAL_WASTE,120," + staff.getId() + ",,\n" +
+                "NEW-4,Nowhere,PLASTIC,120,,,\n" +
+                "NEW-5,Half,GENERAL_WASTE,120,,6.9,\n" +
+                "NEW-6,\"unterminated,GENERAL_WASTE,120,,,\n";
+
+        // Act
+        Map<String, Object> report = binImportService.importBins(new StringReader(csv), Format.CSV, false);
+
+        // Assert
+        assertEquals(8L, report.get("rowsRead"));
+        assertEquals(2L, report.get("imported"));
+        assertEquals(6L, report.get("failed"));
+        List<Map<String, Object>> errors = (List<Map<String, Object>>) report.get("errors");
+        assertEquals(List.of(4L, 5L, 6L, 7L, 8L, 9L), errors.stream().map(error -> error.get("line")).toList());
+        assertEquals("Duplicate binId in this import", errors.get(0).get("error"));
+
+        entityManager.clear();
+        WasteBin imported = wasteBinRepository.findById("NEW-1").orElseThrow();
+        assertEquals("No. 5, Galle Road", imported.getLocation());
+        assertEquals(BinType.GENERAL_WASTE, imported.getBinType());
+        assertEquals(BinStatus.ACTIVE, imported.getStatus());
+        assertEquals(resident.getId(), imported.getResident().getId());
+        assertEquals(0.0, imported.getCurrentLevel());
+        assertEquals(6.9, imported.getLatitude());
+    }
+
+    @Test
+    void importBins_100kNdjsonRows_ShouldFinishWellUnderAMinute() {
+        // Arrange
+        StringBuilder ndjson = new StringBuilder();
+        for (int i = 0; i < 100_000; i++) {
+            ndjson.append("{\"binId\":\"BULK-").append(i).append("\",\"location\":\"Scheme Block ").append(i / 100)
+                    .append("\",\"binType\":\"GENERAL_WASTE\",\"capacity\":120,\"latitude\":6.9,\"longitude\":79.85}\n");
+        }
+
+        // Act
+        long startedAt = System.currentTimeMillis();
+        Map<String, Object> dryRun = binImportService.importBins(new StringReader(ndjson.toString()), Format.NDJSON, true);
+        Map<String, Object> report = binImportService.importBins(new StringReader(ndjson.toString()), Format.NDJSON, false);
+        long elapsedMs = System.currentTimeMillis() - startedAt;
+
+        // Assert
+        assertEquals(100_000L, dryRun.get("valid"));
+        assertEquals(100_000L, report.get("imported"));
+        assertEquals(100_000L, wasteBinRepository.count());
+        assertEquals(0L, report.get("failed"));
+        assertTrue(elapsedMs < 60_000, "took " + elapsedMs + " ms");
+    }
+
+    private User persistUser(String name, UserRole role) {
+        User user = new User();
+        user.setName(name);
+        user.setEmail(name.toLowerCase() + "@example.com");
+        user.setPassword("secret");
+        user.setRole(role);
+        return entityManager.persist(user);
+    }
+
+    private void persistBin(String binId) {
+        WasteBin bin = new WasteBin();
+        bin.setBinId(binId);
+        bin.setLocation("Import Street");
+        bin.setBinType(BinType.GENERAL_WASTE);
+        bin.setCapacity(120.0);
+        entityManager.persist(bin);
+    }
+}
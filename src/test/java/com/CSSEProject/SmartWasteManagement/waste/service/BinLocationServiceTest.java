@@ -0,0 +1,93 @@
+package com.CSSEProject.SmartWasteManagement.waste.service;
+
+import com.CSSEProject.SmartWasteManagement.waste.entity.BinStatus;
+import com.CSSEProject.SmartWasteManagement.waste.entity.BinType;
+import com.CSSEProject.SmartWasteManagement.waste.entity.WasteBin;
+import com.CSSEProject.SmartWasteManagement.waste.geo.GeoGridIndex.Hit;
+import com.CSSEProject.SmartWasteManagement.waste.repository.WasteBinRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@Import(BinLocationService.class)
+class BinLocationServiceTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private BinLocationService binLocationService;
+
+    @Test
+    void findNearest_ShouldOnlyReturnLocatedBinsInService() {
+        // Arrange
+        persistBin("GEO-NEAR", 6.9271, 79.8612, BinStatus.ACTIVE);
+        persistBin("GEO-FAR", 6.9500, 79.9000, BinStatus.NEEDS_EMPTYING);
+        persistBin("GEO-RETIRED", 6.9272, 79.8613, BinStatus.DECOMMISSIONED);
+        persistBin("GEO-UNSURVEYED", null, null, BinStatus.ACTIVE);
+        entityManager.flush();
+
+        // Act
+        int indexed = binLocationService.rebuild();
+        List<Hit> nearest = binLocationService.findNearest(6.9270, 79.8610, 5);
+        List<Hit> within = binLocationService.findWithinRadius(6.9270, 79.8610, 1000, 10);
+
+        // Assert
+        assertEquals(2, indexed);
+        assertEquals(List.of("GEO-NEAR", "GEO-FAR"), nearest.stream().map(hit -> hit.entry().id()).toList());
+        assertEquals(1, within.size());
+        assertThrows(IllegalArgumentException.class, () -> binLocationService.findWithinRadius(6.9, 79.8, 100_000, 10));
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void rebuild_WithABinMovedDuringTheRead_ShouldKeepTheNewLocation() {
+        // Arrange: the move commits after the rows were read, so they still hold the old location
+        BinLocationService service = new BinLocationService();
+        WasteBinRepository repository = mock(WasteBinRepository.class);
+        ReflectionTestUtils.setField(service, "wasteBinRepository", repository);
+        when(repository.findIndexedLocations(BinStatus.DECOMMISSIONED)).thenAnswer(invocation -> {
+            WasteBin moved = new WasteBin();
+            moved.setBinId("GEO-MOVED");
+            moved.setLatitude(6.9500);
+            moved.setLongitude(79.9000);
+            moved.setStatus(BinStatus.ACTIVE);
+            service.binChanged(moved);
+            return List.<Object[]>of(new Object[]{"GEO-MOVED", 6.9271, 79.8612});
+        });
+
+        // Act
+        service.rebuild();
+        List<Hit> nearOld = service.findWithinRadius(6.9271, 79.8612, 100, 10);
+        List<Hit> nearNew = service.findWithinRadius(6.9500, 79.9000, 100, 10);
+
+        // Assert
+        assertTrue(nearOld.isEmpty());
+        assertEquals(List.of("GEO-MOVED"), nearNew.stream().map(hit -> hit.entry().id()).toList());
+    }
+
+    private void persistBin(String binId, Double latitude, Double longitude, BinStatus status) {
+        WasteBin bin = new WasteBin();
+        bin.setBinId(binId);
+        bin.setLocation("Galle Road");
+        bin.setBinType(BinType.GENERAL_WASTE);
+        bin.setCapacity(120.0);
+        bin.setLatitude(latitude);
+        bin.setLongitude(longitude);
+        bin.setStatus(status);
+        entityManager.persist(bin);
+    }
+}
@@ -0,0 +1,91 @@
+package com.CSSEProject.SmartWasteManagement.waste.service;
+
+import com.CSSEProject.SmartWasteManagement.dto.BinSearchResultDto;
+import com.CSSEProject.SmartWasteManagement.user.entity.User;
+import com.CSSEProject.SmartWasteManagement.user.entity.UserRole;
+import com.CSSEProject.SmartWasteManagement.waste.entity.BinType;
+import com.CSSEProject.SmartWasteManagement.waste.entity.WasteBin;
+import com.CSSEProject.SmartWasteManagement.waste.repository.BinSearchJdbcRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@Import({BinSearchService.class, BinSearchJdbcRepository.class})
+class BinSearchServiceTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private BinSearchService binSearchService;
+
+    @BeforeEach
+    void setUp() {
+        User resident = new User();
+        resident.setName("Nimal Perera");
+        resident.setEmail("nimal@example.com");
+        resident.setPassword("secret");
+        resident.setAddress("45 Temple Lane, Kandy");
+        resident.setRole(UserRole.ROLE_RESIDENT);
+        entityManager.persist(resident);
+
+        persistBin("SRCH-001", "No. 12, Galle Road, Colombo 03", null);
+        persistBin("SRCH-002", "88 Galle Road, Dehiwala", null);
+        persistBin("SRCH-003", "Kandy Road, Kadawatha", null);
+        persistBin("SRCH-004", "Residential bin", resident);
+        entityManager.flush();
+        binSearchService.prepareIndexes();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void search_ShouldTolerateTyposAndRankBestMatchFirst() {
+        // Act
+        Map<String, Object> result = binSearchService.search("galle raod colombo", 0, 10);
+
+        // Assert
+        List<BinSearchResultDto> results = (List<BinSearchResultDto>) result.get("results");
+        assertEquals(List.of("SRCH-001", "SRCH-002"), results.stream().map(BinSearchResultDto::getBinId).toList());
+        assertTrue(results.get(0).getScore() > results.get(1).getScore());
+        assertEquals(false, result.get("hasMore"));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void search_ShouldMatchResidentAddressAndPage() {
+        // Act
+        Map<String, Object> byAddress = binSearchService.search("templ lane", 0, 10);
+        Map<String, Object> firstPage = binSearchService.search("road", 0, 2);
+        Map<String, Object> secondPage = binSearchService.search("road", 1, 2);
+
+        // Assert
+        List<BinSearchResultDto> addressResults = (List<BinSearchResultDto>) byAddress.get("results");
+        assertEquals(1, addressResults.size());
+        assertEquals("SRCH-004", addressResults.get(0).getBinId());
+        assertEquals("Nimal Perera", addressResults.get(0).getResidentName());
+        assertEquals(true, firstPage.get("hasMore"));
+        assertEquals(1, ((List<BinSearchResultDto>) secondPage.get("results")).size());
+        assertThrows(RuntimeException.class, () -> binSearchService.search("a", 0, 10));
+    }
+
+    private void persistBin(String binId, String location, User resident) {
+        WasteBin bin = new WasteBin();
+        bin.setBinId(binId);
+        bin.setLocation(location);
+        bin.setBinType(BinType.GENERAL_WASTE);
+        bin.setCapacity(120.0);
+        bin.setResident(resident);
+        entityManager.persist(bin);
+    }
+}
@@ -0,0 +1,99 @@
+package com.CSSEProject.SmartWasteManagement.waste.service;
+
+import com.CSSEProject.SmartWasteManagement.waste.entity.BinStatus;
+import com.CSSEProject.SmartWasteManagement.waste.repository.WasteBinRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for BinStatusCounters: counts (overall and per city) are loaded once, then follow the
+ * reported transitions without further queries, and a reconcile corrects and reports drift.
+ */
+@ExtendWith(MockitoExtension.class)
+class BinStatusCountersTest {
+
+    @Mock
+    private WasteBinRepository wasteBinRepository;
+
+    @InjectMocks
+    private BinStatusCounters binStatusCounters;
+
+    @Test
+    void counts_ShouldFollowTransitionsWithoutQueryingAgain() {
+        // Arrange
+        when(wasteBinRepository.countGroupedByResidentAddressAndStatus()).thenReturn(List.<Object[]>of(
+                new Object[]{"1 Main St, Kandy", BinStatus.ACTIVE, 4L},
+                new Object[]{null, BinStatus.ACTIVE, 6L},
+                new Object[]{"2 Lake Rd, Colombo", BinStatus.NEEDS_EMPTYING, 2L}));
+
+        // Act
+        long initialActive = binStatusCounters.count(BinStatus.ACTIVE);
+        binStatusCounters.binsCreated("Kandy", BinStatus.ACTIVE, 5);
+        binStatusCounters.statusChanged("Kandy", BinStatus.ACTIVE, BinStatus.NEEDS_EMPTYING, 3);
+        binStatusCounters.statusChanged("Colombo", BinStatus.NEEDS_EMPTYING, BinStatus.NEEDS_EMPTYING);
+
+        // Assert
+        assertEquals(10L, initialActive);
+        assertEquals(12L, binStatusCounters.count(BinStatus.ACTIVE));
+        assertEquals(5L, binStatusCounters.count(BinStatus.NEEDS_EMPTYING));
+        assertEquals(0L, binStatusCounters.count(BinStatus.DECOMMISSIONED));
+        assertEquals(17L, binStatusCounters.total());
+        verify(wasteBinRepository, times(1)).countGroupedByResidentAddressAndStatus();
+    }
+
+    @Test
+    void cityCounts_ShouldUseTheResidentsAddressAndFollowMoves() {
+        // Arrange: bins without a resident count in the default city, as in billing
+        when(wasteBinRepository.countGroupedByResidentAddressAndStatus()).thenReturn(List.<Object[]>of(
+                new Object[]{"1 Main St, Kandy", BinStatus.ACTIVE, 4L},
+                new Object[]{"9 Hill Rd,  Kandy ", BinStatus.ACTIVE, 1L},
+                new Object[]{null, BinStatus.ACTIVE, 6L},
+                new Object[]{"2 Lake Rd, Colombo", BinStatus.NEEDS_EMPTYING, 2L}));
+
+        // Act
+        binStatusCounters.reconcile();
+        binStatusCounters.statusChanged("Kandy", BinStatus.ACTIVE, BinStatus.NEEDS_EMPTYING, 2);
+        binStatusCounters.binsMoved("Kandy", "Galle", BinStatus.ACTIVE, 1);
+
+        // Assert
+        assertEquals(2L, binStatusCounters.count("Kandy", BinStatus.ACTIVE));
+        assertEquals(2L, binStatusCounters.count("Kandy", BinStatus.NEEDS_EMPTYING));
+        assertEquals(6L, binStatusCounters.count("Colombo", BinStatus.ACTIVE));
+        assertEquals(2L, binStatusCounters.count("Colombo", BinStatus.NEEDS_EMPTYING));
+        assertEquals(1L, binStatusCounters.count("Galle", BinStatus.ACTIVE));
+        assertEquals(0L, binStatusCounters.count("Jaffna", BinStatus.ACTIVE));
+        assertEquals(Set.of("Colombo", "Galle", "Kandy"), binStatusCounters.cities());
+        assertEquals(13L, binStatusCounters.total());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void reconcile_ShouldReplaceCountsAndReportDrift() {
+        // Arrange: a bin was decommissioned with plain SQL, bypassing the services
+        when(wasteBinRepository.countGroupedByResidentAddressAndStatus())
+                .thenReturn(List.<Object[]>of(new Object[]{"Kandy", BinStatus.ACTIVE, 10L}))
+                .thenReturn(List.<Object[]>of(new Object[]{"Kandy", BinStatus.ACTIVE, 9L},
+                        new Object[]{"Kandy", BinStatus.DECOMMISSIONED, 1L}));
+        binStatusCounters.reconcile();
+
+        // Act
+        Map<String, Object> result = binStatusCounters.reconcile();
+
+        // Assert
+        assertEquals(Map.of("ACTIVE", -1L, "DECOMMISSIONED", 1L), result.get("drift"));
+        assertEquals(false, result.get("initialLoad"));
+        assertEquals(9L, binStatusCounters.count(BinStatus.ACTIVE));
+        assertEquals(1L, binStatusCounters.count(BinStatus.DECOMMISSIONED));
+        assertEquals(1L, binStatusCounters.count("Kandy", BinStatus.DECOMMISSIONED));
+    }
+}
@@ -0,0 +1,156 @@
+package com.CSSEProject.SmartWasteManagement.waste.service;
+
+import com.CSSEProject.SmartWasteManagement.config.DataVersionRegistry;
+import com.CSSEProject.SmartWasteManagement.dto.BinLevelReadingDto;
+import com.CSSEProject.SmartWasteManagement.waste.entity.BinStatus;
+import com.CSSEProject.SmartWasteManagement.waste.entity.BinType;
+import com.CSSEProject.SmartWasteManagement.waste.entity.CollectionSchedule;
+import com.CSSEProject.SmartWasteManagement.waste.entity.WasteBin;
+import com.CSSEProject.SmartWasteManagement.waste.repository.BinLevelJdbcRepository;
+import com.CSSEProject.SmartWasteManagement.waste.repository.CollectionScheduleRepository;
+import com.CSSEProject.SmartWasteManagement.waste.repository.ScheduleJdbcRepository;
+import com.CSSEProject.SmartWasteManagement.waste.repository.WasteBinRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@Import({BinTelemetryService.class, BinLevelJdbcRepository.class, ScheduleJdbcRepository.class, BinStatusCounters.class, DataVersionRegistry.class})
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD) // fresh buffer and counters per test
+class BinTelemetryServiceTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private BinTelemetryService binTelemetryService;
+
+    @Autowired
+    private WasteBinRepository wasteBinRepository;
+
+    @Autowired
+    private CollectionScheduleRepository collectionScheduleRepository;
+
+    @MockBean
+    private LevelHistoryService levelHistoryService;
+
+    private final LocalDateTime baseTime = LocalDateTime.now().minusHours(1);
+
+    @BeforeEach
+    void setUp() {
+        persistBin("TEL-001");
+        persistBin("TEL-002");
+        entityManager.flush();
+    }
+
+    @Test
+    void flush_ShouldWriteOnlyTheLatestReadingPerBin() {
+        // Arrange - three readings for one bin, the newest sent second
+        binTelemetryService.ingest(List.of(
+                new BinLevelReadingDto("TEL-001", 10.0, baseTime),
+                new BinLevelReadingDto("TEL-001", 35.0, baseTime.plusMinutes(10)),
+                new BinLevelReadingDto("TEL-001", 20.0, baseTime.plusMinutes(5))));
+
+        // Act
+        int updated = binTelemetryService.flush();
+
+        // Assert
+        assertEquals(1, updated);
+        WasteBin bin = reload("TEL-001");
+        assertEquals(35.0, bin.getCurrentLevel(), 0.001);
+        assertEquals(1L, bin.getVersion());
+        Map<String, Object> stats = binTelemetryService.getStats();
+        assertEquals(2L, stats.get("accepted"));
+        assertEquals(1L, stats.get("coalesced"));
+        assertEquals(1L, stats.get("outOfOrder"));
+        assertEquals(0, stats.get("pendingBins"));
+    }
+
+    @Test
+    void flush_ShouldScheduleCollectionOnceWhenBinCrossesThreshold() {
+        // Arrange
+        binTelemetryService.ingest(List.of(new BinLevelReadingDto("TEL-002", 60.0, baseTime)));
+        binTelemetryService.flush();
+        binTelemetryService.ingest(List.of(new BinLevelReadingDto("TEL-002", 85.0, baseTime.plusMinutes(5))));
+
+        // Act
+        binTelemetryService.flush();
+        binTelemetryService.ingest(List.of(new BinLevelReadingDto("TEL-002", 92.0, baseTime.plusMinutes(10))));
+        binTelemetryService.flush();
+
+        // Assert
+        WasteBin bin = reload("TEL-002");
+        assertEquals(92.0, bin.getCurrentLevel(), 0.001);
+        assertEquals(BinStatus.NEEDS_EMPTYING, bin.getStatus());
+        List<CollectionSchedule> schedules = collectionScheduleRepository.findByWasteBinBinId("TEL-002");
+        assertEquals(1, schedules.size());
+        assertEquals(LocalDate.now().plusDays(1), schedules.get(0).getScheduledDate());
+        assertEquals(1L, binTelemetryService.getStats().get("schedulesCreated"));
+    }
+
+    @Test
+    void flush_ShouldNotOverwriteANewerLevelOrCreateUnknownBins() {
+        // Arrange - the bin was emptied after the buffered reading was taken
+        WasteBin emptied = wasteBinRepository.findById("TEL-001").orElseThrow();
+        emptied.setCurrentLevel(0.0);
+        emptied.setLevelUpdatedAt(baseTime.plusMinutes(30));
+        entityManager.flush();
+        binTelemetryService.ingest(List.of(
+                new BinLevelReadingDto("TEL-001", 95.0, baseTime),
+                new BinLevelReadingDto("NO-SUCH-BIN", 50.0, baseTime)));
+
+        // Act
+        int updated = binTelemetryService.flush();
+
+        // Assert
+        assertEquals(0, updated);
+        assertEquals(0.0, reload("TEL-001").getCurrentLevel(), 0.001);
+        assertEquals(2L, binTelemetryService.getStats().get("staleOrUnknownBins"));
+        assertTrue(collectionScheduleRepository.findByWasteBinBinId("TEL-001").isEmpty());
+    }
+
+    @Test
+    void ingest_ShouldRejectInvalidReadings() {
+        // Act
+        Map<Integer, String> rejected = binTelemetryService.ingest(List.of(
+                new BinLevelReadingDto("TEL-001", 120.0, null),
+                new BinLevelReadingDto(null, 50.0, null),
+                new BinLevelReadingDto("TEL-001", 50.0, LocalDateTime.now().plusDays(1)),
+                new BinLevelReadingDto("TEL-001", 50.0, null)));
+
+        // Assert
+        assertEquals(3, rejected.size());
+        assertEquals("Level must be between 0 and 100", rejected.get(0));
+        assertEquals(1L, binTelemetryService.getStats().get("accepted"));
+    }
+
+    private void persistBin(String binId) {
+        WasteBin bin = new WasteBin();
+        bin.setBinId(binId);
+        bin.setLocation("Telemetry Street");
+        bin.setBinType(BinType.GENERAL_WASTE);
+        bin.setCapacity(120.0);
+        bin.setCurrentLevel(0.0);
+        bin.setStatus(BinStatus.ACTIVE);
+        entityManager.persist(bin);
+    }
+
+    private WasteBin reload(String binId) {
+        entityManager.clear();
+        return wasteBinRepository.findById(binId).orElseThrow();
+    }
+}
@@ -0,0 +1,159 @@
+package com.CSSEProject.SmartWasteManagement.waste.service;
+
+import com.CSSEProject.SmartWasteManagement.waste.entity.CollectionMonthlyRollup;
+import com.CSSEProject.SmartWasteManagement.waste.repository.CollectionMonthlyRollupRepository;
+import com.CSSEProject.SmartWasteManagement.waste.repository.CollectionPartitionJdbcRepository;
+import com.CSSEProject.SmartWasteManagement.waste.repository.CollectionPartitionJdbcRepository.ArchivePage;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CollectionPartitionServiceTest {
+
+    private static final YearMonth CURRENT = YearMonth.of(2025, 10);
+    private static final YearMonth COLD = YearMonth.of(2023, 1);
+
+    @Mock
+    private CollectionPartitionJdbcRepository collectionPartitionJdbcRepository;
+
+    @Mock
+    private CollectionMonthlyRollupRepository collectionMonthlyRollupRepository;
+
+    @Mock
+    private ArchivedCollectionRollups archivedCollectionRollups;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @InjectMocks
+    private CollectionPartitionService collectionPartitionService;
+
+    @TempDir
+    Path archiveDir;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(collectionPartitionService, "archiveDir", archiveDir.toString());
+        lenient().when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+        when(collectionPartitionJdbcRepository.findPartitionMonths()).thenReturn(List.of(COLD, CURRENT.minusMonths(1), CURRENT));
+        lenient().when(collectionPartitionJdbcRepository.findArchivePage(COLD, 0L, 5000)).thenReturn(new ArchivePage(
+                List.of("id", "collection_time", "weight", "notes"),
+                List.of(new Object[]{1L, "2023-01-05 10:00:00", 12.5, null},
+                        new Object[]{2L, "2023-01-06 11:00:00", 8.0, "gate, \"blue\" bin"}),
+                2L));
+    }
+
+    @Test
+    void maintain_ShouldCreateMonthsAheadAndArchiveColdMonths() throws IOException {
+        // Arrange
+        when(collectionPartitionJdbcRepository.summarize(COLD)).thenReturn(rollup(2));
+
+        // Act
+        Map<String, Object> summary = collectionPartitionService.maintain(CURRENT);
+
+        // Assert: three months ahead created, only the month older than 24 months archived
+        verify(collectionPartitionJdbcRepository).createPartition(YearMonth.of(2025, 11));
+        verify(collectionPartitionJdbcRepository).createPartition(YearMonth.of(2025, 12));
+        verify(collectionPartitionJdbcRepository).createPartition(YearMonth.of(2026, 1));
+        verify(collectionPartitionJdbcRepository, never()).createPartition(CURRENT);
+        assertEquals(List.of("2023-01"), summary.get("monthsArchived"));
+
+        InOrder order = inOrder(collectionPartitionJdbcRepository, collectionMonthlyRollupRepository, archivedCollectionRollups);
+        order.verify(collectionPartitionJdbcRepository).detachPartition(COLD);
+        order.verify(collectionMonthlyRollupRepository).save(argThat(r -> r.getArchiveFile() != null && r.getCollections() == 2));
+        order.verify(collectionPartitionJdbcRepository).addCollectorTotals(COLD);
+        order.verify(collectionPartitionJdbcRepository).dropPartition(COLD);
+        order.verify(archivedCollectionRollups).add(any());
+        verify(collectionPartitionJdbcRepository, never()).detachPartition(CURRENT.minusMonths(1));
+
+        List<String> lines = readArchive(archiveDir.resolve("collection_events_p2023_01.csv.gz"));
+        assertEquals(List.of("id,collection_time,weight,notes", "1,2023-01-05 10:00:00,12.5,",
+                "2,2023-01-06 11:00:00,8.0,\"gate, \"\"blue\"\" bin\""), lines);
+    }
+
+    @Test
+    void maintain_WhenRowsArriveWhileArchiving_ShouldKeepThePartition() {
+        // Arrange: a late row reached the partition after the file was written
+        when(collectionPartitionJdbcRepository.summarize(COLD)).thenReturn(rollup(3));
+
+        // Act
+        Map<String, Object> summary = collectionPartitionService.maintain(CURRENT);
+
+        // Assert
+        assertEquals(List.of(), summary.get("monthsArchived"));
+        verify(collectionPartitionJdbcRepository, never()).dropPartition(any());
+        verify(collectionMonthlyRollupRepository, never()).save(any());
+        verify(archivedCollectionRollups, never()).add(any());
+    }
+
+    @Test
+    void maintain_WithUninvoicedCollections_ShouldNotArchiveTheMonth() {
+        // Arrange
+        when(collectionPartitionJdbcRepository.countUninvoiced(COLD)).thenReturn(1L);
+
+        // Act
+        Map<String, Object> summary = collectionPartitionService.maintain(CURRENT);
+
+        // Assert
+        assertEquals(List.of(), summary.get("monthsArchived"));
+        verify(collectionPartitionJdbcRepository, never()).detachPartition(any());
+        verify(collectionPartitionJdbcRepository, never()).addCollectorTotals(any());
+    }
+
+    @Test
+    void maintain_WhenCreatingAPartitionFails_ShouldStillArchive() {
+        // Arrange
+        when(collectionPartitionJdbcRepository.createPartition(YearMonth.of(2025, 11)))
+                .thenThrow(new RuntimeException("updated partition constraint for default partition would be violated"));
+        when(collectionPartitionJdbcRepository.summarize(COLD)).thenReturn(rollup(2));
+
+        // Act
+        Map<String, Object> summary = collectionPartitionService.maintain(CURRENT);
+
+        // Assert
+        assertEquals(2, summary.get("partitionsCreated"));
+        assertEquals(List.of("2023-01"), summary.get("monthsArchived"));
+        verify(collectionPartitionJdbcRepository).createPartition(YearMonth.of(2026, 1));
+    }
+
+    private static CollectionMonthlyRollup rollup(long collections) {
+        CollectionMonthlyRollup rollup = new CollectionMonthlyRollup();
+        rollup.setMonth(LocalDate.of(2023, 1, 1));
+        rollup.setCollections(collections);
+        rollup.setTotalWeight(20.5);
+        rollup.setTotalRevenue(10.0);
+        return rollup;
+    }
+
+    private static List<String> readArchive(Path file) throws IOException {
+        try (InputStream in = new GZIPInputStream(Files.newInputStream(file))) {
+            return new ArrayList<>(List.of(new String(in.readAllBytes(), StandardCharsets.UTF_8).split("\n")));
+        }
+    }
+}
@@ -1,10 +1,12 @@
 package com.CSSEProject.SmartWasteManagement.waste.service;
 
+import com.CSSEProject.SmartWasteManagement.analytics.service.SketchRollupService;
 import com.CSSEProject.SmartWasteManagement.dto.CollectionRequestDto;
 import com.CSSEProject.SmartWasteManagement.dto.RecyclableItemDto;
 import com.CSSEProject.SmartWasteManagement.payment.entity.BillingModel;
 import com.CSSEProject.SmartWasteManagement.payment.entity.BillingType;
 import com.CSSEProject.SmartWasteManagement.payment.service.BillingService;
+import com.CSSEProject.SmartWasteManagement.payment.service.ResidentLedgerService;
 import com.CSSEProject.SmartWasteManagement.user.entity.User;
 import com.CSSEProject.SmartWasteManagement.user.repository.UserRepository;
 import com.CSSEProject.SmartWasteManagement.waste.entity.*;
@@ -53,6 +55,18 @@ class CollectionServiceTest {
     @Mock
     private RecyclingCollectionRepository recyclingCollectionRepository;
 
+    @Mock
+    private SketchRollupService sketchRollupService;
+
+    @Mock
+    private CollectorStatsService collectorStatsService;
+
+    @Mock
+    private ResidentLedgerService residentLedgerService;
+
+    @Mock
+    private LevelHistoryService levelHistoryService;
+
     @InjectMocks
     private CollectionService collectionService;
 
@@ -0,0 +1,112 @@
+package com.CSSEProject.SmartWasteManagement.waste.service;
+
+import com.CSSEProject.SmartWasteManagement.config.DataVersionRegistry;
+import com.CSSEProject.SmartWasteManagement.config.QueryExecutorConfig;
+import com.CSSEProject.SmartWasteManagement.dto.BinForecastDto;
+import com.CSSEProject.SmartWasteManagement.waste.entity.BinStatus;
+import com.CSSEProject.SmartWasteManagement.waste.entity.BinType;
+import com.CSSEProject.SmartWasteManagement.waste.entity.CollectionSchedule;
+import com.CSSEProject.SmartWasteManagement.waste.entity.WasteBin;
+import com.CSSEProject.SmartWasteManagement.waste.history.LevelPoint;
+import com.CSSEProject.SmartWasteManagement.waste.repository.BinLevelJdbcRepository;
+import com.CSSEProject.SmartWasteManagement.waste.repository.CollectionScheduleRepository;
+import com.CSSEProject.SmartWasteManagement.waste.repository.ScheduleJdbcRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@Import({FillForecastService.class, BinLevelJdbcRepository.class, ScheduleJdbcRepository.class, QueryExecutorConfig.class, DataVersionRegistry.class})
+class FillForecastServiceTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private FillForecastService fillForecastService;
+
+    @Autowired
+    private CollectionScheduleRepository collectionScheduleRepository;
+
+    @MockBean
+    private LevelHistoryService levelHistoryService;
+
+    private final LocalDateTime now = LocalDateTime.now().withNano(0);
+
+    @BeforeEach
+    void setUp() {
+        // FAST fills 1%/h and is at 40% (full in ~40h), SLOW fills 0.1%/h (full in ~16 days)
+        persistBin("FAST", 40.0, BinStatus.ACTIVE);
+        persistBin("SLOW", 40.0, BinStatus.ACTIVE);
+        persistBin("NO-HISTORY", 10.0, BinStatus.ACTIVE);
+        persistBin("RETIRED", 95.0, BinStatus.DECOMMISSIONED);
+        entityManager.flush();
+        when(levelHistoryService.getHistory(eq("FAST"), any(), any())).thenReturn(history(1.0));
+        when(levelHistoryService.getHistory(eq("SLOW"), any(), any())).thenReturn(history(0.1));
+    }
+
+    @Test
+    void forecastBin_ShouldProjectTimeToFullFromFillRate() {
+        // Act
+        BinForecastDto forecast = fillForecastService.forecastBin("FAST");
+
+        // Assert
+        assertEquals(24.0, forecast.getFillRatePerDay(), 0.1);
+        assertEquals(40.0, forecast.getHoursToFull(), 0.5);
+        assertEquals(1, forecast.getCycles());
+    }
+
+    @Test
+    void scheduleForecastCollections_ShouldScheduleOnlyBinsDueWithinHorizonOnce() {
+        // Act
+        Map<String, Object> first = fillForecastService.scheduleForecastCollections(now);
+        Map<String, Object> second = fillForecastService.scheduleForecastCollections(now);
+
+        // Assert
+        assertEquals(3, first.get("binsForecast"));
+        assertEquals(1, first.get("binsWithoutRate"));
+        assertEquals(1, first.get("schedulesCreated"));
+        assertEquals(0, second.get("schedulesCreated"));
+        List<CollectionSchedule> schedules = collectionScheduleRepository.findByWasteBinBinId("FAST");
+        assertEquals(1, schedules.size());
+        assertEquals(now.plusHours(40).toLocalDate(), schedules.get(0).getScheduledDate());
+        assertTrue(collectionScheduleRepository.findByWasteBinBinId("SLOW").isEmpty());
+    }
+
+    // Two days of hourly readings ending at the bin's current level of 40%
+    private List<LevelPoint> history(double percentPerHour) {
+        List<LevelPoint> points = new ArrayList<>();
+        for (int hour = 48; hour >= 0; hour--) {
+            points.add(LevelPoint.of(now.minusHours(hour), 40.0 - percentPerHour * hour));
+        }
+        return points;
+    }
+
+    private void persistBin(String binId, double level, BinStatus status) {
+        WasteBin bin = new WasteBin();
+        bin.setBinId(binId);
+        bin.setLocation("Forecast Street");
+        bin.setBinType(BinType.GENERAL_WASTE);
+        bin.setCapacity(120.0);
+        bin.setCurrentLevel(level);
+        bin.setLevelUpdatedAt(now);
+        bin.setStatus(status);
+        entityManager.persist(bin);
+    }
+}
@@ -0,0 +1,153 @@
+package com.CSSEProject.SmartWasteManagement.waste.service;
+
+import com.CSSEProject.SmartWasteManagement.waste.history.LevelPoint;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LevelHistoryServiceTest {
+
+    @TempDir
+    Path directory;
+
+    private LevelHistoryService levelHistoryService;
+
+    private final LocalDateTime dayStart = LocalDate.of(2025, 6, 1).atStartOfDay();
+
+    @BeforeEach
+    void setUp() {
+        levelHistoryService = newService();
+    }
+
+    @Test
+    void getHistory_ShouldReturnWrittenReadingsAcrossDaysInOrder() {
+        // Arrange - two days of readings every 5 minutes, plus one still in an open block
+        for (int i = 0; i < 2 * 288; i++) {
+            levelHistoryService.record("BIN-001", (i % 200) / 2.0, dayStart.plusMinutes(5L * i));
+        }
+        levelHistoryService.record("BIN-002", 40.0, dayStart.plusHours(1));
+        levelHistoryService.write(true);
+        levelHistoryService.record("BIN-001", 77.5, dayStart.plusDays(2));
+
+        // Act
+        List<LevelPoint> all = levelHistoryService.getHistory("BIN-001", dayStart, dayStart.plusDays(3));
+        List<LevelPoint> window = levelHistoryService.getHistory("BIN-001",
+                dayStart.plusHours(23), dayStart.plusHours(25));
+
+        // Assert
+        assertEquals(2 * 288 + 1, all.size());
+        assertEquals(dayStart, all.get(0).timestamp());
+        assertEquals(77.5, all.get(all.size() - 1).level(), 0.001);
+        assertEquals(25, window.size()); // 23:00 to 01:00 inclusive
+        assertEquals(dayStart.plusHours(23), window.get(0).timestamp());
+        assertEquals((276 % 200) / 2.0, window.get(0).level(), 0.001);
+        assertEquals(1, levelHistoryService.getHistory("BIN-002", dayStart, dayStart.plusDays(1)).size());
+    }
+
+    @Test
+    void write_ShouldStoreRegularReadingsInAboutTwoBytesEach() {
+        // Arrange - 200 bins reporting every 5 minutes for a day
+        for (int bin = 0; bin < 200; bin++) {
+            for (int i = 0; i < 288; i++) {
+                levelHistoryService.record("BIN-" + bin, i / 3.0, dayStart.plusMinutes(5L * i));
+            }
+        }
+
+        // Act
+        levelHistoryService.write(true);
+
+        // Assert
+        long rawBytes = (Long) levelHistoryService.getStats().get("rawBytes");
+        double bytesPerPoint = rawBytes / (200.0 * 288);
+        assertTrue(bytesPerPoint < 2.2, "bytes per point: " + bytesPerPoint);
+    }
+
+    @Test
+    void applyRetention_ShouldDownsampleOldDaysToHourlyAndDropExpiredOnes() {
+        // Arrange - one reading every 10 minutes on an old day and on an expired day
+        LocalDateTime oldDay = dayStart.minusDays(40);
+        LocalDateTime expiredDay = dayStart.minusDays(500);
+        for (int i = 0; i < 144; i++) {
+            levelHistoryService.record("BIN-001", i / 2.0, oldDay.plusMinutes(10L * i));
+            levelHistoryService.record("BIN-001", 10.0, expiredDay.plusMinutes(10L * i));
+        }
+        levelHistoryService.write(true);
+
+        // Act
+        levelHistoryService.applyRetention(dayStart.toLocalDate());
+
+        // Assert - last reading of each hour survives
+        List<LevelPoint> hourly = levelHistoryService.getHistory("BIN-001", oldDay, oldDay.plusDays(1));
+        assertEquals(24, hourly.size());
+        assertEquals(oldDay.plusMinutes(50), hourly.get(0).timestamp());
+        assertEquals(2.5, hourly.get(0).level(), 0.001);
+        assertTrue(levelHistoryService.getHistory("BIN-001", expiredDay, expiredDay.plusDays(1)).isEmpty());
+        Map<String, Object> stats = levelHistoryService.getStats();
+        assertEquals(0, stats.get("rawDays"));
+        assertEquals(1, stats.get("hourlyDays"));
+    }
+
+    @Test
+    void applyRetention_WithLateReadingForDownsampledDay_ShouldKeepTheExistingHours() {
+        // Arrange - an old day already downsampled, then a late reading for it
+        LocalDateTime oldDay = dayStart.minusDays(40);
+        for (int i = 0; i < 24; i++) {
+            levelHistoryService.record("BIN-001", i, oldDay.plusHours(i));
+        }
+        levelHistoryService.write(true);
+        levelHistoryService.applyRetention(dayStart.toLocalDate());
+        levelHistoryService.record("BIN-001", 55.0, oldDay.plusHours(5).plusMinutes(30));
+        levelHistoryService.write(true);
+
+        // Act
+        List<LevelPoint> beforeRetention = levelHistoryService.getHistory("BIN-001", oldDay, oldDay.plusDays(1));
+        levelHistoryService.applyRetention(dayStart.toLocalDate());
+        List<LevelPoint> afterRetention = levelHistoryService.getHistory("BIN-001", oldDay, oldDay.plusDays(1));
+
+        // Assert - the late reading joins the hourly history instead of replacing it
+        assertEquals(25, beforeRetention.size());
+        assertEquals(24, afterRetention.size());
+        assertEquals(55.0, afterRetention.get(5).level(), 0.001);
+        assertEquals(23.0, afterRetention.get(23).level(), 0.001);
+        assertEquals(0, levelHistoryService.getStats().get("rawDays"));
+    }
+
+    @Test
+    void open_ShouldDropATornBlockAndKeepLaterAppendsReadable() throws IOException {
+        // Arrange - a crash left half a block at the end of the segment
+        levelHistoryService.record("BIN-001", 20.0, dayStart.plusHours(1));
+        levelHistoryService.write(true);
+        Path segment = directory.resolve("raw").resolve(dayStart.toLocalDate() + ".seg");
+        Files.write(segment, new byte[]{0, 0, 0, 40, 0, 7, 'B'}, StandardOpenOption.APPEND);
+
+        // Act
+        LevelHistoryService restarted = newService();
+        restarted.record("BIN-001", 30.0, dayStart.plusHours(2));
+        restarted.write(true);
+
+        // Assert
+        List<LevelPoint> points = restarted.getHistory("BIN-001", dayStart, dayStart.plusDays(1));
+        assertEquals(2, points.size());
+        assertEquals(20.0, points.get(0).level(), 0.001);
+        assertEquals(30.0, points.get(1).level(), 0.001);
+    }
+
+    private LevelHistoryService newService() {
+        LevelHistoryService service = new LevelHistoryService();
+        ReflectionTestUtils.setField(service, "directory", directory.toString());
+        service.open();
+        return service;
+    }
+}
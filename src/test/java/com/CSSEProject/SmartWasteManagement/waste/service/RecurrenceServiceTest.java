@@ -0,0 +1,203 @@
+package com.CSSEProject.SmartWasteManagement.waste.service;
+
+import com.CSSEProject.SmartWasteManagement.config.DataVersionRegistry;
+import com.CSSEProject.SmartWasteManagement.dto.RecurrenceExceptionRequestDto;
+import com.CSSEProject.SmartWasteManagement.dto.RecurrenceRuleRequestDto;
+import com.CSSEProject.SmartWasteManagement.waste.entity.*;
+import com.CSSEProject.SmartWasteManagement.waste.repository.CollectionScheduleRepository;
+import com.CSSEProject.SmartWasteManagement.waste.repository.ScheduleJdbcRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@Import({RecurrenceService.class, ScheduleJdbcRepository.class, DataVersionRegistry.class})
+class RecurrenceServiceTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private RecurrenceService recurrenceService;
+
+    @Autowired
+    private CollectionScheduleRepository collectionScheduleRepository;
+
+    private final LocalDate today = LocalDate.now();
+
+    @BeforeEach
+    void setUp() {
+        persistBin("ZONE-A", 6.90, 79.85, BinStatus.ACTIVE);
+        persistBin("ZONE-B", 6.91, 79.86, BinStatus.NEEDS_EMPTYING);
+        persistBin("ZONE-RETIRED", 6.91, 79.85, BinStatus.DECOMMISSIONED);
+        persistBin("OUTSIDE", 7.30, 80.60, BinStatus.ACTIVE);
+        entityManager.flush();
+    }
+
+    @Test
+    void occurrences_BiweeklyRule_ShouldStepTwoWeeksFromFirstMatchingDay() {
+        // Arrange: 2026-01-01 is a Thursday, so the first Monday is 2026-01-05
+        RecurrenceRule rule = new RecurrenceRule();
+        rule.setFrequency(RecurrenceFrequency.BIWEEKLY);
+        rule.setDayOfWeek(DayOfWeek.MONDAY);
+        rule.setStartDate(LocalDate.of(2026, 1, 1));
+        rule.setEndDate(LocalDate.of(2026, 2, 16));
+
+        // Act
+        List<LocalDate> dates = RecurrenceService.occurrences(rule, LocalDate.of(2026, 1, 10), LocalDate.of(2026, 3, 31));
+
+        // Assert
+        assertEquals(List.of(LocalDate.of(2026, 1, 19), LocalDate.of(2026, 2, 2), LocalDate.of(2026, 2, 16)), dates);
+    }
+
+    @Test
+    void materializeAll_ZoneRule_ShouldOnlyWriteEachHorizonDayOnce() {
+        // Arrange: weekly on tomorrow's weekday gives occurrences at +1 and +8 within 14 days
+        RecurrenceRule rule = recurrenceService.createRule(zoneRule());
+
+        // Act
+        Map<String, Object> rerun = recurrenceService.materializeAll(today);
+        Map<String, Object> weekLater = recurrenceService.materializeAll(today.plusDays(7));
+
+        // Assert
+        assertEquals(today.plusDays(14), rule.getMaterializedThrough());
+        assertEquals(0, rerun.get("schedulesCreated"));
+        assertEquals(2, weekLater.get("schedulesCreated")); // +15 for both bins
+        List<CollectionSchedule> schedules = collectionScheduleRepository.findByWasteBinBinId("ZONE-A");
+        assertEquals(List.of(today.plusDays(1), today.plusDays(8), today.plusDays(15)),
+                schedules.stream().map(CollectionSchedule::getScheduledDate).sorted().toList());
+        assertTrue(schedules.stream().allMatch(s -> rule.getId().equals(s.getRecurrenceRuleId())));
+        assertTrue(collectionScheduleRepository.findByWasteBinBinId("ZONE-RETIRED").isEmpty());
+        assertTrue(collectionScheduleRepository.findByWasteBinBinId("OUTSIDE").isEmpty());
+    }
+
+    @Test
+    void addException_BeforeMaterialization_ShouldSkipThatOccurrenceOnly() {
+        // Arrange: a bin rule starting beyond the horizon, so nothing is written yet
+        RecurrenceRuleRequestDto request = new RecurrenceRuleRequestDto();
+        request.setBinId("OUTSIDE");
+        request.setFrequency(RecurrenceFrequency.WEEKLY);
+        request.setDayOfWeek(today.getDayOfWeek());
+        request.setStartDate(today.plusDays(21));
+        RecurrenceRule rule = recurrenceService.createRule(request);
+        recurrenceService.addException(rule.getId(), exception(today.plusDays(21), null, null));
+
+        // Act
+        Map<String, Object> run = recurrenceService.materializeAll(today.plusDays(20));
+
+        // Assert: +21 skipped, +28 written
+        assertEquals(1, run.get("schedulesCreated"));
+        List<CollectionSchedule> schedules = collectionScheduleRepository.findByWasteBinBinId("OUTSIDE");
+        assertEquals(1, schedules.size());
+        assertEquals(today.plusDays(28), schedules.get(0).getScheduledDate());
+    }
+
+    @Test
+    void addException_AfterMaterialization_ShouldMoveOneBinAndDeactivateShouldCancelTheRest() {
+        // Arrange
+        RecurrenceRule rule = recurrenceService.createRule(zoneRule());
+
+        // Act
+        recurrenceService.addException(rule.getId(), exception(today.plusDays(1), "ZONE-A", today.plusDays(2)));
+        Map<String, Object> deactivated = recurrenceService.deactivateRule(rule.getId());
+        entityManager.flush();
+        entityManager.clear();
+
+        // Assert: A's +1 cancelled and re-created on +2; then every pending one cancelled (A +2, A +8, B +1, B +8)
+        assertEquals(4, deactivated.get("schedulesCancelled"));
+        List<CollectionSchedule> schedules = collectionScheduleRepository.findByWasteBinBinId("ZONE-A");
+        assertEquals(3, schedules.size());
+        assertTrue(schedules.stream().allMatch(s -> s.getStatus() == ScheduleStatus.CANCELLED));
+        assertTrue(schedules.stream().anyMatch(s -> s.getScheduledDate().equals(today.plusDays(2))
+                && s.getNotes().contains("moved from " + today.plusDays(1))));
+        assertThrows(IllegalArgumentException.class,
+                () -> recurrenceService.addException(rule.getId(), exception(today.plusDays(8), null, null)));
+    }
+
+    @Test
+    void addException_MoveOntoAnotherOccurrence_ShouldNotScheduleTheBinTwice() {
+        // Arrange: +8 is already written out for both bins
+        RecurrenceRule rule = recurrenceService.createRule(zoneRule());
+
+        // Act
+        recurrenceService.addException(rule.getId(), exception(today.plusDays(1), null, today.plusDays(8)));
+        entityManager.flush();
+        entityManager.clear();
+
+        // Assert: +1 cancelled, still one pending pickup per bin on +8
+        for (String binId : List.of("ZONE-A", "ZONE-B")) {
+            List<CollectionSchedule> schedules = collectionScheduleRepository.findByWasteBinBinId(binId);
+            assertEquals(2, schedules.size());
+            assertEquals(1, schedules.stream().filter(s -> s.getScheduledDate().equals(today.plusDays(8))
+                    && s.getStatus() == ScheduleStatus.PENDING).count());
+        }
+        assertThrows(IllegalArgumentException.class,
+                () -> recurrenceService.addException(rule.getId(), exception(today.plusDays(8), "ZONE-A", today.plusDays(8))));
+    }
+
+    @Test
+    void addException_MoveEarlierIntoTheHorizon_ShouldWriteTheMovedPickupRightAway() {
+        // Arrange: +15 is beyond the 14-day horizon, +3 is within it
+        RecurrenceRule rule = recurrenceService.createRule(zoneRule());
+
+        // Act
+        recurrenceService.addException(rule.getId(), exception(today.plusDays(15), null, today.plusDays(3)));
+        Map<String, Object> weekLater = recurrenceService.materializeAll(today.plusDays(7));
+        entityManager.flush();
+        entityManager.clear();
+
+        // Assert: +3 written when the exception was added, nothing past-dated when the run reaches +15
+        assertEquals(0, weekLater.get("schedulesCreated"));
+        for (String binId : List.of("ZONE-A", "ZONE-B")) {
+            List<CollectionSchedule> schedules = collectionScheduleRepository.findByWasteBinBinId(binId);
+            assertEquals(List.of(today.plusDays(1), today.plusDays(3), today.plusDays(8)),
+                    schedules.stream().map(CollectionSchedule::getScheduledDate).sorted().toList());
+            assertTrue(schedules.stream().allMatch(s -> s.getStatus() == ScheduleStatus.PENDING));
+        }
+    }
+
+    private RecurrenceRuleRequestDto zoneRule() {
+        RecurrenceRuleRequestDto request = new RecurrenceRuleRequestDto();
+        request.setZoneName("Colombo 03");
+        request.setMinLatitude(6.85);
+        request.setMinLongitude(79.80);
+        request.setMaxLatitude(6.95);
+        request.setMaxLongitude(79.90);
+        request.setFrequency(RecurrenceFrequency.WEEKLY);
+        request.setDayOfWeek(today.plusDays(1).getDayOfWeek());
+        return request;
+    }
+
+    private RecurrenceExceptionRequestDto exception(LocalDate date, String binId, LocalDate rescheduledTo) {
+        RecurrenceExceptionRequestDto request = new RecurrenceExceptionRequestDto();
+        request.setOccurrenceDate(date);
+        request.setBinId(binId);
+        request.setRescheduledTo(rescheduledTo);
+        request.setReason("Public holiday");
+        return request;
+    }
+
+    private void persistBin(String binId, double latitude, double longitude, BinStatus status) {
+        WasteBin bin = new WasteBin();
+        bin.setBinId(binId);
+        bin.setLocation("Recurrence Street");
+        bin.setLatitude(latitude);
+        bin.setLongitude(longitude);
+        bin.setBinType(BinType.GENERAL_WASTE);
+        bin.setCapacity(120.0);
+        bin.setStatus(status);
+        entityManager.persist(bin);
+    }
+}
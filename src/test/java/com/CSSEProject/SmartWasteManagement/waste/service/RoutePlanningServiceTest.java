@@ -0,0 +1,112 @@
+package com.CSSEProject.SmartWasteManagement.waste.service;
+
+import com.CSSEProject.SmartWasteManagement.config.DataVersionRegistry;
+import com.CSSEProject.SmartWasteManagement.config.QueryExecutorConfig;
+import com.CSSEProject.SmartWasteManagement.dto.RouteStopDto;
+import com.CSSEProject.SmartWasteManagement.dto.TruckRouteDto;
+import com.CSSEProject.SmartWasteManagement.waste.entity.BinStatus;
+import com.CSSEProject.SmartWasteManagement.waste.entity.BinType;
+import com.CSSEProject.SmartWasteManagement.waste.entity.CollectionTruck;
+import com.CSSEProject.SmartWasteManagement.waste.entity.WasteBin;
+import com.CSSEProject.SmartWasteManagement.waste.repository.CollectionTruckRepository;
+import com.CSSEProject.SmartWasteManagement.waste.repository.ScheduleJdbcRepository;
+import com.CSSEProject.SmartWasteManagement.waste.repository.ScheduleJdbcRepository.NewSchedule;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@Import({RoutePlanningService.class, ScheduleJdbcRepository.class, QueryExecutorConfig.class, DataVersionRegistry.class})
+class RoutePlanningServiceTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private RoutePlanningService routePlanningService;
+
+    @Autowired
+    private ScheduleJdbcRepository scheduleJdbcRepository;
+
+    @Autowired
+    private CollectionTruckRepository collectionTruckRepository;
+
+    @MockBean
+    private ScheduleBalancingService scheduleBalancingService;
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void planRoutes_5000Stops_ShouldRouteEveryStopOnceAcrossAllTrucksInUnderTwoSeconds() {
+        // Arrange: 5,000 pending collections over Colombo, one bin without coordinates, four trucks
+        LocalDate today = LocalDate.now();
+        Random random = new Random(11);
+        List<NewSchedule> schedules = new ArrayList<>();
+        for (int i = 0; i < 5000; i++) {
+            persistBin("BIN-" + i, 6.85 + random.nextDouble() * 0.15, 79.82 + random.nextDouble() * 0.12);
+            schedules.add(new NewSchedule("BIN-" + i, today, null));
+        }
+        persistBin("NO-COORDS", null, null);
+        schedules.add(new NewSchedule("NO-COORDS", today, null));
+        for (int t = 1; t <= 4; t++) {
+            persistTruck("TRUCK-" + t, t <= 2 ? 6.90 : null, t <= 2 ? 79.80 + t * 0.05 : null);
+        }
+        entityManager.flush();
+        scheduleJdbcRepository.insertPendingSchedules(schedules, 1000);
+
+        // Act
+        Map<String, Object> plan = routePlanningService.planRoutes(today);
+
+        // Assert
+        List<TruckRouteDto> routes = (List<TruckRouteDto>) plan.get("routes");
+        assertEquals(4, routes.size());
+        assertEquals(5000, plan.get("stopsRouted"));
+        assertEquals(1, ((List<?>) plan.get("unroutable")).size());
+        assertTrue((Long) plan.get("durationMs") < 2000, "took " + plan.get("durationMs") + " ms");
+
+        Set<String> visited = new HashSet<>();
+        for (TruckRouteDto route : routes) {
+            assertEquals(1250, route.getStopCount());
+            List<RouteStopDto> stops = route.getStops();
+            for (int i = 0; i < stops.size(); i++) {
+                assertEquals(i + 1, stops.get(i).getSequence());
+                assertTrue(visited.add(stops.get(i).getBinId()), "routed twice: " + stops.get(i).getBinId());
+            }
+        }
+        assertEquals(5000, visited.size());
+        assertTrue(routes.get(0).getStartsAtDepot());
+        assertFalse(routes.get(3).getStartsAtDepot());
+        assertEquals("PLAN-" + today + " (1250 stops)", collectionTruckRepository.findByTruckId("TRUCK-1").get().getAssignedRoute());
+        assertEquals(routes.get(1), routePlanningService.getTruckRoute(today, "TRUCK-2"));
+    }
+
+    private void persistBin(String binId, Double latitude, Double longitude) {
+        WasteBin bin = new WasteBin();
+        bin.setBinId(binId);
+        bin.setLocation("Route Street");
+        bin.setBinType(BinType.GENERAL_WASTE);
+        bin.setCapacity(120.0);
+        bin.setCurrentLevel(85.0);
+        bin.setStatus(BinStatus.NEEDS_EMPTYING);
+        bin.setLatitude(latitude);
+        bin.setLongitude(longitude);
+        entityManager.persist(bin);
+    }
+
+    private void persistTruck(String truckId, Double depotLatitude, Double depotLongitude) {
+        CollectionTruck truck = new CollectionTruck();
+        truck.setTruckId(truckId);
+        truck.setDepotLatitude(depotLatitude);
+        truck.setDepotLongitude(depotLongitude);
+        entityManager.persist(truck);
+    }
+}
@@ -0,0 +1,130 @@
+package com.CSSEProject.SmartWasteManagement.waste.service;
+
+import com.CSSEProject.SmartWasteManagement.config.DataVersionRegistry;
+import com.CSSEProject.SmartWasteManagement.dto.TruckLoadDto;
+import com.CSSEProject.SmartWasteManagement.waste.entity.*;
+import com.CSSEProject.SmartWasteManagement.waste.repository.CollectionScheduleRepository;
+import com.CSSEProject.SmartWasteManagement.waste.repository.ScheduleJdbcRepository;
+import com.CSSEProject.SmartWasteManagement.waste.repository.ScheduleJdbcRepository.NewSchedule;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@Import({ScheduleBalancingService.class, ScheduleJdbcRepository.class, DataVersionRegistry.class})
+class ScheduleBalancingServiceTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private ScheduleBalancingService scheduleBalancingService;
+
+    @Autowired
+    private ScheduleJdbcRepository scheduleJdbcRepository;
+
+    @Autowired
+    private CollectionScheduleRepository collectionScheduleRepository;
+
+    private final LocalDate tomorrow = LocalDate.now().plusDays(1);
+
+    @BeforeEach
+    void setUp() {
+        // Two 100 kg trucks; 30 bins of which 20 weighed 10 kg per collection (the rest take the fleet mean)
+        persistTruck("TRUCK-A", 100.0);
+        persistTruck("TRUCK-B", 100.0);
+        List<NewSchedule> schedules = new ArrayList<>();
+        for (int i = 0; i < 30; i++) {
+            WasteBin bin = persistBin("BAL-" + i, 6.90 + (i % 6) * 0.002, 79.85 + (i / 6) * 0.002);
+            if (i < 20) {
+                persistEvent(bin, 10.0);
+            }
+            schedules.add(new NewSchedule(bin.getBinId(), tomorrow, null));
+        }
+        entityManager.flush();
+        scheduleJdbcRepository.insertPendingSchedules(schedules, 100);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void balance_OverCapacity_ShouldFillTrucksAndDeferTheRestToTheNextDay() {
+        // Act
+        Map<String, Object> summary = scheduleBalancingService.balance(tomorrow);
+        Map<String, Object> nextDay = scheduleBalancingService.balance(tomorrow.plusDays(1));
+
+        // Assert: 300 kg against 200 kg of capacity
+        assertEquals(20, summary.get("stops"));
+        assertEquals(10, summary.get("deferredToNextDay"));
+        for (TruckLoadDto truck : (List<TruckLoadDto>) summary.get("trucks")) {
+            assertTrue(truck.getLoadKg() <= 100.0);
+        }
+        List<CollectionSchedule> deferred = collectionScheduleRepository.findByScheduledDateAndStatus(tomorrow.plusDays(1), ScheduleStatus.PENDING);
+        assertEquals(10, deferred.size());
+        assertTrue(deferred.stream().allMatch(s -> tomorrow.equals(s.getDeferredFrom())));
+        assertEquals(10, nextDay.get("stops"));
+        assertEquals(0, nextDay.get("deferredToNextDay"));
+    }
+
+    @Test
+    void update_AfterSchedulesAreAdded_ShouldOnlyPlaceTheNewOnes() {
+        // Arrange: 20 stops placed, trucks full
+        scheduleBalancingService.balance(tomorrow);
+        persistBin("LATE-1", 6.901, 79.851);
+        persistBin("LATE-2", 6.902, 79.852);
+        entityManager.flush();
+        scheduleJdbcRepository.insertPendingSchedules(List.of(
+                new NewSchedule("LATE-1", tomorrow, null), new NewSchedule("LATE-2", tomorrow, null)), 100);
+
+        // Act
+        Map<String, Object> summary = scheduleBalancingService.update(tomorrow);
+        Map<Long, String> assignment = scheduleBalancingService.truckAssignment(tomorrow);
+
+        // Assert
+        assertEquals("incremental", summary.get("mode"));
+        assertEquals(2, summary.get("added"));
+        assertEquals(2, summary.get("deferredToNextDay"));
+        assertEquals(20, assignment.size());
+    }
+
+    private void persistTruck(String truckId, double capacityKg) {
+        CollectionTruck truck = new CollectionTruck();
+        truck.setTruckId(truckId);
+        truck.setCapacityKg(capacityKg);
+        truck.setShiftMinutes(480);
+        entityManager.persist(truck);
+    }
+
+    private WasteBin persistBin(String binId, double latitude, double longitude) {
+        WasteBin bin = new WasteBin();
+        bin.setBinId(binId);
+        bin.setLocation("Balance Street");
+        bin.setLatitude(latitude);
+        bin.setLongitude(longitude);
+        bin.setBinType(BinType.GENERAL_WASTE);
+        bin.setCapacity(120.0);
+        bin.setStatus(BinStatus.ACTIVE);
+        entityManager.persist(bin);
+        return bin;
+    }
+
+    private void persistEvent(WasteBin bin, double weight) {
+        CollectionEvent event = new CollectionEvent();
+        event.setWasteBin(bin);
+        event.setWeight(weight);
+        event.setCollectionTime(LocalDateTime.now().minusDays(7));
+        entityManager.persist(event);
+    }
+}
@@ -0,0 +1,113 @@
+package com.CSSEProject.SmartWasteManagement.waste.service;
+
+import com.CSSEProject.SmartWasteManagement.config.DataVersionRegistry;
+import com.CSSEProject.SmartWasteManagement.dto.ScheduleChangeDto;
+import com.CSSEProject.SmartWasteManagement.waste.entity.BinStatus;
+import com.CSSEProject.SmartWasteManagement.waste.entity.BinType;
+import com.CSSEProject.SmartWasteManagement.waste.entity.WasteBin;
+import com.CSSEProject.SmartWasteManagement.waste.repository.ScheduleJdbcRepository;
+import com.CSSEProject.SmartWasteManagement.waste.repository.ScheduleJdbcRepository.NewSchedule;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@Import({ScheduleFeedService.class, ScheduleJdbcRepository.class, DataVersionRegistry.class})
+class ScheduleFeedServiceTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private ScheduleFeedService scheduleFeedService;
+
+    @Autowired
+    private ScheduleJdbcRepository scheduleJdbcRepository;
+
+    private final LocalDate today = LocalDate.now();
+
+    @BeforeEach
+    void setUp() {
+        for (String binId : List.of("FEED-1", "FEED-2", "FEED-3", "FEED-4")) {
+            persistBin(binId);
+        }
+        entityManager.flush();
+        scheduleJdbcRepository.insertPendingSchedules(List.of(
+                new NewSchedule("FEED-1", today, null),
+                new NewSchedule("FEED-2", today, null),
+                new NewSchedule("FEED-3", today, null)), 100);
+        // The feed outlives each test's rollback
+        scheduleFeedService.invalidate(today);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void changesSince_AfterCancelDeferAndInsert_ShouldReturnOnlyThoseChanges() {
+        // Arrange: the device holds the full snapshot
+        Map<String, Object> snapshot = scheduleFeedService.changesSince(today, 0);
+        long version = (Long) snapshot.get("version");
+        scheduleJdbcRepository.cancelPendingForBins(List.of("FEED-1"), today, today);
+        Long feed2 = ((List<ScheduleChangeDto>) snapshot.get("changes")).stream()
+                .filter(change -> "FEED-2".equals(change.getSchedule().getBinId()))
+                .findFirst().orElseThrow().getSchedule().getId();
+        scheduleJdbcRepository.deferSchedules(List.of(feed2), today, today.plusDays(1));
+        scheduleJdbcRepository.insertPendingSchedules(List.of(new NewSchedule("FEED-4", today, null)), 100);
+        scheduleFeedService.invalidate(today);
+
+        // Act
+        Map<String, Object> delta = scheduleFeedService.changesSince(today, version);
+
+        // Assert
+        assertEquals(true, snapshot.get("full"));
+        assertEquals(3, ((List<ScheduleChangeDto>) snapshot.get("changes")).size());
+        assertEquals(false, delta.get("full"));
+        assertTrue((Long) delta.get("version") > version);
+        Map<String, String> changes = ((List<ScheduleChangeDto>) delta.get("changes")).stream()
+                .collect(Collectors.toMap(change -> change.getSchedule().getBinId(), ScheduleChangeDto::getChange));
+        assertEquals(Map.of("FEED-1", ScheduleFeedService.UPDATED,
+                "FEED-2", ScheduleFeedService.REMOVED,
+                "FEED-4", ScheduleFeedService.ADDED), changes);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void changesSince_WithCurrentOrUnknownVersion_ShouldReturnNothingOrFullSnapshot() {
+        // Arrange
+        long version = scheduleFeedService.currentVersion(today);
+        scheduleFeedService.invalidate(today);
+
+        // Act
+        Map<String, Object> unchanged = scheduleFeedService.changesSince(today, version);
+        Map<String, Object> stale = scheduleFeedService.changesSince(today, version - 1);
+
+        // Assert
+        assertEquals(version, unchanged.get("version"));
+        assertTrue(((List<ScheduleChangeDto>) unchanged.get("changes")).isEmpty());
+        assertEquals(true, stale.get("full"));
+        assertEquals(3, ((List<ScheduleChangeDto>) stale.get("changes")).size());
+    }
+
+    private void persistBin(String binId) {
+        WasteBin bin = new WasteBin();
+        bin.setBinId(binId);
+        bin.setLocation("Feed Lane");
+        bin.setLatitude(6.9);
+        bin.setLongitude(79.86);
+        bin.setBinType(BinType.GENERAL_WASTE);
+        bin.setCapacity(120.0);
+        bin.setStatus(BinStatus.ACTIVE);
+        entityManager.persist(bin);
+    }
+}
@@ -0,0 +1,120 @@
+package com.CSSEProject.SmartWasteManagement.waste.service;
+
+import com.CSSEProject.SmartWasteManagement.config.DataVersionRegistry;
+import com.CSSEProject.SmartWasteManagement.dto.BulkScheduleRequestDto;
+import com.CSSEProject.SmartWasteManagement.waste.entity.*;
+import com.CSSEProject.SmartWasteManagement.waste.repository.CollectionScheduleRepository;
+import com.CSSEProject.SmartWasteManagement.waste.repository.ScheduleJdbcRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@Import({ScheduleService.class, ScheduleFeedService.class, ScheduleJdbcRepository.class, DataVersionRegistry.class})
+class ScheduleServiceTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private ScheduleService scheduleService;
+
+    @Autowired
+    private CollectionScheduleRepository collectionScheduleRepository;
+
+    private final LocalDate tomorrow = LocalDate.now().plusDays(1);
+
+    @BeforeEach
+    void setUp() {
+        persistBin("KANDY-1", "12 Temple Road, Kandy", 7.29, 80.63, BinStatus.ACTIVE);
+        persistBin("KANDY-2", "40 Lake Drive, Kandy", 7.30, 80.64, BinStatus.NEEDS_EMPTYING);
+        persistBin("KANDY-OLD", "1 Old Road, Kandy", 7.30, 80.63, BinStatus.DECOMMISSIONED);
+        persistBin("GALLE-1", "5 Fort Street, Galle", 6.03, 80.22, BinStatus.ACTIVE);
+        entityManager.flush();
+    }
+
+    @Test
+    void createBulkSchedules_WithBinListAndFilter_ShouldScheduleMatchingBinsOnce() {
+        // Arrange: KANDY-1 already has a pickup tomorrow
+        scheduleService.createBulkSchedules(request(List.of("KANDY-1"), null, tomorrow));
+        BulkScheduleRequestDto request = request(List.of("KANDY-1", "KANDY-2", "KANDY-OLD", "GALLE-1", "MISSING"), "kandy", tomorrow);
+
+        // Act
+        Map<String, Object> summary = scheduleService.createBulkSchedules(request);
+
+        // Assert
+        assertEquals(2, summary.get("binsMatched"));
+        assertEquals(1, summary.get("alreadyScheduled"));
+        assertEquals(1, summary.get("schedulesCreated"));
+        assertEquals(List.of("KANDY-OLD", "GALLE-1", "MISSING"), summary.get("unmatchedBinIds"));
+        assertEquals(1, collectionScheduleRepository.findByWasteBinBinId("KANDY-1").size());
+        assertEquals(1, collectionScheduleRepository.findByWasteBinBinId("KANDY-2").size());
+        assertTrue(collectionScheduleRepository.findByWasteBinBinId("GALLE-1").isEmpty());
+    }
+
+    @Test
+    void cancelBulkSchedules_WithZoneBoxAndRange_ShouldCancelOnlyPendingInside() {
+        // Arrange: pickups on +1 and +10 for every bin
+        BulkScheduleRequestDto all = request(null, null, tomorrow);
+        all.setStatus(BinStatus.ACTIVE);
+        scheduleService.createBulkSchedules(all);
+        all.setScheduledDate(tomorrow.plusDays(9));
+        scheduleService.createBulkSchedules(all);
+        BulkScheduleRequestDto cancel = request(null, null, null);
+        cancel.setMinLatitude(7.0);
+        cancel.setMinLongitude(80.5);
+        cancel.setMaxLatitude(7.5);
+        cancel.setMaxLongitude(80.8);
+        cancel.setFromDate(tomorrow);
+        cancel.setToDate(tomorrow.plusDays(2));
+
+        // Act
+        Map<String, Object> summary = scheduleService.cancelBulkSchedules(cancel);
+        entityManager.clear();
+
+        // Assert: only KANDY-1 is ACTIVE inside the box; its +10 pickup and Galle's stay pending
+        assertEquals(3, summary.get("binsMatched"));
+        assertEquals(1, summary.get("schedulesCancelled"));
+        List<CollectionSchedule> kandy = collectionScheduleRepository.findByWasteBinBinId("KANDY-1");
+        assertEquals(ScheduleStatus.CANCELLED, kandy.stream().filter(s -> s.getScheduledDate().equals(tomorrow)).findFirst().orElseThrow().getStatus());
+        assertEquals(ScheduleStatus.PENDING, kandy.stream().filter(s -> s.getScheduledDate().equals(tomorrow.plusDays(9))).findFirst().orElseThrow().getStatus());
+        assertTrue(collectionScheduleRepository.findByWasteBinBinId("GALLE-1").stream().allMatch(s -> s.getStatus() == ScheduleStatus.PENDING));
+    }
+
+    @Test
+    void createBulkSchedules_WithoutBinsOrFilter_ShouldThrowException() {
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> scheduleService.createBulkSchedules(request(null, null, tomorrow)));
+    }
+
+    private BulkScheduleRequestDto request(List<String> binIds, String locationContains, LocalDate date) {
+        BulkScheduleRequestDto request = new BulkScheduleRequestDto();
+        request.setBinIds(binIds);
+        request.setLocationContains(locationContains);
+        request.setScheduledDate(date);
+        return request;
+    }
+
+    private void persistBin(String binId, String location, double latitude, double longitude, BinStatus status) {
+        WasteBin bin = new WasteBin();
+        bin.setBinId(binId);
+        bin.setLocation(location);
+        bin.setLatitude(latitude);
+        bin.setLongitude(longitude);
+        bin.setBinType(BinType.GENERAL_WASTE);
+        bin.setCapacity(120.0);
+        bin.setStatus(status);
+        entityManager.persist(bin);
+    }
+}
@@ -0,0 +1,142 @@
+package com.CSSEProject.SmartWasteManagement.waste.service;
+
+import com.CSSEProject.SmartWasteManagement.dto.TruckPositionDto;
+import com.CSSEProject.SmartWasteManagement.waste.entity.CollectionTruck;
+import com.CSSEProject.SmartWasteManagement.waste.repository.CollectionTruckRepository;
+import com.CSSEProject.SmartWasteManagement.waste.repository.TruckTrackJdbcRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@Import({TruckPositionService.class, TruckTrackJdbcRepository.class})
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD) // fresh positions and counters per test
+class TruckPositionServiceTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private TruckPositionService truckPositionService;
+
+    @Autowired
+    private CollectionTruckRepository collectionTruckRepository;
+
+    private final LocalDateTime start = LocalDateTime.now().minusHours(1).withNano(0);
+
+    @BeforeEach
+    void setUp() {
+        persistTruck("TRUCK-1", true);
+        persistTruck("TRUCK-2", true);
+        persistTruck("RETIRED", false);
+        entityManager.flush();
+    }
+
+    @Test
+    void ingest_ShouldKeepNewestFixPerTruckAndRejectInvalidOnes() {
+        // Arrange
+        List<TruckPositionDto> fixes = List.of(
+                fix("TRUCK-1", 6.900, 79.850, start.plusSeconds(10)),
+                fix("TRUCK-1", 6.901, 79.851, start),                // older: applied first, latest stays put
+                fix("TRUCK-2", 6.950, 79.860, start),
+                fix("RETIRED", 6.950, 79.860, start),
+                fix("TRUCK-2", 95.0, 79.860, start),
+                fix("TRUCK-2", 6.950, 79.860, LocalDateTime.now().plusHours(1)));
+
+        // Act
+        Map<Integer, String> rejected = truckPositionService.ingest(fixes);
+
+        // Assert
+        assertEquals(List.of(3, 4, 5), new ArrayList<>(rejected.keySet()));
+        List<TruckPositionDto> positions = truckPositionService.getAllPositions();
+        assertEquals(2, positions.size());
+        assertEquals(6.900, positions.get(0).getLatitude());
+        assertEquals(start.plusSeconds(10), positions.get(0).getRecordedAt());
+        assertEquals(0L, truckPositionService.getStats().get("outOfOrder"));
+    }
+
+    @Test
+    void ingest_UnsortedAndLateBatches_ShouldKeepEveryTrackPoint() {
+        // Arrange: a batch out of time order, then a late batch older than the latest fix
+        truckPositionService.ingest(List.of(
+                fix("TRUCK-1", 6.920, 79.850, start.plusMinutes(2)),
+                fix("TRUCK-1", 6.900, 79.850, start),
+                fix("TRUCK-1", 6.910, 79.850, start.plusMinutes(1))));
+        truckPositionService.ingest(List.of(fix("TRUCK-1", 6.930, 79.850, start.plusSeconds(90))));
+
+        // Act
+        int written = truckPositionService.flush();
+
+        // Assert: all four on the track, the newest is still the latest position
+        assertEquals(4, written);
+        List<TruckPositionDto> track = truckPositionService.getTrack("TRUCK-1", start, start.plusMinutes(10));
+        assertEquals(4, track.size());
+        assertEquals(start.plusMinutes(2), truckPositionService.getPosition("TRUCK-1").orElseThrow().getRecordedAt());
+        assertEquals(1L, truckPositionService.getStats().get("outOfOrder"));
+    }
+
+    @Test
+    void flush_ShouldWriteDownsampledTrackAndLatestPosition() {
+        // Arrange: one fix per second for ten minutes, creeping 1 m per second
+        List<TruckPositionDto> fixes = new ArrayList<>();
+        for (int second = 0; second < 600; second++) {
+            fixes.add(fix("TRUCK-1", 6.9 + second * 0.000009, 79.85, start.plusSeconds(second)));
+        }
+        truckPositionService.ingest(fixes);
+
+        // Act
+        int written = truckPositionService.flush();
+
+        // Assert: a point every 30 s, and the truck row holds the last fix
+        assertEquals(20, written);
+        List<TruckPositionDto> track = truckPositionService.getTrack("TRUCK-1", start, start.plusMinutes(10));
+        assertEquals(20, track.size());
+        assertEquals(start, track.get(0).getRecordedAt());
+        entityManager.clear();
+        CollectionTruck truck = collectionTruckRepository.findByTruckId("TRUCK-1").orElseThrow();
+        assertEquals(start.plusSeconds(599), truck.getLastLocationUpdate());
+        assertTrue(truck.getCurrentLocation().startsWith("6.905"));
+    }
+
+    @Test
+    void loadLastPositions_ShouldRestoreTrucksWithoutQueuingWrites() {
+        // Arrange: TRUCK-1 has a position from before the restart
+        CollectionTruck truck = collectionTruckRepository.findByTruckId("TRUCK-1").orElseThrow();
+        truck.setCurrentLocation("6.9, 79.85");
+        truck.setLastLocationUpdate(start);
+        entityManager.flush();
+
+        // Act
+        truckPositionService.loadLastPositions();
+
+        // Assert
+        assertEquals(start, truckPositionService.getPosition("TRUCK-1").orElseThrow().getRecordedAt());
+        assertEquals(0, truckPositionService.flush());
+        assertEquals(0L, truckPositionService.getStats().get("trackPointsKept"));
+    }
+
+    private static TruckPositionDto fix(String truckId, double latitude, double longitude, LocalDateTime at) {
+        return new TruckPositionDto(truckId, latitude, longitude, 20.0, 90.0, at);
+    }
+
+    private void persistTruck(String truckId, boolean active) {
+        CollectionTruck truck = new CollectionTruck();
+        truck.setTruckId(truckId);
+        truck.setActive(active);
+        truck.setLastLocationUpdate(null);
+        entityManager.persist(truck);
+    }
+}
@@ -14,6 +14,7 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 
 import java.time.LocalDate;
 import java.util.Arrays;
@@ -38,6 +39,15 @@ class WasteBinServiceTest {
     @Mock
     private UserService userService;
 
+    @Mock
+    private LevelHistoryService levelHistoryService;
+
+    @Mock
+    private BinLocationService binLocationService;
+
+    @Mock
+    private BinStatusCounters binStatusCounters;
+
     @InjectMocks
     private WasteBinService wasteBinService;
 
@@ -123,7 +133,19 @@ class WasteBinServiceTest {
         assertNotNull(result);
         assertEquals(85.0, result.getCurrentLevel());
         assertEquals(BinStatus.NEEDS_EMPTYING, result.getStatus());
+        verify(binStatusCounters).statusChanged("Colombo", BinStatus.ACTIVE, BinStatus.NEEDS_EMPTYING);
         verify(wasteBinRepository).findById("BIN-001");
         verify(wasteBinRepository).save(any(WasteBin.class));
     }
+
+    @Test
+    void updateBinLevel_WhenSaveFails_ShouldNotRecordHistoryOrMoveStatusCounters() {
+        // Arrange
+        when(wasteBinRepository.findById("BIN-001")).thenReturn(Optional.of(mockBin));
+        when(wasteBinRepository.save(any(WasteBin.class))).thenThrow(new ObjectOptimisticLockingFailureException(WasteBin.class, "BIN-001"));
+
+        // Act & Assert
+        assertThrows(ObjectOptimisticLockingFailureException.class, () -> wasteBinService.updateBinLevel("BIN-001", 85.0));
+        verifyNoInteractions(levelHistoryService, binStatusCounters);
+    }
 }